@@ -0,0 +1,279 @@
+package ro.isdc.wro.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+/**
+ * Ensure that the {@link AbstractLoadingCacheStrategyDecorator#loadValue(Object)} will be called only once for the same
+ * key. Unlike {@link AbstractSynchronizedCacheStrategyDecorator}, no lock is acquired when the value is already cached.
+ * Concurrent requests for a missing key are joined on the same {@link FutureTask}, which is discarded as soon as the
+ * value is loaded. This way no state is kept for a key once its value is in the cache.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public abstract class AbstractLoadingCacheStrategyDecorator<K, V>
+    extends CacheStrategyDecorator<K, V> {
+  private static final Logger LOG = LoggerFactory.getLogger(AbstractLoadingCacheStrategyDecorator.class);
+  /**
+   * Holds the loads in progress. An entry is removed as soon as the load is complete.
+   */
+  private final ConcurrentMap<K, LoadingTask> loadingTasks = new ConcurrentHashMap<K, LoadingTask>();
+  /**
+   * Incremented each time the cache is cleared. Used to discard the values refreshed before the cache was cleared.
+   */
+  private final AtomicInteger generation = new AtomicInteger();
+
+  public AbstractLoadingCacheStrategyDecorator(final CacheStrategy<K, V> decorated) {
+    super(decorated);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public V get(final K key) {
+    Validate.notNull(key);
+    LOG.debug("Searching cache key: {}", key);
+    final V value = getDecoratedObject().get(key);
+    if (value != null) {
+      onHit(key);
+      return value;
+    }
+    return load(key);
+  }
+
+  /**
+   * Loads the value for a missed key. Only the first thread computes the value, all other threads requesting the same
+   * key wait for the same result.
+   */
+  private V load(final K key) {
+    final LoadingTask task = new LoadingTask(key);
+    final LoadingTask inProgress = loadingTasks.putIfAbsent(key, task);
+    if (inProgress != null) {
+      LOG.debug("Joining the load in progress for key: {}", key);
+      inProgress.addWaiter();
+      return inProgress.join();
+    }
+    final long start = System.currentTimeMillis();
+    try {
+      task.run();
+      return task.join();
+    } finally {
+      loadingTasks.remove(key, task);
+      onLoadComplete(key, task.getWaiters(), System.currentTimeMillis() - start);
+    }
+  }
+
+  /**
+   * Registers a callback invoked when the load in progress for the provided key is complete (successfully or not). The
+   * callback is invoked by the thread performing the load, thus it should not perform slow operations.
+   *
+   * @param key
+   *          the key whose load is awaited.
+   * @param callback
+   *          invoked when the load is complete.
+   * @return true if the callback was registered, false if there is no load in progress for the key (the callback is
+   *         not invoked in this case).
+   */
+  public boolean whenLoaded(final K key, final Runnable callback) {
+    Validate.notNull(key);
+    Validate.notNull(callback);
+    final LoadingTask task = loadingTasks.get(key);
+    return task != null && task.addCallback(callback);
+  }
+
+  /**
+   * @return true if the value of the provided key is being loaded.
+   */
+  public boolean isLoading(final K key) {
+    return loadingTasks.containsKey(key);
+  }
+
+  /**
+   * Reloads the value of an already cached key. The cached value remains available for concurrent requests until the
+   * new value is loaded, when it is atomically replaced. If the key is not cached or is currently loading, nothing
+   * happens, since the next request will load a fresh value anyway.
+   *
+   * @param key
+   *          the key whose value should be reloaded.
+   * @return true if the value was reloaded.
+   */
+  public boolean refresh(final K key) {
+    Validate.notNull(key);
+    if (getDecoratedObject().get(key) == null || loadingTasks.containsKey(key)) {
+      LOG.debug("Skip refresh of key: {}", key);
+      return false;
+    }
+    final int initialGeneration = generation.get();
+    final long start = System.currentTimeMillis();
+    final V value = loadValue(key);
+    if (initialGeneration != generation.get()) {
+      LOG.debug("Cache was cleared during refresh of key: {}. Discarding refreshed value.", key);
+      return false;
+    }
+    put(key, value);
+    LOG.debug("Refresh of key: {} completed in {}ms", key, System.currentTimeMillis() - start);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clear() {
+    generation.incrementAndGet();
+    super.clear();
+  }
+
+  /**
+   * Invoked when a requested value is found in the decorated cache. Not invoked for the lookups performed while loading
+   * or refreshing a value. The default implementation does nothing.
+   */
+  protected void onHit(final K key) {
+  }
+
+  /**
+   * Invoked after a load is complete (successfully or not). The default implementation only logs the provided values.
+   *
+   * @param key
+   *          the key whose value was loaded.
+   * @param waiters
+   *          the number of concurrent requests which joined this load instead of loading the value on their own.
+   * @param loadTime
+   *          the time (in milliseconds) spent for loading the value.
+   */
+  protected void onLoadComplete(final K key, final int waiters, final long loadTime) {
+    LOG.debug("Load of key: {} completed in {}ms. Concurrent waiters: " + waiters, key, loadTime);
+  }
+
+  /**
+   * @return a number incremented each time the cache is cleared.
+   */
+  public final int getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * @return the number of loads in progress.
+   * @VisibleForTesting
+   */
+  final int getLoadingCount() {
+    return loadingTasks.size();
+  }
+
+  /**
+   * Loads the value associated with the key. This is a potential slow operation which will be prevented to be called
+   * multiple times for the same key.
+   */
+  protected abstract V loadValue(final K key);
+
+  /**
+   * A task responsible for loading a value and counting the requests which wait for its result.
+   */
+  private final class LoadingTask
+      extends FutureTask<V> {
+    private final AtomicInteger waiters = new AtomicInteger();
+    /**
+     * Invoked when the load is complete. Guarded by this task.
+     */
+    private List<Runnable> callbacks;
+
+    public LoadingTask(final K key) {
+      super(new Callable<V>() {
+        public V call()
+            throws Exception {
+          // the value could have been loaded by another task after the cache was checked
+          V value = getDecoratedObject().get(key);
+          if (value == null) {
+            LOG.debug("Cache is empty. Loading new value...");
+            value = loadValue(key);
+            put(key, value);
+          }
+          return value;
+        }
+      });
+    }
+
+    /**
+     * @return false if the load is already complete, in which case the callback is not registered.
+     */
+    public synchronized boolean addCallback(final Runnable callback) {
+      if (isDone()) {
+        return false;
+      }
+      if (callbacks == null) {
+        callbacks = new ArrayList<Runnable>();
+      }
+      callbacks.add(callback);
+      return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void done() {
+      final List<Runnable> toInvoke;
+      synchronized (this) {
+        toInvoke = callbacks;
+        callbacks = null;
+      }
+      if (toInvoke != null) {
+        for (final Runnable callback : toInvoke) {
+          try {
+            callback.run();
+          } catch (final RuntimeException e) {
+            LOG.error("Load callback failed", e);
+          }
+        }
+      }
+    }
+
+    /**
+     * Registers a request which waits for the result of this task instead of loading the value.
+     */
+    public void addWaiter() {
+      waiters.incrementAndGet();
+    }
+
+    /**
+     * Waits for the load to complete and propagates the original failure if the load fails.
+     */
+    public V join() {
+      try {
+        return get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WroRuntimeException("Interrupted while waiting for the cache value", e);
+      } catch (final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new WroRuntimeException("Cannot load the cache value", cause);
+      }
+    }
+
+    /**
+     * @return the number of requests which joined this load, except the one which performs the load.
+     */
+    public int getWaiters() {
+      return waiters.get();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * A sequence of bytes (the encoded or compressed content of a {@link ContentHashEntry}) which can be written as it is.
+ * Allows the bytes to be stored outside of the heap (ex: in direct buffers).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface ContentBody {
+  /**
+   * @return the number of bytes.
+   */
+  int getLength();
+
+  /**
+   * Writes all the bytes to the provided stream. The stream is not closed.
+   */
+  void writeTo(OutputStream os)
+      throws IOException;
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Computes the compressed variants of the {@link ContentHashEntry}'s asynchronously, using a bounded pool of threads.
+ * Each entry is compressed only once. When the queue of pending entries is full, the entry is compressed by the thread
+ * which submitted it, thus the number of pending entries (and the memory they retain) is bounded.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ContentCompressor {
+  private static final Logger LOG = LoggerFactory.getLogger(ContentCompressor.class);
+  /**
+   * The maximum number of entries waiting to be compressed.
+   */
+  private static final int QUEUE_CAPACITY = 100;
+  private final ThreadPoolExecutor executor;
+
+  public ContentCompressor() {
+    this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+  }
+
+  /**
+   * @param poolSize
+   *          the maximum number of threads used for compression.
+   */
+  public ContentCompressor(final int poolSize) {
+    Validate.isTrue(poolSize > 0, "poolSize must be positive");
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(
+        QUEUE_CAPACITY), WroUtil.createDaemonThreadFactory("compressor"), new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Schedules the computation of all compressed variants of the provided entry. Does nothing if the entry is already
+   * compressed.
+   */
+  public void compress(final ContentHashEntry entry) {
+    compress(entry, null);
+  }
+
+  /**
+   * Schedules the computation of all compressed variants of the provided entry and invokes the callback once they are
+   * available. When the entry is already compressed, the callback is invoked immediately.
+   *
+   * @param callback
+   *          invoked by the compression thread after the entry is compressed. Can be null.
+   */
+  public void compress(final ContentHashEntry entry, final Runnable callback) {
+    Validate.notNull(entry);
+    if (entry.isPrecompressed()) {
+      if (callback != null) {
+        callback.run();
+      }
+      return;
+    }
+    executor.execute(new Runnable() {
+      public void run() {
+        try {
+          entry.precompress();
+          LOG.debug("Compressed variants of entry: {} are ready", entry);
+          if (callback != null) {
+            callback.run();
+          }
+        } catch (final RuntimeException e) {
+          LOG.error("Cannot compress entry: " + entry + ". The uncompressed content will be served.", e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Stops the compression threads. The pending entries are not compressed.
+   */
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
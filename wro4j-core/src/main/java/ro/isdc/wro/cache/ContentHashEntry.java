@@ -7,20 +7,31 @@ import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectStreamException;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
 
 
 /**
- * Entry holding a resource content along with its associated hash.
+ * Entry holding a resource content along with its associated hash. The content is encoded only once, when the entry is
+ * created, thus it can be served as it is, without any transformation. The headers values depending on the content
+ * (ETag and Content-Type) are also computed once.
  *
  * @author Alex Objelean
  */
@@ -28,32 +39,157 @@ import ro.isdc.wro.config.Context;
 public final class ContentHashEntry
   implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(ContentHashEntry.class);
-  private String rawContent;
-  private byte[] gzippedContent;
+  /**
+   * The gzip content coding.
+   */
+  public static final String GZIP = "gzip";
+  /**
+   * The deflate content coding.
+   */
+  public static final String DEFLATE = "deflate";
+  /**
+   * The content encoded using {@link #encoding}.
+   */
+  private ContentBody rawContent;
+  private final String encoding;
+  private volatile ContentBody gzippedContent;
+  /**
+   * The raw deflate variant, available only after {@link #precompress()} is complete.
+   */
+  private volatile ContentBody deflatedContent;
+  /**
+   * The level used to compute the precompressed variants.
+   */
+  private final int compressionLevel;
   private String hash;
+  private String etag;
+  private final String contentType;
 
-  private ContentHashEntry(final String rawContent, final String hash) {
+  private ContentHashEntry(final ContentBody rawContent, final ContentBody gzippedContent,
+      final ContentBody deflatedContent, final String encoding, final String hash, final String contentType,
+      final int compressionLevel) {
     this.rawContent = rawContent;
-    this.hash = hash;
-    //the trade-off between the memory and processing time
-    if (Context.get().getConfig().isCacheGzippedContent()) {
-      gzippedContent = computeGzippedContent(rawContent);
+    this.gzippedContent = gzippedContent;
+    this.deflatedContent = deflatedContent;
+    this.encoding = encoding;
+    this.contentType = contentType;
+    this.compressionLevel = compressionLevel;
+    setHash(hash);
+  }
+
+  private static ContentHashEntry create(final ContentBody rawContent, final ContentBody gzippedContent,
+      final ContentBody deflatedContent, final String encoding, final String hash, final String contentType) {
+    final WroConfiguration config = Context.get().getConfig();
+    final ContentHashEntry entry = new ContentHashEntry(rawContent, gzippedContent, deflatedContent, encoding, hash,
+        contentType, config.getCompressionLevel());
+    //the trade-off between the memory and processing time. When the precompression is enabled, the gzipped content is
+    //computed asynchronously by precompress(), using the configured compression level.
+    if (rawContent != null && gzippedContent == null && config.isCacheGzippedContent()
+        && !config.isPrecompressContent()) {
+      entry.gzippedContent = entry.computeGzippedContent(Deflater.DEFAULT_COMPRESSION);
     }
+    return entry;
   }
 
-  private byte[] computeGzippedContent(final String content) {
+  /**
+   * @param level
+   *          the compression level. The best compression is used only when the content is compressed asynchronously,
+   *          since it is much slower than the default level.
+   */
+  private ContentBody computeGzippedContent(final int level) {
     LOG.debug("Gzipping the content....");
     try {
       final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      final OutputStream os = new GZIPOutputStream(new BufferedOutputStream(baos));
-      IOUtils.copy(new ByteArrayInputStream(content.getBytes(Context.get().getConfig().getEncoding())), os);
+      final OutputStream os = new GZIPOutputStream(new BufferedOutputStream(baos)) {
+        {
+          def.setLevel(level);
+        }
+      };
+      rawContent.writeTo(os);
       os.close();
-      return baos.toByteArray();
+      return new HeapContentBody(baos.toByteArray());
     } catch (final IOException e) {
       throw new WroRuntimeException("Problem while computing gzipped content", e).logError();
     }
   };
 
+  private ContentBody computeDeflatedContent() {
+    LOG.debug("Deflating the content....");
+    final Deflater deflater = new Deflater(compressionLevel, true);
+    try {
+      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      final OutputStream os = new DeflaterOutputStream(baos, deflater);
+      rawContent.writeTo(os);
+      os.close();
+      return new HeapContentBody(baos.toByteArray());
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Problem while computing deflated content", e).logError();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Computes all the compressed variants of the content using the configured compression level, if not already
+   * computed. This is a potentially slow operation, which should not be invoked while serving a request.
+   */
+  public synchronized void precompress() {
+    if (rawContent != null && deflatedContent == null) {
+      if (gzippedContent == null) {
+        gzippedContent = computeGzippedContent(compressionLevel);
+      }
+      deflatedContent = computeDeflatedContent();
+    }
+  }
+
+  /**
+   * @return true if all compressed variants are computed or there is no content to compress.
+   */
+  public boolean isPrecompressed() {
+    return rawContent == null || deflatedContent != null;
+  }
+
+  /**
+   * Creates a copy of this entry sharing its raw content, but holding the provided compressed variants (ex: copies of
+   * the variants computed by {@link #precompress()}, held outside of the heap).
+   *
+   * @param gzippedContent
+   *          the gzipped content (can be null).
+   * @param deflatedContent
+   *          the raw deflated content (can be null).
+   */
+  public ContentHashEntry withCompressedBodies(final ContentBody gzippedContent, final ContentBody deflatedContent) {
+    return new ContentHashEntry(rawContent, gzippedContent, deflatedContent, encoding, hash, contentType,
+        compressionLevel);
+  }
+
+  /**
+   * Never compresses the content, thus it is safe to be used while serving a request.
+   *
+   * @param contentEncoding
+   *          the content coding ({@link #GZIP} or {@link #DEFLATE}).
+   * @return the already computed variant of the content for the provided content coding or null if it is not
+   *         available (yet).
+   */
+  public ContentBody getCompressedBody(final String contentEncoding) {
+    if (GZIP.equals(contentEncoding)) {
+      return gzippedContent;
+    }
+    if (DEFLATE.equals(contentEncoding)) {
+      return deflatedContent;
+    }
+    return null;
+  }
+
+  /**
+   * Similar to {@link #getCompressedBody(String)}, but the bytes are copied when they are not held in the heap.
+   *
+   * @return the already computed variant of the content for the provided content coding or null if it is not
+   *         available (yet).
+   */
+  public byte[] getCompressedContent(final String contentEncoding) {
+    return toByteArray(getCompressedBody(contentEncoding));
+  }
 
   /**
    * Factory method.
@@ -61,24 +197,191 @@ public final class ContentHashEntry
    * @return {@link ContentHashEntry} based on supplied values.
    */
   public static final ContentHashEntry valueOf(final String rawContent, final String hash) {
-    return new ContentHashEntry(rawContent, hash);
+    return valueOf(rawContent, hash, null);
+  }
+
+  /**
+   * Factory method. The content is encoded using the configured encoding.
+   *
+   * @param type
+   *          the type of the content, used to compute the Content-Type header. If null, no Content-Type is computed.
+   * @return {@link ContentHashEntry} based on supplied values.
+   */
+  public static final ContentHashEntry valueOf(final String rawContent, final String hash, final ResourceType type) {
+    final String encoding = Context.get().getConfig().getEncoding();
+    final String contentType = type != null ? type.getContentType() + "; charset=" + encoding : null;
+    return valueOf(encode(rawContent, encoding), encoding, hash, contentType);
+  }
+
+  /**
+   * Factory method computing the hash of the content.
+   *
+   * @param hashStrategy
+   *          used to compute the hash of the content.
+   * @param type
+   *          the type of the content, used to compute the Content-Type header. If null, no Content-Type is computed.
+   * @return {@link ContentHashEntry} based on supplied values.
+   */
+  public static final ContentHashEntry valueOfHashed(final String rawContent, final HashStrategy hashStrategy,
+      final ResourceType type) {
+    Validate.notNull(hashStrategy);
+    String hash = null;
+    try {
+      if (rawContent != null) {
+        LOG.debug("Content to fingerprint: [{}]", StringUtils.abbreviate(rawContent, 40));
+        hash = hashStrategy.getHash(new ByteArrayInputStream(rawContent.getBytes()));
+      }
+      final ContentHashEntry entry = valueOf(rawContent, hash, type);
+      LOG.debug("computed entry: {}", entry);
+      return entry;
+    } catch (final IOException e) {
+      throw new RuntimeException("Should never happen", e);
+    }
+  }
+
+  /**
+   * Factory method used when the content is already encoded (ex: when restored from a persistent storage).
+   *
+   * @param rawBytes
+   *          the encoded content. The array is not copied, thus it must not be changed after this call.
+   * @param encoding
+   *          the encoding of the rawBytes.
+   * @param contentType
+   *          the value of the Content-Type header (can be null).
+   * @return {@link ContentHashEntry} based on supplied values.
+   */
+  public static final ContentHashEntry valueOf(final byte[] rawBytes, final String encoding, final String hash,
+      final String contentType) {
+    Validate.notNull(encoding);
+    return create(rawBytes != null ? new HeapContentBody(rawBytes) : null, null, null, encoding, hash, contentType);
+  }
+
+  /**
+   * Factory method used when the content and its compressed variants are held outside of the heap. The bodies must
+   * remain readable as long as the entry is used.
+   *
+   * @param rawContent
+   *          the encoded content.
+   * @param gzippedContent
+   *          the gzipped content (can be null).
+   * @param deflatedContent
+   *          the raw deflated content (can be null).
+   * @return {@link ContentHashEntry} based on supplied values.
+   */
+  public static final ContentHashEntry valueOf(final ContentBody rawContent, final ContentBody gzippedContent,
+      final ContentBody deflatedContent, final String encoding, final String hash, final String contentType) {
+    Validate.notNull(encoding);
+    return create(rawContent, gzippedContent, deflatedContent, encoding, hash, contentType);
+  }
+
+  private static byte[] encode(final String content, final String encoding) {
+    try {
+      return content != null ? content.getBytes(encoding) : null;
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding: " + encoding, e);
+    }
   }
 
   /**
+   * @return the bytes of the body, copied only if the body is not held in the heap.
+   */
+  private static byte[] toByteArray(final ContentBody body) {
+    if (body == null) {
+      return null;
+    }
+    if (body instanceof HeapContentBody) {
+      return ((HeapContentBody) body).bytes;
+    }
+    try {
+      final ByteArrayOutputStream os = new ByteArrayOutputStream(body.getLength());
+      body.writeTo(os);
+      return os.toByteArray();
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot read content", e);
+    }
+  }
+
+  /**
+   * The content is decoded on each invocation. Prefer {@link #writeRawContent(OutputStream)} or
+   * {@link #getRawBytes()} when the content must be only written.
+   *
    * @return the content
    */
   public String getRawContent() {
-    return this.rawContent;
+    try {
+      return rawContent != null ? new String(toByteArray(rawContent), encoding) : null;
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding: " + encoding, e);
+    }
   }
 
 
   /**
    * @param rawContent the content to set
+   * @deprecated the entry should not be changed after it is cached, since the cache strategy can account its size.
    */
+  @Deprecated
   public void setRawContent(final String rawContent) {
-    this.rawContent = rawContent;
+    final byte[] rawBytes = encode(rawContent, encoding);
+    this.rawContent = rawBytes != null ? new HeapContentBody(rawBytes) : null;
+    this.gzippedContent = null;
+    this.deflatedContent = null;
+  }
+
+  /**
+   * @return true if the entry holds a content.
+   */
+  public boolean hasContent() {
+    return rawContent != null;
+  }
+
+  /**
+   * @return a read-only view of the encoded content or null if there is no content.
+   */
+  public ByteBuffer getRawBytes() {
+    return rawContent != null ? ByteBuffer.wrap(toByteArray(rawContent)).asReadOnlyBuffer() : null;
+  }
+
+  /**
+   * @return the encoded content or null if there is no content.
+   */
+  public ContentBody getRawBody() {
+    return rawContent;
+  }
+
+  /**
+   * @return the number of bytes of the encoded content or 0 if there is no content.
+   */
+  public int getRawLength() {
+    return rawContent != null ? rawContent.getLength() : 0;
+  }
+
+  /**
+   * Writes the encoded content with a single write operation.
+   *
+   * @param os
+   *          the stream where the content is written.
+   */
+  public void writeRawContent(final OutputStream os)
+      throws IOException {
+    if (rawContent != null) {
+      rawContent.writeTo(os);
+    }
+  }
+
+  /**
+   * @return the encoding of the content.
+   */
+  public String getEncoding() {
+    return this.encoding;
   }
 
+  /**
+   * @return the value of the Content-Type header or null if the type of the content is unknown.
+   */
+  public String getContentType() {
+    return this.contentType;
+  }
 
   /**
    * @return the hash
@@ -93,23 +396,61 @@ public final class ContentHashEntry
    */
   public void setHash(final String hash) {
     this.hash = hash;
+    // enclose etag value in quotes to be compliant with the RFC
+    this.etag = "\"" + hash + "\"";
   }
 
   /**
-   * @return the gzippedContent
+   * @return the value of the ETag header.
+   */
+  public String getETag() {
+    return this.etag;
+  }
+
+  /**
+   * @return the gzippedContent, compressed using the default compression level if not already computed.
    */
   public byte[] getGzippedContent() {
-    if (gzippedContent == null) {
-      return computeGzippedContent(rawContent);
-    }
-    return this.gzippedContent;
+    final ContentBody gzipped = gzippedContent;
+    return toByteArray(gzipped == null ? computeGzippedContent(Deflater.DEFAULT_COMPRESSION) : gzipped);
+  }
+
+  /**
+   * @return the approximate number of bytes currently retained by this entry: the encoded content and its compressed
+   *         variants, when they are cached.
+   */
+  public long getWeight() {
+    final ContentBody gzipped = gzippedContent;
+    final ContentBody deflated = deflatedContent;
+    return getRawLength() + (gzipped != null ? gzipped.getLength() : 0)
+        + (deflated != null ? deflated.getLength() : 0);
   }
 
   /**
    * Used by unit test to prove that gzipped content is cached only when required.
    */
   byte[] getGzippedContentInternal() {
-    return this.gzippedContent;
+    return toByteArray(gzippedContent);
+  }
+
+  /**
+   * The bodies held outside of the heap are not serializable, thus they are replaced with heap copies.
+   */
+  private Object writeReplace()
+      throws ObjectStreamException {
+    if (isHeapBody(rawContent) && isHeapBody(gzippedContent) && isHeapBody(deflatedContent)) {
+      return this;
+    }
+    return new ContentHashEntry(heapCopy(rawContent), heapCopy(gzippedContent), heapCopy(deflatedContent), encoding,
+        hash, contentType, compressionLevel);
+  }
+
+  private static boolean isHeapBody(final ContentBody body) {
+    return body == null || body instanceof HeapContentBody;
+  }
+
+  private static ContentBody heapCopy(final ContentBody body) {
+    return isHeapBody(body) ? body : new HeapContentBody(toByteArray(body));
   }
 
   /**
@@ -119,4 +460,31 @@ public final class ContentHashEntry
   public String toString() {
     return "hash: " + hash;
   }
+
+  /**
+   * A body holding the bytes in the heap.
+   */
+  private static final class HeapContentBody
+      implements ContentBody, Serializable {
+    private final byte[] bytes;
+
+    HeapContentBody(final byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getLength() {
+      return bytes.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void writeTo(final OutputStream os)
+        throws IOException {
+      os.write(bytes, 0, bytes.length);
+    }
+  }
 }
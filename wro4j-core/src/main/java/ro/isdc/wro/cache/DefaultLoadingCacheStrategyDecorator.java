@@ -0,0 +1,236 @@
+package ro.isdc.wro.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.GroupsProcessor;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
+import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Responsible for invoking {@link GroupsProcessor} when cache key is missed. Concurrent requests of the same missed key
+ * are served by a single invocation of the {@link GroupsProcessor}.
+ * <p/>
+ * When {@link WroConfiguration#isBackgroundCacheRefresh()} is true, the cached entries can be rebuilt in the background
+ * (see {@link #refreshInBackground()}) while the stale entries are still served. Since the processing of a group
+ * depends on the request which triggered it, a detached snapshot of the {@link Context} is kept for each cached key.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class DefaultLoadingCacheStrategyDecorator
+    extends AbstractLoadingCacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(DefaultLoadingCacheStrategyDecorator.class);
+  @Inject
+  private GroupsProcessor groupsProcessor;
+  @Inject
+  private HashStrategy hashBuilder;
+  @Inject
+  private ResourceAuthorizationManager authorizationManager;
+  @Inject
+  private WroConfiguration config;
+  @Inject
+  private CacheStatistics statistics;
+  @Inject
+  private CacheDependencies dependencies;
+  /**
+   * The detached contexts used to rebuild the cached entries outside of the request cycle.
+   */
+  private final Map<CacheEntry, Context> refreshContexts = new ConcurrentHashMap<CacheEntry, Context>();
+  /**
+   * Flag preventing the concurrent execution of multiple background refresh passes.
+   */
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  /**
+   * Single thread executor running the background refresh, created only when the refresh is triggered.
+   */
+  private ExecutorService refreshExecutor;
+  /**
+   * Computes the compressed variants of the loaded entries, created only when precompression is enabled.
+   */
+  private ContentCompressor compressor;
+
+  public DefaultLoadingCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy) {
+    super(cacheStrategy);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ContentHashEntry loadValue(final CacheEntry key) {
+    LOG.debug("load value in cache for key: {}", key);
+    if (config != null && config.isBackgroundCacheRefresh() && Context.isContextSet()) {
+      refreshContexts.put(key, Context.detachedContext(Context.get()));
+    }
+    final long version = dependencies != null ? dependencies.getVersion() : 0;
+    final Set<String> uris = new LinkedHashSet<String>();
+    final ContentHashEntry entry = loadEntry(key, uris);
+    if (dependencies != null) {
+      dependencies.record(key, uris, version);
+    }
+    if (config != null && config.isPrecompressContent()) {
+      getCompressor().compress(entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Processes the group of the entry. Invoked once per miss, by the thread performing the load.
+   *
+   * @param uris
+   *          collects the uri's of the resources located during processing, recorded as the dependencies of the entry.
+   * @return the processed entry.
+   */
+  protected ContentHashEntry loadEntry(final CacheEntry key, final Collection<String> uris) {
+    final LocatedUriRecorder recorder = LocatedUriRecorder.start();
+    try {
+      final String content = groupsProcessor.process(key);
+      LOG.debug("found content: {}", StringUtils.abbreviate(content, 30));
+      uris.addAll(recorder.getUris());
+      return ContentHashEntry.valueOfHashed(content, hashBuilder, key.getType());
+    } finally {
+      recorder.stop();
+    }
+  }
+
+  private synchronized ContentCompressor getCompressor() {
+    if (compressor == null) {
+      compressor = new ContentCompressor();
+    }
+    return compressor;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void onHit(final CacheEntry key) {
+    if (statistics != null) {
+      statistics.recordHit(key);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void onLoadComplete(final CacheEntry key, final int waiters, final long loadTime) {
+    super.onLoadComplete(key, waiters, loadTime);
+    if (statistics != null) {
+      statistics.recordLoad(key, waiters + 1, loadTime);
+    }
+  }
+
+  /**
+   * Rebuilds asynchronously all the cached entries, one by one. Each entry is replaced only after its new value is
+   * computed, thus the stale value (and its ETag) is served until then. In order to limit the impact on request
+   * processing, the refresh thread pauses after each entry for as long as the entry took to be rebuilt. If a refresh is
+   * already in progress, this call is ignored.
+   */
+  public void refreshInBackground() {
+    if (!refreshing.compareAndSet(false, true)) {
+      LOG.debug("Background refresh already in progress");
+      return;
+    }
+    try {
+      getRefreshExecutor().submit(new Runnable() {
+        public void run() {
+          try {
+            refreshAll();
+          } finally {
+            refreshing.set(false);
+          }
+        }
+      });
+    } catch (final RuntimeException e) {
+      refreshing.set(false);
+      throw e;
+    }
+  }
+
+  private synchronized ExecutorService getRefreshExecutor() {
+    if (refreshExecutor == null) {
+      refreshExecutor = Executors.newSingleThreadExecutor(WroUtil.createDaemonThreadFactory("cacheRefresh"));
+    }
+    return refreshExecutor;
+  }
+
+  /**
+   * Rebuilds sequentially all the entries having a detached context.
+   */
+  private void refreshAll() {
+    LOG.debug("Refreshing {} cached entries", refreshContexts.size());
+    for (final Map.Entry<CacheEntry, Context> entry : refreshContexts.entrySet()) {
+      final Context context = entry.getValue();
+      final long start = System.currentTimeMillis();
+      Context.set(context, context.getConfig());
+      try {
+        if (!refresh(entry.getKey())) {
+          // the entry is not cached anymore, its context is not needed.
+          refreshContexts.remove(entry.getKey());
+        }
+      } catch (final Exception e) {
+        LOG.error("Cannot refresh cache entry: " + entry.getKey() + ". The stale value will be served.", e);
+      } finally {
+        Context.unset();
+      }
+      try {
+        Thread.sleep(System.currentTimeMillis() - start);
+      } catch (final InterruptedException e) {
+        LOG.debug("Background refresh interrupted");
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clear() {
+    super.clear();
+    refreshContexts.clear();
+    // reset authorization manager (clear any stored uri's).
+    authorizationManager.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void destroy() {
+    synchronized (this) {
+      if (refreshExecutor != null) {
+        refreshExecutor.shutdownNow();
+        refreshExecutor = null;
+      }
+      if (compressor != null) {
+        compressor.destroy();
+        compressor = null;
+      }
+    }
+    refreshContexts.clear();
+    super.destroy();
+  }
+}
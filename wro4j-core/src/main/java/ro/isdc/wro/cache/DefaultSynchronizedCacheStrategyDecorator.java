@@ -1,8 +1,5 @@
 package ro.isdc.wro.cache;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +15,9 @@ import ro.isdc.wro.model.resource.support.hash.HashStrategy;
  * @author Alex Objelean
  * @crated 2 May 2012
  * @since 1.4.6
+ * @deprecated use {@link DefaultLoadingCacheStrategyDecorator} which doesn't lock when the value is already cached.
  */
+@Deprecated
 public class DefaultSynchronizedCacheStrategyDecorator extends AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry> {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultSynchronizedCacheStrategyDecorator.class);
   @Inject
@@ -40,27 +39,9 @@ public class DefaultSynchronizedCacheStrategyDecorator extends AbstractSynchroni
     LOG.debug("load value in cache for key: {}", key);
     final String content = groupsProcessor.process(key);
     LOG.debug("found content: {}", StringUtils.abbreviate(content, 30));
-    return computeCacheValueByContent(content);
+    return ContentHashEntry.valueOfHashed(content, hashBuilder, null);
   }
 
-  /**
-   * Creates a {@link ContentHashEntry} based on provided content.
-   */
-  private ContentHashEntry computeCacheValueByContent(final String content) {
-    String hash = null;
-    try {
-      if (content != null) {
-        LOG.debug("Content to fingerprint: [{}]", StringUtils.abbreviate(content, 40));
-        hash = hashBuilder.getHash(new ByteArrayInputStream(content.getBytes()));
-      }
-      final ContentHashEntry entry = ContentHashEntry.valueOf(content, hash);
-      LOG.debug("computed entry: {}", entry);
-      return entry;
-    } catch (IOException e) {
-      throw new RuntimeException("Should never happen", e);
-    }
-  }
-  
   @Override
   public void clear() {
     super.clear();
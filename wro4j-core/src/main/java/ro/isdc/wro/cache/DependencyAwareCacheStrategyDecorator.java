@@ -0,0 +1,54 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.config.jmx.CacheDependencies;
+
+
+/**
+ * Hides the entries invalidated by {@link CacheDependencies} (because a resource they depend on was changed), thus
+ * they are loaded again by {@link DefaultLoadingCacheStrategyDecorator} when requested. The invalidated value is kept
+ * by the decorated strategy until it is replaced by the new one.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class DependencyAwareCacheStrategyDecorator
+    extends CacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private final CacheDependencies dependencies;
+
+  public DependencyAwareCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated,
+      final CacheDependencies dependencies) {
+    super(decorated);
+    Validate.notNull(dependencies);
+    this.dependencies = dependencies;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ContentHashEntry get(final CacheEntry key) {
+    return dependencies.isInvalid(key) ? null : super.get(key);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clear() {
+    dependencies.clear();
+    super.clear();
+  }
+
+  /**
+   * @return the dependencies of the cached entries.
+   */
+  public CacheDependencies getDependencies() {
+    return dependencies;
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.impl.BundleFileExporter;
+
+
+/**
+ * Exports each stored entry to a content addressed file using a {@link BundleFileExporter}, thus the bundles can be
+ * served from disk. The entries are still stored by the decorated {@link CacheStrategy}.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ExportingCacheStrategyDecorator
+    extends CacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(ExportingCacheStrategyDecorator.class);
+  private final BundleFileExporter exporter;
+
+  public ExportingCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated,
+      final BundleFileExporter exporter) {
+    super(decorated);
+    Validate.notNull(exporter);
+    this.exporter = exporter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    super.put(key, value);
+    if (value != null) {
+      try {
+        exporter.export(value, key.getType());
+      } catch (final RuntimeException e) {
+        LOG.warn("Cannot export the bundle of entry: " + key, e);
+      }
+    }
+  }
+}
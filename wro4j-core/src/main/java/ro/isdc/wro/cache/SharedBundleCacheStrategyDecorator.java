@@ -0,0 +1,213 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
+
+
+/**
+ * Loads the missing entries from a {@link SharedBundleStore} and publishes the processed entries in the same store,
+ * thus a bundle is processed only once in a cluster. The store is used only by the thread loading a missing entry,
+ * thus the key of a bundle is computed once per miss, even if the entry is requested concurrently.
+ * <p/>
+ * The entries are published under content addressed keys. The first one is a hash of the group, type and minimize flag
+ * of the entry, of the uri and content of each resource of the group, of the processor class names and of the
+ * encoding. Under this key are published the uri's of all the resources used to process the entry (including the ones
+ * imported by the css resources or embedded as data uri's). The bundle itself is published under a hash of the first
+ * key and of the content of all these resources. This way the nodes running a different version of any of the
+ * resources never share the bundles. The options of the processors are not part of the key, thus all the nodes sharing
+ * a store must use the same processor options.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class SharedBundleCacheStrategyDecorator
+    extends DefaultLoadingCacheStrategyDecorator {
+  private static final Logger LOG = LoggerFactory.getLogger(SharedBundleCacheStrategyDecorator.class);
+  private static final String CHARSET = "UTF-8";
+  private static final String SEPARATOR = "\n";
+  @Inject
+  private WroModelFactory modelFactory;
+  @Inject
+  private UriLocatorFactory uriLocatorFactory;
+  @Inject
+  private ProcessorsFactory processorsFactory;
+  @Inject
+  private HashStrategy hashStrategy;
+  @Inject
+  private WroConfiguration config;
+  private final SharedBundleStore store;
+
+  public SharedBundleCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated,
+      final SharedBundleStore store) {
+    super(decorated);
+    Validate.notNull(store);
+    this.store = store;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ContentHashEntry loadEntry(final CacheEntry key, final Collection<String> uris) {
+    final String sharedKey = computeSharedKey(key);
+    if (sharedKey == null) {
+      return super.loadEntry(key, uris);
+    }
+    final List<String> dependencies = getSharedDependencies(sharedKey);
+    if (dependencies != null) {
+      final String bundleKey = computeBundleKey(sharedKey, dependencies);
+      final ContentHashEntry value = bundleKey != null ? getShared(bundleKey) : null;
+      if (value != null) {
+        LOG.debug("Found shared bundle for entry: {}", key);
+        uris.addAll(dependencies);
+        return value;
+      }
+    }
+    final ContentHashEntry value = super.loadEntry(key, uris);
+    publish(key, sharedKey, new ArrayList<String>(uris), value);
+    return value;
+  }
+
+  private void publish(final CacheEntry key, final String sharedKey, final List<String> dependencies,
+      final ContentHashEntry value) {
+    final String bundleKey = computeBundleKey(sharedKey, dependencies);
+    if (bundleKey == null) {
+      return;
+    }
+    try {
+      store.put(sharedKey, ContentHashEntry.valueOf(StringUtils.join(dependencies, SEPARATOR).getBytes(CHARSET),
+          CHARSET, null, null));
+      store.put(bundleKey, value);
+    } catch (final Exception e) {
+      LOG.warn("Cannot publish the bundle of entry: " + key, e);
+    }
+  }
+
+  /**
+   * @return the uri's of the resources used to process the bundle published under the provided key or null if no
+   *         bundle was published.
+   */
+  private List<String> getSharedDependencies(final String sharedKey) {
+    final ContentHashEntry dependencies = getShared(sharedKey);
+    if (dependencies == null) {
+      return null;
+    }
+    final String content = dependencies.getRawContent();
+    return StringUtils.isEmpty(content) ? new ArrayList<String>() : Arrays.asList(content.split(SEPARATOR));
+  }
+
+  private ContentHashEntry getShared(final String key) {
+    try {
+      return store.get(key);
+    } catch (final RuntimeException e) {
+      LOG.warn("Cannot fetch shared bundle: " + key, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the content addressed key of the entry or null if it cannot be computed (ex: a resource cannot be read),
+   *         in which case the entry is not shared.
+   * @VisibleForTesting
+   */
+  String computeSharedKey(final CacheEntry key) {
+    if (modelFactory == null || uriLocatorFactory == null || hashStrategy == null) {
+      LOG.debug("Dependencies not injected, the entry {} is not shared", key);
+      return null;
+    }
+    try {
+      final StringBuilder sb = new StringBuilder();
+      sb.append(key.getGroupName()).append(':').append(key.getType()).append(':').append(key.isMinimize());
+      sb.append('{');
+      final Group group = modelFactory.create().getGroupByName(key.getGroupName());
+      for (final Resource resource : group.collectResourcesOfType(key.getType()).getResources()) {
+        sb.append(resource.getUri()).append(':').append(resource.isMinimize()).append(':');
+        sb.append(computeContentHash(resource.getUri())).append(';');
+      }
+      sb.append('}');
+      if (processorsFactory != null) {
+        for (final ResourcePreProcessor processor : processorsFactory.getPreProcessors()) {
+          sb.append(AbstractDecorator.getOriginalDecoratedObject(processor).getClass().getName()).append(';');
+        }
+        for (final ResourcePostProcessor processor : processorsFactory.getPostProcessors()) {
+          sb.append(AbstractDecorator.getOriginalDecoratedObject(processor).getClass().getName()).append(';');
+        }
+      }
+      if (config != null) {
+        sb.append(config.getEncoding());
+      }
+      return hash(sb.toString());
+    } catch (final Exception e) {
+      LOG.debug("Cannot compute the shared key of entry: " + key + ". The entry is not shared.", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the key of the bundle depending on the provided resources or null if a resource cannot be read, in which
+   *         case the bundle is not shared.
+   */
+  private String computeBundleKey(final String sharedKey, final List<String> dependencies) {
+    try {
+      final StringBuilder sb = new StringBuilder(sharedKey).append('{');
+      for (final String uri : dependencies) {
+        sb.append(uri).append(':').append(computeContentHash(uri)).append(';');
+      }
+      return hash(sb.append('}').toString());
+    } catch (final Exception e) {
+      LOG.debug("Cannot compute the bundle key of: " + sharedKey + ". The bundle is not shared.", e);
+      return null;
+    }
+  }
+
+  private String hash(final String value)
+      throws IOException {
+    return hashStrategy.getHash(new ByteArrayInputStream(value.getBytes(CHARSET)));
+  }
+
+  private String computeContentHash(final String uri)
+      throws IOException {
+    final InputStream is = uriLocatorFactory.locate(uri);
+    try {
+      return hashStrategy.getHash(is);
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void destroy() {
+    store.destroy();
+    super.destroy();
+  }
+}
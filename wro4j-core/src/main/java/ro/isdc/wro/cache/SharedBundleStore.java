@@ -0,0 +1,41 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+/**
+ * A store of processed bundles shared by all the nodes of a cluster. A node which has processed a bundle publishes it
+ * under a content addressed key (derived from the content of the resources and from the processors used), thus the
+ * other nodes can fetch the bundle instead of processing it again. Since the key identifies the content, a published
+ * bundle is never updated: publishing the same key twice is expected to store the same content.
+ * <p/>
+ * The implementations must be thread-safe and should not fail when the store is not available: a missing bundle is
+ * processed locally.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface SharedBundleStore {
+  /**
+   * @param key
+   *          the content addressed key of the bundle.
+   * @return the bundle published under the provided key or null if no such bundle exists.
+   */
+  ContentHashEntry get(String key);
+
+  /**
+   * Publishes a bundle, making it available for all the nodes using this store.
+   *
+   * @param key
+   *          the content addressed key of the bundle.
+   * @param value
+   *          the processed bundle.
+   */
+  void put(String key, ContentHashEntry value);
+
+  /**
+   * Releases the resources used by this store. The published bundles are not removed.
+   */
+  void destroy();
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.config.jmx.CacheStatistics;
+
+
+/**
+ * Records the evictions and the bytes held by the decorated {@link CacheStrategy} into a {@link CacheStatistics}. The
+ * hits, misses and loads are recorded by the outer {@link DefaultLoadingCacheStrategyDecorator}, which is the only one
+ * able to distinguish the lookups of the requests from its own lookups (ex: when a value is refreshed), thus each
+ * request is counted only once. An eviction is detected when an entry which was stored is not found anymore.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class StatisticsCacheStrategyDecorator
+    extends CacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private final CacheStatistics statistics;
+
+  public StatisticsCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated,
+      final CacheStatistics statistics) {
+    super(decorated);
+    Validate.notNull(statistics);
+    this.statistics = statistics;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ContentHashEntry get(final CacheEntry key) {
+    final ContentHashEntry value = super.get(key);
+    if (value == null) {
+      statistics.recordMissing(key);
+    }
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    super.put(key, value);
+    statistics.recordPut(key, value != null ? value.getWeight() : 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clear() {
+    super.clear();
+    statistics.recordClear();
+  }
+
+  /**
+   * @return the statistics where the operations are recorded.
+   */
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.ContentBody;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * Writes the processed bundles to content addressed files, which can be served without copying the content through the
+ * heap (ex: by a fronting web server or using {@link java.nio.channels.FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)}). The name of a file is computed from the hash of the bundle and the type
+ * of its resources (ex: <code>0f3a9c.js</code>), the gzipped variant having an additional <code>.gz</code> extension.
+ * Since a file is never changed once written, it can be read at any time by any process.
+ * <p/>
+ * A file is first written in a temporary file of the same directory and then renamed, thus the readers never see a
+ * partially written bundle. The files of the bundles which are not used anymore are not deleted.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class BundleFileExporter {
+  private static final Logger LOG = LoggerFactory.getLogger(BundleFileExporter.class);
+  private static final String GZIP_SUFFIX = ".gz";
+  private static final String TEMP_PREFIX = "exporting-";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private final File directory;
+
+  /**
+   * @param directory
+   *          the directory where the bundles are exported. Created if it does not exist.
+   */
+  public BundleFileExporter(final File directory) {
+    Validate.notNull(directory);
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new WroRuntimeException("Cannot create export directory: " + directory);
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Writes the content of the entry and its gzipped variant, unless they are already exported. The entries without a
+   * hash or without content are not exported.
+   *
+   * @return true if the entry is exported.
+   */
+  public boolean export(final ContentHashEntry entry, final ResourceType type) {
+    Validate.notNull(entry);
+    Validate.notNull(type);
+    if (entry.getHash() == null || !entry.hasContent()) {
+      return false;
+    }
+    try {
+      write(getFile(entry, type, null), entry.getRawBody());
+      ContentBody gzippedBody = entry.getCompressedBody(ContentHashEntry.GZIP);
+      if (gzippedBody == null) {
+        final byte[] gzippedContent = entry.getGzippedContent();
+        gzippedBody = new ContentBody() {
+          public int getLength() {
+            return gzippedContent.length;
+          }
+
+          public void writeTo(final OutputStream os)
+              throws IOException {
+            os.write(gzippedContent);
+          }
+        };
+      }
+      write(getFile(entry, type, ContentHashEntry.GZIP), gzippedBody);
+      return true;
+    } catch (final IOException e) {
+      LOG.warn("Cannot export bundle: " + entry, e);
+      return false;
+    }
+  }
+
+  private void write(final File file, final ContentBody body)
+      throws IOException {
+    if (file.exists()) {
+      return;
+    }
+    File tempFile = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, directory);
+    try {
+      final FileOutputStream fos = new FileOutputStream(tempFile);
+      try {
+        body.writeTo(fos);
+        fos.flush();
+      } finally {
+        IOUtils.closeQuietly(fos);
+      }
+      if (tempFile.renameTo(file)) {
+        LOG.debug("Exported bundle file: {}", file);
+        tempFile = null;
+      } else if (!file.exists()) {
+        throw new IOException("Cannot rename " + tempFile + " to " + file);
+      }
+    } finally {
+      if (tempFile != null && !tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * @param contentEncoding
+   *          the content coding of the variant (only gzip is exported) or null for the uncompressed content.
+   * @return the exported file holding the requested variant of the entry or null if there is no such file.
+   */
+  public File getExportedFile(final ContentHashEntry entry, final ResourceType type, final String contentEncoding) {
+    Validate.notNull(entry);
+    Validate.notNull(type);
+    if (entry.getHash() == null || (contentEncoding != null && !ContentHashEntry.GZIP.equals(contentEncoding))) {
+      return null;
+    }
+    final File file = getFile(entry, type, contentEncoding);
+    return file.isFile() ? file : null;
+  }
+
+  private File getFile(final ContentHashEntry entry, final ResourceType type, final String contentEncoding) {
+    final StringBuilder name = new StringBuilder(entry.getHash().replaceAll("[^A-Za-z0-9_-]", "_"));
+    name.append('.').append(type.name().toLowerCase());
+    if (contentEncoding != null) {
+      name.append(GZIP_SUFFIX);
+    }
+    return new File(directory, name.toString());
+  }
+
+  /**
+   * @return the directory where the bundles are exported.
+   */
+  public File getDirectory() {
+    return directory;
+  }
+}
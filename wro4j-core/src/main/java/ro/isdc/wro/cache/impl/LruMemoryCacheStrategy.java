@@ -15,6 +15,10 @@ import java.util.Map;
  * @since 1.3.6
  */
 public class LruMemoryCacheStrategy<K, V> extends MemoryCacheStrategy<K, V> {
+  /**
+   * Alias used to select this strategy.
+   */
+  public static final String ALIAS = "lru";
 
   /** Default cache size if no capacity is specified by the constructor. */
   public static final int DEFAULT_SIZE = 128;
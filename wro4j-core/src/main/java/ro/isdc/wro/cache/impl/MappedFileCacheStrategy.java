@@ -0,0 +1,1084 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentBody;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOptions;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * A {@link CacheStrategy} persisting the processed content in memory-mapped segment files, allowing a restarted
+ * application to serve the previously processed groups without processing them again.
+ * <p/>
+ * Each entry is stored as an append-only record, keyed by the {@link CacheEntry} and a fingerprint of the model and of
+ * the configured processors along with their options. When any of them change (ex: after a deploy), the previously
+ * persisted entries are not used anymore. The fingerprint is computed once, when the strategy is first used and after
+ * {@link #clear()}.
+ * <p/>
+ * Each record also holds the hash of the content of the resources used to process it (recorded by
+ * {@link CacheDependencies}, thus including the imported resources and the images embedded as data uri). A record
+ * loaded from the segments is used only if none of these resources was changed meanwhile, which is checked when the
+ * record is first read.
+ * <p/>
+ * The compressed variants of the content are persisted along with the content. An entry is decoded only once: the
+ * served content is read directly from the mapped segment.
+ * <p/>
+ * Each record is protected by a checksum, thus a record partially written (ex: when the application is killed during a
+ * write) is detected and discarded when the segments are loaded. The segments containing mostly stale records are
+ * compacted in the background: their live records are copied to the active segment and the segment file is deleted.
+ * <p/>
+ * By default, the segments are stored in the temporary directory of the servlet context, thus each web application
+ * uses its own directory. The directory is locked while in use; if it is already locked (ex: by another application
+ * configured with the same directory), the entries are cached in memory instead.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class MappedFileCacheStrategy
+    implements CacheStrategy<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(MappedFileCacheStrategy.class);
+  /**
+   * Alias used to select this strategy.
+   */
+  public static final String ALIAS = "mappedFile";
+  /**
+   * Default size (in bytes) of a segment file. A segment is larger only when it must hold a larger record.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+  /**
+   * The name of the folder created in the temporary directory of the servlet context (or of the JVM, when there is no
+   * servlet context) when no directory is configured.
+   */
+  public static final String DEFAULT_DIRECTORY_NAME = "wro4j-cache";
+  /**
+   * The servlet context attribute holding the temporary directory of the web application.
+   */
+  private static final String SERVLET_TEMP_DIR_ATTRIBUTE = "javax.servlet.context.tempdir";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".dat";
+  private static final String LOCK_FILE_NAME = "cache.lock";
+  /**
+   * Marks the beginning of each record.
+   */
+  private static final int RECORD_MAGIC = 0x57524F36;
+  /**
+   * Size of record header: magic (int), payload length (int) and payload checksum (long).
+   */
+  private static final int HEADER_SIZE = 16;
+  /**
+   * A sealed segment is compacted when the size of its live records is less than this ratio of its used size.
+   */
+  private static final double COMPACTION_THRESHOLD = 0.5;
+  private static final String CHARSET = "UTF-8";
+  @Inject
+  private WroModelFactory modelFactory;
+  @Inject
+  private ProcessorsFactory processorsFactory;
+  @Inject
+  private HashStrategy hashStrategy;
+  @Inject
+  private WroConfiguration config;
+  @Inject
+  private UriLocatorFactory uriLocatorFactory;
+  @Inject
+  private CacheDependencies dependencies;
+  /**
+   * The directory provided explicitly. When null, the directory is resolved using {@link WroConfiguration}.
+   */
+  private final File configuredDirectory;
+  private final int segmentSize;
+  /**
+   * Maps the record key (fingerprint and {@link CacheEntry}) to the location of the latest record.
+   */
+  private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<String, Location>();
+  /**
+   * All segments, ordered by id. The last one is the active segment, the only one where records are appended. Guarded
+   * by this.
+   */
+  private final List<Segment> segments = new ArrayList<Segment>();
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+  private volatile String fingerprint;
+  /**
+   * Incremented by {@link #clear()}, thus a fingerprint computed before a clear is not kept.
+   */
+  private final AtomicLong generation = new AtomicLong();
+  /**
+   * The sequence of the last appended record. Used to find the latest record of a key when the segments are loaded,
+   * since compaction can copy an older record after a newer one. Guarded by this.
+   */
+  private long lastSequence;
+  private volatile boolean opened;
+  /**
+   * Holds the entries when the directory cannot be used.
+   */
+  private volatile CacheStrategy<CacheEntry, ContentHashEntry> fallback;
+  private File directory;
+  private RandomAccessFile lockFile;
+  private FileLock lock;
+  private ExecutorService compactionExecutor;
+
+  /**
+   * Uses the directory configured with {@link WroConfiguration#getCacheDirectory()}.
+   */
+  public MappedFileCacheStrategy() {
+    this(null);
+  }
+
+  /**
+   * @param directory
+   *          the directory where the segments are stored. When null, the directory configured with
+   *          {@link WroConfiguration#getCacheDirectory()} is used.
+   */
+  public MappedFileCacheStrategy(final File directory) {
+    this(directory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * @param directory
+   *          the directory where the segments are stored.
+   * @param segmentSize
+   *          the size (in bytes) of a segment file.
+   */
+  public MappedFileCacheStrategy(final File directory, final int segmentSize) {
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("Invalid segmentSize: " + segmentSize);
+    }
+    this.configuredDirectory = directory;
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ContentHashEntry get(final CacheEntry key) {
+    if (!ensureOpened()) {
+      return fallback.get(key);
+    }
+    final String recordKey = getRecordKey(key);
+    final Location location = index.get(recordKey);
+    if (location == null) {
+      return null;
+    }
+    ContentHashEntry entry = location.entry;
+    if (entry == null) {
+      try {
+        final Record record = decode(readPayload(location), true);
+        if (!location.validated && !computeDependencyHashes(record.dependencies.keySet()).equals(
+            record.dependencies)) {
+          LOG.debug("Discarding persisted entry with changed dependencies for key: {}", key);
+          if (index.remove(recordKey, location)) {
+            release(location);
+          }
+          return null;
+        }
+        location.validated = true;
+        entry = toEntry(record);
+        location.entry = entry;
+        LOG.debug("Found persisted entry for key: {}", key);
+      } catch (final IOException e) {
+        LOG.error("Cannot read persisted entry for key: " + key, e);
+        if (index.remove(recordKey, location)) {
+          release(location);
+        }
+        return null;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * The bodies of the created entry are views of the mapped segment, thus the content is not copied in the heap.
+   */
+  private ContentHashEntry toEntry(final Record record) {
+    final String contentType = record.key.getType().getContentType() + "; charset=" + record.encoding;
+    return ContentHashEntry.valueOf(toBody(record.content), toBody(record.gzippedContent),
+        toBody(record.deflatedContent), record.encoding, record.hash, contentType);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    if (!ensureOpened()) {
+      fallback.put(key, value);
+      return;
+    }
+    final String currentFingerprint = getFingerprint();
+    try {
+      final Map<String, String> dependencyHashes = computeDependencyHashes(getDependencies(key));
+      final ByteBuffer content = toBuffer(value.getRawBody());
+      final ByteBuffer gzippedContent = toBuffer(value.getCompressedBody(ContentHashEntry.GZIP));
+      final ByteBuffer deflatedContent = toBuffer(value.getCompressedBody(ContentHashEntry.DEFLATE));
+      synchronized (this) {
+        final Record record = new Record(++lastSequence, currentFingerprint, key, value.getHash(),
+            value.getEncoding(), dependencyHashes, content, gzippedContent, deflatedContent);
+        final Location location = append(encode(record), record.sequence);
+        location.validated = true;
+        final Location previous = index.put(record.getKey(), location);
+        if (previous != null) {
+          release(previous);
+        }
+      }
+    } catch (final IOException e) {
+      // the cache is only an optimization, thus the failure is not propagated.
+      LOG.error("Cannot persist entry for key: " + key, e);
+    }
+  }
+
+  /**
+   * Removes all the persisted entries and resets the fingerprint, since the model or the processors could have been
+   * changed.
+   */
+  public synchronized void clear() {
+    generation.incrementAndGet();
+    fingerprint = null;
+    if (fallback != null) {
+      fallback.clear();
+    }
+    if (!opened) {
+      return;
+    }
+    index.clear();
+    int nextId = 0;
+    for (final Segment segment : segments) {
+      nextId = segment.id + 1;
+      segment.close();
+      deleteFile(segment.file);
+    }
+    segments.clear();
+    try {
+      segments.add(Segment.create(directory, nextId, segmentSize));
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot create segment in directory: " + directory, e);
+    }
+  }
+
+  /**
+   * Closes the segment files, without deleting them.
+   */
+  public void destroy() {
+    synchronized (this) {
+      if (compactionExecutor != null) {
+        compactionExecutor.shutdownNow();
+        compactionExecutor = null;
+      }
+      if (fallback != null) {
+        fallback.destroy();
+        fallback = null;
+      }
+      if (!opened) {
+        return;
+      }
+      opened = false;
+      index.clear();
+      for (final Segment segment : segments) {
+        segment.close();
+      }
+      segments.clear();
+      try {
+        lock.release();
+        lockFile.close();
+      } catch (final IOException e) {
+        LOG.warn("Cannot release lock of directory: " + directory, e);
+      }
+    }
+    LOG.debug("Persistent cache closed");
+  }
+
+  /**
+   * Opens the directory and loads the index of persisted records, if not already opened. If the directory cannot be
+   * used, a memory cache is used instead.
+   *
+   * @return true if the directory is opened, false if the {@link #fallback} strategy must be used.
+   */
+  private boolean ensureOpened() {
+    if (!opened && fallback == null) {
+      synchronized (this) {
+        if (!opened && fallback == null) {
+          try {
+            open();
+            opened = true;
+          } catch (final WroRuntimeException e) {
+            LOG.warn("Cannot use the persistent cache. The entries will be cached in memory.", e);
+            closeQuietly();
+            fallback = new MemoryCacheStrategy<CacheEntry, ContentHashEntry>();
+          }
+        }
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Releases the resources acquired by a failed {@link #open()}.
+   */
+  private void closeQuietly() {
+    index.clear();
+    for (final Segment segment : segments) {
+      segment.close();
+    }
+    segments.clear();
+    try {
+      if (lock != null) {
+        lock.release();
+      }
+      if (lockFile != null) {
+        lockFile.close();
+      }
+    } catch (final IOException e) {
+      LOG.debug("Cannot release lock of directory: " + directory, e);
+    }
+    lock = null;
+    lockFile = null;
+  }
+
+  private void open() {
+    directory = resolveDirectory();
+    LOG.debug("Opening persistent cache from directory: {}", directory);
+    try {
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        throw new IOException("Cannot create directory");
+      }
+      lockFile = new RandomAccessFile(new File(directory, LOCK_FILE_NAME), "rw");
+      lock = tryLock(lockFile.getChannel());
+      if (lock == null) {
+        throw new IOException("The directory is used by another cache");
+      }
+      final File[] files = directory.listFiles(new FilenameFilter() {
+        public boolean accept(final File dir, final String name) {
+          return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        }
+      });
+      final List<Segment> loaded = new ArrayList<Segment>();
+      for (final File file : files) {
+        final int id = parseSegmentId(file);
+        if (id >= 0) {
+          loaded.add(Segment.open(file, id));
+        }
+      }
+      Collections.sort(loaded, new Comparator<Segment>() {
+        public int compare(final Segment o1, final Segment o2) {
+          return o1.id < o2.id ? -1 : (o1.id == o2.id ? 0 : 1);
+        }
+      });
+      for (final Segment segment : loaded) {
+        recover(segment);
+        segments.add(segment);
+      }
+      if (segments.isEmpty()) {
+        segments.add(Segment.create(directory, 0, segmentSize));
+      }
+      LOG.debug("Loaded {} persisted entries from {} segments", index.size(), segments.size());
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot open persistent cache in directory: " + directory, e);
+    }
+  }
+
+  private FileLock tryLock(final FileChannel channel)
+      throws IOException {
+    try {
+      return channel.tryLock();
+    } catch (final OverlappingFileLockException e) {
+      return null;
+    }
+  }
+
+  private File resolveDirectory() {
+    if (configuredDirectory != null) {
+      return configuredDirectory;
+    }
+    if (config != null && StringUtils.isNotBlank(config.getCacheDirectory())) {
+      return new File(config.getCacheDirectory());
+    }
+    return new File(getTemporaryDirectory(), DEFAULT_DIRECTORY_NAME);
+  }
+
+  /**
+   * @return the temporary directory of the web application, provided by the servlet container, or the temporary
+   *         directory of the JVM when there is no servlet context.
+   */
+  private File getTemporaryDirectory() {
+    if (Context.isContextSet() && Context.get().getServletContext() != null) {
+      final Object tempDir = Context.get().getServletContext().getAttribute(SERVLET_TEMP_DIR_ATTRIBUTE);
+      if (tempDir instanceof File) {
+        return (File) tempDir;
+      }
+    }
+    return new File(System.getProperty("java.io.tmpdir"));
+  }
+
+  private int parseSegmentId(final File file) {
+    final String name = file.getName();
+    try {
+      return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (final NumberFormatException e) {
+      LOG.warn("Ignoring unknown file: {}", file);
+      return -1;
+    }
+  }
+
+  /**
+   * Scans the records of the segment and updates the index. The scan stops at the first invalid record, which is the
+   * end of the written data or a partially written record. In both cases, the next record will be appended at that
+   * position.
+   */
+  private void recover(final Segment segment)
+      throws IOException {
+    final ByteBuffer buffer = segment.buffer.duplicate();
+    int position = 0;
+    boolean torn = false;
+    while (position + HEADER_SIZE <= buffer.capacity()) {
+      buffer.position(position);
+      final int magic = buffer.getInt();
+      if (magic != RECORD_MAGIC) {
+        torn = magic != 0;
+        break;
+      }
+      final int payloadLength = buffer.getInt();
+      if (payloadLength <= 0 || position + HEADER_SIZE + payloadLength > buffer.capacity()) {
+        torn = true;
+        break;
+      }
+      final long checksum = buffer.getLong();
+      final byte[] payload = new byte[payloadLength];
+      buffer.get(payload);
+      if (checksum != computeChecksum(payload)) {
+        torn = true;
+        break;
+      }
+      final Record record = decode(ByteBuffer.wrap(payload), false);
+      final Location location = new Location(segment, position, HEADER_SIZE + payloadLength, record.sequence);
+      lastSequence = Math.max(lastSequence, record.sequence);
+      final Location previous = index.get(record.getKey());
+      if (previous == null || previous.sequence < location.sequence) {
+        index.put(record.getKey(), location);
+        segment.liveBytes.addAndGet(location.length);
+        if (previous != null) {
+          previous.segment.liveBytes.addAndGet(-previous.length);
+        }
+      }
+      position += location.length;
+    }
+    if (torn) {
+      LOG.warn("Discarding partially written data of segment {} starting at position {}", segment.file, position);
+    }
+    segment.position = position;
+  }
+
+  /**
+   * Appends the record to the active segment. A new segment is created when the active one has not enough space.
+   *
+   * @return the location of the appended record.
+   */
+  private synchronized Location append(final byte[] record, final long sequence)
+      throws IOException {
+    if (!opened) {
+      throw new IOException("Persistent cache is closed");
+    }
+    Segment active = segments.get(segments.size() - 1);
+    if (active.position + record.length > active.buffer.capacity()) {
+      active.buffer.force();
+      active = Segment.create(directory, active.id + 1, Math.max(segmentSize, record.length));
+      segments.add(active);
+      scheduleCompaction();
+    }
+    final ByteBuffer buffer = active.buffer.duplicate();
+    buffer.position(active.position);
+    buffer.put(record);
+    active.buffer.force();
+    final Location location = new Location(active, active.position, record.length, sequence);
+    active.position += record.length;
+    active.liveBytes.addAndGet(record.length);
+    return location;
+  }
+
+  /**
+   * Marks the record at the provided location as stale.
+   */
+  private void release(final Location location) {
+    final Segment segment = location.segment;
+    if (segment.liveBytes.addAndGet(-location.length) < segment.position * COMPACTION_THRESHOLD) {
+      scheduleCompaction();
+    }
+  }
+
+  /**
+   * @return a view of the payload of the record, backed by the mapped segment.
+   */
+  private ByteBuffer readPayload(final Location location) {
+    final ByteBuffer buffer = location.segment.buffer.duplicate();
+    buffer.position(location.offset + HEADER_SIZE);
+    buffer.limit(location.offset + location.length);
+    return buffer.slice();
+  }
+
+  private void scheduleCompaction() {
+    if (compactionScheduled.compareAndSet(false, true)) {
+      getCompactionExecutor().submit(new Runnable() {
+        public void run() {
+          try {
+            compact();
+          } catch (final Exception e) {
+            LOG.error("Compaction failed", e);
+          } finally {
+            compactionScheduled.set(false);
+          }
+        }
+      });
+    }
+  }
+
+  private synchronized ExecutorService getCompactionExecutor() {
+    if (compactionExecutor == null) {
+      compactionExecutor = Executors.newSingleThreadExecutor(WroUtil.createDaemonThreadFactory("cacheCompaction"));
+    }
+    return compactionExecutor;
+  }
+
+  /**
+   * Copies the live records of each sealed segment having too many stale records to the active segment and deletes the
+   * segment.
+   *
+   * @VisibleForTesting
+   */
+  void compact()
+      throws IOException {
+    final List<Segment> sealed;
+    synchronized (this) {
+      sealed = new ArrayList<Segment>(segments.subList(0, Math.max(0, segments.size() - 1)));
+    }
+    for (final Segment segment : sealed) {
+      if (segment.liveBytes.get() < segment.position * COMPACTION_THRESHOLD) {
+        compact(segment);
+      }
+    }
+  }
+
+  private void compact(final Segment segment)
+      throws IOException {
+    LOG.debug("Compacting segment: {}", segment.file);
+    for (final Map.Entry<String, Location> entry : index.entrySet()) {
+      final Location location = entry.getValue();
+      if (location.segment == segment) {
+        final ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(location.offset);
+        final byte[] record = new byte[location.length];
+        buffer.get(record);
+        final Location moved = append(record, location.sequence);
+        moved.validated = location.validated;
+        moved.entry = location.entry;
+        if (!index.replace(entry.getKey(), location, moved)) {
+          // replaced or removed meanwhile, thus the copy is already stale
+          moved.segment.liveBytes.addAndGet(-moved.length);
+        }
+      }
+    }
+    synchronized (this) {
+      if (!segments.remove(segment)) {
+        // the cache was cleared meanwhile
+        return;
+      }
+    }
+    segment.close();
+    deleteFile(segment.file);
+  }
+
+  private void deleteFile(final File file) {
+    if (!file.delete()) {
+      LOG.warn("Cannot delete file: {}", file);
+    }
+  }
+
+  /**
+   * @return the number of segment files in use.
+   * @VisibleForTesting
+   */
+  synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  private String getRecordKey(final CacheEntry key) {
+    return new Record(0, getFingerprint(), key, null, null, null, null, null, null).getKey();
+  }
+
+  /**
+   * @return the fingerprint of the model and of the processors, computed lazily because the injected factories are
+   *         available only during the request cycle. The fingerprint is computed without holding the lock, thus it can
+   *         be computed by several concurrent requests, but only one result is kept.
+   */
+  private String getFingerprint() {
+    String result = fingerprint;
+    if (result == null) {
+      final long currentGeneration = generation.get();
+      result = computeFingerprint();
+      synchronized (this) {
+        if (fingerprint != null) {
+          return fingerprint;
+        }
+        if (generation.get() == currentGeneration) {
+          fingerprint = result;
+          discardOtherFingerprints(result);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The entries persisted with another fingerprint will never be used, thus they are marked as stale.
+   */
+  private void discardOtherFingerprints(final String currentFingerprint) {
+    final String prefix = currentFingerprint + "|";
+    for (final Map.Entry<String, Location> entry : index.entrySet()) {
+      if (!entry.getKey().startsWith(prefix) && index.remove(entry.getKey(), entry.getValue())) {
+        LOG.debug("Discarding entry with a different fingerprint: {}", entry.getKey());
+        release(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Computes a hash of the groups, of their resources and of the processors along with their options. The content of
+   * the resources is not part of the fingerprint, since it is checked for each record.
+   *
+   * @VisibleForTesting
+   */
+  String computeFingerprint() {
+    if (modelFactory == null) {
+      LOG.debug("No model factory injected, using empty fingerprint");
+      return "";
+    }
+    final StringBuilder sb = new StringBuilder();
+    final List<Group> groups = new ArrayList<Group>(modelFactory.create().getGroups());
+    Collections.sort(groups, new Comparator<Group>() {
+      public int compare(final Group o1, final Group o2) {
+        return o1.getName().compareTo(o2.getName());
+      }
+    });
+    for (final Group group : groups) {
+      sb.append(group.getName()).append('{');
+      for (final Resource resource : group.getResources()) {
+        sb.append(resource.getType()).append(':').append(resource.getUri()).append(':').append(resource.isMinimize());
+        sb.append(';');
+      }
+      sb.append('}');
+    }
+    if (processorsFactory != null) {
+      for (final ResourcePreProcessor processor : processorsFactory.getPreProcessors()) {
+        sb.append(ProcessorOptions.describe(processor));
+      }
+      for (final ResourcePostProcessor processor : processorsFactory.getPostProcessors()) {
+        sb.append(ProcessorOptions.describe(processor));
+      }
+    }
+    try {
+      final byte[] bytes = sb.toString().getBytes(CHARSET);
+      return hashStrategy != null ? hashStrategy.getHash(new ByteArrayInputStream(bytes))
+          : Long.toHexString(computeChecksum(bytes));
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot compute fingerprint", e);
+    }
+  }
+
+  /**
+   * @return the uri's of the resources used to process the entry, recorded by {@link CacheDependencies}. When nothing
+   *         was recorded (ex: the entry was not loaded by the manager), the resources of the group are used.
+   */
+  private Collection<String> getDependencies(final CacheEntry key) {
+    final Collection<String> uris = dependencies != null ? dependencies.getDependencies(key)
+        : Collections.<String> emptyList();
+    if (!uris.isEmpty() || modelFactory == null) {
+      return uris;
+    }
+    final List<String> groupUris = new ArrayList<String>();
+    for (final Group group : modelFactory.create().getGroups()) {
+      if (group.getName().equals(key.getGroupName())) {
+        for (final Resource resource : group.getResources()) {
+          if (resource.getType() == key.getType()) {
+            groupUris.add(resource.getUri());
+          }
+        }
+      }
+    }
+    return groupUris;
+  }
+
+  /**
+   * @return the hash of the content of each resource, sorted by uri.
+   */
+  private Map<String, String> computeDependencyHashes(final Collection<String> uris) {
+    final Map<String, String> hashes = new TreeMap<String, String>();
+    for (final String uri : uris) {
+      hashes.put(uri, computeContentHash(uri));
+    }
+    return hashes;
+  }
+
+  /**
+   * @return the hash of the content of the resource, used to detect the resources changed while the application was
+   *         stopped. An empty string is returned if the resource cannot be located.
+   */
+  private String computeContentHash(final String uri) {
+    if (uriLocatorFactory == null) {
+      return "";
+    }
+    InputStream is = null;
+    try {
+      is = uriLocatorFactory.locate(uri);
+      final byte[] bytes = IOUtils.toByteArray(is);
+      return hashStrategy != null ? hashStrategy.getHash(new ByteArrayInputStream(bytes))
+          : Long.toHexString(computeChecksum(bytes));
+    } catch (final Exception e) {
+      LOG.debug("Cannot read resource: {} while computing its hash", uri);
+      return "";
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+  }
+
+  /**
+   * @return a buffer holding the bytes of the body or null if the body is null.
+   */
+  private static ByteBuffer toBuffer(final ContentBody body)
+      throws IOException {
+    if (body == null) {
+      return null;
+    }
+    final ByteArrayOutputStream os = new ByteArrayOutputStream(body.getLength());
+    body.writeTo(os);
+    return ByteBuffer.wrap(os.toByteArray());
+  }
+
+  private static ContentBody toBody(final ByteBuffer buffer) {
+    return buffer != null ? new BufferContentBody(buffer) : null;
+  }
+
+  private static long computeChecksum(final byte[] bytes) {
+    final CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  private static byte[] encode(final Record record)
+      throws IOException {
+    final ByteArrayOutputStream payloadStream = new ByteArrayOutputStream();
+    final DataOutputStream payloadOut = new DataOutputStream(payloadStream);
+    payloadOut.writeLong(record.sequence);
+    writeString(payloadOut, record.fingerprint);
+    writeString(payloadOut, record.key.getGroupName());
+    writeString(payloadOut, record.key.getType().name());
+    payloadOut.writeBoolean(record.key.isMinimize());
+    writeString(payloadOut, record.hash);
+    writeString(payloadOut, record.encoding);
+    payloadOut.writeInt(record.dependencies.size());
+    for (final Map.Entry<String, String> dependency : record.dependencies.entrySet()) {
+      writeString(payloadOut, dependency.getKey());
+      writeString(payloadOut, dependency.getValue());
+    }
+    writeBytes(payloadOut, record.content);
+    writeBytes(payloadOut, record.gzippedContent);
+    writeBytes(payloadOut, record.deflatedContent);
+    payloadOut.close();
+    final byte[] payload = payloadStream.toByteArray();
+
+    final ByteArrayOutputStream recordStream = new ByteArrayOutputStream(HEADER_SIZE + payload.length);
+    final DataOutputStream recordOut = new DataOutputStream(recordStream);
+    recordOut.writeInt(RECORD_MAGIC);
+    recordOut.writeInt(payload.length);
+    recordOut.writeLong(computeChecksum(payload));
+    recordOut.write(payload);
+    recordOut.close();
+    return recordStream.toByteArray();
+  }
+
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    writeBytes(out, value != null ? ByteBuffer.wrap(value.getBytes(CHARSET)) : null);
+  }
+
+  /**
+   * Writes the length of the buffer (-1 for null) followed by its remaining bytes.
+   */
+  private static void writeBytes(final DataOutputStream out, final ByteBuffer buffer)
+      throws IOException {
+    if (buffer == null) {
+      out.writeInt(-1);
+      return;
+    }
+    final ByteBuffer bytes = buffer.duplicate();
+    out.writeInt(bytes.remaining());
+    if (bytes.hasArray()) {
+      out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    } else {
+      final byte[] copy = new byte[bytes.remaining()];
+      bytes.get(copy);
+      out.write(copy);
+    }
+  }
+
+  /**
+   * Decodes the payload of a record. The decoded content buffers are views of the payload, thus they are not copied.
+   *
+   * @param withContent
+   *          when false, only the key of the record is decoded.
+   */
+  private static Record decode(final ByteBuffer payload, final boolean withContent)
+      throws IOException {
+    try {
+      final long sequence = payload.getLong();
+      final String fingerprint = readString(payload);
+      final String groupName = readString(payload);
+      final ResourceType type = ResourceType.valueOf(readString(payload));
+      final boolean minimize = payload.get() != 0;
+      final String hash = readString(payload);
+      final String encoding = readString(payload);
+      final Map<String, String> dependencies = new TreeMap<String, String>();
+      final int dependencyCount = payload.getInt();
+      for (int i = 0; i < dependencyCount; i++) {
+        dependencies.put(readString(payload), readString(payload));
+      }
+      ByteBuffer content = null;
+      ByteBuffer gzippedContent = null;
+      ByteBuffer deflatedContent = null;
+      if (withContent) {
+        content = readBytes(payload);
+        gzippedContent = readBytes(payload);
+        deflatedContent = readBytes(payload);
+      }
+      return new Record(sequence, fingerprint, new CacheEntry(groupName, type, minimize), hash, encoding,
+          dependencies, content, gzippedContent, deflatedContent);
+    } catch (final RuntimeException e) {
+      throw new IOException("Invalid record: " + e.getMessage());
+    }
+  }
+
+  private static String readString(final ByteBuffer payload)
+      throws IOException {
+    final ByteBuffer buffer = readBytes(payload);
+    if (buffer == null) {
+      return null;
+    }
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return new String(bytes, CHARSET);
+  }
+
+  /**
+   * @return a view of the next length prefixed bytes of the payload or null if a null value was written.
+   */
+  private static ByteBuffer readBytes(final ByteBuffer payload) {
+    final int length = payload.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final ByteBuffer buffer = payload.slice();
+    buffer.limit(length);
+    payload.position(payload.position() + length);
+    return buffer;
+  }
+
+  /**
+   * The decoded representation of a persisted entry.
+   */
+  private static final class Record {
+    private final long sequence;
+    private final String fingerprint;
+    private final CacheEntry key;
+    private final String hash;
+    private final String encoding;
+    /**
+     * The hash of the content of each resource used to process the entry, mapped by uri.
+     */
+    private final Map<String, String> dependencies;
+    /**
+     * The encoded content, persisted as it is.
+     */
+    private final ByteBuffer content;
+    private final ByteBuffer gzippedContent;
+    private final ByteBuffer deflatedContent;
+
+    Record(final long sequence, final String fingerprint, final CacheEntry key, final String hash,
+        final String encoding, final Map<String, String> dependencies, final ByteBuffer content,
+        final ByteBuffer gzippedContent, final ByteBuffer deflatedContent) {
+      this.sequence = sequence;
+      this.fingerprint = fingerprint;
+      this.key = key;
+      this.hash = hash;
+      this.encoding = encoding;
+      this.dependencies = dependencies;
+      this.content = content;
+      this.gzippedContent = gzippedContent;
+      this.deflatedContent = deflatedContent;
+    }
+
+    String getKey() {
+      return fingerprint + "|" + key.getGroupName() + "|" + key.getType() + "|" + key.isMinimize();
+    }
+  }
+
+  /**
+   * Location of a record inside a segment.
+   */
+  private static final class Location {
+    private final Segment segment;
+    private final int offset;
+    private final int length;
+    private final long sequence;
+    /**
+     * The entry decoded from the record, created by the first read of the record.
+     */
+    private volatile ContentHashEntry entry;
+    /**
+     * True when the resources used to process the record are known to be unchanged (ex: the record was written by this
+     * instance), false for the records loaded from the segments, until they are checked.
+     */
+    private volatile boolean validated;
+
+    Location(final Segment segment, final int offset, final int length, final long sequence) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * A body whose bytes are read from a buffer (a view of a mapped segment). The mapping remains readable even after
+   * the segment is closed or deleted, until the buffer is garbage collected.
+   */
+  private static final class BufferContentBody
+      implements ContentBody {
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private final ByteBuffer buffer;
+
+    BufferContentBody(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getLength() {
+      return buffer.remaining();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void writeTo(final OutputStream os)
+        throws IOException {
+      final ByteBuffer bytes = buffer.duplicate();
+      final byte[] chunk = new byte[Math.min(CHUNK_SIZE, bytes.remaining())];
+      while (bytes.hasRemaining()) {
+        final int count = Math.min(chunk.length, bytes.remaining());
+        bytes.get(chunk, 0, count);
+        os.write(chunk, 0, count);
+      }
+    }
+  }
+
+  /**
+   * A memory-mapped file holding records.
+   */
+  private static final class Segment {
+    private final int id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    /**
+     * The position where the next record will be appended.
+     */
+    private volatile int position;
+    /**
+     * The size of the records referred by the index.
+     */
+    private final AtomicInteger liveBytes = new AtomicInteger();
+
+    private Segment(final int id, final File file, final int size)
+        throws IOException {
+      this.id = id;
+      this.file = file;
+      this.randomAccessFile = new RandomAccessFile(file, "rw");
+      this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    static Segment create(final File directory, final int id, final int size)
+        throws IOException {
+      final File file = new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+      LOG.debug("Creating segment: {}", file);
+      return new Segment(id, file, size);
+    }
+
+    static Segment open(final File file, final int id)
+        throws IOException {
+      return new Segment(id, file, (int) file.length());
+    }
+
+    /**
+     * Closes the file. The mapped buffer remains readable until it is garbage collected.
+     */
+    void close() {
+      try {
+        buffer.force();
+        randomAccessFile.close();
+      } catch (final IOException e) {
+        LOG.warn("Cannot close segment: " + file, e);
+      }
+    }
+  }
+}
@@ -22,6 +22,10 @@ import ro.isdc.wro.cache.CacheStrategy;
  * @created Created on Nov 18, 2008
  */
 public class MemoryCacheStrategy<K, V> implements CacheStrategy<K, V> {
+  /**
+   * Alias used to select this strategy.
+   */
+  public static final String ALIAS = "memory";
   /**
    * Map containing cached items.
    */
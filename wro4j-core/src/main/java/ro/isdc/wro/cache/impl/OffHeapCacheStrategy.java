@@ -0,0 +1,482 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentBody;
+import ro.isdc.wro.cache.ContentCompressor;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.group.Inject;
+
+
+/**
+ * A cache strategy keeping the content of the entries (and its compressed variants) outside of the heap, in pages of
+ * direct memory managed by a {@link SlabAllocator}. Only the metadata of the entries (hash, headers) is kept in the
+ * heap, thus a large cache has no impact on garbage collection pauses. The content is written to the response directly
+ * from the direct buffers.
+ * <p/>
+ * When the capacity is reached, the least recently used entries are evicted. The pages of an evicted entry are reused
+ * only after a grace period following its last access and only when no response is written from them.
+ * <p/>
+ * The entries are read without locking. When precompression is enabled, the compressed variants are computed
+ * asynchronously by a {@link ContentCompressor} and stored once available.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class OffHeapCacheStrategy
+    implements CacheStrategy<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(OffHeapCacheStrategy.class);
+  /**
+   * Alias used to select this strategy.
+   */
+  public static final String ALIAS = "offHeap";
+  /**
+   * Default maximum number of bytes stored outside of the heap (64MB).
+   */
+  public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+  /**
+   * Default size of a direct buffer allocated at once (1MB).
+   */
+  public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+  /**
+   * Default size of a page (8KB).
+   */
+  public static final int DEFAULT_PAGE_SIZE = 8 * 1024;
+  /**
+   * Default period (in milliseconds) after the last access of an evicted entry, during which its pages are not reused.
+   */
+  public static final long DEFAULT_GRACE_PERIOD = 5000;
+  @Inject
+  private WroConfiguration config;
+  private final SlabAllocator allocator;
+  private final long gracePeriodNanos;
+  /**
+   * Stored entries. Read without locking, changed only while holding the lock of this strategy.
+   */
+  private final ConcurrentMap<CacheEntry, StoredEntry> map = new ConcurrentHashMap<CacheEntry, StoredEntry>();
+  /**
+   * Evicted entries whose pages are not reused yet.
+   */
+  private final List<StoredEntry> evicted = new ArrayList<StoredEntry>();
+  /**
+   * The number of bytes held by the pages of the evicted entries.
+   */
+  private long pendingBytes;
+  /**
+   * Computes the compressed variants of the stored entries, created only when precompression is enabled.
+   */
+  private ContentCompressor compressor;
+
+  public OffHeapCacheStrategy() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of bytes stored outside of the heap.
+   */
+  public OffHeapCacheStrategy(final long capacity) {
+    this(capacity, DEFAULT_SLAB_SIZE, DEFAULT_PAGE_SIZE, DEFAULT_GRACE_PERIOD);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of bytes stored outside of the heap.
+   * @param slabSize
+   *          the size of a direct buffer allocated at once.
+   * @param pageSize
+   *          the size of the pages holding the content.
+   * @param gracePeriod
+   *          the time (in milliseconds) after the last access of an evicted entry, during which its pages are not
+   *          reused.
+   */
+  public OffHeapCacheStrategy(final long capacity, final int slabSize, final int pageSize, final long gracePeriod) {
+    Validate.isTrue(gracePeriod >= 0, "gracePeriod cannot be negative");
+    this.allocator = new SlabAllocator(capacity, slabSize, pageSize);
+    this.gracePeriodNanos = TimeUnit.MILLISECONDS.toNanos(gracePeriod);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ContentHashEntry get(final CacheEntry key) {
+    final StoredEntry stored = map.get(key);
+    if (stored == null) {
+      return null;
+    }
+    stored.lastAccess = System.nanoTime();
+    return stored.value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    Validate.notNull(key);
+    Validate.notNull(value);
+    final StoredEntry stored = new StoredEntry();
+    synchronized (this) {
+      final StoredEntry previous = map.remove(key);
+      if (previous != null) {
+        evict(previous);
+      }
+      try {
+        final ContentBody raw = store(stored, value.getRawBody());
+        final ContentBody gzipped = store(stored, value.getCompressedBody(ContentHashEntry.GZIP));
+        final ContentBody deflated = store(stored, value.getCompressedBody(ContentHashEntry.DEFLATE));
+        stored.value = ContentHashEntry.valueOf(raw, gzipped, deflated, value.getEncoding(), value.getHash(),
+            value.getContentType());
+        stored.lastAccess = System.nanoTime();
+        map.put(key, stored);
+      } catch (final CapacityExceededException e) {
+        LOG.debug("Not enough memory to store entry: {}", key);
+        release(stored);
+        return;
+      } catch (final IOException e) {
+        LOG.error("Cannot store entry: " + key, e);
+        release(stored);
+        return;
+      }
+    }
+    if (config != null && config.isPrecompressContent() && !value.isPrecompressed()) {
+      // the compressed variants are stored once computed, without blocking the caller
+      getCompressor().compress(value, new Runnable() {
+        public void run() {
+          storeCompressedVariants(key, stored, value);
+        }
+      });
+    }
+  }
+
+  private synchronized ContentCompressor getCompressor() {
+    if (compressor == null) {
+      compressor = new ContentCompressor();
+    }
+    return compressor;
+  }
+
+  /**
+   * Stores the compressed variants of the value, if the entry was not replaced or evicted meanwhile.
+   */
+  private synchronized void storeCompressedVariants(final CacheEntry key, final StoredEntry stored,
+      final ContentHashEntry value) {
+    if (map.get(key) != stored || !value.isPrecompressed()) {
+      return;
+    }
+    final int storedBodies = stored.bodies.size();
+    try {
+      final ContentHashEntry current = stored.value;
+      ContentBody gzipped = current.getCompressedBody(ContentHashEntry.GZIP);
+      if (gzipped == null) {
+        gzipped = store(stored, value.getCompressedBody(ContentHashEntry.GZIP));
+      }
+      final ContentBody deflated = store(stored, value.getCompressedBody(ContentHashEntry.DEFLATE));
+      stored.value = current.withCompressedBodies(gzipped, deflated);
+    } catch (final CapacityExceededException e) {
+      LOG.debug("Not enough memory to store the compressed variants of entry: {}", key);
+      releaseFrom(stored, storedBodies);
+    } catch (final IOException e) {
+      LOG.error("Cannot store the compressed variants of entry: " + key, e);
+      releaseFrom(stored, storedBodies);
+    }
+  }
+
+  /**
+   * Copies the body in pages of direct memory, evicting the least recently used entries if required.
+   *
+   * @return the copy of the body or null if the body is null.
+   */
+  private PagedContentBody store(final StoredEntry owner, final ContentBody body)
+      throws IOException {
+    if (body == null) {
+      return null;
+    }
+    final int length = body.getLength();
+    if (length > allocator.getCapacity()) {
+      throw new CapacityExceededException();
+    }
+    final ByteBuffer[] pages = allocate(owner, length);
+    final PagedContentBody paged = new PagedContentBody(owner, pages, length);
+    owner.bodies.add(paged);
+    body.writeTo(new PagesOutputStream(pages));
+    return paged;
+  }
+
+  /**
+   * Evicts the least recently used entries (other than the owner) only until the pages waiting to be reclaimed are
+   * enough to hold the content. When these pages are still in their grace period, the content is not stored instead
+   * of evicting all the entries.
+   */
+  private ByteBuffer[] allocate(final StoredEntry owner, final int length) {
+    ByteBuffer[] pages = allocator.allocate(length);
+    if (pages == null) {
+      final long required = (long) allocator.getPageCount(length) * allocator.getPageSize();
+      reclaim();
+      while ((pages = allocator.allocate(length)) == null) {
+        if (allocator.getAvailableBytes() + pendingBytes >= required || !evictLeastRecentlyUsed(owner)) {
+          throw new CapacityExceededException();
+        }
+        reclaim();
+      }
+    }
+    return pages;
+  }
+
+  /**
+   * @return false if there is no entry to evict.
+   */
+  private boolean evictLeastRecentlyUsed(final StoredEntry excluded) {
+    Map.Entry<CacheEntry, StoredEntry> eldest = null;
+    for (final Map.Entry<CacheEntry, StoredEntry> entry : map.entrySet()) {
+      if (entry.getValue() != excluded
+          && (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0)) {
+        eldest = entry;
+      }
+    }
+    if (eldest == null) {
+      return false;
+    }
+    map.remove(eldest.getKey());
+    evict(eldest.getValue());
+    return true;
+  }
+
+  private void evict(final StoredEntry entry) {
+    LOG.debug("Evicting entry: {}", entry.value);
+    evicted.add(entry);
+    pendingBytes += entry.getPageBytes();
+  }
+
+  /**
+   * Reuses the pages of the evicted entries which are not accessed anymore.
+   */
+  private void reclaim() {
+    final long now = System.nanoTime();
+    for (final Iterator<StoredEntry> iterator = evicted.iterator(); iterator.hasNext();) {
+      final StoredEntry entry = iterator.next();
+      if (now - entry.lastAccess >= gracePeriodNanos && entry.recycle()) {
+        iterator.remove();
+        pendingBytes -= entry.getPageBytes();
+        for (final PagedContentBody body : entry.bodies) {
+          allocator.free(body.pages);
+        }
+      }
+    }
+  }
+
+  private void release(final StoredEntry entry) {
+    entry.recycle();
+    releaseFrom(entry, 0);
+  }
+
+  /**
+   * Frees the pages of the bodies of the entry, starting with the provided index.
+   */
+  private void releaseFrom(final StoredEntry entry, final int index) {
+    while (entry.bodies.size() > index) {
+      allocator.free(entry.bodies.remove(entry.bodies.size() - 1).pages);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void clear() {
+    for (final StoredEntry entry : map.values()) {
+      evict(entry);
+    }
+    map.clear();
+    reclaim();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void destroy() {
+    map.clear();
+    evicted.clear();
+    pendingBytes = 0;
+    if (compressor != null) {
+      compressor.destroy();
+      compressor = null;
+    }
+  }
+
+  /**
+   * @return the number of bytes currently used outside of the heap.
+   */
+  public long getUsedBytes() {
+    return allocator.getUsedBytes();
+  }
+
+  /**
+   * @return the number of entries currently cached.
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * Holds the metadata of a stored entry, along with the number of responses written from its pages.
+   */
+  private static final class StoredEntry {
+    private final List<PagedContentBody> bodies = new ArrayList<PagedContentBody>(3);
+    private volatile ContentHashEntry value;
+    /**
+     * The value of {@link System#nanoTime()} at the last access.
+     */
+    private volatile long lastAccess;
+    private int readers;
+    private boolean recycled;
+
+    /**
+     * @return the number of bytes held by the pages of this entry.
+     */
+    long getPageBytes() {
+      long bytes = 0;
+      for (final PagedContentBody body : bodies) {
+        for (final ByteBuffer page : body.pages) {
+          bytes += page.capacity();
+        }
+      }
+      return bytes;
+    }
+
+    synchronized void acquire() {
+      if (recycled) {
+        throw new WroRuntimeException("The content of the cached entry was evicted");
+      }
+      readers++;
+    }
+
+    synchronized void releaseReader() {
+      readers--;
+    }
+
+    /**
+     * @return true if the pages can be reused, because there is no reader.
+     */
+    synchronized boolean recycle() {
+      if (readers == 0) {
+        recycled = true;
+      }
+      return recycled;
+    }
+  }
+
+  /**
+   * A body whose bytes are stored in a number of pages of direct memory.
+   */
+  private static final class PagedContentBody
+      implements ContentBody {
+    private final StoredEntry owner;
+    private final ByteBuffer[] pages;
+    private final int length;
+
+    PagedContentBody(final StoredEntry owner, final ByteBuffer[] pages, final int length) {
+      this.owner = owner;
+      this.pages = pages;
+      this.length = length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getLength() {
+      return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void writeTo(final OutputStream os)
+        throws IOException {
+      owner.acquire();
+      try {
+        final byte[] chunk = new byte[Math.min(length, pages.length > 0 ? pages[0].capacity() : 0)];
+        int remaining = length;
+        for (final ByteBuffer page : pages) {
+          final ByteBuffer buffer = page.duplicate();
+          buffer.clear();
+          buffer.limit(Math.min(remaining, buffer.capacity()));
+          remaining -= buffer.limit();
+          while (buffer.hasRemaining()) {
+            final int count = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, count);
+            os.write(chunk, 0, count);
+          }
+        }
+      } finally {
+        owner.releaseReader();
+      }
+    }
+  }
+
+  /**
+   * Writes sequentially into a number of pages.
+   */
+  private static final class PagesOutputStream
+      extends OutputStream {
+    private final ByteBuffer[] pages;
+    private int index;
+
+    PagesOutputStream(final ByteBuffer[] pages) {
+      this.pages = pages;
+    }
+
+    @Override
+    public void write(final int b)
+        throws IOException {
+      write(new byte[] {
+        (byte) b
+      }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length)
+        throws IOException {
+      int written = 0;
+      while (written < length) {
+        if (index >= pages.length) {
+          throw new IOException("The content is larger than the allocated pages");
+        }
+        final ByteBuffer page = pages[index];
+        final int count = Math.min(page.remaining(), length - written);
+        page.put(bytes, offset + written, count);
+        written += count;
+        if (!page.hasRemaining()) {
+          index++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Thrown when there is not enough memory to store an entry.
+   */
+  @SuppressWarnings("serial")
+  private static final class CapacityExceededException
+      extends RuntimeException {
+  }
+}
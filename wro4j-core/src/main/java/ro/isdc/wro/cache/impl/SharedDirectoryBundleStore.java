@@ -0,0 +1,174 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.SharedBundleStore;
+
+
+/**
+ * A {@link SharedBundleStore} keeping each bundle in a file of a directory shared by all the nodes (ex: a network file
+ * system). A bundle is first written in a temporary file of the same directory and then renamed, thus the other nodes
+ * never read a partially written bundle. When several nodes publish the same key concurrently, the first rename wins
+ * and the other copies are discarded, since they hold the same content.
+ * <p/>
+ * Only the content of the bundle is stored, the compressed variants are computed by each node.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class SharedDirectoryBundleStore
+    implements SharedBundleStore {
+  private static final Logger LOG = LoggerFactory.getLogger(SharedDirectoryBundleStore.class);
+  /**
+   * Identifies the format of the bundle files.
+   */
+  private static final int MAGIC = 0x57524F42;
+  private static final int VERSION = 1;
+  private static final String BUNDLE_SUFFIX = ".bundle";
+  private static final String TEMP_PREFIX = "publishing-";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private final File directory;
+
+  /**
+   * @param directory
+   *          the directory shared by all the nodes. Created if it does not exist.
+   */
+  public SharedDirectoryBundleStore(final File directory) {
+    Validate.notNull(directory);
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new WroRuntimeException("Cannot create shared cache directory: " + directory);
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ContentHashEntry get(final String key) {
+    final File file = getFile(key);
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        LOG.warn("Ignoring bundle file with unknown format: {}", file);
+        return null;
+      }
+      final String hash = in.readBoolean() ? in.readUTF() : null;
+      final String encoding = in.readUTF();
+      final String contentType = in.readBoolean() ? in.readUTF() : null;
+      final int length = in.readInt();
+      byte[] content = null;
+      if (length >= 0) {
+        content = new byte[length];
+        in.readFully(content);
+      }
+      return ContentHashEntry.valueOf(content, encoding, hash, contentType);
+    } catch (final FileNotFoundException e) {
+      return null;
+    } catch (final IOException e) {
+      LOG.warn("Cannot read bundle file: " + file, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final String key, final ContentHashEntry value) {
+    Validate.notNull(value);
+    final File file = getFile(key);
+    if (file.exists()) {
+      LOG.debug("Bundle already published: {}", key);
+      return;
+    }
+    File tempFile = null;
+    try {
+      tempFile = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, directory);
+      write(tempFile, value);
+      if (tempFile.renameTo(file)) {
+        LOG.debug("Published bundle: {}", key);
+        tempFile = null;
+      } else if (!file.exists()) {
+        LOG.warn("Cannot publish bundle file: {}", file);
+      }
+    } catch (final IOException e) {
+      LOG.warn("Cannot publish bundle: " + key, e);
+    } finally {
+      if (tempFile != null && !tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+    }
+  }
+
+  private void write(final File file, final ContentHashEntry value)
+      throws IOException {
+    final FileOutputStream fos = new FileOutputStream(file);
+    try {
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeBoolean(value.getHash() != null);
+      if (value.getHash() != null) {
+        out.writeUTF(value.getHash());
+      }
+      out.writeUTF(value.getEncoding());
+      out.writeBoolean(value.getContentType() != null);
+      if (value.getContentType() != null) {
+        out.writeUTF(value.getContentType());
+      }
+      if (value.hasContent()) {
+        out.writeInt(value.getRawLength());
+        value.writeRawContent(out);
+      } else {
+        out.writeInt(-1);
+      }
+      out.flush();
+      // the other nodes must see the whole content once the file is renamed
+      fos.getFD().sync();
+    } finally {
+      IOUtils.closeQuietly(fos);
+    }
+  }
+
+  /**
+   * @return the file holding the bundle published under the provided key.
+   */
+  private File getFile(final String key) {
+    Validate.notEmpty(key);
+    return new File(directory, key.replaceAll("[^A-Za-z0-9_-]", "_") + BUNDLE_SUFFIX);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+  }
+
+  /**
+   * @return the directory where the bundles are published.
+   */
+  public File getDirectory() {
+    return directory;
+  }
+}
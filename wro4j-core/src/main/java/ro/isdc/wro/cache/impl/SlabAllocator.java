@@ -0,0 +1,130 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Allocates fixed size pages of memory outside of the heap. The memory is reserved in large direct buffers (slabs),
+ * created lazily until the capacity is reached, each slab being split in pages of the same size. A released page is
+ * reused for future allocations and the slabs are never returned, thus the memory is not fragmented and no direct
+ * buffer is allocated after the warm-up.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+final class SlabAllocator {
+  private static final ByteBuffer[] NO_PAGES = new ByteBuffer[0];
+  private final long capacity;
+  private final int slabSize;
+  private final int pageSize;
+  /**
+   * Pages available for allocation.
+   */
+  private final List<ByteBuffer> freePages = new ArrayList<ByteBuffer>();
+  private int slabCount;
+
+  /**
+   * @param capacity
+   *          the maximum number of bytes which can be allocated.
+   * @param slabSize
+   *          the size of a direct buffer allocated at once. Must be a multiple of pageSize.
+   * @param pageSize
+   *          the size of the allocated pages.
+   */
+  SlabAllocator(final long capacity, final int slabSize, final int pageSize) {
+    Validate.isTrue(pageSize > 0, "pageSize must be positive");
+    Validate.isTrue(slabSize >= pageSize && slabSize % pageSize == 0, "slabSize must be a multiple of pageSize");
+    Validate.isTrue(capacity >= slabSize, "capacity must be at least slabSize");
+    this.capacity = capacity;
+    this.slabSize = slabSize;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * @param size
+   *          the number of bytes to allocate.
+   * @return the pages able to hold the requested number of bytes or null if there is not enough free memory.
+   */
+  synchronized ByteBuffer[] allocate(final int size) {
+    Validate.isTrue(size >= 0);
+    final int pageCount = getPageCount(size);
+    if (pageCount == 0) {
+      return NO_PAGES;
+    }
+    while (freePages.size() < pageCount && (long) (slabCount + 1) * slabSize <= capacity) {
+      addSlab();
+    }
+    if (freePages.size() < pageCount) {
+      return null;
+    }
+    final ByteBuffer[] pages = new ByteBuffer[pageCount];
+    for (int i = 0; i < pageCount; i++) {
+      pages[i] = freePages.remove(freePages.size() - 1);
+    }
+    return pages;
+  }
+
+  private void addSlab() {
+    final ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+    for (int offset = 0; offset < slabSize; offset += pageSize) {
+      slab.limit(offset + pageSize);
+      slab.position(offset);
+      freePages.add(slab.slice());
+    }
+    slabCount++;
+  }
+
+  /**
+   * Makes the pages available for future allocations. The pages must not be used after this call.
+   */
+  synchronized void free(final ByteBuffer[] pages) {
+    for (final ByteBuffer page : pages) {
+      page.clear();
+      freePages.add(page);
+    }
+  }
+
+  /**
+   * @return the number of bytes currently allocated.
+   */
+  synchronized long getUsedBytes() {
+    return ((long) slabCount * slabSize) - ((long) freePages.size() * pageSize);
+  }
+
+  /**
+   * @return the number of bytes reserved in direct buffers.
+   */
+  synchronized long getReservedBytes() {
+    return (long) slabCount * slabSize;
+  }
+
+  /**
+   * @return the number of bytes which can still be allocated, either from the free pages or from new slabs.
+   */
+  synchronized long getAvailableBytes() {
+    return (capacity / slabSize) * slabSize - getUsedBytes();
+  }
+
+  /**
+   * @return the number of pages required to hold the provided number of bytes.
+   */
+  int getPageCount(final int size) {
+    return (size + pageSize - 1) / pageSize;
+  }
+
+  int getPageSize() {
+    return pageSize;
+  }
+
+  long getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,329 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+
+
+/**
+ * A memory cache bounded by the total number of bytes retained by the cached entries (see
+ * {@link ContentHashEntry#getWeight()}), rather than by the number of entries. When the cache is full, the decision to
+ * store a new entry is taken using the TinyLFU admission policy: the access frequency of each key (including the
+ * missed ones) is recorded in a compact count-min sketch, and a new entry is admitted only if it is accessed more often
+ * than the entries which must be evicted to make room for it. This way, a rarely requested large bundle cannot evict
+ * the frequently requested ones.
+ * <p/>
+ * The victims are chosen by sampling: the least frequently used of a few entries visited by a cursor over the cached
+ * entries, thus the cost of an eviction doesn't depend on the number of cached entries.
+ * <p/>
+ * The weight of an entry grows when its compressed variants are attached (see {@link ContentHashEntry#precompress()}).
+ * The grown weight is charged when the entry is accessed again, evicting other entries if the cache becomes full.
+ * <p/>
+ * The lookup is lock-free: a {@link ConcurrentHashMap} holds the entries and the sketch is updated with CAS operations.
+ * Only the insertion of a new entry and the charge of a grown entry are serialized, since they may require eviction.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class TinyLfuMemoryCacheStrategy
+    implements CacheStrategy<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(TinyLfuMemoryCacheStrategy.class);
+  /**
+   * Alias used to select this strategy.
+   */
+  public static final String ALIAS = "tinyLfu";
+  /**
+   * Default maximum number of bytes retained by the cache (64MB).
+   */
+  public static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+  /**
+   * The number of entries compared when choosing a victim.
+   */
+  private static final int SAMPLE_SIZE = 8;
+  private final ConcurrentMap<CacheEntry, Node> map = new ConcurrentHashMap<CacheEntry, Node>();
+  private final AtomicLong weight = new AtomicLong();
+  private final FrequencySketch sketch = new FrequencySketch();
+  private final long maxWeight;
+  /**
+   * Visits the cached entries when choosing the victims. Guarded by this.
+   */
+  private Iterator<Map.Entry<CacheEntry, Node>> cursor;
+
+  public TinyLfuMemoryCacheStrategy() {
+    this(DEFAULT_MAX_WEIGHT);
+  }
+
+  /**
+   * @param maxWeight
+   *          the maximum number of bytes retained by the cached entries.
+   */
+  public TinyLfuMemoryCacheStrategy(final long maxWeight) {
+    Validate.isTrue(maxWeight > 0, "maxWeight must be positive");
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ContentHashEntry get(final CacheEntry key) {
+    sketch.increment(key);
+    final Node node = map.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (node.weight != node.value.getWeight()) {
+      reweigh(key, node);
+    }
+    return node.value;
+  }
+
+  /**
+   * Charges the current weight of an entry whose compressed variants were attached after it was cached. If the cache
+   * becomes full, the entry competes with the other entries, as a new entry would.
+   */
+  private synchronized void reweigh(final CacheEntry key, final Node node) {
+    if (map.get(key) != node) {
+      return;
+    }
+    final long currentWeight = node.value.getWeight();
+    weight.addAndGet(currentWeight - node.weight);
+    node.weight = currentWeight;
+    final long overflow = weight.get() - maxWeight;
+    if (overflow > 0 && !evictFor(key, overflow)) {
+      LOG.debug("Entry {} is evicted, since it doesn't fit anymore", key);
+      map.remove(key);
+      weight.addAndGet(-node.weight);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    Validate.notNull(key);
+    Validate.notNull(value);
+    final long entryWeight = value.getWeight();
+    if (entryWeight > maxWeight) {
+      LOG.debug("Entry {} is larger than cache capacity ({} bytes). Not cached.", key, entryWeight);
+      return;
+    }
+    synchronized (this) {
+      final Node previous = map.remove(key);
+      if (previous != null) {
+        weight.addAndGet(-previous.weight);
+      }
+      final long overflow = weight.get() + entryWeight - maxWeight;
+      if (overflow > 0 && !evictFor(key, overflow)) {
+        LOG.debug("Entry {} was rejected by admission policy", key);
+        if (previous != null) {
+          // keep serving the previous value rather than losing the entry
+          map.put(key, previous);
+          weight.addAndGet(previous.weight);
+        }
+        return;
+      }
+      map.put(key, new Node(value, entryWeight));
+      weight.addAndGet(entryWeight);
+    }
+  }
+
+  /**
+   * Chooses the sampled victims whose total weight is at least the overflow and evicts them, but only if the candidate
+   * is more frequently used than all of them.
+   *
+   * @return true if the candidate can be admitted.
+   */
+  private boolean evictFor(final CacheEntry candidate, final long overflow) {
+    final int candidateFrequency = sketch.frequency(candidate);
+    final Set<CacheEntry> victims = new HashSet<CacheEntry>();
+    long freed = 0;
+    while (freed < overflow) {
+      final Map.Entry<CacheEntry, Node> victim = sampleVictim(candidate, victims);
+      if (victim == null || sketch.frequency(victim.getKey()) >= candidateFrequency) {
+        return false;
+      }
+      victims.add(victim.getKey());
+      freed += victim.getValue().weight;
+    }
+    for (final CacheEntry victim : victims) {
+      final Node evicted = map.remove(victim);
+      if (evicted != null) {
+        LOG.debug("Evicting entry: {}", victim);
+        weight.addAndGet(-evicted.weight);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the least frequently used (the heavier when the frequency is the same) of the next {@link #SAMPLE_SIZE}
+   *         entries visited by the cursor, or null if there is no entry other than the excluded ones.
+   */
+  private Map.Entry<CacheEntry, Node> sampleVictim(final CacheEntry candidate, final Set<CacheEntry> excluded) {
+    Map.Entry<CacheEntry, Node> victim = null;
+    int victimFrequency = 0;
+    int sampled = 0;
+    for (int visited = 0; sampled < SAMPLE_SIZE && visited <= map.size(); visited++) {
+      if (cursor == null || !cursor.hasNext()) {
+        cursor = map.entrySet().iterator();
+        if (!cursor.hasNext()) {
+          break;
+        }
+      }
+      final Map.Entry<CacheEntry, Node> entry = cursor.next();
+      // the cursor can return entries removed after it was created
+      if (entry.getKey().equals(candidate) || excluded.contains(entry.getKey())
+          || map.get(entry.getKey()) != entry.getValue()) {
+        continue;
+      }
+      sampled++;
+      final int frequency = sketch.frequency(entry.getKey());
+      if (victim == null || frequency < victimFrequency
+          || (frequency == victimFrequency && entry.getValue().weight > victim.getValue().weight)) {
+        victim = entry;
+        victimFrequency = frequency;
+      }
+    }
+    return victim;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void clear() {
+    map.clear();
+    cursor = null;
+    weight.set(0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+    clear();
+    sketch.clear();
+  }
+
+  /**
+   * @return the number of bytes retained by the cached entries.
+   */
+  public long getWeight() {
+    return weight.get();
+  }
+
+  /**
+   * Holds a cached value along with its charged weight, since the weight of an entry can change afterwards (ex: when
+   * its compressed variants are computed).
+   */
+  private static final class Node {
+    private final ContentHashEntry value;
+    /**
+     * The weight accounted in the weight of the cache. Changed only while holding the lock of the cache.
+     */
+    private volatile long weight;
+
+    Node(final ContentHashEntry value, final long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * A count-min sketch with 4-bit counters, used to estimate the access frequency of a key. Each long holds 16
+   * counters, updated using CAS. All the counters are halved after a number of increments, in order to favor the recent
+   * accesses.
+   */
+  private static final class FrequencySketch {
+    private static final int TABLE_SIZE = 1024;
+    private static final int DEPTH = 4;
+    private static final int SAMPLE_SIZE = TABLE_SIZE * 16 * 10;
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private final AtomicLongArray table = new AtomicLongArray(TABLE_SIZE);
+    private final AtomicInteger additions = new AtomicInteger();
+
+    void increment(final Object key) {
+      final int hash = spread(key.hashCode());
+      for (int i = 0; i < DEPTH; i++) {
+        final int counter = counterIndex(hash, i);
+        final int index = counter >>> 4;
+        final int shift = (counter & 15) << 2;
+        long current;
+        do {
+          current = table.get(index);
+          if (((current >>> shift) & 15L) == 15L) {
+            break;
+          }
+        } while (!table.compareAndSet(index, current, current + (1L << shift)));
+      }
+      if (additions.incrementAndGet() >= SAMPLE_SIZE) {
+        reset();
+      }
+    }
+
+    int frequency(final Object key) {
+      final int hash = spread(key.hashCode());
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < DEPTH; i++) {
+        final int counter = counterIndex(hash, i);
+        final int count = (int) ((table.get(counter >>> 4) >>> ((counter & 15) << 2)) & 15L);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    /**
+     * Halves all the counters.
+     */
+    private void reset() {
+      additions.set(0);
+      for (int i = 0; i < TABLE_SIZE; i++) {
+        long current;
+        do {
+          current = table.get(i);
+        } while (!table.compareAndSet(i, current, (current >>> 1) & RESET_MASK));
+      }
+    }
+
+    void clear() {
+      additions.set(0);
+      for (int i = 0; i < TABLE_SIZE; i++) {
+        table.set(i, 0);
+      }
+    }
+
+    /**
+     * @return the index of the counter (from all the TABLE_SIZE * 16 counters) for the provided row.
+     */
+    private int counterIndex(final int hash, final int row) {
+      long h = (hash + SEEDS[row]) * SEEDS[row];
+      h += h >>> 32;
+      return (int) h & (TABLE_SIZE * 16 - 1);
+    }
+
+    private int spread(final int hashCode) {
+      int h = hashCode * 0x9e3779b9;
+      return h ^ (h >>> 16);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.support;
+
+import java.util.Map;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+
+
+/**
+ * A service provider responsible for providing new implementations of {@link CacheStrategy}.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface CacheStrategyProvider {
+  /**
+   * @return the {@link CacheStrategy} implementations to contribute. The key represents the alias.
+   */
+  Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> provideCacheStrategies();
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.support;
+
+import java.util.Map;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.model.resource.support.AbstractConfigurableSingleStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
+import ro.isdc.wro.util.LazyInitializer;
+import ro.isdc.wro.util.ObjectDecorator;
+
+
+/**
+ * Uses the {@link CacheStrategy} implementation associated with an alias read from properties file. The configured
+ * strategy is resolved only once, since it holds the cached content.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ConfigurableCacheStrategy
+    extends AbstractConfigurableSingleStrategy<CacheStrategy<CacheEntry, ContentHashEntry>, CacheStrategyProvider>
+    implements CacheStrategy<CacheEntry, ContentHashEntry>, ObjectDecorator<CacheStrategy<CacheEntry, ContentHashEntry>> {
+  /**
+   * Property name to specify alias.
+   */
+  public static final String KEY = "cacheStrategy";
+  private final LazyInitializer<CacheStrategy<CacheEntry, ContentHashEntry>> strategyInitializer = new LazyInitializer<CacheStrategy<CacheEntry, ContentHashEntry>>() {
+    @Override
+    protected CacheStrategy<CacheEntry, ContentHashEntry> initialize() {
+      return getConfiguredStrategy();
+    }
+  };
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    getDecoratedObject().put(key, value);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ContentHashEntry get(final CacheEntry key) {
+    return getDecoratedObject().get(key);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void clear() {
+    getDecoratedObject().clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+    getDecoratedObject().destroy();
+  }
+
+  /**
+   * @return the configured strategy. The same instance is returned for each invocation.
+   */
+  public CacheStrategy<CacheEntry, ContentHashEntry> getDecoratedObject() {
+    return strategyInitializer.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public CacheStrategy<CacheEntry, ContentHashEntry> getOriginalDecoratedObject() {
+    return AbstractDecorator.getOriginalDecoratedObject(getDecoratedObject());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CacheStrategy<CacheEntry, ContentHashEntry> getDefaultStrategy() {
+    return new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> getStrategies(final CacheStrategyProvider provider) {
+    return provider.provideCacheStrategies();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected String getStrategyKey() {
+    return KEY;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Class<CacheStrategyProvider> getProviderClass() {
+    return CacheStrategyProvider.class;
+  }
+}
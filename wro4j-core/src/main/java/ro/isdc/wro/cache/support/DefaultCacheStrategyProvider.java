@@ -0,0 +1,66 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.support;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.cache.impl.MappedFileCacheStrategy;
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+import ro.isdc.wro.cache.impl.OffHeapCacheStrategy;
+import ro.isdc.wro.cache.impl.TinyLfuMemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.util.LazyInitializer;
+
+
+/**
+ * Default implementation of {@link CacheStrategyProvider} providing all {@link CacheStrategy} implementations from core
+ * module. The strategies bounded by the {@link WroConfiguration} are created when used, thus the configuration of the
+ * current context is read.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class DefaultCacheStrategyProvider
+    implements CacheStrategyProvider {
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> provideCacheStrategies() {
+    final Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> map = new HashMap<String, CacheStrategy<CacheEntry, ContentHashEntry>>();
+    map.put(MemoryCacheStrategy.ALIAS, new MemoryCacheStrategy<CacheEntry, ContentHashEntry>());
+    map.put(LruMemoryCacheStrategy.ALIAS, new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>());
+    map.put(TinyLfuMemoryCacheStrategy.ALIAS, new LazyCacheStrategyDecorator<CacheEntry, ContentHashEntry>(
+        new LazyInitializer<CacheStrategy<CacheEntry, ContentHashEntry>>() {
+          @Override
+          protected CacheStrategy<CacheEntry, ContentHashEntry> initialize() {
+            return new TinyLfuMemoryCacheStrategy(getConfig().getTinyLfuMaxWeight());
+          }
+        }));
+    map.put(MappedFileCacheStrategy.ALIAS, new MappedFileCacheStrategy());
+    map.put(OffHeapCacheStrategy.ALIAS, new LazyCacheStrategyDecorator<CacheEntry, ContentHashEntry>(
+        new LazyInitializer<CacheStrategy<CacheEntry, ContentHashEntry>>() {
+          @Override
+          protected CacheStrategy<CacheEntry, ContentHashEntry> initialize() {
+            final WroConfiguration config = getConfig();
+            return new OffHeapCacheStrategy(config.getOffHeapCapacity(), config.getOffHeapSlabSize(),
+                config.getOffHeapPageSize(), OffHeapCacheStrategy.DEFAULT_GRACE_PERIOD);
+          }
+        }));
+    return map;
+  }
+
+  /**
+   * @return the configuration of the current context or the default configuration when there is no context.
+   */
+  private WroConfiguration getConfig() {
+    return Context.isContextSet() ? Context.get().getConfig() : new WroConfiguration();
+  }
+}
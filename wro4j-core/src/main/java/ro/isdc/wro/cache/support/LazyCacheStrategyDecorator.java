@@ -0,0 +1,73 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache.support;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
+import ro.isdc.wro.util.LazyInitializer;
+import ro.isdc.wro.util.ObjectDecorator;
+
+
+/**
+ * Decorates a {@link LazyInitializer} which creates a {@link CacheStrategy}. Used by the providers of the strategies
+ * configured by the {@link ro.isdc.wro.config.jmx.WroConfiguration}, which is read only when the strategy is used (thus
+ * only the selected strategy is created).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class LazyCacheStrategyDecorator<K, V>
+    implements CacheStrategy<K, V>, ObjectDecorator<CacheStrategy<K, V>> {
+  private final LazyInitializer<CacheStrategy<K, V>> strategyInitializer;
+
+  public LazyCacheStrategyDecorator(final LazyInitializer<CacheStrategy<K, V>> strategyInitializer) {
+    Validate.notNull(strategyInitializer);
+    this.strategyInitializer = strategyInitializer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final K key, final V value) {
+    getDecoratedObject().put(key, value);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public V get(final K key) {
+    return getDecoratedObject().get(key);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void clear() {
+    getDecoratedObject().clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+    getDecoratedObject().destroy();
+  }
+
+  /**
+   * @return the strategy, created on the first invocation.
+   */
+  public CacheStrategy<K, V> getDecoratedObject() {
+    return strategyInitializer.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public CacheStrategy<K, V> getOriginalDecoratedObject() {
+    return AbstractDecorator.getOriginalDecoratedObject(getDecoratedObject());
+  }
+}
@@ -20,6 +20,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.WroFilter;
+import ro.isdc.wro.http.support.DetachedRequestHelper;
 
 
 /**
@@ -96,6 +97,30 @@ public class Context
   }
 
 
+  /**
+   * A context which can be used outside of the request cycle of the provided context (ex: by a background thread). The
+   * request of the created context holds a snapshot of the original request path values, while the response ignores
+   * all the invoked operations. The configuration, filterConfig and aggregatedFolderPath are preserved.
+   *
+   * @param context
+   *          the {@link Context} to detach.
+   */
+  public static Context detachedContext(final Context context) {
+    Validate.notNull(context);
+    final HttpServletRequest request = context.getRequest() != null
+        ? DetachedRequestHelper.createDetachedRequest(context.getRequest())
+        : null;
+    final HttpServletResponse response = context.getResponse() != null
+        ? DetachedRequestHelper.createDetachedResponse()
+        : null;
+    final Context detached = new Context(request, response, context.getFilterConfig());
+    detached.servletContext = context.getServletContext();
+    detached.setConfig(context.getConfig());
+    detached.setAggregatedFolderPath(context.getAggregatedFolderPath());
+    return detached;
+  }
+
+
   /**
    * @return {@link Context} associated with CURRENT request cycle.
    */
@@ -25,11 +25,18 @@ public class ContextPropagatingCallable<T>
   
   public T call()
       throws Exception {
+    // a work-stealing pool can run the callable on a thread waiting for another callable, thus the previous
+    // correlationId is restored
+    final String previousCorrelationId = Context.isContextSet() ? Context.getCorrelationId() : null;
     Context.setCorrelationId(correlationId);
     try {
       return decorated.call();
     } finally {
-      Context.unsetCorrelationId();
+      if (previousCorrelationId == null) {
+        Context.unsetCorrelationId();
+      } else {
+        Context.setCorrelationId(previousCorrelationId);
+      }
     }
   }
 }
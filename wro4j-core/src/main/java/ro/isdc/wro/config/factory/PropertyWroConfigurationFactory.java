@@ -63,6 +63,43 @@ public class PropertyWroConfigurationFactory
     config.setParallelPreprocessing(valueAsBoolean(properties.get(ConfigConstants.parallelPreprocessing.name()), false));
     config.setConnectionTimeout((int) valueAsLong(properties.get(ConfigConstants.connectionTimeout.name()),
         WroConfiguration.DEFAULT_CONNECTION_TIMEOUT));
+    config.setCacheDirectory(valueAsString(properties.get(ConfigConstants.cacheDirectory.name())));
+    config.setTinyLfuMaxWeight(valueAsLong(properties.get(ConfigConstants.tinyLfuMaxWeight.name()),
+        WroConfiguration.DEFAULT_TINY_LFU_MAX_WEIGHT));
+    config.setOffHeapCapacity(valueAsLong(properties.get(ConfigConstants.offHeapCapacity.name()),
+        WroConfiguration.DEFAULT_OFF_HEAP_CAPACITY));
+    config.setOffHeapSlabSize((int) valueAsLong(properties.get(ConfigConstants.offHeapSlabSize.name()),
+        WroConfiguration.DEFAULT_OFF_HEAP_SLAB_SIZE));
+    config.setOffHeapPageSize((int) valueAsLong(properties.get(ConfigConstants.offHeapPageSize.name()),
+        WroConfiguration.DEFAULT_OFF_HEAP_PAGE_SIZE));
+    config.setBackgroundCacheRefresh(valueAsBoolean(properties.get(ConfigConstants.backgroundCacheRefresh.name()), false));
+    config.setPrecompressContent(valueAsBoolean(properties.get(ConfigConstants.precompressContent.name()), false));
+    config.setCompressionLevel((int) valueAsLong(properties.get(ConfigConstants.compressionLevel.name()),
+        WroConfiguration.DEFAULT_COMPRESSION_LEVEL));
+    config.setCacheWarmUp(valueAsBoolean(properties.get(ConfigConstants.cacheWarmUp.name()), false));
+    config.setCacheWarmUpPath(valueAsString(properties.get(ConfigConstants.cacheWarmUpPath.name()),
+        WroConfiguration.DEFAULT_CACHE_WARM_UP_PATH));
+    config.setCacheWarmUpPoolSize((int) valueAsLong(properties.get(ConfigConstants.cacheWarmUpPoolSize.name()), 0));
+    config.setWaitForCacheWarmUp(valueAsBoolean(properties.get(ConfigConstants.waitForCacheWarmUp.name()), false));
+    config.setSharedCacheDirectory(valueAsString(properties.get(ConfigConstants.sharedCacheDirectory.name())));
+    config.setCachePreProcessedResources(valueAsBoolean(
+        properties.get(ConfigConstants.cachePreProcessedResources.name()), false));
+    config.setAsyncServing(valueAsBoolean(properties.get(ConfigConstants.asyncServing.name()), false));
+    config.setAsyncServingTimeout(valueAsLong(properties.get(ConfigConstants.asyncServingTimeout.name()),
+        WroConfiguration.DEFAULT_ASYNC_SERVING_TIMEOUT));
+    config.setBundleExportDirectory(valueAsString(properties.get(ConfigConstants.bundleExportDirectory.name())));
+    config.setSendfileHeader(valueAsString(properties.get(ConfigConstants.sendfileHeader.name())));
+    config.setSendfilePrefix(valueAsString(properties.get(ConfigConstants.sendfilePrefix.name())));
+    config.setProxyResourceCacheSize(valueAsLong(properties.get(ConfigConstants.proxyResourceCacheSize.name()),
+        WroConfiguration.DEFAULT_PROXY_RESOURCE_CACHE_SIZE));
+    config.setFingerprintProxyResources(valueAsBoolean(
+        properties.get(ConfigConstants.fingerprintProxyResources.name()), false));
+    config.setPreProcessingExecutor(valueAsString(properties.get(ConfigConstants.preProcessingExecutor.name())));
+    config.setPreProcessingQueueSize((int) valueAsLong(properties.get(ConfigConstants.preProcessingQueueSize.name()),
+        WroConfiguration.DEFAULT_PRE_PROCESSING_QUEUE_SIZE));
+    config.setStreamingPipeline(valueAsBoolean(properties.get(ConfigConstants.streamingPipeline.name()), false));
+    config.setStreamingBufferSize((int) valueAsLong(properties.get(ConfigConstants.streamingBufferSize.name()),
+        WroConfiguration.DEFAULT_STREAMING_BUFFER_SIZE));
     LOG.debug("WroConfiguration created: {}", config);
     return config;
   }
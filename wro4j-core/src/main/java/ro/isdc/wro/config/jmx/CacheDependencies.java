@@ -0,0 +1,232 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheEntry;
+
+
+/**
+ * Maps the uri of each resource used to process a cached entry to the entries using it: the resources of the group,
+ * the resources imported by the css resources, the images embedded as data uri, etc. A wildcard uri (ex:
+ * <code>/js/*.js</code>) is recorded as is and matches all the uri's it could be expanded to.
+ * <p/>
+ * When a resource is changed, only the entries depending on it are invalidated. An invalidated entry is considered
+ * missing by the cache until it is loaded again. An entry loaded before its invalidation (ex: a load in progress when
+ * the resource is changed) remains invalid.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class CacheDependencies
+    implements CacheDependenciesMBean {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheDependencies.class);
+  private final Map<String, Set<CacheEntry>> entriesByUri = new HashMap<String, Set<CacheEntry>>();
+  private final Map<CacheEntry, Set<String>> urisByEntry = new HashMap<CacheEntry, Set<String>>();
+  /**
+   * The invalidated entries, mapped by the version of the invalidation.
+   */
+  private final Map<CacheEntry, Long> invalidEntries = new HashMap<CacheEntry, Long>();
+  /**
+   * Incremented by each invalidation. Changed only while holding the lock of this object.
+   */
+  private volatile long version;
+
+  /**
+   * @return the current version, which should be retrieved before an entry is loaded and provided when its
+   *         dependencies are recorded.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Records the resources used to load an entry, replacing the previously recorded ones. The entry becomes valid,
+   * unless it was invalidated after the load was started.
+   *
+   * @param key
+   *          the loaded entry.
+   * @param uris
+   *          the uri's of the resources used to load the entry.
+   * @param loadVersion
+   *          the value of {@link #getVersion()} retrieved before the load was started.
+   */
+  public synchronized void record(final CacheEntry key, final Collection<String> uris, final long loadVersion) {
+    Validate.notNull(key);
+    Validate.notNull(uris);
+    remove(key);
+    final CacheEntry entry = copyOf(key);
+    urisByEntry.put(entry, new LinkedHashSet<String>(uris));
+    for (final String uri : uris) {
+      Set<CacheEntry> entries = entriesByUri.get(uri);
+      if (entries == null) {
+        entries = new HashSet<CacheEntry>();
+        entriesByUri.put(uri, entries);
+      }
+      entries.add(entry);
+    }
+    final Long invalidationVersion = invalidEntries.get(key);
+    if (invalidationVersion != null && invalidationVersion.longValue() <= loadVersion) {
+      invalidEntries.remove(key);
+    }
+  }
+
+  /**
+   * @return true if the entry was invalidated since it was loaded.
+   */
+  public synchronized boolean isInvalid(final CacheEntry key) {
+    return !invalidEntries.isEmpty() && invalidEntries.containsKey(key);
+  }
+
+  /**
+   * @return the uri's of the resources used to load the entry (an empty collection if the entry is not tracked).
+   */
+  public synchronized Collection<String> getDependencies(final CacheEntry key) {
+    final Set<String> uris = urisByEntry.get(key);
+    return uris == null ? Collections.<String> emptyList() : new ArrayList<String>(uris);
+  }
+
+  /**
+   * @param uri
+   *          the uri of a resource.
+   * @return the entries depending on the provided resource.
+   */
+  public synchronized Collection<CacheEntry> getEntriesDependingOn(final String uri) {
+    Validate.notNull(uri);
+    final Set<CacheEntry> result = new LinkedHashSet<CacheEntry>();
+    final Set<CacheEntry> entries = entriesByUri.get(uri);
+    if (entries != null) {
+      result.addAll(entries);
+    }
+    for (final Map.Entry<String, Set<CacheEntry>> entry : entriesByUri.entrySet()) {
+      if (isWildcard(entry.getKey()) && FilenameUtils.wildcardMatch(uri, entry.getKey())) {
+        result.addAll(entry.getValue());
+      }
+    }
+    return new ArrayList<CacheEntry>(result);
+  }
+
+  private boolean isWildcard(final String uri) {
+    return uri.indexOf('*') >= 0 || uri.indexOf('?') >= 0;
+  }
+
+  /**
+   * @return the tracked entries of the provided groups.
+   */
+  public synchronized Collection<CacheEntry> getEntriesOfGroups(final Collection<String> groupNames) {
+    Validate.notNull(groupNames);
+    final List<CacheEntry> result = new ArrayList<CacheEntry>();
+    for (final CacheEntry entry : urisByEntry.keySet()) {
+      if (groupNames.contains(entry.getGroupName())) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Invalidates the entries depending on the provided resource.
+   *
+   * @return the invalidated entries.
+   */
+  public synchronized Collection<CacheEntry> invalidate(final String uri) {
+    return invalidate(getEntriesDependingOn(uri));
+  }
+
+  /**
+   * Invalidates the provided entries.
+   *
+   * @return the invalidated entries.
+   */
+  public synchronized Collection<CacheEntry> invalidate(final Collection<CacheEntry> entries) {
+    Validate.notNull(entries);
+    version++;
+    for (final CacheEntry entry : entries) {
+      invalidEntries.put(copyOf(entry), version);
+    }
+    LOG.debug("Invalidated entries: {}", entries);
+    return entries;
+  }
+
+  /**
+   * Stops tracking the provided entry.
+   */
+  public synchronized void remove(final CacheEntry key) {
+    final Set<String> uris = urisByEntry.remove(key);
+    if (uris != null) {
+      for (final String uri : uris) {
+        final Set<CacheEntry> entries = entriesByUri.get(uri);
+        entries.remove(key);
+        if (entries.isEmpty()) {
+          entriesByUri.remove(uri);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops tracking all the entries, invoked when the cache is cleared.
+   */
+  public synchronized void clear() {
+    entriesByUri.clear();
+    urisByEntry.clear();
+    invalidEntries.clear();
+  }
+
+  /**
+   * The {@link CacheEntry} is mutable, thus a copy is kept.
+   */
+  private CacheEntry copyOf(final CacheEntry key) {
+    return new CacheEntry(key.getGroupName(), key.getType(), key.isMinimize());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String[] invalidateResource(final String uri) {
+    return toLines(invalidate(uri));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String[] getDependentEntries(final String uri) {
+    return toLines(getEntriesDependingOn(uri));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized int getTrackedEntryCount() {
+    return urisByEntry.size();
+  }
+
+  /**
+   * @return the provided entries formatted one per line, sorted.
+   */
+  public String[] toLines(final Collection<CacheEntry> entries) {
+    final List<String> lines = new ArrayList<String>();
+    for (final CacheEntry key : entries) {
+      lines.add(String.format("%s.%s (minimize=%s)", key.getGroupName(), key.getType().name().toLowerCase(),
+          key.isMinimize()));
+    }
+    Collections.sort(lines);
+    return lines.toArray(new String[lines.size()]);
+  }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+/**
+ * This interface defines the MBean exposing the resources used by each cached entry and allowing the invalidation of
+ * the entries depending on a changed resource.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface CacheDependenciesMBean {
+  /**
+   * Invalidates the cached entries depending on the provided resource. The invalidated entries are processed again when
+   * requested.
+   *
+   * @param uri
+   *          the uri of the changed resource.
+   * @return the invalidated entries, one per line.
+   */
+  String[] invalidateResource(String uri);
+
+  /**
+   * @param uri
+   *          the uri of a resource.
+   * @return the cached entries depending on the provided resource, one per line.
+   */
+  String[] getDependentEntries(String uri);
+
+  /**
+   * @return the number of cached entries whose dependencies are known.
+   */
+  int getTrackedEntryCount();
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.util.StripedCounter;
+
+
+/**
+ * Collects the statistics of the cache holding the processed groups. The totals are recorded with
+ * {@link StripedCounter}'s, since they are updated by each request. The statistics are also recorded for each cached
+ * entry, in order to find the groups which are expensive to process. The hits of an entry are striped too, since a
+ * popular group is hit by most of the requests.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class CacheStatistics
+    implements CacheStatisticsMBean {
+  private final StripedCounter hits = new StripedCounter();
+  private final StripedCounter misses = new StripedCounter();
+  private final StripedCounter loads = new StripedCounter();
+  private final StripedCounter loadTime = new StripedCounter();
+  private final StripedCounter evictions = new StripedCounter();
+  private final ConcurrentMap<CacheEntry, EntryStatistics> entries =
+      new ConcurrentHashMap<CacheEntry, EntryStatistics>();
+
+  private EntryStatistics getEntry(final CacheEntry key) {
+    EntryStatistics entry = entries.get(key);
+    if (entry == null) {
+      final EntryStatistics newEntry = new EntryStatistics();
+      entry = entries.putIfAbsent(key, newEntry);
+      if (entry == null) {
+        entry = newEntry;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Records a request served from the cache.
+   */
+  public void recordHit(final CacheEntry key) {
+    hits.increment();
+    getEntry(key).hits.increment();
+  }
+
+  /**
+   * Records a load of an entry which was not found in the cache.
+   *
+   * @param requests
+   *          the number of requests which waited for this load.
+   * @param time
+   *          the time (in milliseconds) spent for loading the entry.
+   */
+  public void recordLoad(final CacheEntry key, final int requests, final long time) {
+    misses.add(requests);
+    loads.increment();
+    loadTime.add(time);
+    final EntryStatistics entry = getEntry(key);
+    entry.misses.addAndGet(requests);
+    entry.loads.incrementAndGet();
+    entry.loadTime.addAndGet(time);
+  }
+
+  /**
+   * Records an entry stored in the cache.
+   *
+   * @param bytes
+   *          the number of bytes held by the stored entry.
+   */
+  public void recordPut(final CacheEntry key, final long bytes) {
+    final EntryStatistics entry = getEntry(key);
+    entry.bytes.set(bytes);
+    entry.stored = true;
+  }
+
+  /**
+   * Records a lookup which did not find the entry. If the entry was previously stored (and the cache was not cleared
+   * meanwhile), the entry was evicted.
+   */
+  public void recordMissing(final CacheEntry key) {
+    final EntryStatistics entry = entries.get(key);
+    if (entry != null && entry.stored) {
+      entry.stored = false;
+      entry.bytes.set(0);
+      entry.evictions.incrementAndGet();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Records the removal of all the entries.
+   */
+  public void recordClear() {
+    for (final EntryStatistics entry : entries.values()) {
+      entry.stored = false;
+      entry.bytes.set(0);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getHitRatio() {
+    final long hitCount = getHitCount();
+    final long total = hitCount + getMissCount();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getLoadCount() {
+    return loads.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getTotalLoadTime() {
+    return loadTime.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getAverageLoadTime() {
+    final long loadCount = getLoadCount();
+    return loadCount == 0 ? 0 : (double) getTotalLoadTime() / loadCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getBytes() {
+    long bytes = 0;
+    for (final EntryStatistics entry : entries.values()) {
+      bytes += entry.bytes.get();
+    }
+    return bytes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String[] getEntryStatistics() {
+    final List<String> lines = new ArrayList<String>();
+    for (final Map.Entry<CacheEntry, EntryStatistics> entry : entries.entrySet()) {
+      final CacheEntry key = entry.getKey();
+      lines.add(String.format("%s.%s (minimize=%s): %s", key.getGroupName(), key.getType().name().toLowerCase(),
+          key.isMinimize(), entry.getValue()));
+    }
+    Collections.sort(lines);
+    return lines.toArray(new String[lines.size()]);
+  }
+
+  /**
+   * @return the statistics of the provided entry, formatted as a single line, or null if no statistics were recorded.
+   */
+  public String getEntryStatistics(final CacheEntry key) {
+    final EntryStatistics entry = entries.get(key);
+    return entry != null ? entry.toString() : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void reset() {
+    hits.reset();
+    misses.reset();
+    loads.reset();
+    loadTime.reset();
+    evictions.reset();
+    for (final EntryStatistics entry : entries.values()) {
+      entry.reset();
+    }
+  }
+
+  /**
+   * The statistics of a single cached entry.
+   */
+  private static final class EntryStatistics {
+    private final StripedCounter hits = new StripedCounter();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadTime = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile boolean stored;
+
+    void reset() {
+      hits.reset();
+      misses.set(0);
+      loads.set(0);
+      loadTime.set(0);
+      evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+      final long loadCount = loads.get();
+      return String.format("hits=%d, misses=%d, loads=%d, averageLoadTime=%dms, evictions=%d, bytes=%d", hits.sum(),
+          misses.get(), loadCount, loadCount == 0 ? 0 : loadTime.get() / loadCount, evictions.get(), bytes.get());
+    }
+  }
+}
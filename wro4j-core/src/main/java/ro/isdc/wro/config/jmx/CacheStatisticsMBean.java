@@ -0,0 +1,63 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+/**
+ * This interface defines the MBean exposing the statistics of the cache holding the processed groups.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface CacheStatisticsMBean {
+  /**
+   * @return the number of requests served from the cache.
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of requests which did not find the entry in the cache.
+   */
+  long getMissCount();
+
+  /**
+   * @return the ratio of requests served from the cache (between 0 and 1).
+   */
+  double getHitRatio();
+
+  /**
+   * @return the number of entries loaded (processed).
+   */
+  long getLoadCount();
+
+  /**
+   * @return the total time (in milliseconds) spent for loading the entries.
+   */
+  long getTotalLoadTime();
+
+  /**
+   * @return the average time (in milliseconds) spent for loading an entry.
+   */
+  double getAverageLoadTime();
+
+  /**
+   * @return the number of entries removed by the cache strategy (ex: because its capacity was reached).
+   */
+  long getEvictionCount();
+
+  /**
+   * @return the number of bytes held by the cached entries.
+   */
+  long getBytes();
+
+  /**
+   * @return the statistics of each cached group and resource type, one per line.
+   */
+  String[] getEntryStatistics();
+
+  /**
+   * Sets all the counters to zero.
+   */
+  void reset();
+}
@@ -44,7 +44,8 @@ public enum ConfigConstants {
   /**
    * When this flag is enabled, the raw processed content will be gzipped only the first time and all subsequent
    * requests will use the cached gzipped content. Otherwise, the gzip operation will be performed for each request.
-   * This flag allow to control the memory vs processing power trade-off.
+   * This flag allow to control the memory vs processing power trade-off. When {@link #precompressContent} is true, the
+   * gzipped content is always cached, being computed asynchronously.
    */
   cacheGzippedContent,
   /**
@@ -81,5 +82,142 @@ public enum ConfigConstants {
    * After how many seconds the connection to servlet context and external url will be timed-out. This is useful to
    * avoid memory leaks when connection pool responsible for cache and model reload is destroyed.
    */
-  connectionTimeout
-}
\ No newline at end of file
+  connectionTimeout,
+  /**
+   * When true, the cache reload (triggered by {@link #cacheUpdatePeriod} or by its change) will rebuild the cached
+   * entries in the background and replace them one by one. Until an entry is replaced, the stale content is served.
+   * Otherwise, the cache is cleared and the next request of each entry will wait for it to be processed.
+   */
+  backgroundCacheRefresh,
+  /**
+   * The directory where the persistent cache strategies store the processed content. When not specified, a folder
+   * inside the temporary directory (java.io.tmpdir) is used.
+   */
+  cacheDirectory,
+  /**
+   * The maximum number of bytes of the processed content retained by the tinyLfu cache strategy. By default, up to 64M
+   * are retained.
+   */
+  tinyLfuMaxWeight,
+  /**
+   * The maximum number of bytes of the processed content stored outside of the heap by the offHeap cache strategy. By
+   * default, up to 64M are stored.
+   */
+  offHeapCapacity,
+  /**
+   * The number of bytes allocated at once (as a direct buffer) by the offHeap cache strategy. By default 1M.
+   */
+  offHeapSlabSize,
+  /**
+   * The size (in bytes) of the pages holding the content stored by the offHeap cache strategy. Must divide the
+   * {@link #offHeapSlabSize}. By default 8K.
+   */
+  offHeapPageSize,
+  /**
+   * When true, all the compressed variants (gzip and deflate) of a cached entry are computed once, asynchronously, after
+   * the entry is created. Until they are ready, the uncompressed content is served. Otherwise, the gzipped content is
+   * computed for each request (unless {@link #cacheGzippedContent} is true).
+   */
+  precompressContent,
+  /**
+   * The compression level (0-9) used to compute the precompressed gzipped and deflated content (see
+   * {@link #precompressContent}). By default, the best compression is used, since the compression is performed
+   * asynchronously, once per cached entry. The content compressed while serving a request uses the default level.
+   */
+  compressionLevel,
+  /**
+   * When true, all the groups of the model are processed (for each resource type and minimize flag) and cached in
+   * parallel when the filter is initialized, thus the first requests after a deploy do not pay the processing cost.
+   */
+  cacheWarmUp,
+  /**
+   * The path (relative to the context path) where the wro filter is mapped (ex: /wro/). Used to build the requests
+   * processing the groups during the cache warm-up.
+   */
+  cacheWarmUpPath,
+  /**
+   * The number of threads processing the groups during the cache warm-up. By default, the number of available
+   * processors is used.
+   */
+  cacheWarmUpPoolSize,
+  /**
+   * When true, the requests are rejected with 503 (Service Unavailable) status until the cache warm-up is complete. This
+   * way the application can be kept outside of a load balancer until all the groups are cached.
+   */
+  waitForCacheWarmUp,
+  /**
+   * A directory accessible by all the nodes of a cluster (ex: a network file system), used to share the processed
+   * bundles. A node fetches a bundle published by another node instead of processing it. By default, the bundles are not
+   * shared.
+   */
+  sharedCacheDirectory,
+  /**
+   * When true, the pre processed content of each resource is cached, thus only the changed resources are processed again
+   * when a group is rebuilt (ex: after the cache is cleared). A resource is considered changed when its content or the
+   * content of a resource located during its processing (ex: an imported css) is changed. By default this flag is false.
+   */
+  cachePreProcessedResources,
+  /**
+   * When true and the container supports the asynchronous processing (Servlet 3.0), the requests of a group which is
+   * being processed do not hold a thread while waiting: they are resumed when the processing is complete. The filter
+   * must be declared with async-supported. By default this flag is false.
+   */
+  asyncServing,
+  /**
+   * The time (in milliseconds) a request processed asynchronously waits for a group being processed. When the time
+   * elapses, the request is answered with 503 (Service Unavailable). By default 30000.
+   */
+  asyncServingTimeout,
+  /**
+   * A directory where each processed bundle (and its gzipped variant) is exported to a content addressed file, which
+   * can be served without copying the content through the heap. By default, the bundles are not exported.
+   */
+  bundleExportDirectory,
+  /**
+   * The name of the header (ex: X-Sendfile or X-Accel-Redirect) used to delegate the serving of the exported bundles to
+   * a fronting web server. By default, the exported bundles are served by wro4j.
+   */
+  sendfileHeader,
+  /**
+   * The prefix of the value of the {@link #sendfileHeader} (ex: the internal location of nginx mapped to the
+   * {@link #bundleExportDirectory}), followed by the name of the exported file. By default, the absolute path of the
+   * exported file is used.
+   */
+  sendfilePrefix,
+  /**
+   * The maximum number of bytes of the resources served by the resource proxy (ex: images referred by css) which are
+   * kept in memory. A value of zero disables the caching. By default, up to 8M are cached.
+   */
+  proxyResourceCacheSize,
+  /**
+   * When true, the url's of the resources served by the resource proxy, rewritten by
+   * {@link ro.isdc.wro.model.resource.processor.impl.css.CssUrlRewritingProcessor}, are suffixed with the hash of the
+   * content of the resource, allowing the browser to cache them for a long time. By default, the url's are not
+   * fingerprinted.
+   */
+  fingerprintProxyResources,
+  /**
+   * The executor used when {@link #parallelPreprocessing} is true. Possible values: fixed (default, a pool with a thread
+   * for each available cpu), bounded (a pool with a bounded queue, see {@link #preProcessingQueueSize}), workStealing
+   * (a fork-join pool, java 7 or later), virtual (a virtual thread for each resource, on jvm's supporting virtual
+   * threads) or the fully qualified name of a class implementing
+   * {@link ro.isdc.wro.model.group.processor.executor.PreProcessingExecutorFactory}.
+   */
+  preProcessingExecutor,
+  /**
+   * The maximum number of resources waiting to be pre processed by the bounded executor. When the queue is full, the
+   * resource is pre processed by the thread processing the group. By default, at most 256 resources are waiting.
+   */
+  preProcessingQueueSize,
+  /**
+   * When true, the processors are applied without materializing the content between each of them: the processors
+   * having the {@link ro.isdc.wro.model.group.processor.Streaming} annotation are connected through bounded buffers and
+   * run concurrently. By default this flag is false.
+   */
+  streamingPipeline,
+  /**
+   * The number of chars buffered between two streaming processors when {@link #streamingPipeline} is true. By default,
+   * 8192 chars are buffered.
+   */
+  streamingBufferSize
+}
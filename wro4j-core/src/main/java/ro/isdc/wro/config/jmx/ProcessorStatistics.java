@@ -0,0 +1,206 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.util.LatencyHistogram;
+import ro.isdc.wro.util.StripedCounter;
+
+
+/**
+ * Collects the statistics of the processors applied while building the groups, for each processor class and resource
+ * type: a {@link LatencyHistogram} of the processing time, the number of processed bytes and the number of failures.
+ * Useful for finding the processor which dominates the processing time, without enabling the debug logging.
+ * <p/>
+ * The time of a processor applied as a stage of a streaming pipeline includes the time it was blocked by the previous
+ * or the next stage. Such statistics are flagged as streaming and are not part of the total processing time.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ProcessorStatistics
+    implements ProcessorStatisticsMBean {
+  private final ConcurrentMap<String, Statistics> processors = new ConcurrentHashMap<String, Statistics>();
+
+  /**
+   * Suffix of the statistics of the processors applied as a stage of a streaming pipeline.
+   */
+  private static final String STREAMING_SUFFIX = " (streaming)";
+
+  private static String keyOf(final String processorName, final ResourceType type, final boolean streaming) {
+    final String key = type != null ? processorName + "." + type.name().toLowerCase() : processorName;
+    return streaming ? key + STREAMING_SUFFIX : key;
+  }
+
+  private Statistics getStatistics(final String processorName, final ResourceType type, final boolean streaming) {
+    final String key = keyOf(processorName, type, streaming);
+    Statistics statistics = processors.get(key);
+    if (statistics == null) {
+      final Statistics newStatistics = new Statistics(key, streaming);
+      statistics = processors.putIfAbsent(key, newStatistics);
+      if (statistics == null) {
+        statistics = newStatistics;
+      }
+    }
+    return statistics;
+  }
+
+  /**
+   * Records an invocation of a processor which is not a stage of a streaming pipeline.
+   *
+   * @see #record(String, ResourceType, long, long, long, boolean, boolean)
+   */
+  public void record(final String processorName, final ResourceType type, final long nanos, final long inputBytes,
+      final long outputBytes, final boolean failed) {
+    record(processorName, type, nanos, inputBytes, outputBytes, failed, false);
+  }
+
+  /**
+   * Records an invocation of a processor.
+   *
+   * @param processorName
+   *          identifies the processor (ex: its class name).
+   * @param type
+   *          the type of the processed resource, null if unknown.
+   * @param nanos
+   *          the time spent by the processor, in nanoseconds.
+   * @param inputBytes
+   *          the number of bytes read by the processor.
+   * @param outputBytes
+   *          the number of bytes written by the processor.
+   * @param failed
+   *          true if the processor failed.
+   * @param streaming
+   *          true if the processor was applied as a stage of a streaming pipeline.
+   */
+  public void record(final String processorName, final ResourceType type, final long nanos, final long inputBytes,
+      final long outputBytes, final boolean failed, final boolean streaming) {
+    Validate.notNull(processorName);
+    final Statistics statistics = getStatistics(processorName, type, streaming);
+    statistics.latency.record(nanos);
+    statistics.inputBytes.add(inputBytes);
+    statistics.outputBytes.add(outputBytes);
+    if (failed) {
+      statistics.failures.increment();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getInvocationCount() {
+    long count = 0;
+    for (final Statistics statistics : processors.values()) {
+      count += statistics.latency.getCount();
+    }
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getFailureCount() {
+    long count = 0;
+    for (final Statistics statistics : processors.values()) {
+      count += statistics.failures.sum();
+    }
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getTotalProcessingTime() {
+    double time = 0;
+    for (final Statistics statistics : processors.values()) {
+      if (!statistics.streaming) {
+        time += statistics.latency.getTotal();
+      }
+    }
+    return time;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String[] getProcessorStatistics() {
+    final List<Statistics> list = new ArrayList<Statistics>(processors.values());
+    Collections.sort(list, new Comparator<Statistics>() {
+      public int compare(final Statistics o1, final Statistics o2) {
+        return Double.compare(o2.latency.getTotal(), o1.latency.getTotal());
+      }
+    });
+    final List<String> lines = new ArrayList<String>();
+    for (final Statistics statistics : list) {
+      lines.add(statistics.toString());
+    }
+    return lines.toArray(new String[lines.size()]);
+  }
+
+  /**
+   * @return the latency histogram of the provided processor and resource type or null if no invocation was recorded.
+   */
+  public LatencyHistogram getLatency(final String processorName, final ResourceType type) {
+    return getLatency(processorName, type, false);
+  }
+
+  /**
+   * @param streaming
+   *          true for the latency of the processor applied as a stage of a streaming pipeline.
+   * @return the latency histogram of the provided processor and resource type or null if no invocation was recorded.
+   */
+  public LatencyHistogram getLatency(final String processorName, final ResourceType type, final boolean streaming) {
+    final Statistics statistics = processors.get(keyOf(processorName, type, streaming));
+    return statistics != null ? statistics.latency : null;
+  }
+
+  /**
+   * @return the names of the processors (suffixed with the resource type) having recorded statistics.
+   */
+  public List<String> getProcessorNames() {
+    final List<String> names = new ArrayList<String>(processors.keySet());
+    Collections.sort(names);
+    return names;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void reset() {
+    processors.clear();
+  }
+
+  /**
+   * The statistics of a processor applied on a resource type.
+   */
+  private static final class Statistics {
+    private final String name;
+    private final boolean streaming;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final StripedCounter inputBytes = new StripedCounter();
+    private final StripedCounter outputBytes = new StripedCounter();
+    private final StripedCounter failures = new StripedCounter();
+
+    Statistics(final String name, final boolean streaming) {
+      this.name = name;
+      this.streaming = streaming;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: total=%.3fms, failures=%d, inputBytes=%d, outputBytes=%d, %s", name,
+          latency.getTotal(), failures.sum(), inputBytes.sum(), outputBytes.sum(), latency);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+/**
+ * This interface defines the MBean exposing the time spent by the pre and post processors.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface ProcessorStatisticsMBean {
+  /**
+   * @return the number of times a processor was applied.
+   */
+  long getInvocationCount();
+
+  /**
+   * @return the number of times a processor failed.
+   */
+  long getFailureCount();
+
+  /**
+   * @return the total time (in milliseconds) spent by all the processors, except the stages of a streaming pipeline.
+   */
+  double getTotalProcessingTime();
+
+  /**
+   * @return the statistics of each processor and resource type (invocations, failures, processed bytes and latency
+   *         percentiles), one per line, the most expensive first.
+   */
+  String[] getProcessorStatistics();
+
+  /**
+   * Removes all the recorded statistics.
+   */
+  void reset();
+}
@@ -7,8 +7,10 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import org.apache.commons.lang3.CharEncoding;
+import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.Logger;
@@ -34,6 +36,46 @@ public final class WroConfiguration
    * Default value for connectionTimeout property.
    */
   public static int DEFAULT_CONNECTION_TIMEOUT = 2000;
+  /**
+   * Default value for compressionLevel property.
+   */
+  public static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_COMPRESSION;
+  /**
+   * Default value for proxyResourceCacheSize property (8M).
+   */
+  public static final long DEFAULT_PROXY_RESOURCE_CACHE_SIZE = 8L * 1024 * 1024;
+  /**
+   * Default value for preProcessingQueueSize property.
+   */
+  public static final int DEFAULT_PRE_PROCESSING_QUEUE_SIZE = 256;
+  /**
+   * Default value for streamingBufferSize property.
+   */
+  public static final int DEFAULT_STREAMING_BUFFER_SIZE = 8192;
+  /**
+   * Default value for asyncServingTimeout property (in milliseconds).
+   */
+  public static final long DEFAULT_ASYNC_SERVING_TIMEOUT = 30000;
+  /**
+   * Default value for tinyLfuMaxWeight property (64M).
+   */
+  public static final long DEFAULT_TINY_LFU_MAX_WEIGHT = 64L * 1024 * 1024;
+  /**
+   * Default value for offHeapCapacity property (64M).
+   */
+  public static final long DEFAULT_OFF_HEAP_CAPACITY = 64L * 1024 * 1024;
+  /**
+   * Default value for offHeapSlabSize property (1M).
+   */
+  public static final int DEFAULT_OFF_HEAP_SLAB_SIZE = 1024 * 1024;
+  /**
+   * Default value for offHeapPageSize property (8K).
+   */
+  public static final int DEFAULT_OFF_HEAP_PAGE_SIZE = 8 * 1024;
+  /**
+   * Default value for cacheWarmUpPath property.
+   */
+  public static final String DEFAULT_CACHE_WARM_UP_PATH = "/wro/";
   /**
    * How often to run a thread responsible for refreshing the cache.
    */
@@ -106,6 +148,114 @@ public final class WroConfiguration
    * will interrupt processing with a {@link RuntimeException}.
    */
   private boolean ignoreFailingProcessor = false;
+  /**
+   * When true, the cache reload will rebuild the cached entries in the background, serving the stale content until each
+   * entry is replaced. Otherwise, the cache is cleared. By default this flag is false.
+   */
+  private boolean backgroundCacheRefresh = false;
+  /**
+   * The directory used by persistent cache strategies. When null, a folder inside the temporary directory is used.
+   */
+  private String cacheDirectory;
+  /**
+   * The maximum number of bytes retained by the tinyLfu cache strategy.
+   */
+  private long tinyLfuMaxWeight = DEFAULT_TINY_LFU_MAX_WEIGHT;
+  /**
+   * The maximum number of bytes stored outside of the heap by the offHeap cache strategy.
+   */
+  private long offHeapCapacity = DEFAULT_OFF_HEAP_CAPACITY;
+  /**
+   * The size of a direct buffer allocated at once by the offHeap cache strategy.
+   */
+  private int offHeapSlabSize = DEFAULT_OFF_HEAP_SLAB_SIZE;
+  /**
+   * The size of the pages holding the content stored by the offHeap cache strategy.
+   */
+  private int offHeapPageSize = DEFAULT_OFF_HEAP_PAGE_SIZE;
+  /**
+   * When true, the compressed variants of each cached entry are computed once, asynchronously. By default this flag is
+   * false.
+   */
+  private boolean precompressContent = false;
+  /**
+   * The level used to compress the content.
+   */
+  private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+  /**
+   * When true, all the groups are processed and cached when the filter is initialized. By default this flag is false.
+   */
+  private boolean cacheWarmUp = false;
+  /**
+   * The path (relative to the context path) where the groups are requested, used to process the groups during cache
+   * warm-up.
+   */
+  private String cacheWarmUpPath = DEFAULT_CACHE_WARM_UP_PATH;
+  /**
+   * The number of threads processing the groups during cache warm-up. When not positive, the number of available
+   * processors is used.
+   */
+  private int cacheWarmUpPoolSize;
+  /**
+   * When true, the requests are rejected with 503 status until the cache warm-up is complete. By default this flag is
+   * false.
+   */
+  private boolean waitForCacheWarmUp = false;
+  /**
+   * The directory where the processed bundles are shared with the other nodes of a cluster. When null, the bundles are
+   * not shared.
+   */
+  private String sharedCacheDirectory;
+  /**
+   * When true, the pre processed content of each resource is cached and reused until the resource is changed. By default
+   * this flag is false.
+   */
+  private boolean cachePreProcessedResources = false;
+  /**
+   * When true, the requests waiting for a group being processed are processed asynchronously (if supported by the
+   * container). By default this flag is false.
+   */
+  private boolean asyncServing = false;
+  /**
+   * The time (in milliseconds) a request waits for a group being processed when it is processed asynchronously.
+   */
+  private long asyncServingTimeout = DEFAULT_ASYNC_SERVING_TIMEOUT;
+  /**
+   * The directory where the processed bundles are exported. By default, the bundles are not exported.
+   */
+  private String bundleExportDirectory;
+  /**
+   * The header used to delegate the serving of the exported bundles to a fronting web server.
+   */
+  private String sendfileHeader;
+  /**
+   * The prefix of the sendfile header value. By default, the absolute path of the exported file is used.
+   */
+  private String sendfilePrefix;
+  /**
+   * The maximum number of cached bytes of the proxied resources.
+   */
+  private long proxyResourceCacheSize = DEFAULT_PROXY_RESOURCE_CACHE_SIZE;
+  /**
+   * When true, the url's of the proxied resources are suffixed with the hash of their content.
+   */
+  private boolean fingerprintProxyResources = false;
+  /**
+   * The alias or the class name of the factory creating the executor used by the parallel pre processing.
+   */
+  private String preProcessingExecutor;
+  /**
+   * The maximum number of resources waiting to be pre processed by the bounded executor.
+   */
+  private int preProcessingQueueSize = DEFAULT_PRE_PROCESSING_QUEUE_SIZE;
+  /**
+   * When true, the streaming processors are connected through bounded buffers and run concurrently.
+   */
+  private boolean streamingPipeline = false;
+  /**
+   * The number of chars buffered between two streaming processors.
+   */
+  private int streamingBufferSize = DEFAULT_STREAMING_BUFFER_SIZE;
   /**
    * Listeners for the change of cache & model period properties.
    */
@@ -438,6 +588,392 @@ public final class WroConfiguration
     this.parallelPreprocessing = parallelPreprocessing;
   }
 
+  /**
+   * @return true if the cached entries are rebuilt in the background during cache reload.
+   */
+  public boolean isBackgroundCacheRefresh() {
+    return this.backgroundCacheRefresh;
+  }
+
+  /**
+   * @param backgroundCacheRefresh
+   *          flag indicating if the cached entries should be rebuilt in the background during cache reload.
+   */
+  public void setBackgroundCacheRefresh(final boolean backgroundCacheRefresh) {
+    this.backgroundCacheRefresh = backgroundCacheRefresh;
+  }
+
+  /**
+   * @return the directory used by persistent cache strategies or null if none is configured.
+   */
+  public String getCacheDirectory() {
+    return this.cacheDirectory;
+  }
+
+  /**
+   * @param cacheDirectory
+   *          the directory used by persistent cache strategies to store the processed content.
+   *          When null, each web application uses a folder of its own temporary directory.
+   */
+  public void setCacheDirectory(final String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * @return the maximum number of bytes retained by the tinyLfu cache strategy.
+   */
+  public long getTinyLfuMaxWeight() {
+    return this.tinyLfuMaxWeight;
+  }
+
+  /**
+   * @param tinyLfuMaxWeight
+   *          the maximum number of bytes retained by the tinyLfu cache strategy.
+   */
+  public void setTinyLfuMaxWeight(final long tinyLfuMaxWeight) {
+    this.tinyLfuMaxWeight = tinyLfuMaxWeight;
+  }
+
+  /**
+   * @return the maximum number of bytes stored outside of the heap by the offHeap cache strategy.
+   */
+  public long getOffHeapCapacity() {
+    return this.offHeapCapacity;
+  }
+
+  /**
+   * @param offHeapCapacity
+   *          the maximum number of bytes stored outside of the heap by the offHeap cache strategy.
+   */
+  public void setOffHeapCapacity(final long offHeapCapacity) {
+    this.offHeapCapacity = offHeapCapacity;
+  }
+
+  /**
+   * @return the size of a direct buffer allocated at once by the offHeap cache strategy.
+   */
+  public int getOffHeapSlabSize() {
+    return this.offHeapSlabSize;
+  }
+
+  /**
+   * @param offHeapSlabSize
+   *          the size of a direct buffer allocated at once by the offHeap cache strategy.
+   */
+  public void setOffHeapSlabSize(final int offHeapSlabSize) {
+    this.offHeapSlabSize = offHeapSlabSize;
+  }
+
+  /**
+   * @return the size of the pages holding the content stored by the offHeap cache strategy.
+   */
+  public int getOffHeapPageSize() {
+    return this.offHeapPageSize;
+  }
+
+  /**
+   * @param offHeapPageSize
+   *          the size of the pages holding the content stored by the offHeap cache strategy.
+   */
+  public void setOffHeapPageSize(final int offHeapPageSize) {
+    this.offHeapPageSize = offHeapPageSize;
+  }
+
+  /**
+   * @return true if the compressed variants of the cached entries are computed asynchronously, once per entry.
+   */
+  public boolean isPrecompressContent() {
+    return this.precompressContent;
+  }
+
+  /**
+   * @param precompressContent
+   *          flag indicating if the compressed variants of the cached entries should be computed asynchronously.
+   */
+  public void setPrecompressContent(final boolean precompressContent) {
+    this.precompressContent = precompressContent;
+  }
+
+  /**
+   * @return the level used to precompress the content.
+   */
+  public int getCompressionLevel() {
+    return this.compressionLevel;
+  }
+
+  /**
+   * @param compressionLevel
+   *          the level (0-9) used to precompress the content asynchronously (see {@link #isPrecompressContent()}).
+   */
+  public void setCompressionLevel(final int compressionLevel) {
+    Validate.isTrue(compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+        "Invalid compressionLevel: " + compressionLevel);
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * @return true if all the groups should be processed and cached when the filter is initialized.
+   */
+  public boolean isCacheWarmUp() {
+    return this.cacheWarmUp;
+  }
+
+  /**
+   * @param cacheWarmUp
+   *          flag indicating if all the groups should be processed and cached when the filter is initialized.
+   */
+  public void setCacheWarmUp(final boolean cacheWarmUp) {
+    this.cacheWarmUp = cacheWarmUp;
+  }
+
+  /**
+   * @return the path (relative to the context path) where the groups are requested.
+   */
+  public String getCacheWarmUpPath() {
+    return this.cacheWarmUpPath;
+  }
+
+  /**
+   * @param cacheWarmUpPath
+   *          the path (relative to the context path) where the groups are requested. Used to build the requests
+   *          processing the groups during cache warm-up (ex: for rewriting the url's of the css images).
+   */
+  public void setCacheWarmUpPath(final String cacheWarmUpPath) {
+    this.cacheWarmUpPath = cacheWarmUpPath;
+  }
+
+  /**
+   * @return the number of threads processing the groups during cache warm-up.
+   */
+  public int getCacheWarmUpPoolSize() {
+    return this.cacheWarmUpPoolSize;
+  }
+
+  /**
+   * @param cacheWarmUpPoolSize
+   *          the number of threads processing the groups during cache warm-up. When not positive, the number of
+   *          available processors is used.
+   */
+  public void setCacheWarmUpPoolSize(final int cacheWarmUpPoolSize) {
+    this.cacheWarmUpPoolSize = cacheWarmUpPoolSize;
+  }
+
+  /**
+   * @return true if the requests should be rejected until the cache warm-up is complete.
+   */
+  public boolean isWaitForCacheWarmUp() {
+    return this.waitForCacheWarmUp;
+  }
+
+  /**
+   * @param waitForCacheWarmUp
+   *          flag indicating if the requests should be rejected (with 503 status) until the cache warm-up is complete.
+   */
+  public void setWaitForCacheWarmUp(final boolean waitForCacheWarmUp) {
+    this.waitForCacheWarmUp = waitForCacheWarmUp;
+  }
+
+  /**
+   * @return the directory where the processed bundles are shared with the other nodes or null if they are not shared.
+   */
+  public String getSharedCacheDirectory() {
+    return this.sharedCacheDirectory;
+  }
+
+  /**
+   * @param sharedCacheDirectory
+   *          the directory (accessible by all the nodes of a cluster) where the processed bundles are shared.
+   */
+  public void setSharedCacheDirectory(final String sharedCacheDirectory) {
+    this.sharedCacheDirectory = sharedCacheDirectory;
+  }
+
+  /**
+   * @return true if the pre processed content of each resource is cached.
+   */
+  public boolean isCachePreProcessedResources() {
+    return this.cachePreProcessedResources;
+  }
+
+  /**
+   * @param cachePreProcessedResources
+   *          flag for turning on/off the cache of pre processed resources.
+   */
+  public void setCachePreProcessedResources(final boolean cachePreProcessedResources) {
+    this.cachePreProcessedResources = cachePreProcessedResources;
+  }
+
+  /**
+   * @return true if the requests waiting for a group being processed are processed asynchronously.
+   */
+  public boolean isAsyncServing() {
+    return this.asyncServing;
+  }
+
+  /**
+   * @param asyncServing
+   *          flag for turning on/off the asynchronous processing of the requests waiting for a group being processed.
+   */
+  public void setAsyncServing(final boolean asyncServing) {
+    this.asyncServing = asyncServing;
+  }
+
+  /**
+   * @return the time (in milliseconds) a request processed asynchronously waits for a group being processed.
+   */
+  public long getAsyncServingTimeout() {
+    return this.asyncServingTimeout;
+  }
+
+  /**
+   * @param asyncServingTimeout
+   *          the time (in milliseconds) a request processed asynchronously waits for a group being processed. When
+   *          the time elapses, the request is answered with 503 (Service Unavailable).
+   */
+  public void setAsyncServingTimeout(final long asyncServingTimeout) {
+    this.asyncServingTimeout = asyncServingTimeout;
+  }
+
+  /**
+   * @return the directory where the processed bundles are exported or null if the bundles are not exported.
+   */
+  public String getBundleExportDirectory() {
+    return this.bundleExportDirectory;
+  }
+
+  /**
+   * @param bundleExportDirectory
+   *          the directory where the processed bundles are exported.
+   */
+  public void setBundleExportDirectory(final String bundleExportDirectory) {
+    this.bundleExportDirectory = bundleExportDirectory;
+  }
+
+  /**
+   * @return the name of the header (ex: X-Sendfile) used to delegate the serving of the exported bundles to a fronting
+   *         web server or null if the exported bundles are served by wro4j.
+   */
+  public String getSendfileHeader() {
+    return this.sendfileHeader;
+  }
+
+  /**
+   * @param sendfileHeader
+   *          the name of the header used to delegate the serving of the exported bundles.
+   */
+  public void setSendfileHeader(final String sendfileHeader) {
+    this.sendfileHeader = sendfileHeader;
+  }
+
+  /**
+   * @return the prefix of the sendfile header value or null if the absolute path of the exported file is used.
+   */
+  public String getSendfilePrefix() {
+    return this.sendfilePrefix;
+  }
+
+  /**
+   * @param sendfilePrefix
+   *          the prefix of the sendfile header value, followed by the name of the exported file.
+   */
+  public void setSendfilePrefix(final String sendfilePrefix) {
+    this.sendfilePrefix = sendfilePrefix;
+  }
+
+  /**
+   * @return the maximum number of bytes of the proxied resources kept in memory (zero if they are not cached).
+   */
+  public long getProxyResourceCacheSize() {
+    return this.proxyResourceCacheSize;
+  }
+
+  /**
+   * @param proxyResourceCacheSize
+   *          the maximum number of bytes of the proxied resources kept in memory. Zero disables the caching.
+   */
+  public void setProxyResourceCacheSize(final long proxyResourceCacheSize) {
+    this.proxyResourceCacheSize = proxyResourceCacheSize;
+  }
+
+  /**
+   * @return true if the url's of the proxied resources are suffixed with the hash of their content.
+   */
+  public boolean isFingerprintProxyResources() {
+    return this.fingerprintProxyResources;
+  }
+
+  /**
+   * @param fingerprintProxyResources
+   *          flag for suffixing the url's of the proxied resources with the hash of their content.
+   */
+  public void setFingerprintProxyResources(final boolean fingerprintProxyResources) {
+    this.fingerprintProxyResources = fingerprintProxyResources;
+  }
+
+  /**
+   * @return the alias or the class name of the factory creating the executor used by the parallel pre processing or
+   *         null if the default (fixed) executor is used.
+   */
+  public String getPreProcessingExecutor() {
+    return this.preProcessingExecutor;
+  }
+
+  /**
+   * @param preProcessingExecutor
+   *          the alias (fixed, bounded, workStealing or virtual) or the class name of the factory creating the executor
+   *          used by the parallel pre processing.
+   */
+  public void setPreProcessingExecutor(final String preProcessingExecutor) {
+    this.preProcessingExecutor = preProcessingExecutor;
+  }
+
+  /**
+   * @return the maximum number of resources waiting to be pre processed by the bounded executor.
+   */
+  public int getPreProcessingQueueSize() {
+    return this.preProcessingQueueSize;
+  }
+
+  /**
+   * @param preProcessingQueueSize
+   *          the maximum number of resources waiting to be pre processed by the bounded executor.
+   */
+  public void setPreProcessingQueueSize(final int preProcessingQueueSize) {
+    this.preProcessingQueueSize = preProcessingQueueSize;
+  }
+
+  /**
+   * @return true if the processors are applied using a
+   *         {@link ro.isdc.wro.model.group.processor.StreamingProcessorPipeline}.
+   */
+  public boolean isStreamingPipeline() {
+    return this.streamingPipeline;
+  }
+
+  /**
+   * @param streamingPipeline
+   *          flag for turning on/off the streaming pipeline, which connects the streaming processors through bounded
+   *          buffers instead of materializing the content between each processor.
+   */
+  public void setStreamingPipeline(final boolean streamingPipeline) {
+    this.streamingPipeline = streamingPipeline;
+  }
+
+  /**
+   * @return the number of chars buffered between two streaming processors.
+   */
+  public int getStreamingBufferSize() {
+    return this.streamingBufferSize;
+  }
+
+  /**
+   * @param streamingBufferSize
+   *          the number of chars buffered between two streaming processors.
+   */
+  public void setStreamingBufferSize(final int streamingBufferSize) {
+    this.streamingBufferSize = streamingBufferSize;
+  }
+
   /**
    * @return value of the flag responsible for handling empty group behavior.
    */
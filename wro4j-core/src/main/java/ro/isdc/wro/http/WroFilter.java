@@ -34,12 +34,17 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.factory.PropertiesAndFilterConfigWroConfigurationFactory;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.handler.RequestHandler;
+import ro.isdc.wro.http.handler.RequestHandlerDispatcher;
 import ro.isdc.wro.http.handler.factory.DefaultRequestHandlerFactory;
 import ro.isdc.wro.http.handler.factory.RequestHandlerFactory;
 import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.http.support.ServletContextAttributeHelper;
+import ro.isdc.wro.manager.CacheWarmUp;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.manager.factory.DefaultWroManagerFactory;
 import ro.isdc.wro.manager.factory.InjectableWroManagerFactoryDecorator;
@@ -68,6 +73,10 @@ public class WroFilter
    * Default value used by Cache-control header.
    */
   private static final String DEFAULT_CACHE_CONTROL_VALUE = "public, max-age=315360000";
+  /**
+   * The number of seconds after which a client should retry a request rejected during cache warm-up.
+   */
+  private static final int RETRY_AFTER_CACHE_WARM_UP = 5;
   /**
    * Filter config.
    */
@@ -85,6 +94,14 @@ public class WroFilter
    * Used to create the collection of requestHandlers to apply
    */
   private RequestHandlerFactory requestHandlerFactory = new DefaultRequestHandlerFactory();
+  /**
+   * Dispatches the requests to the injected handlers. Reset when the configuration is changed.
+   */
+  private volatile RequestHandlerDispatcher requestHandlerDispatcher;
+  /**
+   * Populates the cache when the filter is initialized. Null when the cache warm-up is not enabled.
+   */
+  private CacheWarmUp cacheWarmUp;
   
   /**
    * Map containing header values used to control caching. The keys from this values are trimmed and lower-cased when
@@ -103,6 +120,11 @@ public class WroFilter
       return super.get(((String) key).toLowerCase());
     }
   };
+  /**
+   * The content of {@link #headersMap} as an array of name & value pairs, rebuilt each time the headers are initialized.
+   * Used to set the headers of each response without iterating the map.
+   */
+  private volatile String[] responseHeaders = new String[0];
   
   /**
    * @return implementation of {@link ObjectFactory<WroConfiguration>} used to create a {@link WroConfiguration} object.
@@ -120,9 +142,11 @@ public class WroFilter
     // invoke createConfiguration method only if the configuration was not set.
     this.wroConfiguration = wroConfiguration == null ? createConfiguration() : wroConfiguration;
     this.wroManagerFactory = new InjectableWroManagerFactoryDecorator(createWroManagerFactory());
+    this.requestHandlerDispatcher = null;
     initHeaderValues();
     registerChangeListeners();
     initJMX();
+    startCacheWarmUp();
     doInit(config);
   }
   
@@ -165,6 +189,21 @@ public class WroFilter
         if (!mbeanServer.isRegistered(name)) {
           mbeanServer.registerMBean(wroConfiguration, name);
         }
+        final ObjectName statisticsName = new ObjectName(newMBeanName(), "type",
+            CacheStatistics.class.getSimpleName());
+        if (!mbeanServer.isRegistered(statisticsName)) {
+          mbeanServer.registerMBean(wroManagerFactory.getCacheStatistics(), statisticsName);
+        }
+        final ObjectName dependenciesName = new ObjectName(newMBeanName(), "type",
+            CacheDependencies.class.getSimpleName());
+        if (!mbeanServer.isRegistered(dependenciesName)) {
+          mbeanServer.registerMBean(wroManagerFactory.getCacheDependencies(), dependenciesName);
+        }
+        final ObjectName processorsName = new ObjectName(newMBeanName(), "type",
+            ProcessorStatistics.class.getSimpleName());
+        if (!mbeanServer.isRegistered(processorsName)) {
+          mbeanServer.registerMBean(wroManagerFactory.getProcessorStatistics(), processorsName);
+        }
       }
       LOG.info("wro4j configuration: " + wroConfiguration);
     } catch (final JMException e) {
@@ -172,6 +211,16 @@ public class WroFilter
     }
   }
   
+  /**
+   * Starts the warm-up of the cache, if enabled.
+   */
+  private void startCacheWarmUp() {
+    if (wroConfiguration.isCacheWarmUp()) {
+      cacheWarmUp = new CacheWarmUp(wroManagerFactory, filterConfig, wroConfiguration,
+          StringUtils.defaultString(getServletContextPath())).start();
+    }
+  }
+
   /**
    * @return the name of MBean to be used by JMX to configure wro4j.
    */
@@ -189,11 +238,8 @@ public class WroFilter
    * @return Context path of the application.
    */
   private String getContextPath() {
-    String contextPath = null;
-    try {
-      contextPath = (String) ServletContext.class.getMethod("getContextPath", new Class<?>[] {}).invoke(
-          filterConfig.getServletContext(), new Object[] {});
-    } catch (final Exception e) {
+    String contextPath = getServletContextPath();
+    if (contextPath == null) {
       contextPath = "DEFAULT";
       LOG.warn("Couldn't identify contextPath because you are using older version of servlet-api (<2.5). Using "
           + contextPath + " contextPath.");
@@ -201,6 +247,19 @@ public class WroFilter
     return contextPath.replaceFirst("/", "");
   }
 
+  /**
+   * @return the context path of the application, as returned by the {@link ServletContext}, or null if it cannot be
+   *         identified (servlet-api older than 2.5).
+   */
+  private String getServletContextPath() {
+    try {
+      return (String) ServletContext.class.getMethod("getContextPath", new Class<?>[] {}).invoke(
+          filterConfig.getServletContext(), new Object[] {});
+    } catch (final Exception e) {
+      return null;
+    }
+  }
+
   /**
    * Override this method if you want to provide a different MBeanServer.
    * 
@@ -218,12 +277,14 @@ public class WroFilter
       public void propertyChange(final PropertyChangeEvent event) {
         // reset cache headers when any property is changed in order to avoid browser caching
         initHeaderValues();
+        requestHandlerDispatcher = null;
         wroManagerFactory.onCachePeriodChanged(valueAsLong(event.getNewValue()));
       }
     });
     wroConfiguration.registerModelUpdatePeriodChangeListener(new PropertyChangeListener() {
       public void propertyChange(final PropertyChangeEvent event) {
         initHeaderValues();
+        requestHandlerDispatcher = null;
         wroManagerFactory.onModelPeriodChanged(valueAsLong(event.getNewValue()));
       }
     });
@@ -266,6 +327,13 @@ public class WroFilter
             + "Expires: Thu, 15 Apr 2010 20:00:00 GMT | cache-control: public", e);
       }
     }
+    final String[] headers = new String[headersMap.size() * 2];
+    int index = 0;
+    for (final Map.Entry<String, String> entry : headersMap.entrySet()) {
+      headers[index++] = entry.getKey();
+      headers[index++] = entry.getValue();
+    }
+    responseHeaders = headers;
     LOG.debug("Header Values: {}", headersMap);
   }
 
@@ -302,6 +370,12 @@ public class WroFilter
 
     //prevent StackOverflowError by skipping the already included wro request
     if (!DispatcherStreamLocator.isIncludedRequest(request)) {
+      if (isWaitingForCacheWarmUp()) {
+        LOG.debug("Cache warm-up in progress. Rejecting request: {}", request.getRequestURI());
+        response.setHeader(HttpHeader.RETRY_AFTER.toString(), String.valueOf(RETRY_AFTER_CACHE_WARM_UP));
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        return;
+      }
       try {
         // add request, response & servletContext to thread local
         Context.set(Context.webContext(request, response, filterConfig), wroConfiguration);
@@ -327,21 +401,52 @@ public class WroFilter
     }
   }
 
+  /**
+   * @return true if the requests should be rejected, because the cache warm-up is not complete.
+   */
+  private boolean isWaitingForCacheWarmUp() {
+    return cacheWarmUp != null && wroConfiguration.isWaitForCacheWarmUp() && !cacheWarmUp.isComplete();
+  }
+
+  /**
+   * @return the {@link CacheWarmUp} started during initialization or null if the cache warm-up is not enabled.
+   * @VisibleForTesting
+   */
+  final CacheWarmUp getCacheWarmUp() {
+    return cacheWarmUp;
+  }
+
   private boolean handledWithRequestHandler(final HttpServletRequest request, final HttpServletResponse response)
       throws ServletException, IOException {
-    final Collection<RequestHandler> handlers = requestHandlerFactory.create();
-    Validate.notNull(handlers, "requestHandlers cannot be null!");
-    // create injector used for process injectable fields from each requestHandler.
-    final Injector injector = getInjector();
-    for (final RequestHandler requestHandler : handlers) {
-      injector.inject(requestHandler);
-      if (requestHandler.isEnabled() && requestHandler.accept(request)) {
-        requestHandler.handle(request, response);
-        return true;
-      }
+    final RequestHandler requestHandler = getRequestHandlerDispatcher().find(request);
+    if (requestHandler != null) {
+      requestHandler.handle(request, response);
+      return true;
     }
     return false;
   }
+
+  /**
+   * The handlers are created and injected only once, when the first request is processed (the injection requires the
+   * context of a request) and after the configuration is changed.
+   *
+   * @return the {@link RequestHandlerDispatcher} of the handlers created by the {@link RequestHandlerFactory}.
+   */
+  private RequestHandlerDispatcher getRequestHandlerDispatcher() {
+    RequestHandlerDispatcher dispatcher = requestHandlerDispatcher;
+    if (dispatcher == null) {
+      final Collection<RequestHandler> handlers = requestHandlerFactory.create();
+      Validate.notNull(handlers, "requestHandlers cannot be null!");
+      // create injector used for process injectable fields from each requestHandler.
+      final Injector injector = getInjector();
+      for (final RequestHandler requestHandler : handlers) {
+        injector.inject(requestHandler);
+      }
+      dispatcher = new RequestHandlerDispatcher(handlers);
+      requestHandlerDispatcher = dispatcher;
+    }
+    return dispatcher;
+  }
   
   /**
    * @return {@link Injector} used to inject {@link RequestHandler}'s.
@@ -412,8 +517,9 @@ public class WroFilter
    */
   protected void setResponseHeaders(final HttpServletResponse response) {
     // Force resource caching as best as possible
-    for (final Map.Entry<String, String> entry : headersMap.entrySet()) {
-      response.setHeader(entry.getKey(), entry.getValue());
+    final String[] headers = responseHeaders;
+    for (int i = 0; i < headers.length; i += 2) {
+      response.setHeader(headers[i], headers[i + 1]);
     }
     // prevent caching when in development mode
     if (wroConfiguration.isDebug()) {
@@ -436,6 +542,7 @@ public class WroFilter
     } else {
       this.wroManagerFactory = (InjectableWroManagerFactoryDecorator) wroManagerFactory;
     }
+    this.requestHandlerDispatcher = null;
   }
   
   /**
@@ -455,6 +562,7 @@ public class WroFilter
   public void setRequestHandlerFactory(final RequestHandlerFactory requestHandlerFactory) {
     Validate.notNull(requestHandlerFactory);
     this.requestHandlerFactory = requestHandlerFactory;
+    this.requestHandlerDispatcher = null;
   }
   
   /**
@@ -489,12 +597,16 @@ public class WroFilter
   public final void setConfiguration(final WroConfiguration config) {
     Validate.notNull(config);
     this.wroConfiguration = config;
+    this.requestHandlerDispatcher = null;
   }
 
   /**
    * {@inheritDoc}
    */
   public void destroy() {
+    if (cacheWarmUp != null) {
+      cacheWarmUp.cancel();
+    }
     if (wroManagerFactory != null) {
       wroManagerFactory.destroy();
     }
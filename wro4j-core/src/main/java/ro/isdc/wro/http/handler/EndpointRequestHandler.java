@@ -0,0 +1,22 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+/**
+ * A {@link RequestHandler} which handles only the requests to a fixed endpoint (ex: wroAPI/reloadCache). The endpoint
+ * is used by {@link RequestHandlerDispatcher} to find the handler without invoking the {@link #accept} method of the
+ * other handlers. Thus, {@link #accept} is invoked only for the requests whose uri ends with the endpoint (ignoring the
+ * case and a trailing slash).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface EndpointRequestHandler
+    extends RequestHandler {
+  /**
+   * @return the not empty endpoint of this handler, matched against the end of the request uri.
+   */
+  String getEndpointUri();
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.manager.ResourceBundleProcessor;
+import ro.isdc.wro.model.group.GroupExtractor;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Serves the fingerprinted bundles, requested using the uri's created by
+ * {@link ro.isdc.wro.manager.WroManager#encodeVersionIntoGroupPath(String, ResourceType, boolean)} (ex:
+ * <code>/wro/0f3a9c/all.js</code>). Since the content of such an uri never changes, it is served with headers allowing
+ * the browsers to cache it for a year without revalidation. A conditional request of a fingerprinted uri is answered
+ * with 304 without looking up the bundle.
+ * <p/>
+ * When the fingerprint does not match the hash of the current bundle (ex: the page was rendered before the bundle was
+ * changed), the request is redirected to the uri holding the current fingerprint.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class FingerprintedBundleRequestHandler
+    extends RequestHandlerSupport {
+  private static final Logger LOG = LoggerFactory.getLogger(FingerprintedBundleRequestHandler.class);
+  private static final int MIN_HASH_LENGTH = 6;
+  private static final int MAX_HASH_LENGTH = 128;
+  private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+  private static final long ONE_YEAR = 365L * 24 * 60 * 60 * 1000;
+  @Inject
+  private GroupExtractor groupExtractor;
+  @Inject
+  private CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy;
+  @Inject
+  private Injector injector;
+  /**
+   * Serves the bundles, injected once when the first fingerprinted bundle is served.
+   */
+  private volatile ResourceBundleProcessor bundleProcessor;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void handle(final HttpServletRequest request, final HttpServletResponse response)
+      throws IOException {
+    final String requestURI = request.getRequestURI();
+    final int nameStart = getFingerprintEnd(requestURI);
+    if (nameStart < 0) {
+      throw new IllegalStateException("Not a fingerprinted uri: " + requestURI);
+    }
+    final int fingerprintStart = requestURI.lastIndexOf('/', nameStart - 1) + 1;
+    final String fingerprint = requestURI.substring(fingerprintStart, nameStart);
+    if (("\"" + fingerprint + "\"").equals(request.getHeader(HttpHeader.IF_NONE_MATCH.toString()))) {
+      LOG.debug("Fingerprinted uri {} is not modified", request.getRequestURI());
+      setImmutableHeaders(response);
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    final CacheEntry key = new CacheEntry(groupExtractor.getGroupName(request), groupExtractor.getResourceType(request),
+        groupExtractor.isMinimized(request));
+    final ContentHashEntry cacheValue = cacheStrategy.get(key);
+    if (fingerprint.equals(cacheValue.getHash())) {
+      setImmutableHeaders(response);
+      getBundleProcessor().serveProcessedBundle();
+    } else {
+      final StringBuilder location = new StringBuilder(requestURI.substring(0, fingerprintStart)).append(
+          cacheValue.getHash()).append(requestURI.substring(nameStart));
+      if (request.getQueryString() != null) {
+        location.append('?').append(request.getQueryString());
+      }
+      LOG.debug("Stale fingerprint {}, redirecting to: {}", fingerprint, location);
+      WroUtil.addNoCacheHeaders(response);
+      response.sendRedirect(location.toString());
+    }
+  }
+
+  /**
+   * The processor is injected before being published, thus concurrent requests never use a partially injected
+   * processor.
+   */
+  private ResourceBundleProcessor getBundleProcessor() {
+    ResourceBundleProcessor processor = bundleProcessor;
+    if (processor == null) {
+      processor = new ResourceBundleProcessor();
+      injector.inject(processor);
+      bundleProcessor = processor;
+    }
+    return processor;
+  }
+
+  private void setImmutableHeaders(final HttpServletResponse response) {
+    response.setHeader(HttpHeader.CACHE_CONTROL.toString(), IMMUTABLE_CACHE_CONTROL);
+    response.setHeader(HttpHeader.EXPIRES.toString(), WroUtil.toDateAsString(System.currentTimeMillis() + ONE_YEAR));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean accept(final HttpServletRequest request) {
+    return getFingerprintEnd(request.getRequestURI()) >= 0 && groupExtractor.getResourceType(request) != null;
+  }
+
+  /**
+   * Checks whether the parent folder of the requested name is a hash (lower case hexadecimal digits, as created by the
+   * hash strategies). Invoked for each request, thus no regular expression is used.
+   *
+   * @return the index of the slash following the fingerprint or -1 if the uri is not fingerprinted.
+   */
+  private static int getFingerprintEnd(final String requestURI) {
+    if (requestURI == null) {
+      return -1;
+    }
+    final int nameStart = requestURI.lastIndexOf('/');
+    if (nameStart <= 0 || nameStart == requestURI.length() - 1) {
+      return -1;
+    }
+    final int fingerprintStart = requestURI.lastIndexOf('/', nameStart - 1) + 1;
+    final int length = nameStart - fingerprintStart;
+    if (length < MIN_HASH_LENGTH || length > MAX_HASH_LENGTH) {
+      return -1;
+    }
+    for (int i = fingerprintStart; i < nameStart; i++) {
+      final char c = requestURI.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+        return -1;
+      }
+    }
+    return nameStart;
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.config.ReadOnlyContext;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * This RequestHandler invalidates only the cached entries depending on a changed resource, on HTTP requests to
+ * "wroAPI/invalidateResource?uri=/path/to/resource.css". The invalidated entries (one per line) are written in the
+ * response. The entries are found using the {@link CacheDependencies} recorded during processing and the groups of the
+ * model containing the resource.
+ * <p/>
+ * This handler is available only in debug mode by default. You can change this behavior by overriding
+ * {@link RequestHandler#isEnabled()} method.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class InvalidateResourceRequestHandler
+    extends RequestHandlerSupport
+    implements EndpointRequestHandler {
+  private static final Logger LOG = LoggerFactory.getLogger(InvalidateResourceRequestHandler.class);
+  /**
+   * API - invalidate resource method call
+   */
+  public static final String ENDPOINT_URI = PATH_API + "/invalidateResource";
+  /**
+   * The name of the parameter holding the uri of the changed resource.
+   */
+  public static final String PARAM_URI = "uri";
+  @Inject
+  private ReadOnlyContext context;
+  @Inject
+  private WroModelFactory modelFactory;
+  @Inject
+  private CacheDependencies dependencies;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void handle(final HttpServletRequest request, final HttpServletResponse response)
+      throws IOException {
+    final String uri = request.getParameter(PARAM_URI);
+    WroUtil.addNoCacheHeaders(response);
+    if (StringUtils.isBlank(uri)) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing parameter: " + PARAM_URI);
+      return;
+    }
+    final Collection<CacheEntry> invalidated = dependencies.invalidate(getEntriesDependingOn(uri));
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType("text/plain");
+    final PrintWriter writer = response.getWriter();
+    for (final String line : dependencies.toLines(invalidated)) {
+      writer.println(line);
+    }
+    writer.flush();
+    LOG.debug("Invalidated entries depending on {}: {}", uri, invalidated);
+  }
+
+  private Collection<CacheEntry> getEntriesDependingOn(final String uri) {
+    final Set<CacheEntry> entries = new LinkedHashSet<CacheEntry>(dependencies.getEntriesDependingOn(uri));
+    entries.addAll(dependencies.getEntriesOfGroups(modelFactory.create().getGroupNamesContainingResource(uri)));
+    return entries;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean accept(final HttpServletRequest request) {
+    return WroUtil.matchesUrl(request, ENDPOINT_URI);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String getEndpointUri() {
+    return ENDPOINT_URI;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isEnabled() {
+    return context.getConfig().isDebug();
+  }
+}
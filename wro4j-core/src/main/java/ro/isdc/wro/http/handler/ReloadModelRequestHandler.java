@@ -24,7 +24,8 @@ import ro.isdc.wro.util.WroUtil;
  * @since 1.4.7
  */
 public class ReloadModelRequestHandler
-    extends RequestHandlerSupport {
+    extends RequestHandlerSupport
+    implements EndpointRequestHandler {
   private static final Logger LOG = LoggerFactory.getLogger(ReloadModelRequestHandler.class);
   /**
    * API - reload model method call
@@ -52,6 +53,13 @@ public class ReloadModelRequestHandler
   public boolean accept(final HttpServletRequest request) {
     return WroUtil.matchesUrl(request, ENDPOINT_URI);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String getEndpointUri() {
+    return ENDPOINT_URI;
+  }
   
   /**
    * {@inheritDoc}
@@ -0,0 +1,131 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Finds the {@link RequestHandler} of a request. The handlers are indexed once: the {@link EndpointRequestHandler}'s
+ * are mapped by the last segment of their endpoint, thus only the handlers of the requested endpoint (if any) and the
+ * handlers without endpoint are checked for each request. The order of the handlers is preserved: the first enabled
+ * handler accepting the request is returned.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class RequestHandlerDispatcher {
+  /**
+   * The handlers with endpoint, mapped by the lower case last segment of their endpoint.
+   */
+  private final Map<String, List<Candidate>> endpointHandlers = new HashMap<String, List<Candidate>>();
+  /**
+   * The handlers without endpoint, which are checked for each request.
+   */
+  private final List<Candidate> otherHandlers = new ArrayList<Candidate>();
+
+  /**
+   * @param handlers
+   *          the already injected handlers, in the order they should be checked.
+   */
+  public RequestHandlerDispatcher(final Collection<RequestHandler> handlers) {
+    Validate.notNull(handlers, "requestHandlers cannot be null!");
+    int index = 0;
+    for (final RequestHandler handler : handlers) {
+      Validate.notNull(handler);
+      if (handler instanceof EndpointRequestHandler) {
+        final String endpoint = normalize(((EndpointRequestHandler) handler).getEndpointUri());
+        Validate.notEmpty(endpoint, "Invalid endpoint of handler: " + handler);
+        final String key = endpoint.substring(endpoint.lastIndexOf('/') + 1).toLowerCase();
+        List<Candidate> candidates = endpointHandlers.get(key);
+        if (candidates == null) {
+          candidates = new ArrayList<Candidate>();
+          endpointHandlers.put(key, candidates);
+        }
+        candidates.add(new Candidate(index++, handler, endpoint));
+      } else {
+        otherHandlers.add(new Candidate(index++, handler, null));
+      }
+    }
+  }
+
+  /**
+   * @return the handler of the request or null if no enabled handler accepts the request.
+   */
+  public RequestHandler find(final HttpServletRequest request) {
+    final String requestURI = request.getRequestURI();
+    final List<Candidate> candidates = getEndpointCandidates(requestURI);
+    int i = 0;
+    int j = 0;
+    while (i < candidates.size() || j < otherHandlers.size()) {
+      final Candidate candidate;
+      if (j >= otherHandlers.size() || (i < candidates.size() && candidates.get(i).index < otherHandlers.get(j).index)) {
+        candidate = candidates.get(i++);
+        if (!candidate.matchesEndpoint(requestURI)) {
+          continue;
+        }
+      } else {
+        candidate = otherHandlers.get(j++);
+      }
+      if (candidate.handler.isEnabled() && candidate.handler.accept(request)) {
+        return candidate.handler;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the handlers whose endpoint ends with the last segment of the request uri.
+   */
+  private List<Candidate> getEndpointCandidates(final String requestURI) {
+    if (requestURI == null || endpointHandlers.isEmpty()) {
+      return Collections.emptyList();
+    }
+    int end = requestURI.length();
+    if (end > 0 && requestURI.charAt(end - 1) == '/') {
+      end--;
+    }
+    final String lastSegment = requestURI.substring(requestURI.lastIndexOf('/', end - 1) + 1, end);
+    final List<Candidate> candidates = endpointHandlers.get(lastSegment.toLowerCase());
+    return candidates == null ? Collections.<Candidate> emptyList() : candidates;
+  }
+
+  private static String normalize(final String endpoint) {
+    return endpoint != null && endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+  }
+
+  private static final class Candidate {
+    private final int index;
+    private final RequestHandler handler;
+    private final String endpoint;
+
+    Candidate(final int index, final RequestHandler handler, final String endpoint) {
+      this.index = index;
+      this.handler = handler;
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * @return true if the uri ends with the endpoint, ignoring the case and a trailing slash.
+     */
+    boolean matchesEndpoint(final String requestURI) {
+      int end = requestURI.length();
+      if (end > 0 && requestURI.charAt(end - 1) == '/') {
+        end--;
+      }
+      final int start = end - endpoint.length();
+      return start >= 0 && requestURI.regionMatches(true, start, endpoint, 0, endpoint.length());
+    }
+  }
+}
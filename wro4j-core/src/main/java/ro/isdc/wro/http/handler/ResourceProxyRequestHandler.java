@@ -1,5 +1,6 @@
 package ro.isdc.wro.http.handler;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -14,13 +15,25 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.ContentTypeResolver;
+import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.http.support.ProxiedResourceCache;
+import ro.isdc.wro.http.support.ProxiedResourceCache.ProxiedResource;
 import ro.isdc.wro.http.support.UnauthorizedRequestException;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.WroUtil;
 
 /**
  * Provides access to wro resources via a resource proxy.
+ * <p/>
+ * The content of the proxied resources is cached (see {@link WroConfiguration#getProxyResourceCacheSize()}) and served
+ * with a strong ETag computed from its hash. The cached content is checked against the located resource on each
+ * request in debug mode, or once per cache update period otherwise. When the request carries a fingerprint (the
+ * {@link #PARAM_FINGERPRINT} parameter) matching the hash of the content, the response can be cached for a year. The
+ * fingerprint is added by {@link ro.isdc.wro.model.resource.processor.impl.css.CssUrlRewritingProcessor} when
+ * {@link WroConfiguration#isFingerprintProxyResources()} is true.
  *
  * @author Ivar Conradi Østhus
  * @created 19 May 2012
@@ -31,16 +44,36 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
 
   public static final String PARAM_RESOURCE_ID = "id";
   public static final String PATH_RESOURCES = "wroResources";
-  
+  /**
+   * The optional parameter holding the hash of the requested resource.
+   */
+  public static final String PARAM_FINGERPRINT = "v";
+  /**
+   * Used when the fingerprint of the request matches the served content.
+   */
+  private static final String FINGERPRINTED_CACHE_CONTROL = "public, max-age=31536000";
+  /**
+   * Used when the request is not fingerprinted: the response can be cached, but must be revalidated.
+   */
+  private static final String REVALIDATED_CACHE_CONTROL = "public, max-age=0, must-revalidate";
+  private static final long ONE_YEAR = 365L * 24 * 60 * 60 * 1000;
+
   @Inject
   private UriLocatorFactory uriLocatorFactory;
 
   @Inject
   private WroConfiguration config;
-  
+
   @Inject
   private ResourceAuthorizationManager authManager;
 
+  @Inject
+  private HashStrategy hashStrategy;
+  /**
+   * Created on first use, since the handler is injected before its configuration is available.
+   */
+  private volatile ProxiedResourceCache cache;
+
   /**
    * {@inheritDoc}
    */
@@ -48,7 +81,7 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
       throws IOException {
     final String resourceUri = request.getParameter(PARAM_RESOURCE_ID);
     verifyAccess(resourceUri, response);
-    serverProxyResourceUri(resourceUri, response);
+    serverProxyResourceUri(resourceUri, request, response);
   }
 
   /**
@@ -58,19 +91,91 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
     return StringUtils.contains(request.getRequestURI(), PATH_RESOURCES);
   }
 
-  private void serverProxyResourceUri(final String resourceUri, final HttpServletResponse response)
+  private void serverProxyResourceUri(final String resourceUri, final HttpServletRequest request,
+      final HttpServletResponse response)
       throws IOException {
     LOG.debug("[OK] serving proxy resource: {}", resourceUri);
-    final InputStream is = uriLocatorFactory.locate(resourceUri);
+    final ProxiedResource resource = getResource(resourceUri);
+    setCacheHeaders(response, resource.getHash().equals(request.getParameter(PARAM_FINGERPRINT)));
+    response.setHeader(HttpHeader.ETAG.toString(), resource.getETag());
+    if (resource.getETag().equals(request.getHeader(HttpHeader.IF_NONE_MATCH.toString()))) {
+      LOG.debug("ETag hash detected: {}. Sending {} status code", resource.getETag(),
+          HttpServletResponse.SC_NOT_MODIFIED);
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
     final OutputStream outputStream = response.getOutputStream();
 
     response.setContentType(ContentTypeResolver.get(resourceUri, config.getEncoding()));
-    int length = IOUtils.copy(is, outputStream);
-    response.setContentLength(length);
+    response.setContentLength(resource.getContent().length);
     response.setStatus(HttpServletResponse.SC_OK);
+    outputStream.write(resource.getContent());
 
     IOUtils.closeQuietly(outputStream);
-    IOUtils.closeQuietly(is);
+  }
+
+  private void setCacheHeaders(final HttpServletResponse response, final boolean fingerprinted) {
+    if (fingerprinted) {
+      response.setHeader(HttpHeader.CACHE_CONTROL.toString(), FINGERPRINTED_CACHE_CONTROL);
+      response.setHeader(HttpHeader.EXPIRES.toString(), WroUtil.toDateAsString(System.currentTimeMillis() + ONE_YEAR));
+    } else {
+      response.setHeader(HttpHeader.CACHE_CONTROL.toString(), REVALIDATED_CACHE_CONTROL);
+    }
+  }
+
+  /**
+   * @return the cached resource if it is still valid, otherwise the located resource.
+   */
+  private ProxiedResource getResource(final String resourceUri)
+      throws IOException {
+    final ProxiedResourceCache cache = getCache();
+    final ProxiedResource cached = cache != null ? cache.get(resourceUri) : null;
+    if (cached != null && !isRevalidationRequired(cached)) {
+      return cached;
+    }
+    final InputStream is = uriLocatorFactory.locate(resourceUri);
+    final byte[] content;
+    try {
+      content = IOUtils.toByteArray(is);
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+    final String hash = hashStrategy.getHash(new ByteArrayInputStream(content));
+    if (cached != null && cached.getHash().equals(hash)) {
+      LOG.debug("Proxied resource {} is not changed", resourceUri);
+      cached.validated();
+      return cached;
+    }
+    final ProxiedResource resource = new ProxiedResource(content, hash);
+    if (cache != null) {
+      cache.put(resourceUri, resource);
+    }
+    return resource;
+  }
+
+  /**
+   * @return true if the cached content should be checked against the located resource.
+   */
+  private boolean isRevalidationRequired(final ProxiedResource resource) {
+    if (config.isDebug()) {
+      return true;
+    }
+    final long period = config.getCacheUpdatePeriod();
+    return period > 0 && System.currentTimeMillis() - resource.getValidatedAt() >= period * 1000;
+  }
+
+  /**
+   * @return the cache of proxied resources or null if the caching is disabled.
+   */
+  private ProxiedResourceCache getCache() {
+    if (cache == null && config.getProxyResourceCacheSize() > 0) {
+      synchronized (this) {
+        if (cache == null) {
+          cache = new ProxiedResourceCache(config.getProxyResourceCacheSize());
+        }
+      }
+    }
+    return cache;
   }
 
   /**
@@ -84,4 +189,4 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
       throw new UnauthorizedRequestException("Unauthorized resource request detected: " + resourceUri);
     }
   }
-}
\ No newline at end of file
+}
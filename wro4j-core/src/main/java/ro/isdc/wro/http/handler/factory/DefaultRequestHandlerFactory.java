@@ -6,6 +6,8 @@ import java.util.Collection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.http.handler.FingerprintedBundleRequestHandler;
+import ro.isdc.wro.http.handler.InvalidateResourceRequestHandler;
 import ro.isdc.wro.http.handler.ReloadCacheRequestHandler;
 import ro.isdc.wro.http.handler.ReloadModelRequestHandler;
 import ro.isdc.wro.http.handler.RequestHandler;
@@ -13,8 +15,9 @@ import ro.isdc.wro.http.handler.ResourceProxyRequestHandler;
 
 
 /**
- * Default {@link RequestHandlerFactory} which provides the the following handlers: {@link ReloadCacheRequestHandler} &
- * {@link ReloadModelRequestHandler}.
+ * Default {@link RequestHandlerFactory} which provides the the following handlers: {@link ReloadCacheRequestHandler},
+ * {@link ReloadModelRequestHandler}, {@link InvalidateResourceRequestHandler} &
+ * {@link FingerprintedBundleRequestHandler}.
  *
  * WroModelAsJsonRequestHandler is added only if the wro4j-extensions library is loaded.
  * 
@@ -35,6 +38,8 @@ public class DefaultRequestHandlerFactory extends SimpleRequestHandlerFactory {
     requestHandlers.add(new ResourceProxyRequestHandler());
     requestHandlers.add(new ReloadCacheRequestHandler());
     requestHandlers.add(new ReloadModelRequestHandler());
+    requestHandlers.add(new InvalidateResourceRequestHandler());
+    requestHandlers.add(new FingerprintedBundleRequestHandler());
     addExtensionsHandlers(requestHandlers);
     setHandlers(requestHandlers);
   }
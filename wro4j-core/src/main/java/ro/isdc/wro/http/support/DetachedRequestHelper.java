@@ -0,0 +1,135 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Creates request and response objects which can be used outside of the request cycle (ex: by a thread rebuilding the
+ * cache in the background). The original request cannot be used for this purpose, because the servlet container
+ * recycles it as soon as the request is served. The created request only holds a snapshot of the path related values
+ * of the original request, while all other methods return default values (null, false or 0).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public final class DetachedRequestHelper {
+  /**
+   * Methods whose values are copied from the original request.
+   */
+  private static final String[] SNAPSHOT_METHODS = {
+    "getRequestURI", "getContextPath", "getServletPath", "getPathInfo", "getQueryString", "getMethod", "getScheme",
+    "getServerName", "getServerPort", "getCharacterEncoding"
+  };
+
+  private DetachedRequestHelper() {
+  }
+
+  /**
+   * @param request
+   *          the request to create the snapshot of.
+   * @return a request holding a snapshot of the path related values of the provided request.
+   */
+  public static HttpServletRequest createDetachedRequest(final HttpServletRequest request) {
+    Validate.notNull(request);
+    final Map<String, Object> values = new HashMap<String, Object>();
+    for (final String methodName : SNAPSHOT_METHODS) {
+      try {
+        values.put(methodName, HttpServletRequest.class.getMethod(methodName).invoke(request));
+      } catch (final Exception e) {
+        // the value is not available, thus the default value will be used
+      }
+    }
+    final StringBuffer requestURL = request.getRequestURL();
+    if (requestURL != null) {
+      values.put("getRequestURL", requestURL.toString());
+    }
+    return createProxy(HttpServletRequest.class, values);
+  }
+
+  /**
+   * Creates a request which is not associated with any client request (ex: used to process a group before it is
+   * requested).
+   *
+   * @param contextPath
+   *          the context path of the application.
+   * @param requestURI
+   *          the uri of the request, including the context path.
+   * @return a GET request having the provided path values.
+   */
+  public static HttpServletRequest createRequest(final String contextPath, final String requestURI) {
+    Validate.notNull(contextPath);
+    Validate.notNull(requestURI);
+    final Map<String, Object> values = new HashMap<String, Object>();
+    values.put("getContextPath", contextPath);
+    values.put("getRequestURI", requestURI);
+    values.put("getServletPath", StringUtils.removeStart(requestURI, contextPath));
+    values.put("getMethod", "GET");
+    return createProxy(HttpServletRequest.class, values);
+  }
+
+  /**
+   * @return a response ignoring all the invoked operations.
+   */
+  public static HttpServletResponse createDetachedResponse() {
+    return createProxy(HttpServletResponse.class, Collections.<String, Object> emptyMap());
+  }
+
+  /**
+   * Creates a proxy returning the value associated with invoked method name. When no value is found, the default value
+   * of the method return type is returned.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T createProxy(final Class<T> type, final Map<String, Object> values) {
+    final InvocationHandler handler = new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args)
+          throws Throwable {
+        final Object value = values.get(method.getName());
+        if (value != null) {
+          // StringBuffer is mutable, thus a new instance is returned for each invocation.
+          return method.getReturnType() == StringBuffer.class ? new StringBuffer((String) value) : value;
+        }
+        if ("toString".equals(method.getName())) {
+          return type.getSimpleName() + values;
+        }
+        if ("equals".equals(method.getName())) {
+          return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName())) {
+          return System.identityHashCode(proxy);
+        }
+        return getDefaultValue(method.getReturnType());
+      }
+    };
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] {
+      type
+    }, handler);
+  }
+
+  private static Object getDefaultValue(final Class<?> returnType) {
+    if (returnType == boolean.class) {
+      return Boolean.FALSE;
+    }
+    if (returnType == int.class) {
+      return 0;
+    }
+    if (returnType == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+}
@@ -11,7 +11,8 @@ package ro.isdc.wro.http.support;
  */
 public enum HttpHeader {
   CACHE_CONTROL("Cache-Control"), LAST_MODIFIED("Last-Modified"), ETAG("ETag"), EXPIRES("Expires"), IF_MODIFIED_SINCE(
-    "If-Modified-Since"), IF_NONE_MATCH("If-None-Match"), CONTENT_ENCODING("Content-Encoding"), PRAGMA("Pragma");
+    "If-Modified-Since"), IF_NONE_MATCH("If-None-Match"), CONTENT_ENCODING("Content-Encoding"), PRAGMA("Pragma"), RETRY_AFTER(
+    "Retry-After"), ACCEPT_ENCODING("Accept-Encoding"), VARY("Vary");
   /**
    * HTTP header as string.
    */
@@ -0,0 +1,142 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.support;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Holds the content of the resources served by {@link ro.isdc.wro.http.handler.ResourceProxyRequestHandler} (ex: the
+ * images and fonts referred by the css), mapped by uri. Each entry holds the hash of the content, used as a strong ETag
+ * and to check whether a revalidated resource is changed.
+ * <p/>
+ * The cache is bounded by the total number of cached bytes. When the capacity is reached, the least recently used
+ * entries are evicted.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ProxiedResourceCache {
+  private final long capacity;
+  private final Map<String, ProxiedResource> map = new LinkedHashMap<String, ProxiedResource>(16, 0.75f, true);
+  private long weight;
+
+  /**
+   * @param capacity
+   *          the maximum number of cached bytes.
+   */
+  public ProxiedResourceCache(final long capacity) {
+    Validate.isTrue(capacity > 0, "capacity must be positive");
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return the cached resource associated with the uri or null if there is no such resource.
+   */
+  public synchronized ProxiedResource get(final String uri) {
+    return map.get(uri);
+  }
+
+  /**
+   * Caches a resource, replacing the previous one with the same uri. A resource larger than the capacity is not cached.
+   */
+  public synchronized void put(final String uri, final ProxiedResource resource) {
+    Validate.notNull(uri);
+    Validate.notNull(resource);
+    final ProxiedResource previous = map.remove(uri);
+    if (previous != null) {
+      weight -= previous.getContent().length;
+    }
+    if (resource.getContent().length > capacity) {
+      return;
+    }
+    map.put(uri, resource);
+    weight += resource.getContent().length;
+    for (final Iterator<ProxiedResource> iterator = map.values().iterator(); weight > capacity && iterator.hasNext();) {
+      weight -= iterator.next().getContent().length;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Removes all the cached resources.
+   */
+  public synchronized void clear() {
+    map.clear();
+    weight = 0;
+  }
+
+  /**
+   * @return the number of cached resources.
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the total number of cached bytes.
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * The content of a proxied resource along with its hash.
+   */
+  public static final class ProxiedResource {
+    private final byte[] content;
+    private final String hash;
+    private final String etag;
+    private volatile long validatedAt;
+
+    /**
+     * @param content
+     *          the content of the resource.
+     * @param hash
+     *          the hash of the content.
+     */
+    public ProxiedResource(final byte[] content, final String hash) {
+      Validate.notNull(content);
+      Validate.notNull(hash);
+      this.content = content;
+      this.hash = hash;
+      this.etag = "\"" + hash + "\"";
+      this.validatedAt = System.currentTimeMillis();
+    }
+
+    public byte[] getContent() {
+      return content;
+    }
+
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * @return the strong ETag of the resource.
+     */
+    public String getETag() {
+      return etag;
+    }
+
+    /**
+     * @return the time (in milliseconds) when the content was last checked against the located resource.
+     */
+    public long getValidatedAt() {
+      return validatedAt;
+    }
+
+    /**
+     * Marks the content as still valid.
+     */
+    public void validated() {
+      validatedAt = System.currentTimeMillis();
+    }
+  }
+}
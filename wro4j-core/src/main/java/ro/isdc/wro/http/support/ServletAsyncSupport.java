@@ -0,0 +1,143 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.servlet.ServletRequest;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+/**
+ * Gives access to the asynchronous processing of the Servlet 3.0 API (<code>ServletRequest.startAsync()</code> and
+ * <code>AsyncContext</code>) while wro4j is compiled against an older Servlet API. The methods are invoked using
+ * reflection, thus when the container implements an older Servlet API, the asynchronous processing is simply reported as
+ * not supported.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public final class ServletAsyncSupport {
+  private static final Logger LOG = LoggerFactory.getLogger(ServletAsyncSupport.class);
+
+  private ServletAsyncSupport() {
+  }
+
+  /**
+   * @return true if the request can be processed asynchronously: the container implements the Servlet 3.0 API and all
+   *         the filters & servlets processing the request support asynchronous processing.
+   */
+  public static boolean isAsyncSupported(final ServletRequest request) {
+    final Method method = findMethod(request, "isAsyncSupported");
+    if (method == null || findMethod(request, "startAsync") == null) {
+      return false;
+    }
+    try {
+      return Boolean.TRUE.equals(method.invoke(request));
+    } catch (final Exception e) {
+      LOG.debug("Cannot check async support", e);
+      return false;
+    }
+  }
+
+  /**
+   * Puts the request into asynchronous mode: the response is not committed when the filter chain returns.
+   *
+   * @return the handle used to complete the asynchronous processing.
+   */
+  public static AsyncHandle startAsync(final ServletRequest request) {
+    final Method method = findMethod(request, "startAsync");
+    if (method == null) {
+      throw new WroRuntimeException("Asynchronous processing is not supported by the container");
+    }
+    return new AsyncHandle(invoke(method, request));
+  }
+
+  /**
+   * Looks up a public method, preferring the one declared by a public interface, since the implementation class of the
+   * container can be inaccessible.
+   */
+  private static Method findMethod(final Object target, final String name, final Class<?>... parameterTypes) {
+    for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+      for (final Class<?> interfaceType : type.getInterfaces()) {
+        final Method method = findPublicMethod(interfaceType, name, parameterTypes);
+        if (method != null) {
+          return method;
+        }
+      }
+    }
+    return findPublicMethod(target.getClass(), name, parameterTypes);
+  }
+
+  private static Method findPublicMethod(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+    try {
+      final Method method = type.getMethod(name, parameterTypes);
+      method.setAccessible(true);
+      return method;
+    } catch (final NoSuchMethodException e) {
+      return null;
+    } catch (final SecurityException e) {
+      return null;
+    }
+  }
+
+  private static Object invoke(final Method method, final Object target, final Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException e) {
+      throw new WroRuntimeException("Invocation of " + method.getName() + " failed", e.getCause());
+    } catch (final Exception e) {
+      throw new WroRuntimeException("Cannot invoke " + method.getName(), e);
+    }
+  }
+
+  /**
+   * Wraps the <code>AsyncContext</code> of a request processed asynchronously.
+   */
+  public static final class AsyncHandle {
+    private final Object asyncContext;
+
+    private AsyncHandle(final Object asyncContext) {
+      Validate.notNull(asyncContext);
+      this.asyncContext = asyncContext;
+    }
+
+    /**
+     * Sets the time (in milliseconds) after which the container times out the asynchronous processing. A value of zero
+     * or less means no timeout.
+     */
+    public void setTimeout(final long timeout) {
+      invoke(getMethod("setTimeout", long.class), asyncContext, timeout);
+    }
+
+    /**
+     * Runs the provided task using a thread managed by the container.
+     */
+    public void start(final Runnable runnable) {
+      invoke(getMethod("start", Runnable.class), asyncContext, runnable);
+    }
+
+    /**
+     * Completes the asynchronous processing, thus the response is committed and closed.
+     */
+    public void complete() {
+      invoke(getMethod("complete"), asyncContext);
+    }
+
+    private Method getMethod(final String name, final Class<?>... parameterTypes) {
+      final Method method = findMethod(asyncContext, name, parameterTypes);
+      if (method == null) {
+        throw new WroRuntimeException("Invalid AsyncContext: " + asyncContext.getClass());
+      }
+      return method;
+    }
+  }
+}
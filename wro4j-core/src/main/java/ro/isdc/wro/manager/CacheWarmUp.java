@@ -0,0 +1,252 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterConfig;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.http.support.DetachedRequestHelper;
+import ro.isdc.wro.manager.factory.WroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Processes and caches all the groups of the model (for each {@link ResourceType} and minimize flag) before they are
+ * requested, thus the first requests after a deploy are served from the cache. The entries are processed in parallel
+ * by a bounded pool of threads. Since the processing of a group depends on the request (ex: the url's of the css images
+ * are rewritten relative to the request uri), each entry is processed with a request having the uri the group would be
+ * requested with.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class CacheWarmUp {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheWarmUp.class);
+  private final WroManagerFactory managerFactory;
+  private final FilterConfig filterConfig;
+  private final WroConfiguration config;
+  private final String contextPath;
+  /**
+   * The time (in milliseconds) spent for each processed entry, in the order of completion.
+   */
+  private final Map<CacheEntry, Long> timings = Collections.synchronizedMap(new LinkedHashMap<CacheEntry, Long>());
+  private final AtomicInteger failureCount = new AtomicInteger();
+  private final CountDownLatch completion = new CountDownLatch(1);
+  private volatile long totalTime = -1;
+  private Thread coordinator;
+  private ExecutorService executor;
+
+  /**
+   * @param managerFactory
+   *          the factory of the {@link WroManager} whose cache is populated.
+   * @param filterConfig
+   *          the {@link FilterConfig} of the filter serving the groups. Can be null.
+   * @param config
+   *          the configuration used to process the groups.
+   * @param contextPath
+   *          the context path of the application.
+   */
+  public CacheWarmUp(final WroManagerFactory managerFactory, final FilterConfig filterConfig,
+      final WroConfiguration config, final String contextPath) {
+    Validate.notNull(managerFactory);
+    Validate.notNull(config);
+    this.managerFactory = managerFactory;
+    this.filterConfig = filterConfig;
+    this.config = config;
+    this.contextPath = StringUtils.defaultString(contextPath);
+  }
+
+  /**
+   * Starts the warm-up asynchronously.
+   *
+   * @return this instance, useful for chaining.
+   */
+  public synchronized CacheWarmUp start() {
+    Validate.validState(coordinator == null, "The warm-up was already started");
+    coordinator = WroUtil.createDaemonThreadFactory("cacheWarmUp").newThread(new Runnable() {
+      public void run() {
+        try {
+          warmUp();
+        } catch (final Exception e) {
+          LOG.error("Cache warm-up failed", e);
+        } finally {
+          completion.countDown();
+        }
+      }
+    });
+    coordinator.start();
+    return this;
+  }
+
+  private void warmUp()
+      throws InterruptedException {
+    final long start = System.currentTimeMillis();
+    final List<CacheEntry> entries = getEntries();
+    if (entries.isEmpty()) {
+      totalTime = System.currentTimeMillis() - start;
+      return;
+    }
+    final int poolSize = Math.min(entries.size(), config.getCacheWarmUpPoolSize() > 0
+        ? config.getCacheWarmUpPoolSize()
+        : Runtime.getRuntime().availableProcessors());
+    LOG.info("Warming up the cache of {} entries using {} threads", entries.size(), poolSize);
+    final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(entries.size());
+    for (final CacheEntry key : entries) {
+      tasks.add(new Callable<Void>() {
+        public Void call() {
+          warmUp(key);
+          return null;
+        }
+      });
+    }
+    synchronized (this) {
+      if (coordinator.isInterrupted()) {
+        return;
+      }
+      executor = Executors.newFixedThreadPool(poolSize, WroUtil.createDaemonThreadFactory("cacheWarmUpWorker"));
+    }
+    try {
+      executor.invokeAll(tasks);
+    } finally {
+      executor.shutdownNow();
+    }
+    totalTime = System.currentTimeMillis() - start;
+    LOG.info("Cache warm-up of {} entries completed in {}ms. Failed entries: " + failureCount.get(), entries.size(),
+        totalTime);
+  }
+
+  /**
+   * @return the keys of all the entries to process.
+   */
+  private List<CacheEntry> getEntries() {
+    Context.set(createContext(null), config);
+    try {
+      final WroModel model = managerFactory.create().getModelFactory().create();
+      final List<CacheEntry> entries = new ArrayList<CacheEntry>();
+      for (final Group group : model.getGroups()) {
+        for (final ResourceType type : ResourceType.values()) {
+          if (group.hasResourcesOfType(type)) {
+            entries.add(new CacheEntry(group.getName(), type, true));
+            // the not minimized content can be requested only in debug mode.
+            if (config.isDebug()) {
+              entries.add(new CacheEntry(group.getName(), type, false));
+            }
+          }
+        }
+      }
+      return entries;
+    } finally {
+      Context.unset();
+    }
+  }
+
+  /**
+   * Processes and caches a single entry.
+   */
+  private void warmUp(final CacheEntry key) {
+    final long start = System.currentTimeMillis();
+    Context.set(createContext(key), config);
+    try {
+      managerFactory.create().getCacheStrategy().get(key);
+      final long time = System.currentTimeMillis() - start;
+      timings.put(key, time);
+      LOG.info("Warmed up entry: {} in {}ms", key, time);
+    } catch (final Exception e) {
+      failureCount.incrementAndGet();
+      LOG.error("Cannot warm up cache entry: " + key, e);
+    } finally {
+      Context.unset();
+    }
+  }
+
+  /**
+   * @return the context used to process the provided entry, having a request with the uri used to request the group.
+   */
+  private Context createContext(final CacheEntry key) {
+    String path = StringUtils.defaultIfEmpty(config.getCacheWarmUpPath(), "/");
+    path = (path.startsWith("/") ? "" : "/") + path + (path.endsWith("/") ? "" : "/");
+    final String groupUri = key == null ? "" : key.getGroupName() + "." + key.getType().name().toLowerCase();
+    final Context context = Context.webContext(DetachedRequestHelper.createRequest(contextPath, contextPath + path
+        + groupUri), DetachedRequestHelper.createDetachedResponse(), filterConfig);
+    if (key != null && key.getType() == ResourceType.CSS) {
+      context.setAggregatedFolderPath(path);
+    }
+    return context;
+  }
+
+  /**
+   * Waits for the warm-up to complete.
+   *
+   * @return true if the warm-up is complete, false if the timeout elapsed before.
+   */
+  public boolean awaitCompletion(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    return completion.await(timeout, unit);
+  }
+
+  /**
+   * @return true if the warm-up is complete (successfully or not).
+   */
+  public boolean isComplete() {
+    return completion.getCount() == 0;
+  }
+
+  /**
+   * Stops the warm-up. The entries being processed are not interrupted.
+   */
+  public synchronized void cancel() {
+    if (coordinator != null) {
+      coordinator.interrupt();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return the time (in milliseconds) spent for the whole warm-up or -1 if the warm-up is not complete.
+   */
+  public long getTotalTime() {
+    return totalTime;
+  }
+
+  /**
+   * @return the time (in milliseconds) spent for each successfully processed entry, in the order of completion.
+   */
+  public Map<CacheEntry, Long> getTimings() {
+    synchronized (timings) {
+      return Collections.unmodifiableMap(new LinkedHashMap<CacheEntry, Long>(timings));
+    }
+  }
+
+  /**
+   * @return the number of entries which could not be processed.
+   */
+  public int getFailureCount() {
+    return failureCount.get();
+  }
+}
@@ -10,7 +10,7 @@ import org.slf4j.LoggerFactory;
 
 
 /**
- * A {@link Runnable} executed by scheduler to clear the cache.
+ * A {@link Runnable} executed by scheduler to reload the cache (see {@link WroManager#reloadCache()}).
  *
  * @author Alex Objelean
  * @created 24 Oct 2011
@@ -29,7 +29,7 @@ public final class ReloadCacheRunnable
   public void run() {
     LOG.debug("Reloading Cache....");
     try {
-      wroManagerReference.get().getCacheStrategy().clear();
+      wroManagerReference.get().reloadCache();
     } catch (final Exception e) {
       LOG.error("Exception occured during cache reload: ", e);
     }
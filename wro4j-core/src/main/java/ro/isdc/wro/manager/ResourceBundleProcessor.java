@@ -1,7 +1,18 @@
 package ro.isdc.wro.manager;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -13,12 +24,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.AbstractLoadingCacheStrategyDecorator;
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentBody;
 import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.impl.BundleFileExporter;
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.http.support.ServletAsyncSupport;
+import ro.isdc.wro.http.support.ServletAsyncSupport.AsyncHandle;
+import ro.isdc.wro.model.group.DefaultGroupExtractor;
 import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.ResourceType;
@@ -34,6 +52,18 @@ import ro.isdc.wro.util.WroUtil;
  */
 public class ResourceBundleProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(ResourceBundleProcessor.class);
+  /**
+   * Limits the number of remembered routes, since the same group can be requested using many uri's.
+   */
+  private static final int MAX_ROUTES = 1024;
+  /**
+   * The number of seconds after which a timed out request should be retried.
+   */
+  private static final int RETRY_AFTER_TIMEOUT = 1;
+  /**
+   * The number of seconds the thread timing out the parked requests is kept while no request is parked.
+   */
+  private static final long TIMEOUT_THREAD_KEEP_ALIVE = 60;
   /**
    * A cacheStrategy used for caching processed results. <GroupName, processed result>.
    */
@@ -43,6 +73,25 @@ public class ResourceBundleProcessor {
   private WroConfiguration config;
   @Inject
   private GroupExtractor groupExtractor;
+  @Inject
+  private CacheDependencies cacheDependencies;
+  /**
+   * The routes of the requests already served, mapped by request uri. Used to serve the cached bundles without parsing
+   * the request uri again.
+   */
+  private final ConcurrentMap<String, BundleRoute> routes = new ConcurrentHashMap<String, BundleRoute>();
+  /**
+   * The version of the cache when the routes were remembered.
+   */
+  private volatile long routesVersion;
+  /**
+   * Times out the parked requests, created when the first request is parked.
+   */
+  private ScheduledExecutorService timeoutScheduler;
+  /**
+   * Locates the exported bundles, created when the bundles are exported.
+   */
+  private volatile BundleFileExporter exporter;
   
   private boolean isGzipAllowed() {
     return config.isGzipEnabled() && isGzipSupported();
@@ -61,23 +110,31 @@ public class ResourceBundleProcessor {
     
     OutputStream os = null;
     try {
-      // find names & type
-      final ResourceType type = groupExtractor.getResourceType(request);
-      final String groupName = groupExtractor.getGroupName(request);
-      final boolean minimize = groupExtractor.isMinimized(request);
-      if (groupName == null || type == null) {
-        throw new WroRuntimeException("No groups found for request: " + request.getRequestURI());
-      }
-      initAggregatedFolderPath(request, type);
-      
-      final CacheEntry cacheKey = new CacheEntry(groupName, type, minimize);
-      final ContentHashEntry cacheValue = cacheStrategy.get(cacheKey);
+      final boolean routable = isRoutable(request);
+      if (routable) {
+        forgetStaleRoutes();
+      }
+      BundleRoute route = routable ? routes.get(request.getRequestURI()) : null;
+      final boolean routeFound = route != null;
+      if (!routeFound) {
+        route = createRoute(request);
+      }
+      if (ResourceType.CSS == route.type && context.getAggregatedFolderPath() == null) {
+        context.setAggregatedFolderPath(route.aggregatedFolderPath);
+      }
+      if (configuration.isAsyncServing() && serveWhenLoaded(route.key, context)) {
+        return;
+      }
+      final ContentHashEntry cacheValue = cacheStrategy.get(route.key);
+      if (routable && !routeFound && routes.size() < MAX_ROUTES) {
+        // the route is remembered only when its group is valid
+        routes.putIfAbsent(request.getRequestURI(), route);
+      }
       
       // TODO move ETag check in wroManagerFactory
       final String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
       
-      // enclose etag value in quotes to be compliant with the RFC
-      final String etagValue = String.format("\"%s\"", cacheValue.getHash());
+      final String etagValue = cacheValue.getETag();
       
       if (etagValue != null && etagValue.equals(ifNoneMatch)) {
         LOG.debug("ETag hash detected: {}. Sending {} status code", etagValue, HttpServletResponse.SC_NOT_MODIFIED);
@@ -90,26 +147,35 @@ public class ResourceBundleProcessor {
        * Set contentType before actual content is written, solves <br/>
        * <a href="http://code.google.com/p/wro4j/issues/detail?id=341">issue341</a>
        */
-      if (type != null) {
-        response.setContentType(type.getContentType() + "; charset=" + configuration.getEncoding());
+      if (cacheValue.getContentType() != null) {
+        response.setContentType(cacheValue.getContentType());
+      } else {
+        response.setContentType(route.getContentType(configuration.getEncoding()));
       }
       // set ETag header
       response.setHeader(HttpHeader.ETAG.toString(), etagValue);
       
-      os = response.getOutputStream();
-      if (cacheValue.getRawContent() != null) {
-        // use gziped response if supported & Set content length based on gzip flag
-        if (isGzipAllowed()) {
-          response.setContentLength(cacheValue.getGzippedContent().length);
-          // add gzip header and gzip response
-          response.setHeader(HttpHeader.CONTENT_ENCODING.toString(), "gzip");
-          response.setHeader("Vary", "Accept-Encoding");
-          IOUtils.write(cacheValue.getGzippedContent(), os);
+      if (cacheValue.hasContent()) {
+        final String contentEncoding = getContentEncoding(request);
+        final File exportedFile = getExportedFile(cacheValue, route.type, contentEncoding);
+        if (exportedFile != null && serveExportedFile(exportedFile, contentEncoding)) {
+          return;
+        }
+        os = response.getOutputStream();
+        final ContentBody compressedContent = getCompressedContent(cacheValue, contentEncoding);
+        // use compressed response if supported & Set content length based on the compressed variant
+        if (compressedContent != null) {
+          response.setContentLength(compressedContent.getLength());
+          response.setHeader(HttpHeader.CONTENT_ENCODING.toString(), contentEncoding);
+          response.setHeader(HttpHeader.VARY.toString(), HttpHeader.ACCEPT_ENCODING.toString());
+          compressedContent.writeTo(os);
         } else {
-          //using getRawContent().length() is not the same and can return 2Bytes smaller size.
-          response.setContentLength(cacheValue.getRawContent().getBytes(configuration.getEncoding()).length);
-          IOUtils.write(cacheValue.getRawContent(), os, configuration.getEncoding());
+          // the content is already encoded, thus it is written as it is.
+          response.setContentLength(cacheValue.getRawLength());
+          cacheValue.writeRawContent(os);
         }
+      } else {
+        os = response.getOutputStream();
       }
     } finally {
       if (os != null)
@@ -117,6 +183,276 @@ public class ResourceBundleProcessor {
     }
   }
   
+  /**
+   * @return the exported file holding the variant of the entry to serve or null if the bundles are not exported or the
+   *         variant is not exported yet.
+   */
+  private File getExportedFile(final ContentHashEntry cacheValue, final ResourceType type, final String contentEncoding) {
+    final String exportDirectory = config.getBundleExportDirectory();
+    if (StringUtils.isEmpty(exportDirectory)) {
+      return null;
+    }
+    BundleFileExporter exporter = this.exporter;
+    if (exporter == null || !exporter.getDirectory().getPath().equals(exportDirectory)) {
+      exporter = new BundleFileExporter(new File(exportDirectory));
+      this.exporter = exporter;
+    }
+    return exporter.getExportedFile(cacheValue, type, contentEncoding);
+  }
+
+  /**
+   * Serves the exported file without copying its content through the heap: the serving is delegated to the fronting
+   * web server using the configured sendfile header or the file is transferred directly to the channel of the response
+   * (when the output stream of the container is a channel).
+   *
+   * @return true if the file was served, false if the content should be written as usual.
+   */
+  private boolean serveExportedFile(final File file, final String contentEncoding)
+      throws IOException {
+    final HttpServletResponse response = Context.get().getResponse();
+    final String sendfileHeader = config.getSendfileHeader();
+    if (StringUtils.isEmpty(sendfileHeader)) {
+      final OutputStream os = response.getOutputStream();
+      if (!(os instanceof WritableByteChannel)) {
+        return false;
+      }
+      final FileInputStream fis = new FileInputStream(file);
+      try {
+        final FileChannel channel = fis.getChannel();
+        final long size = channel.size();
+        setContentEncoding(response, contentEncoding);
+        response.setContentLength((int) size);
+        for (long position = 0; position < size;) {
+          position += channel.transferTo(position, size - position, (WritableByteChannel) os);
+        }
+      } finally {
+        IOUtils.closeQuietly(fis);
+        IOUtils.closeQuietly(os);
+      }
+    } else {
+      final String prefix = config.getSendfilePrefix();
+      final String location = prefix == null ? file.getAbsolutePath() : prefix + file.getName();
+      LOG.debug("Delegating the serving of {} using {} header", file, sendfileHeader);
+      setContentEncoding(response, contentEncoding);
+      response.setHeader(sendfileHeader, location);
+    }
+    return true;
+  }
+
+  private void setContentEncoding(final HttpServletResponse response, final String contentEncoding) {
+    if (contentEncoding != null) {
+      response.setHeader(HttpHeader.CONTENT_ENCODING.toString(), contentEncoding);
+      response.setHeader(HttpHeader.VARY.toString(), HttpHeader.ACCEPT_ENCODING.toString());
+    }
+  }
+
+  /**
+   * When the entry is being loaded and the request can be processed asynchronously, the request is parked until the
+   * load is complete, without holding a thread. The request is then served by a thread of the container. When the load
+   * takes longer than {@link WroConfiguration#getAsyncServingTimeout()}, the request is answered with 503 (Service
+   * Unavailable) instead.
+   *
+   * @return true if the request will be served asynchronously.
+   */
+  private boolean serveWhenLoaded(final CacheEntry key, final Context context) {
+    if (!(cacheStrategy instanceof AbstractLoadingCacheStrategyDecorator)) {
+      return false;
+    }
+    @SuppressWarnings("unchecked")
+    final AbstractLoadingCacheStrategyDecorator<CacheEntry, ContentHashEntry> loadingStrategy = (AbstractLoadingCacheStrategyDecorator<CacheEntry, ContentHashEntry>) cacheStrategy;
+    final HttpServletRequest request = context.getRequest();
+    if (!loadingStrategy.isLoading(key) || !ServletAsyncSupport.isAsyncSupported(request)) {
+      return false;
+    }
+    LOG.debug("Parking request until the entry {} is loaded", key);
+    final long timeout = config.getAsyncServingTimeout();
+    final AsyncHandle asyncHandle = ServletAsyncSupport.startAsync(request);
+    // the container times out the request only if the timeout task cannot be run
+    asyncHandle.setTimeout(2 * timeout);
+    // only the first of the load and the timeout resumes the request
+    final AtomicBoolean resumed = new AtomicBoolean();
+    final Runnable resume = new Runnable() {
+      public void run() {
+        resume(asyncHandle, context);
+      }
+    };
+    final Future<?> timeoutTask = getTimeoutScheduler().schedule(new Runnable() {
+      public void run() {
+        if (resumed.compareAndSet(false, true)) {
+          asyncHandle.start(new Runnable() {
+            public void run() {
+              timeOut(asyncHandle, context);
+            }
+          });
+        }
+      }
+    }, timeout, TimeUnit.MILLISECONDS);
+    final boolean registered = loadingStrategy.whenLoaded(key, new Runnable() {
+      public void run() {
+        if (resumed.compareAndSet(false, true)) {
+          timeoutTask.cancel(false);
+          asyncHandle.start(resume);
+        }
+      }
+    });
+    if (!registered && resumed.compareAndSet(false, true)) {
+      // the load completed in the meantime
+      timeoutTask.cancel(false);
+      resume.run();
+    }
+    return true;
+  }
+
+  private synchronized ScheduledExecutorService getTimeoutScheduler() {
+    if (timeoutScheduler == null) {
+      final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+          WroUtil.createDaemonThreadFactory("asyncServingTimeout"));
+      // the thread stops when no request is parked
+      scheduler.setKeepAliveTime(TIMEOUT_THREAD_KEEP_ALIVE, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      timeoutScheduler = scheduler;
+    }
+    return timeoutScheduler;
+  }
+
+  /**
+   * Answers a parked request whose entry is still not loaded after the timeout.
+   */
+  private void timeOut(final AsyncHandle asyncHandle, final Context context) {
+    LOG.debug("Timed out while waiting for the bundle of: {}", context.getRequest().getRequestURI());
+    try {
+      final HttpServletResponse response = context.getResponse();
+      response.setHeader(HttpHeader.RETRY_AFTER.toString(), String.valueOf(RETRY_AFTER_TIMEOUT));
+      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    } catch (final IOException e) {
+      LOG.debug("Cannot send error", e);
+    } finally {
+      asyncHandle.complete();
+    }
+  }
+
+  /**
+   * Stops the thread timing out the parked requests. The requests still parked are served when their entry is loaded.
+   */
+  public synchronized void destroy() {
+    if (timeoutScheduler != null) {
+      timeoutScheduler.shutdownNow();
+      timeoutScheduler = null;
+    }
+  }
+
+  /**
+   * Serves the loaded entry to a parked request and completes its asynchronous processing.
+   */
+  private void resume(final AsyncHandle asyncHandle, final Context context) {
+    Context.set(context, context.getConfig());
+    try {
+      serveProcessedBundle();
+    } catch (final Exception e) {
+      LOG.error("Cannot serve the parked request: " + context.getRequest().getRequestURI(), e);
+      final HttpServletResponse response = context.getResponse();
+      if (!response.isCommitted()) {
+        try {
+          response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (final IOException ex) {
+          LOG.debug("Cannot send error", ex);
+        }
+      }
+    } finally {
+      Context.unset();
+      asyncHandle.complete();
+    }
+  }
+
+  /**
+   * Forgets the remembered routes when the cache was cleared (ex: the cache or the model was reloaded) or when some of
+   * its entries were invalidated since the routes were remembered.
+   */
+  private void forgetStaleRoutes() {
+    final long version = getCacheVersion();
+    if (version != routesVersion) {
+      LOG.debug("The cache was changed, forgetting {} routes", routes.size());
+      routes.clear();
+      routesVersion = version;
+    }
+  }
+
+  /**
+   * @return a number which changes each time the cache is cleared or some of its entries are invalidated.
+   */
+  private long getCacheVersion() {
+    long version = cacheDependencies != null ? cacheDependencies.getVersion() : 0;
+    if (cacheStrategy instanceof AbstractLoadingCacheStrategyDecorator) {
+      // both numbers are only incremented, thus their sum changes when any of them changes
+      version += ((AbstractLoadingCacheStrategyDecorator<?, ?>) cacheStrategy).getGeneration();
+    }
+    return version;
+  }
+
+  /**
+   * The requests can be routed by their uri only when the {@link DefaultGroupExtractor} is used (other extractors can
+   * use any part of the request), when the minimize flag cannot be changed by a request parameter (not in debug mode)
+   * and when the request is not an include.
+   */
+  private boolean isRoutable(final HttpServletRequest request) {
+    return groupExtractor.getClass() == DefaultGroupExtractor.class && !config.isDebug()
+        && request.getRequestURI() != null && request.getAttribute(DefaultGroupExtractor.ATTR_INCLUDE_PATH) == null;
+  }
+
+  /**
+   * Parses the request in order to find the requested group.
+   */
+  private BundleRoute createRoute(final HttpServletRequest request) {
+    // find names & type
+    final ResourceType type = groupExtractor.getResourceType(request);
+    final String groupName = groupExtractor.getGroupName(request);
+    final boolean minimize = groupExtractor.isMinimized(request);
+    if (groupName == null || type == null) {
+      throw new WroRuntimeException("No groups found for request: " + request.getRequestURI());
+    }
+    return new BundleRoute(new CacheEntry(groupName, type, minimize), computeAggregatedFolderPath(request, type));
+  }
+  
+  /**
+   * @return the content coding to use for the response or null if the response should not be compressed. The deflate
+   *         variant is used only when the client does not accept gzip.
+   */
+  private String getContentEncoding(final HttpServletRequest request) {
+    if (config.isGzipEnabled() && config.isPrecompressContent()
+        && WroUtil.isContentCodingAccepted(request, ContentHashEntry.DEFLATE)
+        && !WroUtil.isContentCodingAccepted(request, ContentHashEntry.GZIP)) {
+      return ContentHashEntry.DEFLATE;
+    }
+    return isGzipAllowed() ? ContentHashEntry.GZIP : null;
+  }
+
+  /**
+   * When the precompression is enabled, only the already computed variants are used, thus no compression is performed
+   * while serving the request: the uncompressed content is served until the compressed variants are ready.
+   *
+   * @return the content compressed with the provided content coding or null if it should not be compressed.
+   */
+  private ContentBody getCompressedContent(final ContentHashEntry cacheValue, final String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    final ContentBody compressedContent = cacheValue.getCompressedBody(contentEncoding);
+    if (compressedContent != null || config.isPrecompressContent()) {
+      return compressedContent;
+    }
+    final byte[] gzippedContent = cacheValue.getGzippedContent();
+    return new ContentBody() {
+      public int getLength() {
+        return gzippedContent.length;
+      }
+
+      public void writeTo(final OutputStream os)
+          throws IOException {
+        os.write(gzippedContent);
+      }
+    };
+  }
+
   /**
    * @return true if Gzip is Supported
    */
@@ -125,14 +461,53 @@ public class ResourceBundleProcessor {
   }
   
   /**
-   * Set the aggregatedFolderPath if required.
+   * @return the aggregatedFolderPath of a css group or null for other types.
    */
-  private void initAggregatedFolderPath(final HttpServletRequest request, final ResourceType type) {
-    if (ResourceType.CSS == type && Context.get().getAggregatedFolderPath() == null) {
+  private String computeAggregatedFolderPath(final HttpServletRequest request, final ResourceType type) {
+    if (ResourceType.CSS == type) {
       final String requestUri = request.getRequestURI();
       final String cssFolder = StringUtils.removeEnd(requestUri, FilenameUtils.getName(requestUri));
-      final String aggregatedFolder = StringUtils.removeStart(cssFolder, request.getContextPath());
-      Context.get().setAggregatedFolderPath(aggregatedFolder);
+      return StringUtils.removeStart(cssFolder, request.getContextPath());
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of remembered routes.
+   * @VisibleForTesting
+   */
+  int getRouteCount() {
+    return routes.size();
+  }
+
+  /**
+   * Everything needed to serve the requests of the same uri, computed once.
+   */
+  private static final class BundleRoute {
+    private final CacheEntry key;
+    private final ResourceType type;
+    private final String aggregatedFolderPath;
+    private volatile String encoding;
+    private volatile String contentType;
+
+    BundleRoute(final CacheEntry key, final String aggregatedFolderPath) {
+      this.key = key;
+      this.type = key.getType();
+      this.aggregatedFolderPath = aggregatedFolderPath;
+    }
+
+    /**
+     * @return the content type of the bundle, recomputed only when the encoding is changed.
+     */
+    String getContentType(final String encoding) {
+      final String computed = this.contentType;
+      if (computed != null && encoding.equals(this.encoding)) {
+        return computed;
+      }
+      final String value = type.getContentType() + "; charset=" + encoding;
+      this.contentType = value;
+      this.encoding = encoding;
+      return value;
     }
   }
 }
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.DefaultLoadingCacheStrategyDecorator;
 import ro.isdc.wro.config.WroConfigurationChangeListener;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.callback.LifecycleCallback;
@@ -27,6 +28,7 @@ import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.GroupsProcessor;
 import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.PreProcessorExecutor;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
@@ -71,6 +73,8 @@ public class WroManager
   @Inject
   private GroupsProcessor groupsProcessor;
   @Inject
+  private PreProcessorExecutor preProcessorExecutor;
+  @Inject
   private WroConfiguration config;
   /**
    * HashBuilder for creating a hash based on the processed content.
@@ -168,8 +172,22 @@ public class WroManager
   public final void onCachePeriodChanged(final long period) {
     LOG.info("onCachePeriodChanged with value {} has been triggered!", period);
     cacheSchedulerHelper.scheduleWithPeriod(period);
-    // flush the cache by destroying it.
-    cacheStrategy.clear();
+    reloadCache();
+  }
+
+  /**
+   * Reloads the cached content. When {@link WroConfiguration#isBackgroundCacheRefresh()} is true, the cached entries are
+   * rebuilt in the background and the stale entries are served until they are replaced. Otherwise the cache is
+   * flushed.
+   */
+  final void reloadCache() {
+    if (config != null && config.isBackgroundCacheRefresh()
+        && cacheStrategy instanceof DefaultLoadingCacheStrategyDecorator) {
+      ((DefaultLoadingCacheStrategyDecorator) cacheStrategy).refreshInBackground();
+    } else {
+      // flush the cache by destroying it.
+      cacheStrategy.clear();
+    }
   }
   
   /**
@@ -191,6 +209,10 @@ public class WroManager
       modelSchedulerHelper.destroy();
       cacheStrategy.destroy();
       modelFactory.destroy();
+      preProcessorExecutor.destroy();
+      if (resourceBundleProcessor != null) {
+        resourceBundleProcessor.destroy();
+      }
     } catch (final Exception e) {
       LOG.error("Exception occured during manager destroy!!!");
     } finally {
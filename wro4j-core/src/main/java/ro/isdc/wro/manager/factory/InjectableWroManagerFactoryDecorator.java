@@ -1,5 +1,8 @@
 package ro.isdc.wro.manager.factory;
 
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.model.group.processor.Injector;
 import ro.isdc.wro.model.group.processor.InjectorBuilder;
@@ -15,6 +18,9 @@ import ro.isdc.wro.model.group.processor.InjectorBuilder;
 public class InjectableWroManagerFactoryDecorator
     extends WroManagerFactoryDecorator {
   private Injector injector;
+  private final CacheStatistics cacheStatistics = new CacheStatistics();
+  private final CacheDependencies cacheDependencies = new CacheDependencies();
+  private final ProcessorStatistics processorStatistics = new ProcessorStatistics();
   
   public InjectableWroManagerFactoryDecorator(final WroManagerFactory decorated) {
     super(decorated);
@@ -35,8 +41,30 @@ public class InjectableWroManagerFactoryDecorator
    */
   public Injector getInjector() {
     if (injector == null) {
-      injector = InjectorBuilder.create(getDecoratedObject()).build();
+      injector = InjectorBuilder.create(getDecoratedObject()).setCacheStatistics(cacheStatistics).setCacheDependencies(
+          cacheDependencies).setProcessorStatistics(processorStatistics).build();
     }
     return injector;
   }
+
+  /**
+   * @return the {@link CacheStatistics} updated by the cache strategy of the created managers.
+   */
+  public CacheStatistics getCacheStatistics() {
+    return cacheStatistics;
+  }
+
+  /**
+   * @return the {@link CacheDependencies} of the entries cached by the created managers.
+   */
+  public CacheDependencies getCacheDependencies() {
+    return cacheDependencies;
+  }
+
+  /**
+   * @return the {@link ProcessorStatistics} updated by the processors of the created managers.
+   */
+  public ProcessorStatistics getProcessorStatistics() {
+    return processorStatistics;
+  }
 }
@@ -8,7 +8,9 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
@@ -17,17 +19,22 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
 import ro.isdc.wro.model.WroModel;
 import ro.isdc.wro.model.factory.WroModelFactory;
 import ro.isdc.wro.model.group.Group;
 import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.ExceptionHandlingProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.StatisticsProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
 import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
-import ro.isdc.wro.util.StopWatch;
 
 
 /**
@@ -48,6 +55,8 @@ public class GroupsProcessor {
   private WroConfiguration config;
   @Inject
   private Injector injector;
+  @Inject
+  private ProcessorStatistics processorStatistics;
   
   /**
    * This field is transient because {@link PreProcessorExecutor} is not serializable (according to findbugs eclipse
@@ -55,6 +64,20 @@ public class GroupsProcessor {
    */
   @Inject
   private transient PreProcessorExecutor preProcessorExecutor;
+  /**
+   * The decorated and injected post processors applied on each resource type.
+   */
+  private final ProcessorChainCache processorChains = new ProcessorChainCache() {
+    @Override
+    protected ProcessorChain create(final ResourceType type, final boolean minimize) {
+      final List<ResourcePreProcessor> decoratedProcessors = new ArrayList<ResourcePreProcessor>();
+      for (final ResourcePostProcessor processor : ProcessorsUtils.filterProcessorsToApply(minimize, type,
+          processorsFactory.getPostProcessors())) {
+        decoratedProcessors.add(decorateProcessor(processor, type));
+      }
+      return new ProcessorChain(type, minimize, decoratedProcessors);
+    }
+  };
   
   /**
    * @param cacheKey
@@ -97,53 +120,91 @@ public class GroupsProcessor {
     if (allPostProcessors.isEmpty() && processorsFactory.getPreProcessors().isEmpty()) {
       LOG.warn("No processors defined. Please, check if your configuration is correct.");
     }
-    final Collection<ResourcePostProcessor> processors = ProcessorsUtils.filterProcessorsToApply(
-        cacheEntry.isMinimize(), cacheEntry.getType(), allPostProcessors);
-    return applyPostProcessors(processors, content);
+    final ProcessorChain chain = processorChains.get(cacheEntry.getType(), cacheEntry.isMinimize(),
+        processorsFactory, config);
+    return applyPostProcessors(chain, content);
   }
   
   /**
    * Apply resourcePostProcessors.
    * 
-   * @param processors
-   *          a collection of processors to apply on the content from the supplied writer.
+   * @param chain
+   *          the processors to apply on the content from the supplied writer.
    * @param content
    *          to process with all postProcessors.
    * @return the post processed content.
    */
-  private String applyPostProcessors(final Collection<ResourcePostProcessor> processors, final String content)
+  private String applyPostProcessors(final ProcessorChain chain, final String content)
       throws IOException {
-    LOG.debug("postProcessors: {}", processors);
-    if (processors.isEmpty()) {
+    LOG.debug("postProcessors: {}", chain.getStages());
+    if (chain.isEmpty()) {
       return content;
     }
+    if (config.isStreamingPipeline()) {
+      return applyPostProcessorsStreaming(chain, content);
+    }
     Reader reader = new StringReader(content.toString());
     Writer writer = null;
-    final StopWatch stopWatch = new StopWatch();
-    for (final ResourcePostProcessor processor : processors) {
-      stopWatch.start("Using " + processor.getClass().getSimpleName());
+    for (final ResourcePostProcessor processor : chain.getStages()) {
       writer = new StringWriter();
       try {
         callbackRegistry.onBeforePostProcess();
-        decorateProcessor(processor).process(reader, writer);
+        processor.process(reader, writer);
       } finally {
-        stopWatch.stop();
         callbackRegistry.onAfterPostProcess();
         IOUtils.closeQuietly(reader);
         IOUtils.closeQuietly(writer);
       }
       reader = new StringReader(writer.toString());
     }
-    LOG.debug(stopWatch.prettyPrint());
+    LOG.debug("{}", chain);
+    return writer.toString();
+  }
+
+  /**
+   * Apply resourcePostProcessors using a {@link StreamingProcessorPipeline}.
+   */
+  private String applyPostProcessorsStreaming(final ProcessorChain chain, final String content)
+      throws IOException {
+    final List<ResourcePreProcessor> stages = new ArrayList<ResourcePreProcessor>();
+    for (final ResourcePreProcessor processor : chain.getStages()) {
+      stages.add(new ProcessorDecorator(processor) {
+        @Override
+        public void process(final Resource resource, final Reader reader, final Writer writer)
+            throws IOException {
+          callbackRegistry.onBeforePostProcess();
+          try {
+            super.process(resource, reader, writer);
+          } finally {
+            callbackRegistry.onAfterPostProcess();
+          }
+        }
+      });
+    }
+    final StringWriter writer = new StringWriter(content.length());
+    final StreamingProcessorPipeline pipeline = new StreamingProcessorPipeline(
+        preProcessorExecutor.getStreamingExecutor(), config.getStreamingBufferSize());
+    pipeline.process(null, stages, new StringReader(content), writer);
     return writer.toString();
   }
   
   /**
-   * @return a decorated postProcessor.
+   * @return a decorated postProcessor, recording its statistics when a {@link ProcessorStatistics} is available.
    */
-  private ResourcePostProcessor decorateProcessor(final ResourcePostProcessor processor) {
-    ResourcePostProcessor decorated = new ExceptionHandlingProcessorDecorator(processor);
+  private ProcessorDecorator decorateProcessor(final ResourcePostProcessor processor, final ResourceType type) {
+    // the time of a streaming stage includes the time it waits for the other stages
+    final boolean streaming = config.isStreamingPipeline() && StreamingProcessorPipeline.isStreaming(processor);
+    final Object measured = processorStatistics != null ? new StatisticsProcessorDecorator(processor, type,
+        processorStatistics, streaming) : processor;
+    final ProcessorDecorator decorated = new ExceptionHandlingProcessorDecorator(measured);
     injector.inject(decorated);
     return decorated;
   }
+
+  /**
+   * @return the post processor chains created so far, useful for inspecting the time spent by each processor.
+   */
+  public Collection<ProcessorChain> getProcessorChains() {
+    return processorChains.getChains();
+  }
 }
@@ -8,6 +8,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -30,6 +32,27 @@ import ro.isdc.wro.util.ObjectDecorator;
 public final class Injector {
   private static final Logger LOG = LoggerFactory.getLogger(Injector.class);
   private final Map<Class<?>, Object> map;
+  /**
+   * The fields having the {@link Inject} annotation of each already injected class, paired with the value they accept.
+   */
+  private final ConcurrentMap<Class<?>, Collection<FieldInjection>> injectedFields =
+      new ConcurrentHashMap<Class<?>, Collection<FieldInjection>>();
+
+  /**
+   * An accessible field having the {@link Inject} annotation and the value (or the factory of the value) it accepts.
+   */
+  private static final class FieldInjection {
+    private final Field field;
+    /**
+     * Null if no value can be injected into the field.
+     */
+    private final Object value;
+
+    FieldInjection(final Field field, final Object value) {
+      this.field = field;
+      this.value = value;
+    }
+  }
 
   /**
    * Mapping of classes to be annotated and the corresponding injected object.
@@ -58,14 +81,12 @@ public final class Injector {
    */
   private void processInjectAnnotation(final Object object) {
     try {
-      final Collection<Field> fields = getAllFields(object);
-      for (final Field field : fields) {
-        if (field.isAnnotationPresent(Inject.class)) {
-          if (!acceptAnnotatedField(object, field)) {
-            final String message = "@Inject cannot be applied to field of type: " + field.getType();
-            LOG.error(message + ". Supported types are: {}", map.keySet());
-            throw new WroRuntimeException(message);
-          }
+      final Collection<FieldInjection> injections = getInjectedFields(object);
+      for (final FieldInjection injection : injections) {
+        if (!acceptAnnotatedField(object, injection)) {
+          final String message = "@Inject cannot be applied to field of type: " + injection.field.getType();
+          LOG.error(message + ". Supported types are: {}", map.keySet());
+          throw new WroRuntimeException(message);
         }
       }
       //handle special cases like decorators. Perform recursive injection 
@@ -79,6 +100,40 @@ public final class Injector {
   }
 
 
+  /**
+   * Return the fields having the {@link Inject} annotation for given object, made accessible and paired with the value
+   * they accept. Computed once for each class, since an injection is performed for each processor applied on each
+   * resource.
+   */
+  private Collection<FieldInjection> getInjectedFields(final Object object) {
+    Collection<FieldInjection> injections = injectedFields.get(object.getClass());
+    if (injections == null) {
+      injections = new ArrayList<FieldInjection>();
+      for (final Field field : getAllFields(object)) {
+        if (field.isAnnotationPresent(Inject.class)) {
+          // accept private modifiers
+          field.setAccessible(true);
+          injections.add(new FieldInjection(field, findValue(field.getType())));
+        }
+      }
+      injectedFields.putIfAbsent(object.getClass(), injections);
+    }
+    return injections;
+  }
+
+  /**
+   * @return the value (or the factory of the value) which can be injected into a field of the provided type, or null if
+   *         the type is not supported.
+   */
+  private Object findValue(final Class<?> type) {
+    for (final Map.Entry<Class<?>, Object> entry : map.entrySet()) {
+      if (entry.getKey().isAssignableFrom(type)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
   /**
    * Return all fields for given object, also those from the super classes.
    */
@@ -99,28 +154,18 @@ public final class Injector {
    * if you want to inject something else but uriLocatorFactory.
    *
    * @param object an object containing @Inject annotation.
-   * @param field {@link Field} object containing {@link Inject} annotation.
+   * @param injection the accessible {@link Field} containing {@link Inject} annotation and the value it accepts.
    * @return true if field was injected with some not null value.
    * @throws IllegalAccessException
    */
-  private boolean acceptAnnotatedField(final Object object, final Field field)
+  private boolean acceptAnnotatedField(final Object object, final FieldInjection injection)
     throws IllegalAccessException {
-    boolean accept = false;
-    // accept private modifiers
-    field.setAccessible(true);
-    if (Context.isContextSet()) {
-      for (final Map.Entry<Class<?>, Object> entry : map.entrySet()) {
-        if (entry.getKey().isAssignableFrom(field.getType())) {
-          Object value = entry.getValue();
-          // treat factories as a special case for lazy load of the objects.
-          if (value instanceof InjectorObjectFactory) {
-            value = ((InjectorObjectFactory<?>) value).create();
-          }
-          field.set(object, value);
-          return accept = true;
-        }
-      }
+    if (injection.value == null || !Context.isContextSet()) {
+      return false;
     }
-    return accept;
+    // treat factories as a special case for lazy load of the objects.
+    injection.field.set(object, injection.value instanceof InjectorObjectFactory
+        ? ((InjectorObjectFactory<?>) injection.value).create() : injection.value);
+    return true;
   }
 }
@@ -3,6 +3,7 @@
  */
 package ro.isdc.wro.model.group.processor;
 
+import java.io.File;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -10,14 +11,24 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
-import ro.isdc.wro.cache.DefaultSynchronizedCacheStrategyDecorator;
+import ro.isdc.wro.cache.DefaultLoadingCacheStrategyDecorator;
+import ro.isdc.wro.cache.DependencyAwareCacheStrategyDecorator;
+import ro.isdc.wro.cache.ExportingCacheStrategyDecorator;
+import ro.isdc.wro.cache.SharedBundleCacheStrategyDecorator;
+import ro.isdc.wro.cache.StatisticsCacheStrategyDecorator;
+import ro.isdc.wro.cache.impl.BundleFileExporter;
+import ro.isdc.wro.cache.impl.SharedDirectoryBundleStore;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.ReadOnlyContext;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
@@ -28,6 +39,7 @@ import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.resource.locator.factory.InjectorAwareUriLocatorFactoryDecorator;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOutputCache;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
 import ro.isdc.wro.model.resource.support.hash.HashStrategy;
 import ro.isdc.wro.model.resource.support.naming.NamingStrategy;
@@ -68,6 +80,19 @@ public class InjectorBuilder {
     }
   };
   private ResourceAuthorizationManager authorizationManager = new ResourceAuthorizationManager();
+  private CacheStatistics cacheStatistics = new CacheStatistics();
+  private CacheDependencies cacheDependencies = new CacheDependencies();
+  private ProcessorStatistics processorStatistics = new ProcessorStatistics();
+  /**
+   * Holds the output of the memoized processors, created when the first memoized processor is injected.
+   */
+  private final LazyInitializer<ProcessorOutputCache> processorOutputCacheInitializer =
+      new LazyInitializer<ProcessorOutputCache>() {
+    @Override
+    protected ProcessorOutputCache initialize() {
+      return new ProcessorOutputCache(ProcessorOutputCache.DEFAULT_CAPACITY);
+    }
+  };
   
   private final LazyInitializer<WroModelFactory> modelFactoryInitializer = new LazyInitializer<WroModelFactory>() {
     @Override
@@ -87,8 +112,22 @@ public class InjectorBuilder {
     @Override
     protected CacheStrategy<CacheEntry, ContentHashEntry> initialize() {
       final WroManager manager = managerFactory.create();
-      final CacheStrategy<CacheEntry, ContentHashEntry> decorated = new DefaultSynchronizedCacheStrategyDecorator(
-          managerFactory.create().getCacheStrategy());
+      CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = manager.getCacheStrategy();
+      final WroConfiguration config = Context.get().getConfig();
+      // the bundles fetched from the shared store are exported too
+      if (config != null && !StringUtils.isEmpty(config.getBundleExportDirectory())) {
+        cacheStrategy = new ExportingCacheStrategyDecorator(cacheStrategy, new BundleFileExporter(new File(
+            config.getBundleExportDirectory())));
+      }
+      cacheStrategy = new DependencyAwareCacheStrategyDecorator(new StatisticsCacheStrategyDecorator(cacheStrategy,
+          cacheStatistics), cacheDependencies);
+      final CacheStrategy<CacheEntry, ContentHashEntry> decorated;
+      if (config != null && !StringUtils.isEmpty(config.getSharedCacheDirectory())) {
+        decorated = new SharedBundleCacheStrategyDecorator(cacheStrategy, new SharedDirectoryBundleStore(new File(
+            config.getSharedCacheDirectory())));
+      } else {
+        decorated = new DefaultLoadingCacheStrategyDecorator(cacheStrategy);
+      }
       // update manager with new decorated strategy
       manager.setCacheStrategy(decorated);
       return decorated;
@@ -195,6 +234,26 @@ public class InjectorBuilder {
         return managerFactory.create().getHashStrategy();
       }
     });
+    map.put(CacheStatistics.class, new InjectorObjectFactory<CacheStatistics>() {
+      public CacheStatistics create() {
+        return cacheStatistics;
+      }
+    });
+    map.put(CacheDependencies.class, new InjectorObjectFactory<CacheDependencies>() {
+      public CacheDependencies create() {
+        return cacheDependencies;
+      }
+    });
+    map.put(ProcessorStatistics.class, new InjectorObjectFactory<ProcessorStatistics>() {
+      public ProcessorStatistics create() {
+        return processorStatistics;
+      }
+    });
+    map.put(ProcessorOutputCache.class, new InjectorObjectFactory<ProcessorOutputCache>() {
+      public ProcessorOutputCache create() {
+        return processorOutputCacheInitializer.get();
+      }
+    });
   }
   
   /**
@@ -221,6 +280,36 @@ public class InjectorBuilder {
     return injector = new Injector(Collections.unmodifiableMap(map));
   }
   
+  /**
+   * @param cacheStatistics
+   *          the {@link CacheStatistics} updated by the decorated cache strategy.
+   */
+  public InjectorBuilder setCacheStatistics(final CacheStatistics cacheStatistics) {
+    Validate.notNull(cacheStatistics);
+    this.cacheStatistics = cacheStatistics;
+    return this;
+  }
+
+  /**
+   * @param cacheDependencies
+   *          the {@link CacheDependencies} recording the resources used by each cached entry.
+   */
+  public InjectorBuilder setCacheDependencies(final CacheDependencies cacheDependencies) {
+    Validate.notNull(cacheDependencies);
+    this.cacheDependencies = cacheDependencies;
+    return this;
+  }
+
+  /**
+   * @param processorStatistics
+   *          the {@link ProcessorStatistics} updated by the pre and post processors.
+   */
+  public InjectorBuilder setProcessorStatistics(final ProcessorStatistics processorStatistics) {
+    Validate.notNull(processorStatistics);
+    this.processorStatistics = processorStatistics;
+    return this;
+  }
+
   public InjectorBuilder setResourceAuthorizationManager(final ResourceAuthorizationManager authManager) {
     Validate.notNull(authManager);
     this.authorizationManager = authManager;
@@ -0,0 +1,26 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Used to identify the fields of a processor which do not change its output (ex: a pool of engines created the same
+ * way for any instance). These fields are not part of the key computed by
+ * {@link ro.isdc.wro.model.resource.processor.decorator.MemoizingProcessorDecorator}.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@Documented
+public @interface NotAnOption {
+}
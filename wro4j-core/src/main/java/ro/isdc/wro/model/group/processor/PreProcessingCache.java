@@ -0,0 +1,134 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Holds the pre processed content of the resources, in order to process again only the changed resources when a group
+ * is rebuilt. Each entry holds the hashes of the resources the content depends on (the resource itself and the
+ * resources located during processing, like the imported css), used to check if the entry is still valid.
+ * <p/>
+ * The cache is bounded by the total number of characters of the cached content. When the capacity is reached, the least
+ * recently used entries are evicted.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class PreProcessingCache {
+  /**
+   * Default maximum number of cached characters (16M).
+   */
+  public static final long DEFAULT_CAPACITY = 16L * 1024 * 1024;
+  private final long capacity;
+  private final Map<String, CachedResource> map = new LinkedHashMap<String, CachedResource>(16, 0.75f, true);
+  private long weight;
+
+  public PreProcessingCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of cached characters.
+   */
+  public PreProcessingCache(final long capacity) {
+    Validate.isTrue(capacity > 0, "capacity must be positive");
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return the cached resource associated with the key or null if there is no such resource.
+   */
+  public synchronized CachedResource get(final String key) {
+    return map.get(key);
+  }
+
+  /**
+   * Caches a pre processed resource, replacing the previous one with the same key. A resource larger than the capacity
+   * is not cached.
+   */
+  public synchronized void put(final String key, final CachedResource value) {
+    Validate.notNull(key);
+    Validate.notNull(value);
+    final CachedResource previous = map.remove(key);
+    if (previous != null) {
+      weight -= previous.getWeight();
+    }
+    if (value.getWeight() > capacity) {
+      return;
+    }
+    map.put(key, value);
+    weight += value.getWeight();
+    for (final Iterator<CachedResource> iterator = map.values().iterator(); weight > capacity && iterator.hasNext();) {
+      weight -= iterator.next().getWeight();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Removes all the cached resources.
+   */
+  public synchronized void clear() {
+    map.clear();
+    weight = 0;
+  }
+
+  /**
+   * @return the number of cached resources.
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the total number of cached characters.
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * The pre processed content of a resource along with the hashes of its dependencies.
+   */
+  public static final class CachedResource {
+    private final String content;
+    private final Map<String, String> dependencies;
+
+    /**
+     * @param content
+     *          the pre processed content.
+     * @param dependencies
+     *          the hashes of the resources used to compute the content, mapped by their uri.
+     */
+    public CachedResource(final String content, final Map<String, String> dependencies) {
+      Validate.notNull(content);
+      Validate.notNull(dependencies);
+      this.content = content;
+      this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<String, String>(dependencies));
+    }
+
+    public String getContent() {
+      return content;
+    }
+
+    /**
+     * @return the hashes of the resources used to compute the content, mapped by their uri.
+     */
+    public Map<String, String> getDependencies() {
+      return dependencies;
+    }
+
+    long getWeight() {
+      return content.length();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package ro.isdc.wro.model.group.processor;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -8,12 +9,14 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.commons.lang3.StringUtils;
@@ -22,19 +25,28 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.ContextPropagatingCallable;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
 import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.PreProcessingCache.CachedResource;
+import ro.isdc.wro.model.group.processor.executor.ConfigurableExecutorFactory;
+import ro.isdc.wro.model.group.processor.executor.PreProcessingExecutorFactory;
 import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.ExceptionHandlingProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.decorator.MinimizeAwareProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.StatisticsProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
 import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
-import ro.isdc.wro.util.StopWatch;
-import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
 
 
 /**
@@ -47,6 +59,11 @@ import ro.isdc.wro.util.WroUtil;
  */
 public class PreProcessorExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(PreProcessorExecutor.class);
+  /**
+   * The minimize flag of the resource pre processed by the current thread (by any executor, since the processors may
+   * use another instance for the nested pre processing).
+   */
+  private static final ThreadLocal<Boolean> MINIMIZE_IN_PROGRESS = new ThreadLocal<Boolean>();
   @Inject
   private UriLocatorFactory uriLocatorFactory;
   @Inject
@@ -57,10 +74,46 @@ public class PreProcessorExecutor {
   private LifecycleCallbackRegistry callbackRegistry;  
   @Inject
   private Injector injector;
+  @Inject
+  private HashStrategy hashStrategy;
+  @Inject
+  private ProcessorStatistics processorStatistics;
+  /**
+   * Creates the executor, selected by {@link WroConfiguration#getPreProcessingExecutor()}.
+   */
+  private PreProcessingExecutorFactory executorFactory;
   /**
    * Runs the preProcessing in parallel.
    */
   private ExecutorService executor;
+  /**
+   * Runs the streaming processors of the pre and post processing, created when the streaming pipeline is used.
+   */
+  private ExecutorService streamingExecutor;
+  /**
+   * Flags the threads pre processing a resource in parallel, used to detect the nested pre processing (ex: of the css
+   * imports).
+   */
+  private final ThreadLocal<Boolean> parallelTask = new ThreadLocal<Boolean>();
+  /**
+   * Holds the pre processed content of each resource, created only when
+   * {@link WroConfiguration#isCachePreProcessedResources()} is true.
+   */
+  private PreProcessingCache preProcessingCache;
+  /**
+   * The decorated and injected pre processors applied on each resource type.
+   */
+  private final ProcessorChainCache processorChains = new ProcessorChainCache() {
+    @Override
+    protected ProcessorChain create(final ResourceType type, final boolean minimize) {
+      final List<ResourcePreProcessor> decoratedProcessors = new ArrayList<ResourcePreProcessor>();
+      for (final ResourcePreProcessor processor : ProcessorsUtils.filterProcessorsToApply(minimize, type,
+          processorsFactory.getPreProcessors())) {
+        decoratedProcessors.add(decoratePreProcessor(processor, type));
+      }
+      return new ProcessorChain(type, minimize, decoratedProcessors);
+    }
+  };
   
   /**
    * Apply preProcessors on resources and merge them.
@@ -77,7 +130,7 @@ public class PreProcessorExecutor {
     try {
       Validate.notNull(resources);
       LOG.debug("process and merge resources: {}", resources);
-      final StringBuffer result = new StringBuffer();
+      final StringBuilder result = new StringBuilder();
       if (shouldRunInParallel(resources)) {
         result.append(runInParallel(resources, minimize));
       } else {
@@ -95,7 +148,19 @@ public class PreProcessorExecutor {
   private boolean shouldRunInParallel(final List<Resource> resources) {
     final boolean isParallel = config.isParallelPreprocessing();
     final int availableProcessors = Runtime.getRuntime().availableProcessors();
-    return isParallel && resources.size() > 1 && availableProcessors > 1;
+    return isParallel && resources.size() > 1 && availableProcessors > 1 && !isNestedInNonReentrantExecutor();
+  }
+
+  /**
+   * A task waiting for the tasks it submitted to the same non reentrant executor can exhaust the pool (a deadlock),
+   * thus the nested pre processing is performed sequentially.
+   */
+  private boolean isNestedInNonReentrantExecutor() {
+    if (Boolean.TRUE.equals(parallelTask.get()) && !getExecutorFactory().isReentrant()) {
+      LOG.debug("Nested pre processing is performed sequentially");
+      return true;
+    }
+    return false;
   }
   
   /**
@@ -106,15 +171,25 @@ public class PreProcessorExecutor {
   private String runInParallel(final List<Resource> resources, final boolean minimize)
       throws IOException {
     LOG.debug("Running preProcessing in Parallel");
-    final StringBuffer result = new StringBuffer();
+    final StringBuilder result = new StringBuilder();
     final List<Callable<String>> callables = new ArrayList<Callable<String>>();
+    // the uri's located by spawn threads are recorded by the recording in progress (if any)
+    final LocatedUriRecorder recorder = LocatedUriRecorder.current();
     for (final Resource resource : resources) {
       // decorate with ContextPropagatingCallable in order to allow spawn threads to access the Context
       callables.add(new ContextPropagatingCallable<String>(new Callable<String>() {
         public String call()
             throws Exception {
           LOG.debug("Callable started for resource: {} ...", resource);
-          return applyPreProcessors(resource, minimize);
+          final LocatedUriRecorder previous = LocatedUriRecorder.attach(recorder);
+          final Boolean previousParallelTask = parallelTask.get();
+          parallelTask.set(Boolean.TRUE);
+          try {
+            return applyPreProcessors(resource, minimize);
+          } finally {
+            parallelTask.set(previousParallelTask);
+            LocatedUriRecorder.attach(previous);
+          }
         }
       }));
     }
@@ -142,65 +217,304 @@ public class PreProcessorExecutor {
     return result.toString();
   }
   
-  private ExecutorService getExecutorService() {
+  /**
+   * @return true if the nested tasks (ex: the pre processing of the css imports) can be submitted with
+   *         {@link #submit(Callable)}, false if they must be run sequentially because the current thread is a task of
+   *         a non reentrant executor.
+   */
+  public boolean canSubmit() {
+    return !isNestedInNonReentrantExecutor();
+  }
+
+  /**
+   * Submits a nested task to the executor used for the parallel pre processing, which is shut down by
+   * {@link #destroy()}. The nested pre processing performed by the task is sequential if the executor is not reentrant.
+   *
+   * @return the result of the task.
+   */
+  public <T> Future<T> submit(final Callable<T> task) {
+    Validate.notNull(task);
+    return getExecutorService().submit(new Callable<T>() {
+      public T call()
+          throws Exception {
+        final Boolean previousParallelTask = parallelTask.get();
+        parallelTask.set(Boolean.TRUE);
+        try {
+          return task.call();
+        } finally {
+          parallelTask.set(previousParallelTask);
+        }
+      }
+    });
+  }
+
+  private synchronized ExecutorService getExecutorService() {
     if (executor == null) {
       // use at most the number of available processors (true parallelism)
       final int threadPoolSize = Runtime.getRuntime().availableProcessors();
       LOG.debug("Parallel thread pool size: {}", threadPoolSize);
-      executor = Executors.newFixedThreadPool(threadPoolSize,
-          WroUtil.createDaemonThreadFactory("parallelPreprocessing"));
+      executor = getExecutorFactory().create(threadPoolSize);
     }
     return executor;
   }
+
+  private synchronized PreProcessingExecutorFactory getExecutorFactory() {
+    if (executorFactory == null) {
+      executorFactory = new ConfigurableExecutorFactory(config);
+    }
+    return executorFactory;
+  }
+
+  /**
+   * @return the executor running the streaming processors, shared with the post processing.
+   */
+  synchronized ExecutorService getStreamingExecutor() {
+    if (streamingExecutor == null) {
+      streamingExecutor = StreamingProcessorPipeline.createStageExecutor();
+    }
+    return streamingExecutor;
+  }
+
+  /**
+   * Shuts down the executors used for parallel pre processing and for the streaming pipeline. A new executor is created
+   * if the pre processing is performed after this method is invoked.
+   */
+  public synchronized void destroy() {
+    if (executor != null) {
+      LOG.debug("Shutting down the pre processing executor: {}", executor);
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (streamingExecutor != null) {
+      streamingExecutor.shutdownNow();
+      streamingExecutor = null;
+    }
+    executorFactory = null;
+  }
+
+  /**
+   * @return the minimize flag of the resource pre processed by the current thread or true if there is no pre processing
+   *         in progress. Useful for the processors performing nested pre processing (ex: of the css imports).
+   */
+  public boolean isMinimize() {
+    final Boolean minimize = MINIMIZE_IN_PROGRESS.get();
+    return minimize == null || minimize.booleanValue();
+  }
+
+  /**
+   * @return the pre processor chains created so far, useful for inspecting the time spent by each processor.
+   */
+  public Collection<ProcessorChain> getProcessorChains() {
+    return processorChains.getChains();
+  }
   
   /**
    * Apply a list of preprocessors on a resource.
    * 
    * @param resource
    *          the {@link Resource} on which processors will be applied
-   * @param processors
-   *          the list of processor to apply on the resource.
    */
   private String applyPreProcessors(final Resource resource, final boolean minimize)
       throws IOException {
-    //TODO: apply filtering inside a specialized decorator
-    final Collection<ResourcePreProcessor> processors = ProcessorsUtils.filterProcessorsToApply(minimize,
-        resource.getType(), processorsFactory.getPreProcessors());
-    LOG.debug("applying preProcessors: {}", processors);
-    String resourceContent = getResourceContent(resource);
-    if (processors.isEmpty()) {
-      return resourceContent;
+    final Boolean previousMinimize = MINIMIZE_IN_PROGRESS.get();
+    MINIMIZE_IN_PROGRESS.set(minimize);
+    try {
+      return applyPreProcessors(resource, processorChains.get(resource.getType(), minimize, processorsFactory,
+          config));
+    } finally {
+      MINIMIZE_IN_PROGRESS.set(previousMinimize);
+    }
+  }
+
+  private String applyPreProcessors(final Resource resource, final ProcessorChain chain)
+      throws IOException {
+    if (chain.isEmpty()) {
+      return getResourceContent(resource);
     }
+    final PreProcessingCache cache = getPreProcessingCache();
+    if (cache == null) {
+      return applyPreProcessors(resource, chain, getResourceContent(resource));
+    }
+    final String key = computeCacheKey(resource, chain.isMinimize(), chain.getStages());
+    final LocatedUriRecorder recorder = LocatedUriRecorder.start();
+    try {
+      final String resourceContent = getResourceContent(resource);
+      final CachedResource cached = cache.get(key);
+      if (cached != null && isUpToDate(cached, resource, resourceContent)) {
+        LOG.debug("Using cached pre processed content of resource: {}", resource);
+        return cached.getContent();
+      }
+      final String result = applyPreProcessors(resource, chain, resourceContent);
+      cache.put(key, new CachedResource(result, computeDependencyHashes(recorder.getUris(), resource,
+          resourceContent)));
+      return result;
+    } finally {
+      recorder.stop();
+    }
+  }
+
+  private String applyPreProcessors(final Resource resource, final ProcessorChain chain, final String content)
+      throws IOException {
+    LOG.debug("applying preProcessors: {}", chain.getStages());
+    if (config.isStreamingPipeline()) {
+      return applyPreProcessorsStreaming(resource, chain, content);
+    }
+    String resourceContent = content;
     Writer writer = null;
-    final StopWatch stopWatch = new StopWatch();
-    for (final ResourcePreProcessor processor : processors) {
-      stopWatch.start("Processor: " + processor.getClass().getSimpleName());
-      
+    for (final ResourcePreProcessor processor : chain.getStages()) {
       callbackRegistry.onBeforePreProcess();
       
       writer = new StringWriter();
       final Reader reader = new StringReader(resourceContent);
       try {
-        //decorate and process
-        decoratePreProcessor(processor).process(resource, reader, writer);
+        processor.process(resource, reader, writer);
         //use the outcome for next input
         resourceContent = writer.toString();
       } finally {
-        stopWatch.stop();
         callbackRegistry.onAfterPreProcess();
         reader.close();
         writer.close();
       }
     }
-    LOG.debug(stopWatch.prettyPrint());
+    LOG.debug("{}", chain);
+    return writer.toString();
+  }
+
+  /**
+   * Apply a list of preprocessors on a resource using a {@link StreamingProcessorPipeline}.
+   */
+  private String applyPreProcessorsStreaming(final Resource resource, final ProcessorChain chain,
+      final String content)
+      throws IOException {
+    // the stages running on other threads perform the nested pre processing with the same minimize flag
+    final Boolean minimize = MINIMIZE_IN_PROGRESS.get();
+    final List<ResourcePreProcessor> stages = new ArrayList<ResourcePreProcessor>();
+    for (final ResourcePreProcessor processor : chain.getStages()) {
+      stages.add(new ProcessorDecorator(processor) {
+        @Override
+        public void process(final Resource resource, final Reader reader, final Writer writer)
+            throws IOException {
+          final Boolean previousMinimize = MINIMIZE_IN_PROGRESS.get();
+          MINIMIZE_IN_PROGRESS.set(minimize);
+          callbackRegistry.onBeforePreProcess();
+          try {
+            super.process(resource, reader, writer);
+          } finally {
+            callbackRegistry.onAfterPreProcess();
+            MINIMIZE_IN_PROGRESS.set(previousMinimize);
+          }
+        }
+      });
+    }
+    final StringWriter writer = new StringWriter(content.length());
+    new StreamingProcessorPipeline(getStreamingExecutor(), config.getStreamingBufferSize()).process(resource, stages,
+        new StringReader(content), writer);
     return writer.toString();
   }
   
   /**
-   * Decorates preProcessor with mandatory decorators.
+   * @return the cache of pre processed resources or null if the cache is not enabled.
+   */
+  private synchronized PreProcessingCache getPreProcessingCache() {
+    if (!config.isCachePreProcessedResources() || hashStrategy == null) {
+      return null;
+    }
+    if (preProcessingCache == null) {
+      preProcessingCache = new PreProcessingCache();
+    }
+    return preProcessingCache;
+  }
+
+  /**
+   * The key identifies the resource and the processing applied on it: the processors and the request dependent values
+   * used by css processors (ex: for rewriting the url's of the images). The content is not part of the key, thus a
+   * changed resource replaces its stale entry.
+   */
+  private String computeCacheKey(final Resource resource, final boolean minimize,
+      final Collection<? extends ResourcePreProcessor> processors) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(resource.getType()).append(':').append(resource.getUri()).append(':').append(minimize).append(':').append(
+        resource.isMinimize()).append(':').append(config.getEncoding()).append('[');
+    for (final ResourcePreProcessor processor : processors) {
+      sb.append(AbstractDecorator.getOriginalDecoratedObject(processor).getClass().getName()).append(';');
+    }
+    sb.append(']');
+    if (resource.getType() == ResourceType.CSS) {
+      final Context context = Context.get();
+      if (context.getRequest() != null) {
+        sb.append(FilenameUtils.getFullPath(context.getRequest().getRequestURI()));
+      }
+      sb.append(':').append(context.getAggregatedFolderPath());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return true if none of the resources used to compute the cached content was changed.
+   */
+  private boolean isUpToDate(final CachedResource cached, final Resource resource, final String resourceContent) {
+    for (final Map.Entry<String, String> dependency : cached.getDependencies().entrySet()) {
+      final String hash = resource.getUri().equals(dependency.getKey()) ? computeContentHash(resourceContent)
+          : computeHash(dependency.getKey());
+      if (!dependency.getValue().equals(hash)) {
+        LOG.debug("Resource {} was changed", dependency.getKey());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Map<String, String> computeDependencyHashes(final List<String> uris, final Resource resource,
+      final String resourceContent) {
+    final Map<String, String> hashes = new LinkedHashMap<String, String>();
+    hashes.put(resource.getUri(), computeContentHash(resourceContent));
+    for (final String uri : uris) {
+      if (!hashes.containsKey(uri)) {
+        hashes.put(uri, computeHash(uri));
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * @return the hash of the located resource or an empty string if the resource cannot be located.
+   */
+  private String computeHash(final String uri) {
+    InputStream is = null;
+    try {
+      is = uriLocatorFactory.locate(uri);
+      return hashStrategy.getHash(is);
+    } catch (final IOException e) {
+      return StringUtils.EMPTY;
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+  }
+
+  /**
+   * @return the hash of the content, computed in the same way for each invocation.
+   */
+  private String computeContentHash(final String content) {
+    try {
+      return hashStrategy.getHash(new ByteArrayInputStream(content.getBytes(config.getEncoding())));
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot compute hash", e);
+    }
+  }
+
+  /**
+   * Decorates preProcessor with mandatory decorators. The decoration and the injection are performed once for each
+   * {@link ProcessorChain} (instead of once for each resource), since the decorators do not hold any per resource
+   * state. The statistics are recorded by the innermost decorator, thus the skipped processors are not counted and the
+   * failures are recorded even when ignored.
    */
-  private ResourcePreProcessor decoratePreProcessor(final ResourcePreProcessor processor) {
-    ResourcePreProcessor decorated = new ExceptionHandlingProcessorDecorator(new MinimizeAwareProcessorDecorator(processor)); 
+  private ResourcePreProcessor decoratePreProcessor(final ResourcePreProcessor processor, final ResourceType type) {
+    // the time of a streaming stage includes the time it waits for the other stages
+    final boolean streaming = config.isStreamingPipeline() && StreamingProcessorPipeline.isStreaming(processor);
+    final Object measured = processorStatistics != null ? new StatisticsProcessorDecorator(processor, type,
+        processorStatistics, streaming) : processor;
+    final ResourcePreProcessor decorated = new ExceptionHandlingProcessorDecorator(
+        new MinimizeAwareProcessorDecorator(measured));
     injector.inject(decorated);
     return decorated;
   }
@@ -0,0 +1,148 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+
+
+/**
+ * The already decorated and injected processors applied on a resource type, with a given minimize flag. A chain is
+ * created once and reused by all the resources (or groups) having the same type and minimize flag (see
+ * {@link ProcessorChainCache}). Each processor of the chain is a {@link Stage} measuring the time spent by the
+ * processor.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ProcessorChain {
+  private final ResourceType type;
+  private final boolean minimize;
+  private final List<Stage> stages;
+
+  /**
+   * @param processors
+   *          the decorated and injected processors, in the order they are applied.
+   */
+  public ProcessorChain(final ResourceType type, final boolean minimize,
+      final Collection<? extends ResourcePreProcessor> processors) {
+    Validate.notNull(processors);
+    this.type = type;
+    this.minimize = minimize;
+    final List<Stage> list = new ArrayList<Stage>(processors.size());
+    for (final ResourcePreProcessor processor : processors) {
+      list.add(new Stage(processor));
+    }
+    this.stages = Collections.unmodifiableList(list);
+  }
+
+  /**
+   * @return the processors of the chain, in the order they are applied.
+   */
+  public List<Stage> getStages() {
+    return stages;
+  }
+
+  /**
+   * @return true if the chain has no processors.
+   */
+  public boolean isEmpty() {
+    return stages.isEmpty();
+  }
+
+  public ResourceType getType() {
+    return type;
+  }
+
+  public boolean isMinimize() {
+    return minimize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ProcessorChain[").append(type).append(", minimize=").append(
+        minimize).append("]");
+    for (final Stage stage : stages) {
+      sb.append("\n\t").append(stage);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A processor of the chain, measuring the number of invocations and the time spent by the decorated processor.
+   */
+  public static final class Stage
+      extends ProcessorDecorator {
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    Stage(final ResourcePreProcessor processor) {
+      super(processor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      final long start = System.nanoTime();
+      try {
+        super.process(resource, reader, writer);
+      } finally {
+        totalNanos.addAndGet(System.nanoTime() - start);
+        invocations.incrementAndGet();
+      }
+    }
+
+    /**
+     * @return the name of the decorated processor.
+     */
+    public String getName() {
+      final Class<?> processorClass = getOriginalDecoratedObject().getClass();
+      return processorClass.getSimpleName().length() > 0 ? processorClass.getSimpleName() : processorClass.getName();
+    }
+
+    /**
+     * @return how many times the processor was applied.
+     */
+    public long getInvocationCount() {
+      return invocations.get();
+    }
+
+    /**
+     * @return the total time spent by the processor, in milliseconds. When the streaming pipeline is used, this
+     *         includes the time spent waiting for the previous or the next processor.
+     */
+    public long getTotalTime() {
+      return TimeUnit.NANOSECONDS.toMillis(totalNanos.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return getName() + ": " + getInvocationCount() + " invocations, " + getTotalTime() + " ms";
+    }
+  }
+}
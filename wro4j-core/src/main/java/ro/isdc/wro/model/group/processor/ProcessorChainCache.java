@@ -0,0 +1,90 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+
+
+/**
+ * Holds a {@link ProcessorChain} for each combination of resource type and minimize flag. The chains are created when
+ * first needed and are discarded only when another {@link ProcessorsFactory} or {@link WroConfiguration} is used (ex:
+ * after the manager is reloaded).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public abstract class ProcessorChainCache {
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessorChainCache.class);
+  private final ConcurrentMap<String, ProcessorChain> chains = new ConcurrentHashMap<String, ProcessorChain>();
+  private ProcessorsFactory processorsFactory;
+  private WroConfiguration config;
+
+  /**
+   * @param processorsFactory
+   *          the factory providing the processors of the chain.
+   * @param config
+   *          the configuration used by the decorated processors.
+   * @return the chain of the provided type and minimize flag.
+   */
+  public ProcessorChain get(final ResourceType type, final boolean minimize, final ProcessorsFactory processorsFactory,
+      final WroConfiguration config) {
+    Validate.notNull(type);
+    invalidateIfChanged(processorsFactory, config);
+    final String key = type.name() + ":" + minimize;
+    final ProcessorChain chain = chains.get(key);
+    return chain != null ? chain : create(key, type, minimize, processorsFactory, config);
+  }
+
+  /**
+   * The chain is created while holding the lock, thus a chain created using a discarded factory is never cached.
+   */
+  private synchronized ProcessorChain create(final String key, final ResourceType type, final boolean minimize,
+      final ProcessorsFactory processorsFactory, final WroConfiguration config) {
+    invalidateIfChanged(processorsFactory, config);
+    ProcessorChain chain = chains.get(key);
+    if (chain == null) {
+      chain = create(type, minimize);
+      LOG.debug("Created {}", chain);
+      chains.put(key, chain);
+    }
+    return chain;
+  }
+
+  private synchronized void invalidateIfChanged(final ProcessorsFactory processorsFactory,
+      final WroConfiguration config) {
+    if (this.processorsFactory != processorsFactory || this.config != config) {
+      if (!chains.isEmpty()) {
+        LOG.debug("Discarding the processor chains, since the processors factory or the configuration was changed");
+      }
+      chains.clear();
+      this.processorsFactory = processorsFactory;
+      this.config = config;
+    }
+  }
+
+  /**
+   * @return the chains created so far.
+   */
+  public Collection<ProcessorChain> getChains() {
+    return Collections.unmodifiableCollection(new ArrayList<ProcessorChain>(chains.values()));
+  }
+
+  /**
+   * Creates a chain holding the decorated and injected processors to apply.
+   */
+  protected abstract ProcessorChain create(final ResourceType type, final boolean minimize);
+}
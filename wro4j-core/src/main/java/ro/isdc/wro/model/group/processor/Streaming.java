@@ -0,0 +1,28 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Used to identify (pre and post) processors which write the output while reading the input, without holding the
+ * whole content in memory. When the streaming pipeline is enabled, such processors are connected through bounded
+ * buffers and run concurrently (see {@link StreamingProcessorPipeline}).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+@Inherited
+public @interface Streaming {
+}
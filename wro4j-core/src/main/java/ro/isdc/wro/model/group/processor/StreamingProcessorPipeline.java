@@ -0,0 +1,216 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.util.AbstractDecorator;
+import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.io.CharPipe;
+
+
+/**
+ * Applies a chain of processors without materializing the content between each of them. Each processor having the
+ * {@link Streaming} annotation (except the last one) runs on its own thread and writes into a bounded {@link CharPipe}
+ * read by the next processor, thus the processors work concurrently, like the commands of an unix pipeline. The
+ * stage threads have the {@link Context} and the {@link LocatedUriRecorder} of the thread invoking the pipeline. The
+ * other processors are applied on the thread invoking the pipeline: their input is buffered only when it is produced by
+ * a streaming processor and their output is buffered only when it is not the output of the pipeline.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class StreamingProcessorPipeline {
+  private static final Logger LOG = LoggerFactory.getLogger(StreamingProcessorPipeline.class);
+  /**
+   * The maximum number of threads running streaming processors, for each available processor.
+   */
+  private static final int STAGE_THREADS_PER_PROCESSOR = 4;
+  /**
+   * The number of seconds an idle stage thread is kept.
+   */
+  private static final long STAGE_THREAD_KEEP_ALIVE = 60;
+  private final ExecutorService stageExecutor;
+  private final int bufferSize;
+
+  /**
+   * @param stageExecutor
+   *          runs the streaming processors, usually created with {@link #createStageExecutor()}.
+   * @param bufferSize
+   *          the number of chars buffered between two streaming processors.
+   */
+  public StreamingProcessorPipeline(final ExecutorService stageExecutor, final int bufferSize) {
+    Validate.notNull(stageExecutor);
+    Validate.isTrue(bufferSize > 0, "bufferSize must be positive");
+    this.stageExecutor = stageExecutor;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * A stage is blocked while the next one is not reading, thus the stages cannot wait in a queue for a free thread.
+   * Instead, when all the threads are busy, the stage is applied by the thread invoking the pipeline (its output being
+   * buffered). The idle threads are released after a minute.
+   *
+   * @return a new {@link ExecutorService} for running the streaming processors, which is shut down by the caller when
+   *         it is not used anymore.
+   */
+  public static ExecutorService createStageExecutor() {
+    return new ThreadPoolExecutor(0, STAGE_THREADS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors(),
+        STAGE_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+        WroUtil.createDaemonThreadFactory("streamingPipeline"));
+  }
+
+  /**
+   * @return true if the processor (or the processor decorated by it) has the {@link Streaming} annotation.
+   */
+  public static boolean isStreaming(final Object processor) {
+    return AbstractDecorator.getOriginalDecoratedObject(processor).getClass().isAnnotationPresent(Streaming.class);
+  }
+
+  /**
+   * Applies the processors in the provided order.
+   *
+   * @param resource
+   *          the processed resource, null for post processing.
+   * @param processors
+   *          the (decorated) processors to apply.
+   * @param reader
+   *          the input of the first processor.
+   * @param writer
+   *          the output of the last processor.
+   */
+  public void process(final Resource resource, final List<? extends ResourcePreProcessor> processors,
+      final Reader reader, final Writer writer)
+      throws IOException {
+    Validate.notNull(processors);
+    Validate.notNull(reader);
+    Validate.notNull(writer);
+    if (processors.isEmpty()) {
+      IOUtils.copy(reader, writer);
+      return;
+    }
+    final List<Future<Void>> stages = new ArrayList<Future<Void>>();
+    Reader input = reader;
+    boolean piped = false;
+    boolean completed = false;
+    try {
+      for (int i = 0; i < processors.size(); i++) {
+        final ResourcePreProcessor processor = processors.get(i);
+        final boolean last = i == processors.size() - 1;
+        if (isStreaming(processor) && !last) {
+          final CharPipe pipe = new CharPipe(bufferSize);
+          final Future<Void> stage = submit(createStage(resource, processor, input, pipe.getWriter()));
+          if (stage != null) {
+            stages.add(stage);
+            input = pipe.getReader();
+            piped = true;
+            continue;
+          }
+        }
+        final Reader processorInput = piped && !isStreaming(processor) ? new StringReader(IOUtils.toString(input))
+            : input;
+        if (last) {
+          processor.process(resource, processorInput, writer);
+        } else {
+          final StringWriter output = new StringWriter();
+          processor.process(resource, processorInput, output);
+          input = new StringReader(output.toString());
+          piped = false;
+        }
+      }
+      // the last processor is not interested in the rest of the input (if any)
+      input.close();
+      for (final Future<Void> stage : stages) {
+        waitFor(stage);
+      }
+      completed = true;
+    } finally {
+      if (!completed) {
+        LOG.debug("Stopping {} streaming stages", stages.size());
+        for (final Future<Void> stage : stages) {
+          stage.cancel(true);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the future of the submitted stage or null if all the stage threads are busy.
+   */
+  private Future<Void> submit(final Callable<Void> stage) {
+    try {
+      return stageExecutor.submit(stage);
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("No thread available for the streaming stage, applying it synchronously");
+      return null;
+    }
+  }
+
+  private Callable<Void> createStage(final Resource resource, final ResourcePreProcessor processor,
+      final Reader input, final Writer output) {
+    // the uri's located by the stage are recorded by the recording in progress (if any)
+    final LocatedUriRecorder recorder = LocatedUriRecorder.current();
+    final Callable<Void> stage = new Callable<Void>() {
+      public Void call()
+          throws Exception {
+        final LocatedUriRecorder previous = LocatedUriRecorder.attach(recorder);
+        try {
+          processor.process(resource, input, output);
+        } finally {
+          LocatedUriRecorder.attach(previous);
+          // signal the end of the stream to the next stage and release the previous one
+          output.close();
+          input.close();
+        }
+        return null;
+      }
+    };
+    // the processors may need the context of the request
+    return Context.isContextSet() ? new ContextPropagatingCallable<Void>(stage) : stage;
+  }
+
+  private void waitFor(final Future<Void> stage)
+      throws IOException {
+    try {
+      stage.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WroRuntimeException("Interrupted while waiting for the streaming pipeline", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new WroRuntimeException("Streaming processor failed", cause);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * A pool with a fixed number of daemon threads and a bounded queue. When the queue is full, the task is executed by
+ * the submitting thread, which slows down the submission instead of accumulating tasks. The depth of the queue is
+ * tracked, allowing to find out if the pool is too small for the load.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class BoundedThreadPoolExecutor
+    extends ThreadPoolExecutor {
+  private final int queueCapacity;
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+  private final AtomicLong callerRunsCount = new AtomicLong();
+
+  /**
+   * @param poolSize
+   *          the number of threads.
+   * @param queueCapacity
+   *          the maximum number of tasks waiting for a thread.
+   */
+  public BoundedThreadPoolExecutor(final int poolSize, final int queueCapacity) {
+    super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+        WroUtil.createDaemonThreadFactory("parallelPreprocessing"));
+    Validate.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+    this.queueCapacity = queueCapacity;
+    setRejectedExecutionHandler(new RejectedExecutionHandler() {
+      public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+        if (!executor.isShutdown()) {
+          callerRunsCount.incrementAndGet();
+          runnable.run();
+        }
+      }
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void execute(final Runnable command) {
+    super.execute(command);
+    final int depth = getQueue().size();
+    int max = maxQueueDepth.get();
+    while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+      max = maxQueueDepth.get();
+    }
+  }
+
+  /**
+   * @return the number of tasks waiting for a thread.
+   */
+  public int getQueueDepth() {
+    return getQueue().size();
+  }
+
+  /**
+   * @return the highest number of tasks which were waiting for a thread at the same time.
+   */
+  public int getMaxQueueDepth() {
+    return maxQueueDepth.get();
+  }
+
+  /**
+   * @return the maximum number of tasks waiting for a thread.
+   */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * @return the number of tasks executed by the submitting thread because the queue was full.
+   */
+  public long getCallerRunsCount() {
+    return callerRunsCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[poolSize=" + getCorePoolSize() + ", queueDepth=" + getQueueDepth()
+        + ", maxQueueDepth=" + getMaxQueueDepth() + ", queueCapacity=" + queueCapacity + ", callerRuns="
+        + getCallerRunsCount() + ", completed=" + getCompletedTaskCount() + "]";
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * Creates a {@link BoundedThreadPoolExecutor}.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class BoundedThreadPoolExecutorFactory
+    implements PreProcessingExecutorFactory {
+  /**
+   * Alias used to select this factory.
+   */
+  public static final String ALIAS = "bounded";
+  private final int queueCapacity;
+
+  /**
+   * @param queueCapacity
+   *          the maximum number of tasks waiting for a thread.
+   */
+  public BoundedThreadPoolExecutorFactory(final int queueCapacity) {
+    Validate.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ExecutorService create(final int parallelism) {
+    return new BoundedThreadPoolExecutor(parallelism, queueCapacity);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReentrant() {
+    return false;
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+
+
+/**
+ * A {@link PreProcessingExecutorFactory} delegating to the factory selected by
+ * {@link WroConfiguration#getPreProcessingExecutor()}, which can be one of the aliases:
+ * {@value FixedThreadPoolExecutorFactory#ALIAS} (default), {@value BoundedThreadPoolExecutorFactory#ALIAS},
+ * {@value WorkStealingExecutorFactory#ALIAS}, {@value VirtualThreadExecutorFactory#ALIAS} or the fully qualified name
+ * of a class implementing {@link PreProcessingExecutorFactory} (having a default constructor).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ConfigurableExecutorFactory
+    implements PreProcessingExecutorFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(ConfigurableExecutorFactory.class);
+  private final PreProcessingExecutorFactory factory;
+
+  public ConfigurableExecutorFactory(final WroConfiguration config) {
+    this.factory = createFactory(config);
+    LOG.debug("Using pre processing executor factory: {}", factory);
+  }
+
+  private PreProcessingExecutorFactory createFactory(final WroConfiguration config) {
+    final String name = StringUtils.trimToEmpty(config.getPreProcessingExecutor());
+    if (StringUtils.isEmpty(name) || FixedThreadPoolExecutorFactory.ALIAS.equals(name)) {
+      return new FixedThreadPoolExecutorFactory();
+    }
+    if (BoundedThreadPoolExecutorFactory.ALIAS.equals(name)) {
+      return new BoundedThreadPoolExecutorFactory(config.getPreProcessingQueueSize());
+    }
+    if (WorkStealingExecutorFactory.ALIAS.equals(name)) {
+      return new WorkStealingExecutorFactory();
+    }
+    if (VirtualThreadExecutorFactory.ALIAS.equals(name)) {
+      return new VirtualThreadExecutorFactory();
+    }
+    try {
+      final Class<?> factoryClass = Thread.currentThread().getContextClassLoader().loadClass(name);
+      return (PreProcessingExecutorFactory) factoryClass.newInstance();
+    } catch (final Exception e) {
+      throw new WroRuntimeException("Invalid pre processing executor: " + name, e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ExecutorService create(final int parallelism) {
+    return factory.create(parallelism);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReentrant() {
+    return factory.isReentrant();
+  }
+
+  /**
+   * @return the factory selected by the configuration.
+   */
+  public PreProcessingExecutorFactory getFactory() {
+    return factory;
+  }
+}
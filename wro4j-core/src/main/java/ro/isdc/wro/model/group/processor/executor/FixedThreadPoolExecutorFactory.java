@@ -0,0 +1,39 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Creates a pool with a fixed number of daemon threads and an unbounded queue. This is the default executor.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class FixedThreadPoolExecutorFactory
+    implements PreProcessingExecutorFactory {
+  /**
+   * Alias used to select this factory.
+   */
+  public static final String ALIAS = "fixed";
+
+  /**
+   * {@inheritDoc}
+   */
+  public ExecutorService create(final int parallelism) {
+    return Executors.newFixedThreadPool(parallelism, WroUtil.createDaemonThreadFactory("parallelPreprocessing"));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReentrant() {
+    return false;
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * Creates the {@link ExecutorService} used by {@link ro.isdc.wro.model.group.processor.PreProcessorExecutor} to
+ * pre process the resources of a group in parallel. The implementation is selected with
+ * {@link ro.isdc.wro.config.jmx.ConfigConstants#preProcessingExecutor} (see {@link ConfigurableExecutorFactory}).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface PreProcessingExecutorFactory {
+  /**
+   * @param parallelism
+   *          the number of resources which should be pre processed at the same time.
+   * @return a new {@link ExecutorService}, which is shut down by the caller when it is not used anymore.
+   */
+  ExecutorService create(int parallelism);
+
+  /**
+   * A task running on a reentrant executor can submit other tasks (ex: the pre processing of the resources imported by
+   * a css) to the same executor and wait for them without the risk of a deadlock. The nested pre processing is
+   * performed sequentially when the executor is not reentrant.
+   *
+   * @return true if the executors created by this factory are reentrant.
+   */
+  boolean isReentrant();
+}
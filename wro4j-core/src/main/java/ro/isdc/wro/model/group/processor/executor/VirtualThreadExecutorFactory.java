@@ -0,0 +1,71 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Creates an executor starting a new virtual thread for each task. The waiting tasks (ex: blocked while locating a
+ * remote resource) do not hold a platform thread and the nested pre processing cannot exhaust the pool. The executor
+ * is available on the jvm's supporting virtual threads and is created using reflection; a
+ * {@link FixedThreadPoolExecutorFactory} is used as fallback on older jvm's.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class VirtualThreadExecutorFactory
+    implements PreProcessingExecutorFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadExecutorFactory.class);
+  /**
+   * Alias used to select this factory.
+   */
+  public static final String ALIAS = "virtual";
+  private static final Method FACTORY_METHOD = findFactoryMethod();
+  private final PreProcessingExecutorFactory fallback = new FixedThreadPoolExecutorFactory();
+
+  private static Method findFactoryMethod() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (final NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ExecutorService create(final int parallelism) {
+    if (isSupported()) {
+      try {
+        return (ExecutorService) FACTORY_METHOD.invoke(null);
+      } catch (final Exception e) {
+        LOG.warn("Cannot create the virtual thread executor, using a fixed pool instead", e);
+      }
+    } else {
+      LOG.warn("Virtual threads are not supported by this jvm, using a fixed pool instead");
+    }
+    return fallback.create(parallelism);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReentrant() {
+    return isSupported();
+  }
+
+  /**
+   * @return true if the jvm supports virtual threads.
+   */
+  public static boolean isSupported() {
+    return FACTORY_METHOD != null;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Creates a work-stealing pool (java.util.concurrent.ForkJoinPool). A thread of this pool waiting for a task submitted
+ * to the same pool executes other pending tasks instead of blocking, thus the nested pre processing can be performed
+ * in parallel without a deadlock. The pool is available on java 7 or later and is created using reflection; a
+ * {@link FixedThreadPoolExecutorFactory} is used as fallback on older jvm's.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class WorkStealingExecutorFactory
+    implements PreProcessingExecutorFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(WorkStealingExecutorFactory.class);
+  /**
+   * Alias used to select this factory.
+   */
+  public static final String ALIAS = "workStealing";
+  private static final Constructor<?> POOL_CONSTRUCTOR = findPoolConstructor();
+  private final PreProcessingExecutorFactory fallback = new FixedThreadPoolExecutorFactory();
+
+  private static Constructor<?> findPoolConstructor() {
+    try {
+      return Class.forName("java.util.concurrent.ForkJoinPool").getConstructor(int.class);
+    } catch (final Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ExecutorService create(final int parallelism) {
+    if (isSupported()) {
+      try {
+        return (ExecutorService) POOL_CONSTRUCTOR.newInstance(parallelism);
+      } catch (final Exception e) {
+        LOG.warn("Cannot create the work-stealing pool, using a fixed pool instead", e);
+      }
+    } else {
+      LOG.warn("The work-stealing pool is not supported by this jvm, using a fixed pool instead");
+    }
+    return fallback.create(parallelism);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReentrant() {
+    return isSupported();
+  }
+
+  /**
+   * @return true if the jvm provides the work-stealing pool.
+   */
+  public static boolean isSupported() {
+    return POOL_CONSTRUCTOR != null;
+  }
+}
@@ -6,10 +6,12 @@ import java.io.InputStream;
 import ro.isdc.wro.model.group.processor.Injector;
 import ro.isdc.wro.model.group.processor.InjectorAwareDecorator;
 import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
 
 
 /**
- * Responsible for injecting each {@link UriLocator} with required fields before being used.
+ * Responsible for injecting each {@link UriLocator} with required fields before being used. The located uri's are
+ * recorded by the {@link LocatedUriRecorder} in progress.
  * 
  * @author Alex Objelean
  * @created 24 Apr 2012
@@ -48,6 +50,7 @@ public final class InjectorAwareUriLocatorFactoryDecorator
     if (locator == null) {
       throw new IOException("No locator is capable handling uri: " + uri);
     }
+    LocatedUriRecorder.record(uri);
     return locator.locate(uri);
   }
 }
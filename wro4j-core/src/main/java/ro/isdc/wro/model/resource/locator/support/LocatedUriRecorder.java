@@ -0,0 +1,92 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.locator.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ro.isdc.wro.model.resource.locator.factory.InjectorAwareUriLocatorFactoryDecorator;
+
+
+/**
+ * Records the uri's located while a resource is processed, in order to find all the resources the processing result
+ * depends on (ex: the imported css resources or the images embedded as data uri). The uri's are recorded by
+ * {@link InjectorAwareUriLocatorFactoryDecorator}, thus only the resources located through the injected
+ * {@link ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory} are recorded.
+ * <p/>
+ * The recorders are nested: a located uri is recorded by the recorder of the current thread and by all its parents. A
+ * recorder can be attached to another thread (ex: when the nested resources are processed in parallel).
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public final class LocatedUriRecorder {
+  private static final ThreadLocal<LocatedUriRecorder> CURRENT = new ThreadLocal<LocatedUriRecorder>();
+  private final LocatedUriRecorder parent;
+  private final Set<String> uris = new LinkedHashSet<String>();
+
+  private LocatedUriRecorder(final LocatedUriRecorder parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Starts a recording in the current thread, nested in the recording in progress (if any).
+   *
+   * @return the started recorder.
+   */
+  public static LocatedUriRecorder start() {
+    final LocatedUriRecorder recorder = new LocatedUriRecorder(CURRENT.get());
+    CURRENT.set(recorder);
+    return recorder;
+  }
+
+  /**
+   * Stops this recording. The parent recording (if any) becomes the current one.
+   */
+  public void stop() {
+    CURRENT.set(parent);
+  }
+
+  /**
+   * @return the recorder of the current thread or null if there is no recording in progress.
+   */
+  public static LocatedUriRecorder current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes the provided recorder the current one, used to continue a recording in another thread.
+   *
+   * @param recorder
+   *          the recorder to attach to the current thread (can be null).
+   * @return the previous recorder of the current thread, which should be restored when the work is done.
+   */
+  public static LocatedUriRecorder attach(final LocatedUriRecorder recorder) {
+    final LocatedUriRecorder previous = CURRENT.get();
+    CURRENT.set(recorder);
+    return previous;
+  }
+
+  /**
+   * Records a located uri in the current recording and in all its parents. Does nothing if there is no recording in
+   * progress.
+   */
+  public static void record(final String uri) {
+    for (LocatedUriRecorder recorder = CURRENT.get(); recorder != null; recorder = recorder.parent) {
+      synchronized (recorder) {
+        recorder.uris.add(uri);
+      }
+    }
+  }
+
+  /**
+   * @return the uri's recorded so far, in the order they were located.
+   */
+  public synchronized List<String> getUris() {
+    return new ArrayList<String>(uris);
+  }
+}
@@ -0,0 +1,21 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor;
+
+/**
+ * Implemented by processors whose options cannot be read from their fields (ex: a processor holding the options of a
+ * compiler). The key returned by {@link #getOptionsKey()} is used instead of the fields by
+ * {@link ro.isdc.wro.model.resource.processor.decorator.MemoizingProcessorDecorator} to identify the processor.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public interface OptionsAware {
+  /**
+   * @return a value which changes whenever an option changing the output of the processor changes. The class of the
+   *         processor does not have to be part of it.
+   */
+  String getOptionsKey();
+}
@@ -48,22 +48,12 @@ public class ExceptionHandlingProcessorDecorator
   @Override
   public void process(final Resource resource, final Reader reader, final Writer writer)
       throws IOException {
-    final String resourceContent = IOUtils.toString(reader);
-    final Reader innerReader = new StringReader(resourceContent);
-    final StringWriter innerWriter = new StringWriter();
     try {
-      super.process(resource, innerReader, innerWriter);
-      writer.write(innerWriter.toString());
-    } catch (final Exception e) {
-      final String processorName = getOriginalDecoratedObject().getClass().getSimpleName();
-      LOG.debug("Failed to process the resource: {} using processor: {}", resource, processorName);
       if (isIgnoreFailingProcessor()) {
-        writer.write(resourceContent);
-        // don't wrap exception unless required
-      } else if (e instanceof RuntimeException) {
-        throw (RuntimeException) e;
+        processIgnoringFailure(resource, reader, writer);
       } else {
-        throw new WroRuntimeException("The processor: " + processorName + " failed", e);
+        // the original content is not needed when the failure is not ignored, thus the content is not buffered
+        processAndRethrow(resource, reader, writer);
       }
     } finally {
       reader.close();
@@ -71,10 +61,42 @@ public class ExceptionHandlingProcessorDecorator
     }
   }
 
+  private void processIgnoringFailure(final Resource resource, final Reader reader, final Writer writer)
+      throws IOException {
+    final String resourceContent = IOUtils.toString(reader);
+    final Reader innerReader = new StringReader(resourceContent);
+    final StringWriter innerWriter = new StringWriter();
+    try {
+      super.process(resource, innerReader, innerWriter);
+      writer.write(innerWriter.toString());
+    } catch (final Exception e) {
+      LOG.debug("Failed to process the resource: {} using processor: {}", resource, getProcessorName());
+      writer.write(resourceContent);
+    }
+  }
+
+  private void processAndRethrow(final Resource resource, final Reader reader, final Writer writer) {
+    try {
+      super.process(resource, reader, writer);
+    } catch (final RuntimeException e) {
+      LOG.debug("Failed to process the resource: {} using processor: {}", resource, getProcessorName());
+      // don't wrap exception unless required
+      throw e;
+    } catch (final Exception e) {
+      LOG.debug("Failed to process the resource: {} using processor: {}", resource, getProcessorName());
+      throw new WroRuntimeException("The processor: " + getProcessorName() + " failed", e);
+    }
+  }
+
+  private String getProcessorName() {
+    return getOriginalDecoratedObject().getClass().getSimpleName();
+  }
+
   /**
-   * @return true if the failure should be ignored. By default uses the {@link WroConfiguration} to get the flag value.
+   * @return true if the failure should be ignored. By default uses the {@link WroConfiguration} (if injected) to get the
+   *         flag value.
    */
   protected boolean isIgnoreFailingProcessor() {
-    return config.isIgnoreFailingProcessor();
+    return config != null && config.isIgnoreFailingProcessor();
   }
 }
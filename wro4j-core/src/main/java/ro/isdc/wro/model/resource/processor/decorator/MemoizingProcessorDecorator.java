@@ -0,0 +1,169 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.decorator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.processor.OptionsAware;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOptions;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOutputCache;
+
+
+/**
+ * Reuses the output of an expensive processor (ex: a compiler or a compressor) for an input already processed, instead
+ * of processing it again after the cache or the model is reloaded. The output is stored in a
+ * {@link ProcessorOutputCache} under a key computed from the decorated processors, their options and the input.
+ * <p/>
+ * The options of a processor are described by {@link ProcessorOptions}. Only the processors whose output depends
+ * exclusively on these options and on the input should be decorated (ex: a processor using the uri of the resource
+ * should not). Since the value of any other field (ex: the options of a compiler) cannot be part of the key, the
+ * decorator cannot be created when such a field is found, unless {@link #getProcessorKey()} is overridden.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class MemoizingProcessorDecorator
+    extends ProcessorDecorator {
+  private static final Logger LOG = LoggerFactory.getLogger(MemoizingProcessorDecorator.class);
+  private final ProcessorOutputCache cache;
+  /**
+   * Used when no cache is provided to the constructor. Being shared by the decorators injected by the same manager, the
+   * output is reused by the decorators created after the processors are reloaded.
+   */
+  @Inject
+  private ProcessorOutputCache injectedCache;
+
+  /**
+   * Decorates a pre or post processor, keeping its output in the cache of the manager injecting this decorator.
+   */
+  public MemoizingProcessorDecorator(final Object processor) {
+    super(processor);
+    this.cache = null;
+    validateOptions();
+  }
+
+  /**
+   * Decorates a pre or post processor.
+   *
+   * @param cache
+   *          holds the output of the processor.
+   */
+  public MemoizingProcessorDecorator(final Object processor, final ProcessorOutputCache cache) {
+    super(processor);
+    Validate.notNull(cache);
+    this.cache = cache;
+    validateOptions();
+  }
+
+  /**
+   * Checks that the key identifies each processor of the decorators chain, unless a subclass identifies them by
+   * overriding {@link #getProcessorKey()}.
+   *
+   * @throws WroRuntimeException
+   *           if a processor has a field which is not an option.
+   */
+  private void validateOptions() {
+    if (isProcessorKeyOverridden()) {
+      return;
+    }
+    final Field field = ProcessorOptions.findFieldWhichIsNotAnOption(getDecoratedObject());
+    if (field != null) {
+      throw new WroRuntimeException("Cannot memoize the output of " + field.getDeclaringClass().getName()
+          + ", the field " + field.getName() + " is not an option. Implement " + OptionsAware.class.getName()
+          + " or override getProcessorKey() to identify it");
+    }
+  }
+
+  private boolean isProcessorKeyOverridden() {
+    for (Class<?> current = getClass(); current != MemoizingProcessorDecorator.class; current =
+        current.getSuperclass()) {
+      try {
+        current.getDeclaredMethod("getProcessorKey");
+        return true;
+      } catch (final NoSuchMethodException e) {
+        // not overridden by this class
+      }
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void process(final Resource resource, final Reader reader, final Writer writer)
+      throws IOException {
+    try {
+      final ProcessorOutputCache outputCache = getCache();
+      Validate.validState(outputCache != null, "The decorator was not injected and no cache was provided");
+      final String content = IOUtils.toString(reader);
+      final String key = computeKey(content);
+      String output = outputCache.get(key);
+      if (output == null) {
+        final StringWriter processedWriter = new StringWriter();
+        getDecoratedObject().process(resource, new StringReader(content), processedWriter);
+        output = processedWriter.toString();
+        outputCache.put(key, output);
+      } else {
+        LOG.debug("Reusing the output of processor: {}", getOriginalDecoratedObject());
+      }
+      writer.write(output);
+    } finally {
+      reader.close();
+      writer.close();
+    }
+  }
+
+  /**
+   * @return the hash of the processor key and of the input.
+   */
+  private String computeKey(final String content)
+      throws UnsupportedEncodingException {
+    try {
+      final MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+      messageDigest.update(getProcessorKey().getBytes(CharEncoding.UTF_8));
+      messageDigest.update((byte) 0);
+      messageDigest.update(content.getBytes(CharEncoding.UTF_8));
+      return new BigInteger(1, messageDigest.digest()).toString(16);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new WroRuntimeException("Cannot compute processor output key", e);
+    }
+  }
+
+  /**
+   * Identifies the decorated processors along with their options. Override this method when the output of a processor
+   * depends on other values.
+   *
+   * @return the class and the options of each processor of the decorators chain.
+   */
+  protected String getProcessorKey() {
+    return ProcessorOptions.describe(getDecoratedObject());
+  }
+
+  /**
+   * @return the cache holding the output of the decorated processor, null if it was not provided nor injected.
+   */
+  public ProcessorOutputCache getCache() {
+    return cache != null ? cache : injectedCache;
+  }
+}
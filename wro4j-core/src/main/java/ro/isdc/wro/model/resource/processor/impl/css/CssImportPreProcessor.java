@@ -3,13 +3,19 @@
  */
 package ro.isdc.wro.model.resource.processor.impl.css;
 
-import static org.apache.commons.lang3.StringUtils.EMPTY;
-
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -19,13 +25,16 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.PreProcessorExecutor;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
-import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.StringUtils;
 import ro.isdc.wro.util.WroUtil;
@@ -36,6 +45,12 @@ import ro.isdc.wro.util.WroUtil;
  * preProcessor & postProcessor. It is necessary because preProcessor is responsible for updating model with found
  * imported resources, while post processor removes import occurrences.
  * <p/>
+ * The imports are found in the content being processed (thus each css resource is read once) and each imported
+ * resource is pre processed (including its own imports) using the minimize flag of the importing resource. The imports
+ * of a resource are pre processed in parallel (by the executor of the {@link PreProcessorExecutor}) when
+ * {@link WroConfiguration#isParallelPreprocessing()} is true. The content of an import shared by more resources of the
+ * same import graph is processed once, while a recursive import is ignored.
+ * <p/>
  * When processor finds an import which is not valid, it will check the
  * {@link WroConfiguration#isIgnoreMissingResources()} flag. If it is set to false, the processor will fail.
  * 
@@ -47,19 +62,69 @@ public class CssImportPreProcessor
   private static final Logger LOG = LoggerFactory.getLogger(CssImportPreProcessor.class);
   public static final String ALIAS = "cssImport";
   /**
-   * Contains a {@link UriLocatorFactory} reference injected externally.
+   * The import pre processed by the current thread.
    */
-  @Inject
-  private UriLocatorFactory uriLocatorFactory;
+  private static final ThreadLocal<ImportNode> CURRENT_IMPORT = new ThreadLocal<ImportNode>();
   @Inject
   private PreProcessorExecutor preProcessorExecutor;
   @Inject
   private WroConfiguration configuration;
+  private static final Pattern PATTERN = Pattern.compile(WroUtil.loadRegexpWithKey("cssImport"));
+
   /**
-   * List of processed resources, useful for detecting deep recursion.
+   * A resource of the import graph, along with the resources importing it.
    */
-  private final List<Resource> processed = new ArrayList<Resource>();
-  private static final Pattern PATTERN = Pattern.compile(WroUtil.loadRegexpWithKey("cssImport"));
+  private static final class ImportNode {
+    private final String uri;
+    private final ImportNode parent;
+    /**
+     * The uri's of this resource and of the resources importing it, used for detecting the recursive imports.
+     */
+    private final Set<String> path;
+    /**
+     * The pre processed imports of the graph, mapped by their uri.
+     */
+    private final Map<String, ProcessedImport> processedImports;
+    /**
+     * False when a recursive import was ignored while processing this resource, thus its content depends on the
+     * importing resources and cannot be reused.
+     */
+    private volatile boolean reusable = true;
+
+    ImportNode(final String uri, final ImportNode parent) {
+      this.uri = uri;
+      this.parent = parent;
+      this.path = new HashSet<String>();
+      if (parent != null) {
+        path.addAll(parent.path);
+      }
+      path.add(uri);
+      this.processedImports = parent != null ? parent.processedImports
+          : new ConcurrentHashMap<String, ProcessedImport>();
+    }
+
+    /**
+     * Marks the resources found between this resource and the recursively imported one as not reusable.
+     */
+    void onRecursiveImport(final String importedUri) {
+      for (ImportNode node = this; node != null && !node.uri.equals(importedUri); node = node.parent) {
+        node.reusable = false;
+      }
+    }
+  }
+
+  /**
+   * The pre processed content of an import, along with the uri's located during its processing.
+   */
+  private static final class ProcessedImport {
+    private final String content;
+    private final List<String> dependencies;
+
+    ProcessedImport(final String content, final List<String> dependencies) {
+      this.content = content;
+      this.dependencies = dependencies;
+    }
+  }
 
   /**
    * {@inheritDoc}
@@ -71,7 +136,6 @@ public class CssImportPreProcessor
     try {
       final String result = parseCss(resource, reader);
       writer.write(result);
-      processed.clear();
     } finally {
       reader.close();
       writer.close();
@@ -82,8 +146,8 @@ public class CssImportPreProcessor
    * Checks if required fields were injected.
    */
   private void validate() {
-    Validate.notNull(uriLocatorFactory);
     Validate.notNull(preProcessorExecutor);
+    Validate.notNull(configuration);
   }
 
 
@@ -94,25 +158,128 @@ public class CssImportPreProcessor
    */
   private String parseCss(final Resource resource, final Reader reader)
     throws IOException {
-    if (processed.contains(resource)) {
-      LOG.debug("[WARN] Recursive import detected: {}", resource);
-      return "";
-    }
-    processed.add(resource);
-    final StringBuffer sb = new StringBuffer();
-    final List<Resource> importsCollector = getImportedResources(resource);
-    // for now, minimize always
-    // TODO: find a way to get minimize property dynamically.
-    //groupExtractor.isMinimized(Context.get().getRequest())
-    sb.append(preProcessorExecutor.processAndMerge(importsCollector, true));
+    final String css = IOUtils.toString(reader);
+    final List<Resource> importsCollector = getImportedResources(resource, css);
+    final StringBuilder sb = new StringBuilder();
     if (!importsCollector.isEmpty()) {
       LOG.debug("Imported resources found : {}", importsCollector.size());
+      for (final String importedCss : processImports(getImportNode(resource), importsCollector)) {
+        sb.append(importedCss);
+      }
     }
-    sb.append(IOUtils.toString(reader));
+    sb.append(css);
     LOG.debug("importsCollector: {}", importsCollector);
     return removeImportStatements(sb.toString());
   }
 
+  /**
+   * @return the node of the import being processed by the current thread or the root of a new import graph.
+   */
+  private ImportNode getImportNode(final Resource resource) {
+    final ImportNode current = CURRENT_IMPORT.get();
+    return current != null && current.uri.equals(resource.getUri()) ? current : new ImportNode(resource.getUri(),
+        null);
+  }
+
+  /**
+   * @return the pre processed content of each import, in the order of the imports.
+   */
+  private List<String> processImports(final ImportNode node, final List<Resource> imports)
+    throws IOException {
+    final boolean minimize = preProcessorExecutor.isMinimize();
+    final List<String> result = new ArrayList<String>();
+    if (imports.size() > 1 && configuration.isParallelPreprocessing() && preProcessorExecutor.canSubmit()) {
+      final List<Future<String>> futures = new ArrayList<Future<String>>();
+      for (final Resource imported : imports) {
+        futures.add(preProcessorExecutor.submit(createImportTask(node, imported, minimize)));
+      }
+      try {
+        for (final Future<String> future : futures) {
+          result.add(waitFor(future));
+        }
+      } finally {
+        for (final Future<String> future : futures) {
+          future.cancel(true);
+        }
+      }
+    } else {
+      for (final Resource imported : imports) {
+        result.add(processImport(node, imported, minimize));
+      }
+    }
+    return result;
+  }
+
+  private Callable<String> createImportTask(final ImportNode node, final Resource imported, final boolean minimize) {
+    // the uri's located by the import are recorded by the recording in progress (if any)
+    final LocatedUriRecorder recorder = LocatedUriRecorder.current();
+    final Callable<String> task = new Callable<String>() {
+      public String call()
+        throws Exception {
+        final LocatedUriRecorder previous = LocatedUriRecorder.attach(recorder);
+        try {
+          return processImport(node, imported, minimize);
+        } finally {
+          LocatedUriRecorder.attach(previous);
+        }
+      }
+    };
+    return Context.isContextSet() ? new ContextPropagatingCallable<String>(task) : task;
+  }
+
+  private String waitFor(final Future<String> future)
+    throws IOException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WroRuntimeException("Interrupted while processing the css imports", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new WroRuntimeException("Problem during css import processing", cause);
+    }
+  }
+
+  /**
+   * @return the pre processed content of the imported resource.
+   */
+  private String processImport(final ImportNode node, final Resource imported, final boolean minimize)
+    throws IOException {
+    final String uri = imported.getUri();
+    if (node.path.contains(uri)) {
+      LOG.debug("[WARN] Recursive import detected: {}", imported);
+      node.onRecursiveImport(uri);
+      return "";
+    }
+    final ProcessedImport processed = node.processedImports.get(uri);
+    if (processed != null && Collections.disjoint(node.path, processed.dependencies)) {
+      LOG.debug("Reusing processed import: {}", imported);
+      for (final String dependency : processed.dependencies) {
+        LocatedUriRecorder.record(dependency);
+      }
+      return processed.content;
+    }
+    final ImportNode importNode = new ImportNode(uri, node);
+    final ImportNode previous = CURRENT_IMPORT.get();
+    CURRENT_IMPORT.set(importNode);
+    final LocatedUriRecorder recorder = LocatedUriRecorder.start();
+    try {
+      final String content = preProcessorExecutor.processAndMerge(Collections.singletonList(imported), minimize);
+      if (importNode.reusable) {
+        node.processedImports.put(uri, new ProcessedImport(content, recorder.getUris()));
+      }
+      return content;
+    } finally {
+      recorder.stop();
+      CURRENT_IMPORT.set(previous);
+    }
+  }
+
   /**
    * Removes all @import statements for css.
    */
@@ -130,27 +297,18 @@ public class CssImportPreProcessor
   /**
    * Find a set of imported resources inside a given resource.
    */
-  private List<Resource> getImportedResources(final Resource resource)
-    throws IOException {
+  private List<Resource> getImportedResources(final Resource resource, final String css) {
     // it should be sorted
     final List<Resource> imports = new ArrayList<Resource>();
-    String css = EMPTY;
-    try {
-      css = IOUtils.toString(uriLocatorFactory.locate(resource.getUri()), configuration.getEncoding());
-    } catch (IOException e) {
-      if (!configuration.isIgnoreMissingResources()) {
-        LOG.error("Invalid import detected: {}", resource.getUri());
-        throw e;
-      }
-    }
+    final Set<String> importedUris = new HashSet<String>();
     final Matcher m = PATTERN.matcher(css);
     while (m.find()) {
       final Resource importedResource = buildImportedResource(resource, m.group(1));
       // check if already exist
-      if (imports.contains(importedResource)) {
-        LOG.debug("[WARN] Duplicate imported resource: {}", importedResource);
-      } else {
+      if (importedUris.add(importedResource.getUri())) {
         imports.add(importedResource);
+      } else {
+        LOG.debug("[WARN] Duplicate imported resource: {}", importedResource);
       }
     }
     return imports;
@@ -162,7 +320,9 @@ public class CssImportPreProcessor
    */
   private Resource buildImportedResource(final Resource resource, final String importUrl) {
     final String absoluteUrl = computeAbsoluteUrl(resource, importUrl);
-    return Resource.create(absoluteUrl, ResourceType.CSS);
+    final Resource importedResource = Resource.create(absoluteUrl, ResourceType.CSS);
+    importedResource.setMinimize(resource.isMinimize());
+    return importedResource;
   }
 
 
@@ -3,12 +3,16 @@
  */
 package ro.isdc.wro.model.resource.processor.impl.css;
 
+import static ro.isdc.wro.http.handler.ResourceProxyRequestHandler.PARAM_FINGERPRINT;
 import static ro.isdc.wro.util.StringUtils.cleanPath;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +24,9 @@ import ro.isdc.wro.model.resource.locator.ClasspathUriLocator;
 import ro.isdc.wro.model.resource.locator.ServletContextUriLocator;
 import ro.isdc.wro.model.resource.locator.UriLocator;
 import ro.isdc.wro.model.resource.locator.UrlUriLocator;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
 
 
 /**
@@ -103,6 +109,10 @@ import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
  * <p/>
  * The algorithm requires two types of {@link UriLocator} objects, one for resolving url resources & one for classpath
  * resources. Both need to be injected using IoC when creating the instance of {@link CssUrlRewritingProcessor} class.
+ * <p/>
+ * When {@link ro.isdc.wro.config.jmx.WroConfiguration#isFingerprintProxyResources()} is true, the hash of the content
+ * of the proxied resource is appended to the [WRO-PREFIX] url's, thus the resource proxy serves them with long-lived
+ * cache headers.
  * 
  * @author Alex Objelean
  * @created Nov 19, 2008
@@ -115,6 +125,10 @@ public class CssUrlRewritingProcessor
   private ResourceAuthorizationManager authorizationManager;
   @Inject
   private ReadOnlyContext context;
+  @Inject
+  private UriLocatorFactory uriLocatorFactory;
+  @Inject
+  private HashStrategy hashStrategy;
   
   /**
    * {@inheritDoc}
@@ -129,7 +143,8 @@ public class CssUrlRewritingProcessor
    */
   @Override
   protected void onUrlReplaced(final String replacedUrl) {
-    final String allowedUrl = StringUtils.removeStart(replacedUrl, getUrlPrefix());
+    final String allowedUrl = StringUtils.substringBefore(StringUtils.removeStart(replacedUrl, getUrlPrefix()),
+        getFingerprintPrefix());
     LOG.debug("adding allowed url: {}", allowedUrl);
     authorizationManager.add(allowedUrl);
   }
@@ -151,7 +166,7 @@ public class CssUrlRewritingProcessor
       }
       // Treat WEB-INF special case
       if (ServletContextUriLocator.isProtectedResource(cssUri)) {
-        return getUrlPrefix() + computeNewImageLocation(cssUri, imageUrl);
+        return toProxyUrl(computeNewImageLocation(cssUri, imageUrl));
       }
       // Compute the folder where the final css is located. This is important for computing image location after url
       // rewriting.
@@ -170,11 +185,38 @@ public class CssUrlRewritingProcessor
       return computeNewImageLocation(cssUri, imageUrl);      
     }
     if (ClasspathUriLocator.isValid(cssUri)) {
-      return getUrlPrefix() + computeNewImageLocation(cssUri, imageUrl);
+      return toProxyUrl(computeNewImageLocation(cssUri, imageUrl));
     }
     throw new WroRuntimeException("Could not replace imageUrl: " + imageUrl + ", contained at location: " + cssUri);
   }
 
+  /**
+   * @param resourceUri
+   *          the uri of the resource served by the resource proxy.
+   * @return the url of the resource proxy serving the resource, with the hash of the resource content when the proxy
+   *         resources are fingerprinted.
+   */
+  private String toProxyUrl(final String resourceUri) {
+    final String proxyUrl = getUrlPrefix() + resourceUri;
+    if (!context.getConfig().isFingerprintProxyResources()) {
+      return proxyUrl;
+    }
+    InputStream is = null;
+    try {
+      is = uriLocatorFactory.locate(resourceUri);
+      return proxyUrl + getFingerprintPrefix() + hashStrategy.getHash(is);
+    } catch (final IOException e) {
+      LOG.debug("Cannot fingerprint the proxy resource: {}", resourceUri);
+      return proxyUrl;
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+  }
+
+  private String getFingerprintPrefix() {
+    return "&" + PARAM_FINGERPRINT + "=";
+  }
+
   /**
    * Css files hosted on external server, should use its host as the root context when rewriting image url's starting
    * with '/' character.
@@ -17,6 +17,7 @@ import org.apache.commons.io.output.WriterOutputStream;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.Minimize;
+import ro.isdc.wro.model.group.processor.Streaming;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
@@ -33,6 +34,7 @@ import ro.isdc.wro.model.resource.processor.support.JSMin;
  * @created Created on Nov 28, 2008
  */
 @Minimize
+@Streaming
 @SupportedResourceType(ResourceType.JS)
 public class JSMinProcessor implements ResourcePreProcessor,
     ResourcePostProcessor {
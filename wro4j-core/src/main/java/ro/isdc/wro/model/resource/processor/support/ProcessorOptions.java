@@ -0,0 +1,145 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.NotAnOption;
+import ro.isdc.wro.model.resource.processor.OptionsAware;
+import ro.isdc.wro.util.ObjectDecorator;
+
+
+/**
+ * Identifies a processor along with the options changing its output (used to reuse the output of a processor or to
+ * detect that a persisted output was produced by another configuration of the processors).
+ * <p/>
+ * The options of a processor are the values of its fields having a primitive, wrapper, {@link String} or enum type
+ * (except the static, transient, injected and {@link NotAnOption} fields), or the key returned by the processors
+ * implementing {@link OptionsAware}.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public final class ProcessorOptions {
+  /**
+   * The fields of each processor class which may hold an option.
+   */
+  private static final ConcurrentMap<Class<?>, List<Field>> KEY_FIELDS =
+      new ConcurrentHashMap<Class<?>, List<Field>>();
+  private static final List<Class<?>> WRAPPER_TYPES = Arrays.<Class<?>> asList(String.class, Boolean.class,
+      Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
+  private ProcessorOptions() {
+  }
+
+  /**
+   * @param processor
+   *          a processor or a decorator of a processor.
+   * @return the class and the options of each processor of the decorators chain. The fields which are not options are
+   *         ignored.
+   */
+  public static String describe(final Object processor) {
+    final StringBuilder sb = new StringBuilder();
+    Object current = processor;
+    while (current != null) {
+      sb.append(current.getClass().getName());
+      if (current instanceof OptionsAware) {
+        sb.append('[').append(((OptionsAware) current).getOptionsKey()).append(']');
+      } else {
+        sb.append(getOptions(current));
+      }
+      sb.append(';');
+      current = getDecoratedObject(current);
+    }
+    return sb.toString();
+  }
+
+  private static Map<String, Object> getOptions(final Object processor) {
+    final Map<String, Object> options = new TreeMap<String, Object>();
+    for (final Field field : getKeyFields(processor.getClass())) {
+      if (isOptionType(field.getType())) {
+        options.put(field.getDeclaringClass().getName() + "." + field.getName(), readField(processor, field));
+      }
+    }
+    return options;
+  }
+
+  /**
+   * @return the first field of a processor of the decorators chain which is not an option, except the fields holding
+   *         the decorated processor, or null if all fields are options.
+   */
+  public static Field findFieldWhichIsNotAnOption(final Object processor) {
+    Object current = processor;
+    while (current != null) {
+      if (!(current instanceof OptionsAware)) {
+        for (final Field field : getKeyFields(current.getClass())) {
+          if (!isOptionType(field.getType()) && !isDecoratedObject(current, readField(current, field))) {
+            return field;
+          }
+        }
+      }
+      current = getDecoratedObject(current);
+    }
+    return null;
+  }
+
+  private static Object readField(final Object processor, final Field field) {
+    try {
+      return field.get(processor);
+    } catch (final IllegalAccessException e) {
+      throw new WroRuntimeException("Cannot read option: " + field, e);
+    }
+  }
+
+  /**
+   * @return the decorated processor or null if the processor is not a decorator.
+   */
+  private static Object getDecoratedObject(final Object processor) {
+    return processor instanceof ObjectDecorator<?> ? ((ObjectDecorator<?>) processor).getDecoratedObject() : null;
+  }
+
+  /**
+   * The decorated object is identified by the next element of the description.
+   */
+  private static boolean isDecoratedObject(final Object processor, final Object value) {
+    return processor instanceof ObjectDecorator<?> && value == ((ObjectDecorator<?>) processor).getDecoratedObject();
+  }
+
+  private static List<Field> getKeyFields(final Class<?> processorClass) {
+    List<Field> fields = KEY_FIELDS.get(processorClass);
+    if (fields == null) {
+      final List<Field> list = new ArrayList<Field>();
+      for (Class<?> current = processorClass; current != null && current != Object.class; current =
+          current.getSuperclass()) {
+        for (final Field field : current.getDeclaredFields()) {
+          final int modifiers = field.getModifiers();
+          if (!(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+              || field.isAnnotationPresent(Inject.class) || field.isAnnotationPresent(NotAnOption.class))) {
+            field.setAccessible(true);
+            list.add(field);
+          }
+        }
+      }
+      fields = Collections.unmodifiableList(list);
+      KEY_FIELDS.putIfAbsent(processorClass, fields);
+    }
+    return fields;
+  }
+
+  private static boolean isOptionType(final Class<?> type) {
+    return type.isPrimitive() || type.isEnum() || WRAPPER_TYPES.contains(type);
+  }
+}
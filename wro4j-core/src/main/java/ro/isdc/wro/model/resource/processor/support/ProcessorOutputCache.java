@@ -0,0 +1,224 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.support;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.model.resource.processor.decorator.MemoizingProcessorDecorator;
+
+
+/**
+ * Holds the output of the processors decorated with {@link MemoizingProcessorDecorator}. The output is kept in memory,
+ * encoded as UTF-8, and the least recently used entries are evicted when the total number of bytes exceeds the
+ * capacity. When a directory is provided, each output is also written in a file of that directory, thus it can be read
+ * after being evicted or after a restart.
+ * <p/>
+ * The keys are expected to be computed from the processor and its input (ex: a hash), thus an entry never becomes
+ * stale. The files of the directory must be deleted when a processor is upgraded.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class ProcessorOutputCache {
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessorOutputCache.class);
+  /**
+   * Default maximum number of bytes kept in memory (32M).
+   */
+  public static final long DEFAULT_CAPACITY = 32L * 1024 * 1024;
+  private static final String FILE_SUFFIX = ".out";
+  private static final String TEMP_PREFIX = "writing-";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private final long capacity;
+  private final File directory;
+  private final Map<String, byte[]> map = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+  private long weight;
+
+  /**
+   * Creates a cache keeping the output in memory only.
+   *
+   * @param capacity
+   *          the maximum number of bytes kept in memory.
+   */
+  public ProcessorOutputCache(final long capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of bytes kept in memory.
+   * @param directory
+   *          where the output is stored on disk, created if it does not exist. When null, the output is kept in memory
+   *          only.
+   */
+  public ProcessorOutputCache(final long capacity, final File directory) {
+    Validate.isTrue(capacity > 0, "capacity must be positive");
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new WroRuntimeException("Cannot create processor output directory: " + directory);
+    }
+    this.capacity = capacity;
+    this.directory = directory;
+  }
+
+  /**
+   * @return the output associated with the key or null if there is no such output.
+   */
+  public String get(final String key) {
+    Validate.notNull(key);
+    byte[] content;
+    synchronized (this) {
+      content = map.get(key);
+    }
+    if (content == null && directory != null) {
+      content = read(getFile(key));
+      if (content != null) {
+        LOG.debug("Read processor output from disk: {}", key);
+        putInMemory(key, content);
+      }
+    }
+    return content == null ? null : toString(content);
+  }
+
+  /**
+   * Stores the output of a processor, replacing the previous one with the same key. An output larger than the capacity
+   * is not kept in memory.
+   */
+  public void put(final String key, final String output) {
+    Validate.notNull(key);
+    Validate.notNull(output);
+    final byte[] content = toBytes(output);
+    putInMemory(key, content);
+    if (directory != null) {
+      write(getFile(key), content);
+    }
+  }
+
+  private synchronized void putInMemory(final String key, final byte[] content) {
+    final byte[] previous = map.remove(key);
+    if (previous != null) {
+      weight -= previous.length;
+    }
+    if (content.length > capacity) {
+      return;
+    }
+    map.put(key, content);
+    weight += content.length;
+    for (final Iterator<byte[]> iterator = map.values().iterator(); weight > capacity && iterator.hasNext();) {
+      weight -= iterator.next().length;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * @return the content of the file or null if the file cannot be read.
+   */
+  private byte[] read(final File file) {
+    InputStream is = null;
+    try {
+      is = new FileInputStream(file);
+      return IOUtils.toByteArray(is);
+    } catch (final FileNotFoundException e) {
+      return null;
+    } catch (final IOException e) {
+      LOG.warn("Cannot read processor output file: " + file, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(is);
+    }
+  }
+
+  /**
+   * Writes the content in a temporary file renamed when complete, thus a partially written file is never read.
+   */
+  private void write(final File file, final byte[] content) {
+    if (file.exists()) {
+      return;
+    }
+    File tempFile = null;
+    FileOutputStream fos = null;
+    try {
+      tempFile = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, directory);
+      fos = new FileOutputStream(tempFile);
+      fos.write(content);
+      fos.close();
+      if (tempFile.renameTo(file)) {
+        tempFile = null;
+      } else if (!file.exists()) {
+        LOG.warn("Cannot write processor output file: {}", file);
+      }
+    } catch (final IOException e) {
+      LOG.warn("Cannot write processor output file: " + file, e);
+    } finally {
+      IOUtils.closeQuietly(fos);
+      if (tempFile != null && !tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+    }
+  }
+
+  private File getFile(final String key) {
+    return new File(directory, key.replaceAll("[^A-Za-z0-9_-]", "_") + FILE_SUFFIX);
+  }
+
+  private static byte[] toBytes(final String content) {
+    try {
+      return content.getBytes(CharEncoding.UTF_8);
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding", e);
+    }
+  }
+
+  private static String toString(final byte[] content) {
+    try {
+      return new String(content, CharEncoding.UTF_8);
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding", e);
+    }
+  }
+
+  /**
+   * Removes the output kept in memory. The files of the directory (if any) are not deleted.
+   */
+  public synchronized void clear() {
+    map.clear();
+    weight = 0;
+  }
+
+  /**
+   * @return the number of outputs kept in memory.
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the total number of bytes kept in memory.
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * @return the directory where the output is stored or null if the output is kept in memory only.
+   */
+  public File getDirectory() {
+    return directory;
+  }
+}
@@ -11,6 +11,8 @@ import java.io.Writer;
 import java.util.Enumeration;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
@@ -57,6 +59,11 @@ public final class WroUtil {
    */
   private static final Pattern PATTERN_ACCEPT_ENCODING = Pattern.compile(loadRegexpWithKey("requestHeader.acceptEncoding"));
   private static final Pattern PATTERN_GZIP = Pattern.compile(loadRegexpWithKey("requestHeader.gzip"));
+  /**
+   * The values of the "Accept-Encoding" header already analyzed and the result of the analysis.
+   */
+  private static final ConcurrentMap<String, Boolean> GZIP_HEADER_VALUES = new ConcurrentHashMap<String, Boolean>();
+  private static final int MAX_GZIP_HEADER_VALUES = 256;
 
   private static final AtomicInteger threadFactoryNumber = new AtomicInteger(1);
   public static InputStream EMPTY_STREAM = new ByteArrayInputStream("".getBytes());
@@ -202,6 +209,11 @@ public final class WroUtil {
   @SuppressWarnings("unchecked")
   public static boolean isGzipSupported(final HttpServletRequest request) {
     if (request != null) {
+      // the common case: the header is not mangled, thus its value can be analyzed directly.
+      final String acceptEncoding = request.getHeader(HttpHeader.ACCEPT_ENCODING.toString());
+      if (acceptEncoding != null) {
+        return isGzipHeaderValue(acceptEncoding);
+      }
       final Enumeration<String> headerNames = request.getHeaderNames();
       if (headerNames != null) {
         while (headerNames.hasMoreElements()) {
@@ -209,8 +221,7 @@ public final class WroUtil {
           final Matcher m = PATTERN_ACCEPT_ENCODING.matcher(headerName);
           if (m.find()) {
             final String headerValue = request.getHeader(headerName);
-            final Matcher mValue = PATTERN_GZIP.matcher(headerValue);
-            return mValue.find();
+            return isGzipHeaderValue(headerValue);
           }
         }
       }
@@ -218,6 +229,113 @@ public final class WroUtil {
     return false;
   }
 
+  /**
+   * The browsers send a limited number of distinct values, thus the result of matching each value is remembered.
+   *
+   * @return true if the value of the "Accept-Encoding" header (or of one of its mangled variations) accepts gzip.
+   */
+  private static boolean isGzipHeaderValue(final String headerValue) {
+    final Boolean cached = GZIP_HEADER_VALUES.get(headerValue);
+    if (cached != null) {
+      return cached.booleanValue();
+    }
+    final boolean result = PATTERN_GZIP.matcher(headerValue).find();
+    if (GZIP_HEADER_VALUES.size() < MAX_GZIP_HEADER_VALUES) {
+      GZIP_HEADER_VALUES.put(headerValue, Boolean.valueOf(result));
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the provided content coding is listed by the Accept-Encoding header of the request. A coding listed with
+   * a zero quality value (ex: "deflate;q=0") is not accepted. Unlike {@link #isGzipSupported(HttpServletRequest)}, the
+   * mangled variations of the header are not analyzed.
+   *
+   * @param contentCoding
+   *          the content coding to check (ex: gzip, deflate).
+   * @return true if the request accepts the provided content coding.
+   */
+  public static boolean isContentCodingAccepted(final HttpServletRequest request, final String contentCoding) {
+    Validate.notNull(contentCoding);
+    final String acceptEncoding = request != null ? request.getHeader("Accept-Encoding") : null;
+    if (acceptEncoding != null) {
+      // parsed in place, since it is invoked for each served bundle
+      final int length = acceptEncoding.length();
+      int start = 0;
+      while (start <= length) {
+        int end = acceptEncoding.indexOf(',', start);
+        end = end < 0 ? length : end;
+        int codingEnd = acceptEncoding.indexOf(';', start);
+        codingEnd = codingEnd < 0 || codingEnd > end ? end : codingEnd;
+        if (regionEqualsIgnoreCase(acceptEncoding, start, codingEnd, contentCoding)) {
+          return !hasZeroQuality(acceptEncoding, codingEnd, end);
+        }
+        start = end + 1;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true if the trimmed region of the value is equal to the expected string, ignoring case.
+   */
+  private static boolean regionEqualsIgnoreCase(final String value, final int start, final int end,
+      final String expected) {
+    int from = start;
+    int to = end;
+    while (from < to && Character.isWhitespace(value.charAt(from))) {
+      from++;
+    }
+    while (to > from && Character.isWhitespace(value.charAt(to - 1))) {
+      to--;
+    }
+    return to - from == expected.length() && value.regionMatches(true, from, expected, 0, expected.length());
+  }
+
+  /**
+   * @return true if the parameters of a content coding (between start and end) contain a zero quality value (ex:
+   *         ";q=0" or ";q=0.000").
+   */
+  private static boolean hasZeroQuality(final String value, final int start, final int end) {
+    int index = start;
+    while (index < end) {
+      // skip the ';' separator and the whitespaces
+      index++;
+      while (index < end && Character.isWhitespace(value.charAt(index))) {
+        index++;
+      }
+      int parameterEnd = value.indexOf(';', index);
+      parameterEnd = parameterEnd < 0 || parameterEnd > end ? end : parameterEnd;
+      int valueEnd = parameterEnd;
+      while (valueEnd > index && Character.isWhitespace(value.charAt(valueEnd - 1))) {
+        valueEnd--;
+      }
+      if (valueEnd - index >= 3 && value.startsWith("q=0", index) && isZeroFraction(value, index + 3, valueEnd)) {
+        return true;
+      }
+      index = parameterEnd;
+    }
+    return false;
+  }
+
+  /**
+   * @return true if the region is empty or matches "\.0*".
+   */
+  private static boolean isZeroFraction(final String value, final int start, final int end) {
+    if (start == end) {
+      return true;
+    }
+    if (value.charAt(start) != '.') {
+      return false;
+    }
+    for (int i = start + 1; i < end; i++) {
+      if (value.charAt(i) != '0') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Transforms a java multi-line string into javascript multi-line string. This technique was found at {@link http
    * ://stackoverflow.com/questions/805107/multiline-strings-in-javascript/}
@@ -0,0 +1,159 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.util.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import org.apache.commons.lang3.Validate;
+
+
+/**
+ * A bounded buffer of chars connecting a {@link Writer} used by a thread with a {@link Reader} used by another thread
+ * (like an unix pipe). The writer blocks while the buffer is full and the reader blocks while the buffer is empty.
+ * Unlike {@link java.io.PipedReader}, the waiting thread is notified as soon as the buffer changes and the threads can
+ * be pooled.
+ * <p/>
+ * Closing the writer signals the end of the stream to the reader. Once the reader is closed, the written chars are
+ * discarded, thus a writer is never blocked by a reader which is not interested in the rest of the stream.
+ *
+ * @author agent
+ * @created 17 Oct 2026
+ * @since 1.4.8
+ */
+public class CharPipe {
+  private final char[] buffer;
+  /**
+   * The index of the first char to read.
+   */
+  private int readIndex;
+  /**
+   * The number of chars available for reading.
+   */
+  private int count;
+  private boolean writerClosed;
+  private boolean readerClosed;
+  private final Reader reader = new Reader() {
+    @Override
+    public int read(final char[] cbuf, final int off, final int len)
+        throws IOException {
+      return CharPipe.this.read(cbuf, off, len);
+    }
+
+    @Override
+    public void close() {
+      closeReader();
+    }
+  };
+  private final Writer writer = new Writer() {
+    @Override
+    public void write(final char[] cbuf, final int off, final int len)
+        throws IOException {
+      CharPipe.this.write(cbuf, off, len);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+      closeWriter();
+    }
+  };
+
+  /**
+   * @param capacity
+   *          the maximum number of chars written but not read yet.
+   */
+  public CharPipe(final int capacity) {
+    Validate.isTrue(capacity > 0, "capacity must be positive");
+    this.buffer = new char[capacity];
+  }
+
+  /**
+   * @return the end of the pipe used to read the written chars.
+   */
+  public Reader getReader() {
+    return reader;
+  }
+
+  /**
+   * @return the end of the pipe used to write chars.
+   */
+  public Writer getWriter() {
+    return writer;
+  }
+
+  private synchronized int read(final char[] cbuf, final int off, final int len)
+      throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (count == 0 && !writerClosed && !readerClosed) {
+      await();
+    }
+    if (readerClosed) {
+      throw new IOException("Pipe closed");
+    }
+    if (count == 0) {
+      return -1;
+    }
+    final int read = Math.min(len, count);
+    final int firstChunk = Math.min(read, buffer.length - readIndex);
+    System.arraycopy(buffer, readIndex, cbuf, off, firstChunk);
+    System.arraycopy(buffer, 0, cbuf, off + firstChunk, read - firstChunk);
+    readIndex = (readIndex + read) % buffer.length;
+    count -= read;
+    notifyAll();
+    return read;
+  }
+
+  private synchronized void write(final char[] cbuf, final int off, final int len)
+      throws IOException {
+    if (writerClosed) {
+      throw new IOException("Pipe closed");
+    }
+    int offset = off;
+    int remaining = len;
+    while (remaining > 0) {
+      while (count == buffer.length && !readerClosed) {
+        await();
+      }
+      if (readerClosed) {
+        return;
+      }
+      final int writeIndex = (readIndex + count) % buffer.length;
+      final int written = Math.min(remaining, Math.min(buffer.length - count, buffer.length - writeIndex));
+      System.arraycopy(cbuf, offset, buffer, writeIndex, written);
+      count += written;
+      offset += written;
+      remaining -= written;
+      notifyAll();
+    }
+  }
+
+  private void await()
+      throws InterruptedIOException {
+    try {
+      wait();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the pipe");
+    }
+  }
+
+  private synchronized void closeReader() {
+    readerClosed = true;
+    count = 0;
+    notifyAll();
+  }
+
+  private synchronized void closeWriter() {
+    writerClosed = true;
+    notifyAll();
+  }
+}
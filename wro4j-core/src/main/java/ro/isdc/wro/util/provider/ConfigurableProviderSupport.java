@@ -3,6 +3,9 @@ package ro.isdc.wro.util.provider;
 import java.util.HashMap;
 import java.util.Map;
 
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
 import ro.isdc.wro.model.resource.locator.UriLocator;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
@@ -53,4 +56,11 @@ public class ConfigurableProviderSupport
   public Map<String, UriLocator> provideLocators() {
     return new HashMap<String, UriLocator>();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> provideCacheStrategies() {
+    return new HashMap<String, CacheStrategy<CacheEntry, ContentHashEntry>>();
+  }
 }
@@ -2,6 +2,11 @@ package ro.isdc.wro.util.provider;
 
 import java.util.Map;
 
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.support.CacheStrategyProvider;
+import ro.isdc.wro.cache.support.DefaultCacheStrategyProvider;
 import ro.isdc.wro.model.resource.locator.UriLocator;
 import ro.isdc.wro.model.resource.locator.support.DefaultLocatorProvider;
 import ro.isdc.wro.model.resource.locator.support.LocatorProvider;
@@ -29,6 +34,7 @@ public class DefaultConfigurableProvider
   private NamingStrategyProvider namingStrategyProvider = new DefaultNamingStrategyProvider();
   private HashStrategyProvider hashBuilderProvider = new DefaultHashStrategyProvider();
   private LocatorProvider locatorProvider = new DefaultLocatorProvider();
+  private CacheStrategyProvider cacheStrategyProvider = new DefaultCacheStrategyProvider();
   
   /**
    * {@inheritDoc}
@@ -68,4 +74,12 @@ public class DefaultConfigurableProvider
   public Map<String, UriLocator> provideLocators() {
     return locatorProvider.provideLocators();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, CacheStrategy<CacheEntry, ContentHashEntry>> provideCacheStrategies() {
+    return cacheStrategyProvider.provideCacheStrategies();
+  }
 }
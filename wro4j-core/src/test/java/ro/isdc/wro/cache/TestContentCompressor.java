@@ -0,0 +1,81 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.config.Context;
+
+
+/**
+ * @author agent
+ */
+public class TestContentCompressor {
+  private ContentCompressor victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    victim = new ContentCompressor(1);
+  }
+
+  @After
+  public void tearDown() {
+    victim.destroy();
+    Context.unset();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseInvalidPoolSize() {
+    new ContentCompressor(0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotCompressNullEntry() {
+    victim.compress(null);
+  }
+
+  @Test
+  public void shouldCompressAllSubmittedEntries()
+      throws Exception {
+    final List<ContentHashEntry> entries = new ArrayList<ContentHashEntry>();
+    // more entries than the queue capacity
+    for (int i = 0; i < 300; i++) {
+      final ContentHashEntry entry = ContentHashEntry.valueOf("content" + i, "hash" + i);
+      entries.add(entry);
+      victim.compress(entry);
+    }
+    final long timeout = System.currentTimeMillis() + 10000;
+    for (final ContentHashEntry entry : entries) {
+      while (!entry.isPrecompressed() && System.currentTimeMillis() < timeout) {
+        Thread.sleep(10);
+      }
+      Assert.assertTrue(entry.isPrecompressed());
+      Assert.assertNotNull(entry.getCompressedContent(ContentHashEntry.DEFLATE));
+    }
+  }
+
+  @Test
+  public void shouldInvokeCallbackOnceEntryIsCompressed()
+      throws Exception {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("content", "hash");
+    final CountDownLatch latch = new CountDownLatch(1);
+    victim.compress(entry, new Runnable() {
+      public void run() {
+        Assert.assertTrue(entry.isPrecompressed());
+        latch.countDown();
+      }
+    });
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+  }
+}
@@ -3,14 +3,28 @@
  */
 package ro.isdc.wro.cache;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
 import junit.framework.Assert;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
 
 /**
  * @author Alex Objelean
@@ -57,6 +71,131 @@ public class TestContentHashEntry {
     Assert.assertNotNull(entry.getGzippedContent());
   }
 
+  @Test
+  public void shouldEncodeContentOnlyOnce()
+      throws Exception {
+    final String content = "\u00e9l\u00e8ve";
+    Context.get().getConfig().setEncoding("UTF-8");
+    final ContentHashEntry entry = ContentHashEntry.valueOf(content, "hash", ResourceType.CSS);
+    Assert.assertEquals(content.getBytes("UTF-8").length, entry.getRawLength());
+    Assert.assertEquals(content, entry.getRawContent());
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    entry.writeRawContent(os);
+    Assert.assertEquals(content, new String(os.toByteArray(), "UTF-8"));
+  }
+
+  @Test
+  public void shouldPrecomputeHeaders() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash", ResourceType.JS);
+    Assert.assertEquals("\"hash\"", entry.getETag());
+    Assert.assertEquals(ResourceType.JS.getContentType() + "; charset=" + Context.get().getConfig().getEncoding(),
+        entry.getContentType());
+    Assert.assertNull(ContentHashEntry.valueOf(RAW_CONTENT, "hash").getContentType());
+  }
+
+  @Test
+  public void shouldExposeReadOnlyBytes() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    final ByteBuffer bytes = entry.getRawBytes();
+    Assert.assertTrue(bytes.isReadOnly());
+    Assert.assertEquals(RAW_CONTENT.length(), bytes.remaining());
+  }
+
+  @Test
+  public void shouldHandleNullContent() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(null, null);
+    Assert.assertFalse(entry.hasContent());
+    Assert.assertNull(entry.getRawContent());
+    Assert.assertNull(entry.getRawBytes());
+    Assert.assertEquals(0, entry.getRawLength());
+  }
+
+  @Test
+  public void shouldCreateEntryFromEncodedContent()
+      throws Exception {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT.getBytes("UTF-16"), "UTF-16", "hash", null);
+    Assert.assertEquals(RAW_CONTENT, entry.getRawContent());
+  }
+
+  @Test
+  public void shouldComputeAllCompressedVariantsOnPrecompress()
+      throws Exception {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    Assert.assertFalse(entry.isPrecompressed());
+    Assert.assertNull(entry.getCompressedContent(ContentHashEntry.GZIP));
+    Assert.assertNull(entry.getCompressedContent(ContentHashEntry.DEFLATE));
+    final long initialWeight = entry.getWeight();
+
+    entry.precompress();
+    Assert.assertTrue(entry.isPrecompressed());
+    Assert.assertTrue(entry.getWeight() > initialWeight);
+    final byte[] gzipped = entry.getCompressedContent(ContentHashEntry.GZIP);
+    Assert.assertSame(gzipped, entry.getGzippedContent());
+    Assert.assertEquals(RAW_CONTENT,
+        IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(gzipped)), "UTF-8"));
+    final byte[] deflated = entry.getCompressedContent(ContentHashEntry.DEFLATE);
+    Assert.assertEquals(RAW_CONTENT,
+        IOUtils.toString(new InflaterInputStream(new ByteArrayInputStream(deflated), new Inflater(true)), "UTF-8"));
+    Assert.assertNull(entry.getCompressedContent("br"));
+  }
+
+  @Test
+  public void shouldUseBestCompressionOnlyForPrecompressedVariants()
+      throws Exception {
+    final String content = createCompressibleContent();
+    final byte[] bestCompression = gzip(content, Deflater.BEST_COMPRESSION);
+    final byte[] defaultCompression = gzip(content, Deflater.DEFAULT_COMPRESSION);
+    Assert.assertFalse(Arrays.equals(bestCompression, defaultCompression));
+
+    final ContentHashEntry entry = ContentHashEntry.valueOf(content, "hash");
+    Assert.assertTrue(Arrays.equals(defaultCompression, entry.getGzippedContent()));
+    entry.precompress();
+    Assert.assertTrue(Arrays.equals(bestCompression, entry.getGzippedContent()));
+  }
+
+  @Test
+  public void shouldNotCacheGzippedContentBeforePrecompressWhenPrecompressionIsEnabled()
+      throws Exception {
+    final WroConfiguration config = Context.get().getConfig();
+    config.setCacheGzippedContent(true);
+    config.setPrecompressContent(true);
+    final String content = createCompressibleContent();
+    final ContentHashEntry entry = ContentHashEntry.valueOf(content, "hash");
+    Assert.assertNull(entry.getGzippedContentInternal());
+    entry.precompress();
+    Assert.assertTrue(Arrays.equals(gzip(content, config.getCompressionLevel()), entry.getGzippedContent()));
+  }
+
+  private String createCompressibleContent() {
+    final StringBuilder sb = new StringBuilder();
+    final Random random = new Random(0);
+    for (int i = 0; i < 5000; i++) {
+      sb.append("var v").append(random.nextInt(100)).append(" = ").append(random.nextInt(1000)).append(";\n");
+    }
+    return sb.toString();
+  }
+
+  private byte[] gzip(final String content, final int level)
+      throws IOException {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final GZIPOutputStream os = new GZIPOutputStream(baos) {
+      {
+        def.setLevel(level);
+      }
+    };
+    os.write(content.getBytes(Context.get().getConfig().getEncoding()));
+    os.close();
+    return baos.toByteArray();
+  }
+
+  @Test
+  public void entryWithoutContentIsAlwaysPrecompressed() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(null, null);
+    Assert.assertTrue(entry.isPrecompressed());
+    entry.precompress();
+    Assert.assertNull(entry.getCompressedContent(ContentHashEntry.GZIP));
+  }
+
   @After
   public void tearDown() {
     Context.unset();
@@ -0,0 +1,109 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestDependencyAwareCacheStrategyDecorator {
+  private static final CacheEntry KEY1 = new CacheEntry("g1", ResourceType.JS, true);
+  private static final CacheEntry KEY2 = new CacheEntry("g2", ResourceType.JS, true);
+  private final Map<String, String> contents = new HashMap<String, String>();
+  private CacheDependencies dependencies;
+  @Inject
+  private CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    contents.put("/a.js", "a");
+    contents.put("/b.js", "b");
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS)));
+    model.addGroup(new Group("g2").addResource(Resource.create("/b.js", ResourceType.JS)));
+    final UriLocator locator = new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri)
+          throws IOException {
+        return new ByteArrayInputStream(contents.get(uri).getBytes());
+      }
+    };
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setModelFactory(WroTestUtils.simpleModelFactory(model));
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(locator));
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory());
+    managerFactory.setCacheStrategy(new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>());
+    dependencies = new CacheDependencies();
+    new InjectorBuilder(managerFactory).setCacheDependencies(dependencies).build().inject(this);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotUseNullDependencies() {
+    new DependencyAwareCacheStrategyDecorator(new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>(), null);
+  }
+
+  @Test
+  public void shouldRecordResourcesUsedByLoadedEntries() {
+    cacheStrategy.get(KEY1);
+    Assert.assertEquals(Arrays.asList("/a.js"), dependencies.getDependencies(KEY1));
+    Assert.assertEquals(Arrays.asList(KEY1), dependencies.getEntriesDependingOn("/a.js"));
+  }
+
+  @Test
+  public void shouldReloadOnlyInvalidatedEntries() {
+    Assert.assertEquals("a", cacheStrategy.get(KEY1).getRawContent());
+    Assert.assertEquals("b", cacheStrategy.get(KEY2).getRawContent());
+    contents.put("/a.js", "changed a");
+    contents.put("/b.js", "changed b");
+
+    Assert.assertEquals(Arrays.asList(KEY1), dependencies.invalidate("/a.js"));
+    Assert.assertEquals("changed a", cacheStrategy.get(KEY1).getRawContent());
+    Assert.assertFalse(dependencies.isInvalid(KEY1));
+    Assert.assertEquals("b", cacheStrategy.get(KEY2).getRawContent());
+  }
+
+  @Test
+  public void shouldForgetDependenciesWhenCacheIsCleared() {
+    cacheStrategy.get(KEY1);
+    cacheStrategy.clear();
+    Assert.assertEquals(0, dependencies.getTrackedEntryCount());
+  }
+}
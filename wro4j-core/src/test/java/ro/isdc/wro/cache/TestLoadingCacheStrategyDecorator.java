@@ -0,0 +1,260 @@
+package ro.isdc.wro.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+
+
+/**
+ * @author agent
+ */
+public class TestLoadingCacheStrategyDecorator {
+  private CacheStrategy<String, String> decorated;
+  private AbstractLoadingCacheStrategyDecorator<String, String> victim;
+  private ExecutorService executor;
+  private AtomicInteger loadCount;
+  private AtomicInteger reportedWaiters;
+
+  @Before
+  public void setUp() {
+    decorated = new MemoryCacheStrategy<String, String>();
+    executor = Executors.newCachedThreadPool();
+    loadCount = new AtomicInteger();
+    reportedWaiters = new AtomicInteger();
+    victim = new AbstractLoadingCacheStrategyDecorator<String, String>(decorated) {
+      @Override
+      protected String loadValue(final String key) {
+        try {
+          Thread.sleep(300);
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        loadCount.incrementAndGet();
+        if (key.startsWith("invalid")) {
+          throw new WroRuntimeException("Cannot load: " + key);
+        }
+        return "value-" + key;
+      }
+
+      @Override
+      protected void onLoadComplete(final String key, final int waiters, final long loadTime) {
+        reportedWaiters.addAndGet(waiters);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotGetNullKey() {
+    victim.get(null);
+  }
+
+  @Test
+  public void shouldInvokeLoadOnlyOnceForTheSameKey()
+      throws Exception {
+    final List<Future<String>> futures = submitGets("key", "key", "key", "key", "key");
+    for (final Future<String> future : futures) {
+      Assert.assertEquals("value-key", future.get());
+    }
+    Assert.assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void shouldInvokeLoadTwoTimesForDifferentKeys()
+      throws Exception {
+    final List<Future<String>> futures = submitGets("key1", "key1", "key2", "key1", "key2", "key1", "key2");
+    for (final Future<String> future : futures) {
+      future.get();
+    }
+    Assert.assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void shouldReportConcurrentWaiters()
+      throws Exception {
+    final List<Future<String>> futures = submitGets("key", "key", "key", "key");
+    for (final Future<String> future : futures) {
+      future.get();
+    }
+    // all requests except the one performing the load are waiters
+    Assert.assertEquals(futures.size() - loadCount.get(), reportedWaiters.get());
+  }
+
+  @Test
+  public void shouldNotKeepStateAfterLoad() {
+    Assert.assertEquals("value-key", victim.get("key"));
+    Assert.assertEquals(0, victim.getLoadingCount());
+    Assert.assertEquals("value-key", decorated.get("key"));
+  }
+
+  @Test
+  public void shouldNotLoadWhenValueIsCached() {
+    decorated.put("key", "cached");
+    Assert.assertEquals("cached", victim.get("key"));
+    Assert.assertEquals(0, loadCount.get());
+  }
+
+  @Test
+  public void shouldPropagateLoadFailureToAllWaiters()
+      throws Exception {
+    final List<Future<String>> futures = submitGets("invalid", "invalid", "invalid");
+    for (final Future<String> future : futures) {
+      try {
+        future.get();
+        Assert.fail("Exception expected");
+      } catch (final Exception e) {
+        Assert.assertTrue(e.getCause() instanceof WroRuntimeException);
+      }
+    }
+    Assert.assertEquals(0, victim.getLoadingCount());
+  }
+
+  @Test
+  public void shouldRetryLoadAfterFailure() {
+    try {
+      victim.get("invalid");
+      Assert.fail("Exception expected");
+    } catch (final WroRuntimeException e) {
+    }
+    try {
+      victim.get("invalid");
+      Assert.fail("Exception expected");
+    } catch (final WroRuntimeException e) {
+    }
+    Assert.assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void shouldNotRefreshKeyWhichIsNotCached() {
+    Assert.assertFalse(victim.refresh("key"));
+    Assert.assertEquals(0, loadCount.get());
+    Assert.assertNull(decorated.get("key"));
+  }
+
+  @Test
+  public void shouldServeStaleValueUntilRefreshIsComplete()
+      throws Exception {
+    decorated.put("key", "stale");
+    final Future<Boolean> refresh = executor.submit(new Callable<Boolean>() {
+      public Boolean call()
+          throws Exception {
+        return victim.refresh("key");
+      }
+    });
+    Thread.sleep(100);
+    // the refresh is in progress, but the stale value is served without waiting
+    Assert.assertEquals("stale", victim.get("key"));
+    Assert.assertTrue(refresh.get());
+    Assert.assertEquals("value-key", victim.get("key"));
+    Assert.assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void shouldDiscardRefreshedValueWhenCacheIsClearedDuringRefresh()
+      throws Exception {
+    decorated.put("key", "stale");
+    final Future<Boolean> refresh = executor.submit(new Callable<Boolean>() {
+      public Boolean call()
+          throws Exception {
+        return victim.refresh("key");
+      }
+    });
+    Thread.sleep(100);
+    victim.clear();
+    Assert.assertFalse(refresh.get());
+    Assert.assertNull(decorated.get("key"));
+  }
+
+  @Test
+  public void shouldKeepStaleValueWhenRefreshFails() {
+    decorated.put("invalid", "stale");
+    try {
+      victim.refresh("invalid");
+      Assert.fail("Exception expected");
+    } catch (final WroRuntimeException e) {
+    }
+    Assert.assertEquals("stale", victim.get("invalid"));
+  }
+
+  @Test
+  public void shouldNotRegisterCallbackWhenNothingIsLoading() {
+    Assert.assertFalse(victim.isLoading("key"));
+    Assert.assertFalse(victim.whenLoaded("key", new Runnable() {
+      public void run() {
+        Assert.fail("Should not be invoked");
+      }
+    }));
+  }
+
+  @Test
+  public void shouldInvokeCallbackWhenLoadIsComplete()
+      throws Exception {
+    final Future<String> future = submitGets("key").get(0);
+    Thread.sleep(100);
+    Assert.assertTrue(victim.isLoading("key"));
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicReference<String> cachedValue = new AtomicReference<String>();
+    Assert.assertTrue(victim.whenLoaded("key", new Runnable() {
+      public void run() {
+        cachedValue.set(decorated.get("key"));
+        latch.countDown();
+      }
+    }));
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    // the loaded value is available to the callback
+    Assert.assertEquals("value-key", cachedValue.get());
+    Assert.assertEquals("value-key", future.get());
+    Assert.assertFalse(victim.isLoading("key"));
+  }
+
+  @Test
+  public void shouldInvokeCallbackWhenLoadFails()
+      throws Exception {
+    submitGets("invalid");
+    Thread.sleep(100);
+    final CountDownLatch latch = new CountDownLatch(2);
+    final Runnable callback = new Runnable() {
+      public void run() {
+        latch.countDown();
+        throw new IllegalStateException("BOOM");
+      }
+    };
+    // a failing callback does not prevent the others from being invoked
+    Assert.assertTrue(victim.whenLoaded("invalid", callback));
+    Assert.assertTrue(victim.whenLoaded("invalid", callback));
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+  }
+
+  private List<Future<String>> submitGets(final String... keys) {
+    final List<Future<String>> futures = new ArrayList<Future<String>>();
+    for (final String key : keys) {
+      futures.add(executor.submit(new Callable<String>() {
+        public String call()
+            throws Exception {
+          return victim.get(key);
+        }
+      }));
+    }
+    return futures;
+  }
+}
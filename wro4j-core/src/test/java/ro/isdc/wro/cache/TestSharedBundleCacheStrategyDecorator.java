@@ -0,0 +1,184 @@
+package ro.isdc.wro.cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.cache.impl.SharedDirectoryBundleStore;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestSharedBundleCacheStrategyDecorator {
+  private static final CacheEntry KEY = new CacheEntry("g1", ResourceType.JS, true);
+  private File directory;
+  private final Map<String, String> resources = new HashMap<String, String>();
+  private final AtomicInteger processed = new AtomicInteger();
+  private SharedBundleCacheStrategyDecorator node1;
+  private SharedBundleCacheStrategyDecorator node2;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    Context.set(Context.standaloneContext());
+    directory = File.createTempFile("wro4j", "shared");
+    directory.delete();
+    resources.put("/a.js", "var a = 1;");
+    resources.put("/b.js", "var b = 2;");
+    resources.put("/imported.js", "var c = 3;");
+    node1 = createNode();
+    node2 = createNode();
+  }
+
+  @After
+  public void tearDown() {
+    node1.destroy();
+    node2.destroy();
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  /**
+   * Simulates a processor importing another resource (ex: a css @import) and counts the processed resources.
+   */
+  private class ImportingProcessor
+      implements ResourcePreProcessor {
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      processed.incrementAndGet();
+      IOUtils.copy(reader, writer);
+      if (resource.getUri().equals("/b.js")) {
+        LocatedUriRecorder.record("/imported.js");
+        writer.write(StringUtils.defaultString(resources.get("/imported.js")));
+      }
+    }
+  }
+
+  /**
+   * Creates a cache strategy simulating a node of a cluster: each node has its own manager and local cache, while the
+   * directory is shared.
+   */
+  private SharedBundleCacheStrategyDecorator createNode()
+      throws IOException {
+    final WroModel model = new WroModel().addGroup(new Group("g1").addResource(
+        Resource.create("/a.js", ResourceType.JS)).addResource(Resource.create("/b.js", ResourceType.JS)));
+    final UriLocator locator = mock(UriLocator.class);
+    when(locator.locate(Mockito.anyString())).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation)
+          throws Throwable {
+        return new ByteArrayInputStream(resources.get(invocation.getArguments()[0]).getBytes());
+      }
+    });
+    final UriLocatorFactory uriLocatorFactory = mock(UriLocatorFactory.class);
+    when(uriLocatorFactory.getInstance(Mockito.anyString())).thenReturn(locator);
+    final SimpleProcessorsFactory processorsFactory = new SimpleProcessorsFactory();
+    processorsFactory.addPreProcessor(new ImportingProcessor());
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory().setModelFactory(
+        WroTestUtils.simpleModelFactory(model)).setUriLocatorFactory(uriLocatorFactory);
+    managerFactory.setProcessorsFactory(processorsFactory);
+    final SharedBundleCacheStrategyDecorator node = new SharedBundleCacheStrategyDecorator(
+        new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>(), new SharedDirectoryBundleStore(directory));
+    new InjectorBuilder(managerFactory).build().inject(node);
+    return node;
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullStore() {
+    new SharedBundleCacheStrategyDecorator(new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>(), null);
+  }
+
+  @Test
+  public void shouldFetchBundlePublishedByAnotherNode() {
+    final ContentHashEntry processedEntry = node1.get(KEY);
+    Assert.assertEquals(2, processed.get());
+    final ContentHashEntry shared = node2.get(KEY);
+    Assert.assertEquals(2, processed.get());
+    Assert.assertEquals(processedEntry.getRawContent(), shared.getRawContent());
+    Assert.assertEquals(processedEntry.getHash(), shared.getHash());
+  }
+
+  @Test
+  public void shouldStoreFetchedBundleInLocalCache() {
+    final String content = node1.get(KEY).getRawContent();
+    node2.get(KEY);
+    FileUtils.deleteQuietly(directory);
+    Assert.assertEquals(content, node2.get(KEY).getRawContent());
+    Assert.assertEquals(2, processed.get());
+  }
+
+  @Test
+  public void shouldNotShareBundleWhenResourceContentIsDifferent() {
+    node1.get(KEY);
+    resources.put("/b.js", "var b = 3;");
+    Assert.assertTrue(node2.get(KEY).getRawContent().contains("var b = 3;"));
+    Assert.assertEquals(4, processed.get());
+  }
+
+  @Test
+  public void shouldNotShareBundleWhenImportedResourceContentIsDifferent() {
+    node1.get(KEY);
+    resources.put("/imported.js", "var c = 4;");
+    Assert.assertTrue(node2.get(KEY).getRawContent().contains("var c = 4;"));
+    Assert.assertEquals(4, processed.get());
+  }
+
+  @Test
+  public void shouldNotShareBundlesOfDifferentVariants() {
+    node1.get(KEY);
+    node2.get(new CacheEntry("g1", ResourceType.JS, false));
+    Assert.assertEquals(4, processed.get());
+  }
+
+  @Test
+  public void shouldComputeSameKeyOnEachNode() {
+    final String key = node1.computeSharedKey(KEY);
+    Assert.assertNotNull(key);
+    Assert.assertEquals(key, node2.computeSharedKey(KEY));
+  }
+
+  @Test
+  public void shouldNotShareWhenResourceCannotBeRead() {
+    resources.remove("/imported.js");
+    Assert.assertNotNull(node1.computeSharedKey(KEY));
+    node1.get(KEY);
+    Assert.assertEquals(0, directory.list().length);
+    resources.remove("/a.js");
+    Assert.assertNull(node1.computeSharedKey(KEY));
+  }
+}
@@ -0,0 +1,97 @@
+package ro.isdc.wro.cache;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestStatisticsCacheStrategyDecorator {
+  private static final CacheEntry KEY1 = new CacheEntry("g1", ResourceType.JS, true);
+  private static final CacheEntry KEY2 = new CacheEntry("g2", ResourceType.JS, true);
+  private CacheStatistics statistics;
+  private StatisticsCacheStrategyDecorator victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    statistics = new CacheStatistics();
+    victim = new StatisticsCacheStrategyDecorator(new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>(1),
+        statistics);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotUseNullStatistics() {
+    new StatisticsCacheStrategyDecorator(new LruMemoryCacheStrategy<CacheEntry, ContentHashEntry>(), null);
+  }
+
+  @Test
+  public void shouldRecordBytes() {
+    Assert.assertNull(victim.get(KEY1));
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    victim.get(KEY1);
+    // the hits are recorded by the loading decorator
+    Assert.assertEquals(0, statistics.getHitCount());
+    Assert.assertEquals(7, statistics.getBytes());
+    Assert.assertSame(statistics, victim.getStatistics());
+  }
+
+  @Test
+  public void shouldDetectEvictions() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    // the capacity of the decorated cache is 1
+    victim.put(KEY2, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertNull(victim.get(KEY1));
+    Assert.assertEquals(1, statistics.getEvictionCount());
+    victim.clear();
+    Assert.assertNull(victim.get(KEY2));
+    Assert.assertEquals(1, statistics.getEvictionCount());
+  }
+
+  @Test
+  public void shouldRecordLoadsPerformedByLoadingDecorator() {
+    final DefaultLoadingCacheStrategyDecorator loading = new DefaultLoadingCacheStrategyDecorator(victim) {
+      @Override
+      protected ContentHashEntry loadValue(final CacheEntry key) {
+        return ContentHashEntry.valueOf("loaded", "hash");
+      }
+    };
+    new InjectorBuilder(new BaseWroManagerFactory()).setCacheStatistics(statistics).build().inject(loading);
+    loading.get(KEY1);
+    loading.get(KEY1);
+    Assert.assertEquals(1, statistics.getHitCount());
+    Assert.assertEquals(1, statistics.getMissCount());
+    Assert.assertEquals(1, statistics.getLoadCount());
+  }
+
+  @Test
+  public void shouldNotRecordLookupsOfRefreshAsHits() {
+    final DefaultLoadingCacheStrategyDecorator loading = new DefaultLoadingCacheStrategyDecorator(victim) {
+      @Override
+      protected ContentHashEntry loadValue(final CacheEntry key) {
+        return ContentHashEntry.valueOf("loaded", "hash");
+      }
+    };
+    new InjectorBuilder(new BaseWroManagerFactory()).setCacheStatistics(statistics).build().inject(loading);
+    loading.get(KEY1);
+    Assert.assertTrue(loading.refresh(KEY1));
+    Assert.assertEquals(0, statistics.getHitCount());
+    Assert.assertEquals(1, statistics.getMissCount());
+  }
+}
@@ -0,0 +1,100 @@
+package ro.isdc.wro.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestBundleFileExporter {
+  private File directory;
+  private BundleFileExporter victim;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    Context.set(Context.standaloneContext());
+    directory = File.createTempFile("wro4j", "export");
+    directory.delete();
+    victim = new BundleFileExporter(directory);
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullDirectory() {
+    new BundleFileExporter(null);
+  }
+
+  @Test
+  public void shouldExportContentAndGzippedVariant()
+      throws Exception {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("var a = 1;", "hash1", ResourceType.JS);
+    Assert.assertTrue(victim.export(entry, ResourceType.JS));
+
+    final File file = victim.getExportedFile(entry, ResourceType.JS, null);
+    Assert.assertEquals("hash1.js", file.getName());
+    Assert.assertEquals("var a = 1;", FileUtils.readFileToString(file, "UTF-8"));
+
+    final File gzippedFile = victim.getExportedFile(entry, ResourceType.JS, ContentHashEntry.GZIP);
+    Assert.assertEquals("hash1.js.gz", gzippedFile.getName());
+    final byte[] gzipped = FileUtils.readFileToByteArray(gzippedFile);
+    Assert.assertEquals("var a = 1;", IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(gzipped)), "UTF-8"));
+  }
+
+  @Test
+  public void shouldNotExportEntryWithoutHash() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("var a = 1;", null, ResourceType.JS);
+    Assert.assertFalse(victim.export(entry, ResourceType.JS));
+    Assert.assertNull(victim.getExportedFile(entry, ResourceType.JS, null));
+    Assert.assertEquals(0, directory.list().length);
+  }
+
+  @Test
+  public void shouldNotFindVariantWhichIsNotExported() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("a {}", "hash2", ResourceType.CSS);
+    Assert.assertNull(victim.getExportedFile(entry, ResourceType.CSS, null));
+    victim.export(entry, ResourceType.CSS);
+    Assert.assertNotNull(victim.getExportedFile(entry, ResourceType.CSS, null));
+    Assert.assertNull(victim.getExportedFile(entry, ResourceType.CSS, ContentHashEntry.DEFLATE));
+  }
+
+  @Test
+  public void shouldNotOverwriteExportedFile()
+      throws Exception {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("var a = 1;", "hash1", ResourceType.JS);
+    victim.export(entry, ResourceType.JS);
+    final File file = victim.getExportedFile(entry, ResourceType.JS, null);
+    FileUtils.writeStringToFile(file, "changed");
+    victim.export(entry, ResourceType.JS);
+    Assert.assertEquals("changed", FileUtils.readFileToString(file));
+    // no temporary file is left
+    Assert.assertEquals(2, directory.list().length);
+  }
+
+  @Test
+  public void shouldSanitizeHashUsedAsFileName() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf("var a = 1;", "../a/b", ResourceType.JS);
+    victim.export(entry, ResourceType.JS);
+    Assert.assertEquals(directory, victim.getExportedFile(entry, ResourceType.JS, null).getParentFile());
+  }
+}
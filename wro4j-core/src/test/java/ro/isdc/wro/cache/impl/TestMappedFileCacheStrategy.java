@@ -0,0 +1,315 @@
+package ro.isdc.wro.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestMappedFileCacheStrategy {
+  private static final CacheEntry KEY1 = new CacheEntry("g1", ResourceType.JS, true);
+  private static final CacheEntry KEY2 = new CacheEntry("g2", ResourceType.CSS, false);
+  private File directory;
+  private MappedFileCacheStrategy victim;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    Context.set(Context.standaloneContext());
+    directory = File.createTempFile("wro4j", "cache");
+    directory.delete();
+    victim = createStrategy("fingerprint", 1024);
+  }
+
+  @After
+  public void tearDown() {
+    victim.destroy();
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  private MappedFileCacheStrategy createStrategy(final String fingerprint, final int segmentSize) {
+    return new MappedFileCacheStrategy(directory, segmentSize) {
+      @Override
+      String computeFingerprint() {
+        return fingerprint;
+      }
+    };
+  }
+
+  private MappedFileCacheStrategy restart(final String fingerprint) {
+    victim.destroy();
+    victim = createStrategy(fingerprint, 1024);
+    return victim;
+  }
+
+  @Test
+  public void shouldReturnNullForMissingEntry() {
+    Assert.assertNull(victim.get(KEY1));
+  }
+
+  @Test
+  public void shouldGetStoredEntry() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    final ContentHashEntry entry = victim.get(KEY1);
+    Assert.assertEquals("content", entry.getRawContent());
+    Assert.assertEquals("hash", entry.getHash());
+    Assert.assertNull(victim.get(KEY2));
+  }
+
+  @Test
+  public void shouldStoreNullValues() {
+    victim.put(KEY1, ContentHashEntry.valueOf(null, null));
+    final ContentHashEntry entry = victim.get(KEY1);
+    Assert.assertNull(entry.getRawContent());
+    Assert.assertNull(entry.getHash());
+  }
+
+  @Test
+  public void shouldServeEntriesAfterRestart() {
+    victim.put(KEY1, ContentHashEntry.valueOf("first", "h1"));
+    victim.put(KEY1, ContentHashEntry.valueOf("second", "h2"));
+    victim.put(KEY2, ContentHashEntry.valueOf("other", "h3"));
+    restart("fingerprint");
+    Assert.assertEquals("second", victim.get(KEY1).getRawContent());
+    Assert.assertEquals("other", victim.get(KEY2).getRawContent());
+  }
+
+  @Test
+  public void shouldNotServeEntriesWithDifferentFingerprint() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    restart("changedFingerprint");
+    Assert.assertNull(victim.get(KEY1));
+  }
+
+  @Test
+  public void shouldNotServeEntriesAfterClear() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    victim.clear();
+    Assert.assertNull(victim.get(KEY1));
+    restart("fingerprint");
+    Assert.assertNull(victim.get(KEY1));
+  }
+
+  @Test
+  public void shouldRecoverFromTornWrite()
+      throws Exception {
+    victim.put(KEY1, ContentHashEntry.valueOf("valid", "h1"));
+    victim.put(KEY2, ContentHashEntry.valueOf("torn", "h2"));
+    victim.destroy();
+    corruptLastWrittenByte(new File(directory, "segment-00000000.dat"));
+
+    restart("fingerprint");
+    Assert.assertEquals("valid", victim.get(KEY1).getRawContent());
+    Assert.assertNull(victim.get(KEY2));
+    // the torn record is overwritten by the next write
+    victim.put(KEY2, ContentHashEntry.valueOf("rewritten", "h3"));
+    restart("fingerprint");
+    Assert.assertEquals("valid", victim.get(KEY1).getRawContent());
+    Assert.assertEquals("rewritten", victim.get(KEY2).getRawContent());
+  }
+
+  private void corruptLastWrittenByte(final File file)
+      throws IOException {
+    final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      long position = raf.length() - 1;
+      raf.seek(position);
+      while (raf.read() == 0) {
+        raf.seek(--position);
+      }
+      raf.seek(position);
+      raf.write('#');
+    } finally {
+      raf.close();
+    }
+  }
+
+  @Test
+  public void shouldCompactStaleSegments()
+      throws Exception {
+    victim.destroy();
+    victim = createStrategy("fingerprint", 256);
+    for (int i = 0; i < 20; i++) {
+      victim.put(KEY1, ContentHashEntry.valueOf("content of a stale entry number " + i, "hash" + i));
+    }
+    victim.put(KEY2, ContentHashEntry.valueOf("live", "hash"));
+    // each segment holds at most two records, but only two records are live
+    victim.compact();
+    Assert.assertTrue(victim.getSegmentCount() <= 3);
+    Assert.assertEquals("content of a stale entry number 19", victim.get(KEY1).getRawContent());
+    Assert.assertEquals("live", victim.get(KEY2).getRawContent());
+    restart("fingerprint");
+    Assert.assertEquals("content of a stale entry number 19", victim.get(KEY1).getRawContent());
+    Assert.assertEquals("live", victim.get(KEY2).getRawContent());
+  }
+
+  @Test
+  public void shouldWorkWhenNoFactoryIsInjected() {
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertEquals("content", victim.get(KEY1).getRawContent());
+  }
+
+  @Test
+  public void shouldDecodePersistedEntryOnlyOnce() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    restart("fingerprint");
+    final ContentHashEntry entry = victim.get(KEY1);
+    Assert.assertSame(entry, victim.get(KEY1));
+  }
+
+  @Test
+  public void shouldPersistCompressedVariants() {
+    Context.get().getConfig().setCacheGzippedContent(true);
+    final ContentHashEntry stored = ContentHashEntry.valueOf("content", "hash");
+    stored.precompress();
+    victim.put(KEY1, stored);
+    restart("fingerprint");
+    final ContentHashEntry entry = victim.get(KEY1);
+    Assert.assertTrue(entry.isPrecompressed());
+    Assert.assertTrue(Arrays.equals(stored.getCompressedContent(ContentHashEntry.GZIP),
+        entry.getCompressedContent(ContentHashEntry.GZIP)));
+    Assert.assertTrue(Arrays.equals(stored.getCompressedContent(ContentHashEntry.DEFLATE),
+        entry.getCompressedContent(ContentHashEntry.DEFLATE)));
+  }
+
+  @Test
+  public void shouldFallBackToMemoryWhenDirectoryIsLocked() {
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+    final MappedFileCacheStrategy other = createStrategy("fingerprint", 1024);
+    try {
+      Assert.assertNull(other.get(KEY1));
+      other.put(KEY2, ContentHashEntry.valueOf("other", "hash"));
+      Assert.assertEquals("other", other.get(KEY2).getRawContent());
+    } finally {
+      other.destroy();
+    }
+    Assert.assertEquals("content", victim.get(KEY1).getRawContent());
+  }
+
+  @Test
+  public void shouldNotServeEntriesWhenResourceContentChanges() {
+    final String[] content = new String[] { "v1" };
+    final Group group = new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS));
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory().setModelFactory(
+        WroTestUtils.simpleModelFactory(new WroModel().addGroup(group))).setUriLocatorFactory(
+        new SimpleUriLocatorFactory().addUriLocator(new UriLocator() {
+          public InputStream locate(final String uri) {
+            return new ByteArrayInputStream(content[0].getBytes());
+          }
+
+          public boolean accept(final String uri) {
+            return true;
+          }
+        }));
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+    Assert.assertEquals("content", victim.get(KEY1).getRawContent());
+
+    content[0] = "v2";
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+    Assert.assertNull(victim.get(KEY1));
+  }
+
+  @Test
+  public void shouldNotServeEntriesWhenImportedResourceChanges() {
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.css", "@import url(b.css);");
+    contents.put("/b.css", "v1");
+    final CacheDependencies dependencies = new CacheDependencies();
+    dependencies.record(KEY2, Arrays.asList("/a.css", "/b.css"), dependencies.getVersion());
+    final Group group = new Group("g2").addResource(Resource.create("/a.css", ResourceType.CSS));
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory().setModelFactory(
+        WroTestUtils.simpleModelFactory(new WroModel().addGroup(group))).setUriLocatorFactory(
+        new SimpleUriLocatorFactory().addUriLocator(new UriLocator() {
+          public InputStream locate(final String uri) {
+            return new ByteArrayInputStream(contents.get(uri).getBytes());
+          }
+
+          public boolean accept(final String uri) {
+            return true;
+          }
+        }));
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).setCacheDependencies(dependencies).build().inject(victim);
+    victim.put(KEY2, ContentHashEntry.valueOf("content", "hash"));
+
+    contents.put("/b.css", "v2");
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+    Assert.assertNull(victim.get(KEY2));
+  }
+
+  @Test
+  public void shouldNotServeEntriesWhenProcessorOptionsChange() {
+    final Group group = new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS));
+    final WroModelFactory modelFactory = WroTestUtils.simpleModelFactory(new WroModel().addGroup(group));
+    restartWithPostProcessor(modelFactory, new JSMinProcessor());
+    victim.put(KEY1, ContentHashEntry.valueOf("content", "hash"));
+
+    restartWithPostProcessor(modelFactory, new JSMinProcessor());
+    Assert.assertEquals("content", victim.get(KEY1).getRawContent());
+
+    restartWithPostProcessor(modelFactory, new JSMinProcessor().setEncoding("ISO-8859-1"));
+    Assert.assertNull(victim.get(KEY1));
+  }
+
+  private void restartWithPostProcessor(final WroModelFactory modelFactory, final ResourcePostProcessor processor) {
+    final SimpleProcessorsFactory processorsFactory = new SimpleProcessorsFactory();
+    processorsFactory.addPostProcessor(processor);
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory().setModelFactory(modelFactory);
+    managerFactory.setProcessorsFactory(processorsFactory);
+    victim.destroy();
+    victim = new MappedFileCacheStrategy(directory);
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseInvalidSegmentSize() {
+    new MappedFileCacheStrategy(directory, 0);
+  }
+}
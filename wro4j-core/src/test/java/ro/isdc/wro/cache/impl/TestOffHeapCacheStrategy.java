@@ -0,0 +1,186 @@
+package ro.isdc.wro.cache.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestOffHeapCacheStrategy {
+  private OffHeapCacheStrategy victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    victim = new OffHeapCacheStrategy(4096, 1024, 256, 0);
+  }
+
+  @After
+  public void tearDown() {
+    victim.destroy();
+    Context.unset();
+  }
+
+  private CacheEntry key(final String name) {
+    return new CacheEntry(name, ResourceType.JS, true);
+  }
+
+  private String write(final ContentHashEntry entry)
+      throws IOException {
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    entry.writeRawContent(os);
+    return new String(os.toByteArray(), entry.getEncoding());
+  }
+
+  @Test
+  public void shouldReturnNullForMissingEntry() {
+    Assert.assertNull(victim.get(key("missing")));
+  }
+
+  @Test
+  public void shouldStoreContentOutsideOfHeap()
+      throws Exception {
+    final String content = StringUtils.repeat("0123456789", 100);
+    victim.put(key("g1"), ContentHashEntry.valueOf(content, "hash", ResourceType.JS));
+    final ContentHashEntry entry = victim.get(key("g1"));
+    Assert.assertEquals(content, write(entry));
+    Assert.assertEquals(content, entry.getRawContent());
+    Assert.assertEquals(1000, entry.getRawLength());
+    Assert.assertEquals("\"hash\"", entry.getETag());
+    Assert.assertNotNull(entry.getContentType());
+    Assert.assertEquals(1024, victim.getUsedBytes());
+  }
+
+  @Test
+  public void shouldStoreCompressedVariants() {
+    final ContentHashEntry value = ContentHashEntry.valueOf("content", "hash");
+    value.precompress();
+    victim.put(key("g1"), value);
+    final ContentHashEntry entry = victim.get(key("g1"));
+    Assert.assertTrue(entry.isPrecompressed());
+    Assert.assertTrue(Arrays.equals(value.getGzippedContent(), entry.getGzippedContent()));
+    Assert.assertTrue(Arrays.equals(value.getCompressedContent(ContentHashEntry.DEFLATE),
+        entry.getCompressedContent(ContentHashEntry.DEFLATE)));
+  }
+
+  @Test
+  public void shouldStoreEntryWithoutContent() {
+    victim.put(key("g1"), ContentHashEntry.valueOf(null, null));
+    final ContentHashEntry entry = victim.get(key("g1"));
+    Assert.assertFalse(entry.hasContent());
+    Assert.assertEquals(0, victim.getUsedBytes());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntries()
+      throws Exception {
+    final String content = StringUtils.repeat('a', 1500);
+    victim.put(key("g1"), ContentHashEntry.valueOf(content, "h1"));
+    victim.put(key("g2"), ContentHashEntry.valueOf(content, "h2"));
+    victim.get(key("g1"));
+    victim.put(key("g3"), ContentHashEntry.valueOf(content, "h3"));
+    Assert.assertNotNull(victim.get(key("g1")));
+    Assert.assertNull(victim.get(key("g2")));
+    Assert.assertEquals(content, write(victim.get(key("g3"))));
+    Assert.assertEquals(2, victim.size());
+    Assert.assertTrue(victim.getUsedBytes() <= 4096);
+  }
+
+  @Test
+  public void shouldNotStoreEntryLargerThanCapacity() {
+    victim.put(key("g1"), ContentHashEntry.valueOf("small", "h1"));
+    victim.put(key("g2"), ContentHashEntry.valueOf(StringUtils.repeat('a', 5000), "h2"));
+    Assert.assertNull(victim.get(key("g2")));
+    Assert.assertNotNull(victim.get(key("g1")));
+  }
+
+  @Test
+  public void shouldReplaceEntry()
+      throws Exception {
+    victim.put(key("g1"), ContentHashEntry.valueOf("first", "h1"));
+    victim.put(key("g1"), ContentHashEntry.valueOf("second", "h2"));
+    Assert.assertEquals("second", write(victim.get(key("g1"))));
+    Assert.assertEquals(1, victim.size());
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotWriteContentOfRecycledEntry()
+      throws Exception {
+    victim.put(key("g1"), ContentHashEntry.valueOf("content", "h1"));
+    final ContentHashEntry entry = victim.get(key("g1"));
+    victim.clear();
+    Assert.assertEquals(0, victim.getUsedBytes());
+    write(entry);
+  }
+
+  @Test
+  public void shouldNotReusePagesDuringGracePeriod()
+      throws Exception {
+    victim.destroy();
+    victim = new OffHeapCacheStrategy(4096, 1024, 256, 60000);
+    victim.put(key("g1"), ContentHashEntry.valueOf("content", "h1"));
+    final ContentHashEntry entry = victim.get(key("g1"));
+    victim.clear();
+    victim.put(key("g2"), ContentHashEntry.valueOf(StringUtils.repeat('b', 3000), "h2"));
+    Assert.assertEquals("content", write(entry));
+  }
+
+  @Test
+  public void shouldNotEvictAllEntriesWhenEvictedPagesAreInGracePeriod() {
+    victim.destroy();
+    victim = new OffHeapCacheStrategy(4096, 1024, 256, 60000);
+    final String content = StringUtils.repeat('a', 1200);
+    victim.put(key("g1"), ContentHashEntry.valueOf(content, "h1"));
+    victim.put(key("g2"), ContentHashEntry.valueOf(content, "h2"));
+    victim.put(key("g3"), ContentHashEntry.valueOf(content, "h3"));
+    victim.put(key("g4"), ContentHashEntry.valueOf(content, "h4"));
+    Assert.assertNull(victim.get(key("g1")));
+    Assert.assertNull(victim.get(key("g4")));
+    Assert.assertNotNull(victim.get(key("g2")));
+    Assert.assertNotNull(victim.get(key("g3")));
+    Assert.assertEquals(2, victim.size());
+  }
+
+  @Test
+  public void shouldStoreVariantsCompressedAsynchronously()
+      throws Exception {
+    Context.get().getConfig().setPrecompressContent(true);
+    InjectorBuilder.create(new BaseWroManagerFactory()).build().inject(victim);
+    final ContentHashEntry value = ContentHashEntry.valueOf("content", "hash");
+    victim.put(key("g1"), value);
+    final long timeout = System.currentTimeMillis() + 5000;
+    while (!victim.get(key("g1")).isPrecompressed() && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    final ContentHashEntry entry = victim.get(key("g1"));
+    Assert.assertTrue(entry.isPrecompressed());
+    Assert.assertEquals("content", write(entry));
+    Assert.assertTrue(Arrays.equals(value.getCompressedContent(ContentHashEntry.DEFLATE),
+        entry.getCompressedContent(ContentHashEntry.DEFLATE)));
+  }
+
+  @Test
+  public void shouldSerializeEntryWithHeapCopy()
+      throws Exception {
+    victim.put(key("g1"), ContentHashEntry.valueOf("content", "h1"));
+    new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(victim.get(key("g1")));
+  }
+}
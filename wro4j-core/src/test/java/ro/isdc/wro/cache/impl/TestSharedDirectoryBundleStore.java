@@ -0,0 +1,118 @@
+package ro.isdc.wro.cache.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestSharedDirectoryBundleStore {
+  private File directory;
+  private SharedDirectoryBundleStore victim;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    Context.set(Context.standaloneContext());
+    directory = File.createTempFile("wro4j", "shared");
+    directory.delete();
+    victim = new SharedDirectoryBundleStore(directory);
+  }
+
+  @After
+  public void tearDown() {
+    victim.destroy();
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullDirectory() {
+    new SharedDirectoryBundleStore(null);
+  }
+
+  @Test
+  public void shouldCreateMissingDirectory() {
+    Assert.assertTrue(directory.isDirectory());
+  }
+
+  @Test
+  public void shouldReturnNullForMissingKey() {
+    Assert.assertNull(victim.get("missing"));
+  }
+
+  @Test
+  public void shouldReadPublishedBundle() {
+    victim.put("key1", ContentHashEntry.valueOf("var a = 1;", "hash1", ResourceType.JS));
+    final ContentHashEntry entry = victim.get("key1");
+    Assert.assertEquals("var a = 1;", entry.getRawContent());
+    Assert.assertEquals("hash1", entry.getHash());
+    Assert.assertEquals(ResourceType.JS.getContentType() + "; charset=UTF-8", entry.getContentType());
+  }
+
+  @Test
+  public void shouldReadBundleWithoutContent() {
+    victim.put("key1", ContentHashEntry.valueOf(null, null));
+    final ContentHashEntry entry = victim.get("key1");
+    Assert.assertFalse(entry.hasContent());
+    Assert.assertNull(entry.getHash());
+  }
+
+  @Test
+  public void shouldShareBundlesBetweenStoresUsingTheSameDirectory() {
+    victim.put("key1", ContentHashEntry.valueOf("body {}", "hash1", ResourceType.CSS));
+    final SharedDirectoryBundleStore otherNode = new SharedDirectoryBundleStore(directory);
+    Assert.assertEquals("body {}", otherNode.get("key1").getRawContent());
+  }
+
+  @Test
+  public void shouldKeepTheFirstPublishedBundle() {
+    victim.put("key1", ContentHashEntry.valueOf("first", "hash1"));
+    victim.put("key1", ContentHashEntry.valueOf("second", "hash2"));
+    Assert.assertEquals("first", victim.get("key1").getRawContent());
+  }
+
+  @Test
+  public void shouldNotLeaveTemporaryFiles() {
+    victim.put("key1", ContentHashEntry.valueOf("content", "hash1"));
+    victim.put("key2", ContentHashEntry.valueOf("content", "hash2"));
+    Assert.assertEquals(2, directory.list().length);
+    for (final String name : directory.list()) {
+      Assert.assertTrue(name.endsWith(".bundle"));
+    }
+  }
+
+  @Test
+  public void shouldIgnoreFilesWithUnknownFormat()
+      throws IOException {
+    final FileOutputStream fos = new FileOutputStream(new File(directory, "key1.bundle"));
+    fos.write("invalid content".getBytes());
+    fos.close();
+    Assert.assertNull(victim.get("key1"));
+  }
+
+  @Test
+  public void shouldIgnoreTruncatedFiles()
+      throws IOException {
+    victim.put("key1", ContentHashEntry.valueOf("some content", "hash1"));
+    final File file = new File(directory, "key1.bundle");
+    final byte[] bytes = FileUtils.readFileToByteArray(file);
+    final byte[] truncated = new byte[bytes.length - 4];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    FileUtils.writeByteArrayToFile(file, truncated);
+    Assert.assertNull(victim.get("key1"));
+  }
+}
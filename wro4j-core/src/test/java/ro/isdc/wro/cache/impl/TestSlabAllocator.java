@@ -0,0 +1,82 @@
+package ro.isdc.wro.cache.impl;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestSlabAllocator {
+  private SlabAllocator victim;
+
+  @Before
+  public void setUp() {
+    victim = new SlabAllocator(4096, 1024, 256);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseSlabSizeWhichIsNotMultipleOfPageSize() {
+    new SlabAllocator(4096, 1000, 256);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseCapacitySmallerThanSlabSize() {
+    new SlabAllocator(512, 1024, 256);
+  }
+
+  @Test
+  public void shouldAllocateSlabsLazily() {
+    Assert.assertEquals(0, victim.getReservedBytes());
+    final ByteBuffer[] pages = victim.allocate(300);
+    Assert.assertEquals(2, pages.length);
+    Assert.assertTrue(pages[0].isDirect());
+    Assert.assertEquals(256, pages[0].capacity());
+    Assert.assertEquals(1024, victim.getReservedBytes());
+    Assert.assertEquals(512, victim.getUsedBytes());
+  }
+
+  @Test
+  public void shouldAllocateNoPagesForEmptyContent() {
+    Assert.assertEquals(0, victim.allocate(0).length);
+    Assert.assertEquals(0, victim.getReservedBytes());
+  }
+
+  @Test
+  public void shouldNotExceedCapacity() {
+    Assert.assertNotNull(victim.allocate(4000));
+    Assert.assertNull(victim.allocate(200));
+    Assert.assertEquals(4096, victim.getReservedBytes());
+  }
+
+  @Test
+  public void shouldReuseFreedPages() {
+    final ByteBuffer[] pages = victim.allocate(4096);
+    pages[0].put((byte) 1);
+    victim.free(pages);
+    Assert.assertEquals(0, victim.getUsedBytes());
+    final ByteBuffer[] reused = victim.allocate(4096);
+    Assert.assertEquals(4096, victim.getReservedBytes());
+    for (final ByteBuffer page : reused) {
+      Assert.assertEquals(0, page.position());
+    }
+  }
+
+  @Test
+  public void pagesShouldNotOverlap() {
+    final ByteBuffer[] pages = victim.allocate(1024);
+    for (int i = 0; i < pages.length; i++) {
+      while (pages[i].hasRemaining()) {
+        pages[i].put((byte) i);
+      }
+    }
+    for (int i = 0; i < pages.length; i++) {
+      Assert.assertEquals((byte) i, pages[i].get(0));
+      Assert.assertEquals((byte) i, pages[i].get(255));
+    }
+  }
+}
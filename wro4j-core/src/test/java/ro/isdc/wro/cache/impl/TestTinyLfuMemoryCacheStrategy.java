@@ -0,0 +1,187 @@
+package ro.isdc.wro.cache.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestTinyLfuMemoryCacheStrategy {
+  /**
+   * Each entry created by {@link #entryOfWeight(int)} retains 2 bytes per char.
+   */
+  private static final int MAX_WEIGHT = 1000;
+  private TinyLfuMemoryCacheStrategy victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    victim = new TinyLfuMemoryCacheStrategy(MAX_WEIGHT);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  private ContentHashEntry entryOfWeight(final int weight) {
+    return ContentHashEntry.valueOf(StringUtils.repeat('a', weight), "hash");
+  }
+
+  private CacheEntry key(final String name) {
+    return new CacheEntry(name, ResourceType.JS, true);
+  }
+
+  private void access(final CacheEntry key, final int times) {
+    for (int i = 0; i < times; i++) {
+      victim.get(key);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseInvalidMaxWeight() {
+    new TinyLfuMemoryCacheStrategy(0);
+  }
+
+  @Test
+  public void shouldCacheEntriesWithinCapacity() {
+    victim.put(key("g1"), entryOfWeight(400));
+    victim.put(key("g2"), entryOfWeight(400));
+    Assert.assertNotNull(victim.get(key("g1")));
+    Assert.assertNotNull(victim.get(key("g2")));
+    Assert.assertEquals(800, victim.getWeight());
+  }
+
+  @Test
+  public void shouldNotCacheEntryLargerThanCapacity() {
+    victim.put(key("large"), entryOfWeight(MAX_WEIGHT + 2));
+    Assert.assertNull(victim.get(key("large")));
+    Assert.assertEquals(0, victim.getWeight());
+  }
+
+  @Test
+  public void shouldUpdateWeightWhenEntryIsReplaced() {
+    victim.put(key("g1"), entryOfWeight(400));
+    victim.put(key("g1"), entryOfWeight(100));
+    Assert.assertEquals(100, victim.getWeight());
+  }
+
+  @Test
+  public void shouldRejectInfrequentCandidate() {
+    victim.put(key("frequent"), entryOfWeight(800));
+    access(key("frequent"), 5);
+    access(key("rare"), 1);
+    victim.put(key("rare"), entryOfWeight(400));
+    Assert.assertNull(victim.get(key("rare")));
+    Assert.assertNotNull(victim.get(key("frequent")));
+  }
+
+  @Test
+  public void shouldEvictInfrequentEntriesForFrequentCandidate() {
+    victim.put(key("rare1"), entryOfWeight(400));
+    victim.put(key("rare2"), entryOfWeight(400));
+    access(key("frequent"), 5);
+    victim.put(key("frequent"), entryOfWeight(600));
+    Assert.assertNotNull(victim.get(key("frequent")));
+    // only one of the rare entries must be evicted to make room
+    Assert.assertTrue(victim.get(key("rare1")) == null ^ victim.get(key("rare2")) == null);
+    Assert.assertEquals(1000, victim.getWeight());
+  }
+
+  @Test
+  public void shouldKeepPreviousValueWhenReplacementIsRejected() {
+    victim.put(key("frequent"), entryOfWeight(800));
+    access(key("frequent"), 5);
+    victim.put(key("other"), entryOfWeight(200));
+    victim.put(key("other"), entryOfWeight(400));
+    Assert.assertEquals(200, victim.get(key("other")).getRawLength());
+    Assert.assertEquals(1000, victim.getWeight());
+  }
+
+  @Test
+  public void shouldChargeCompressedVariantsWhenEntryIsAccessed() {
+    final ContentHashEntry entry = entryOfWeight(400);
+    victim.put(key("g1"), entry);
+    entry.precompress();
+    Assert.assertEquals(400, victim.getWeight());
+    victim.get(key("g1"));
+    Assert.assertTrue(victim.getWeight() > 400);
+    Assert.assertEquals(entry.getWeight(), victim.getWeight());
+  }
+
+  @Test
+  public void shouldEvictInfrequentEntryWhichDoesNotFitAfterCompression() {
+    final StringBuilder content = new StringBuilder();
+    final Random random = new Random(0);
+    for (int i = 0; i < 450; i++) {
+      content.append((char) ('!' + random.nextInt(90)));
+    }
+    final ContentHashEntry rare = ContentHashEntry.valueOf(content.toString(), "hash");
+    victim.put(key("frequent"), entryOfWeight(400));
+    access(key("frequent"), 5);
+    victim.put(key("rare"), rare);
+    rare.precompress();
+    victim.get(key("rare"));
+    Assert.assertNull(victim.get(key("rare")));
+    Assert.assertNotNull(victim.get(key("frequent")));
+    Assert.assertEquals(400, victim.getWeight());
+  }
+
+  @Test
+  public void shouldClearEntries() {
+    victim.put(key("g1"), entryOfWeight(400));
+    victim.clear();
+    Assert.assertNull(victim.get(key("g1")));
+    Assert.assertEquals(0, victim.getWeight());
+  }
+
+  @Test
+  public void shouldNeverExceedCapacityWhenUsedConcurrently()
+      throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final Context context = Context.get();
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < 200; i++) {
+        final CacheEntry key = key("g" + (i % 20));
+        final int weight = 100 + 20 * (i % 7);
+        futures.add(executor.submit(new Callable<Void>() {
+          public Void call() {
+            Context.set(context);
+            try {
+              victim.get(key);
+              victim.put(key, entryOfWeight(weight));
+            } finally {
+              Context.unset();
+            }
+            return null;
+          }
+        }));
+      }
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertTrue(victim.getWeight() <= MAX_WEIGHT);
+  }
+}
@@ -0,0 +1,119 @@
+package ro.isdc.wro.cache.support;
+
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.cache.impl.MappedFileCacheStrategy;
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+import ro.isdc.wro.cache.impl.OffHeapCacheStrategy;
+import ro.isdc.wro.cache.impl.TinyLfuMemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestConfigurableCacheStrategy {
+  private ConfigurableCacheStrategy victim;
+
+  @Before
+  public void setUp() {
+    victim = new ConfigurableCacheStrategy();
+  }
+
+  @Test
+  public void shouldUseLruStrategyByDefault() {
+    Assert.assertSame(LruMemoryCacheStrategy.class, victim.getDecoratedObject().getClass());
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotConfigureInvalidAlias() {
+    victim.setProperties(buildPropsForAlias("invalidStrategy"));
+    victim.getDecoratedObject();
+  }
+
+  @Test
+  public void shouldUseMemoryStrategyForValidAlias() {
+    shouldUseCorrectStrategyForValidAlias(MemoryCacheStrategy.class, MemoryCacheStrategy.ALIAS);
+  }
+
+  @Test
+  public void shouldUseTinyLfuStrategyForValidAlias() {
+    shouldUseCorrectStrategyForValidAlias(TinyLfuMemoryCacheStrategy.class, TinyLfuMemoryCacheStrategy.ALIAS);
+  }
+
+  @Test
+  public void shouldUseMappedFileStrategyForValidAlias() {
+    shouldUseCorrectStrategyForValidAlias(MappedFileCacheStrategy.class, MappedFileCacheStrategy.ALIAS);
+  }
+
+  @Test
+  public void shouldUseOffHeapStrategyForValidAlias() {
+    shouldUseCorrectStrategyForValidAlias(OffHeapCacheStrategy.class, OffHeapCacheStrategy.ALIAS);
+  }
+
+  @Test
+  public void shouldCreateTinyLfuStrategyWithConfiguredMaxWeight() {
+    victim.setProperties(buildPropsForAlias(TinyLfuMemoryCacheStrategy.ALIAS));
+    Context.set(Context.standaloneContext());
+    try {
+      Context.get().getConfig().setTinyLfuMaxWeight(10);
+      final CacheEntry key = new CacheEntry("group", ResourceType.CSS, true);
+      victim.put(key, ContentHashEntry.valueOf("more than ten bytes", "hash"));
+      Assert.assertNull(victim.get(key));
+    } finally {
+      Context.unset();
+    }
+  }
+
+  @Test
+  public void shouldCreateOffHeapStrategyWithConfiguredCapacity() {
+    victim.setProperties(buildPropsForAlias(OffHeapCacheStrategy.ALIAS));
+    Context.set(Context.standaloneContext());
+    try {
+      Context.get().getConfig().setOffHeapCapacity(1024);
+      Context.get().getConfig().setOffHeapSlabSize(1024);
+      Context.get().getConfig().setOffHeapPageSize(512);
+      final CacheEntry key = new CacheEntry("group", ResourceType.CSS, true);
+      victim.put(key, ContentHashEntry.valueOf(StringUtils.repeat('a', 2048), "hash"));
+      Assert.assertNull(victim.get(key));
+    } finally {
+      Context.unset();
+    }
+  }
+
+  @Test
+  public void shouldUseSameConfiguredInstance() {
+    victim.setProperties(buildPropsForAlias(TinyLfuMemoryCacheStrategy.ALIAS));
+    Context.set(Context.standaloneContext());
+    try {
+      final CacheEntry key = new CacheEntry("group", ResourceType.CSS, true);
+      victim.put(key, ContentHashEntry.valueOf("content", "hash"));
+      Assert.assertEquals("content", victim.get(key).getRawContent());
+      Assert.assertSame(victim.getDecoratedObject(), victim.getDecoratedObject());
+    } finally {
+      Context.unset();
+    }
+  }
+
+  private void shouldUseCorrectStrategyForValidAlias(final Class<?> strategyClass, final String alias) {
+    victim.setProperties(buildPropsForAlias(alias));
+    Assert.assertSame(strategyClass, victim.getOriginalDecoratedObject().getClass());
+  }
+
+  private Properties buildPropsForAlias(final String alias) {
+    final Properties props = new Properties();
+    props.setProperty(ConfigurableCacheStrategy.KEY, alias);
+    return props;
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestCacheDependencies {
+  private static final CacheEntry KEY1 = new CacheEntry("g1", ResourceType.CSS, true);
+  private static final CacheEntry KEY2 = new CacheEntry("g2", ResourceType.CSS, true);
+  private CacheDependencies victim;
+
+  @Before
+  public void setUp() {
+    victim = new CacheDependencies();
+  }
+
+  @Test
+  public void shouldFindEntriesDependingOnResource() {
+    victim.record(KEY1, Arrays.asList("/a.css", "/imported.css"), victim.getVersion());
+    victim.record(KEY2, Arrays.asList("/b.css", "/imported.css"), victim.getVersion());
+    Assert.assertEquals(Arrays.asList(KEY1), victim.getEntriesDependingOn("/a.css"));
+    Assert.assertEquals(2, victim.getEntriesDependingOn("/imported.css").size());
+    Assert.assertTrue(victim.getEntriesDependingOn("/other.css").isEmpty());
+  }
+
+  @Test
+  public void shouldMatchResourcesWithWildcardDependencies() {
+    victim.record(KEY1, Arrays.asList("/css/*.css"), victim.getVersion());
+    Assert.assertEquals(Arrays.asList(KEY1), victim.getEntriesDependingOn("/css/a.css"));
+    Assert.assertTrue(victim.getEntriesDependingOn("/js/a.js").isEmpty());
+  }
+
+  @Test
+  public void shouldReplacePreviouslyRecordedDependencies() {
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    victim.record(KEY1, Arrays.asList("/b.css"), victim.getVersion());
+    Assert.assertTrue(victim.getEntriesDependingOn("/a.css").isEmpty());
+    Assert.assertEquals(1, victim.getTrackedEntryCount());
+  }
+
+  @Test
+  public void shouldInvalidateOnlyDependentEntries() {
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    victim.record(KEY2, Arrays.asList("/b.css"), victim.getVersion());
+    Assert.assertEquals(Arrays.asList(KEY1), victim.invalidate("/a.css"));
+    Assert.assertTrue(victim.isInvalid(KEY1));
+    Assert.assertFalse(victim.isInvalid(KEY2));
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    Assert.assertFalse(victim.isInvalid(KEY1));
+  }
+
+  @Test
+  public void shouldKeepEntryLoadedBeforeInvalidationInvalid() {
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    final long loadVersion = victim.getVersion();
+    victim.invalidate("/a.css");
+    victim.record(KEY1, Arrays.asList("/a.css"), loadVersion);
+    Assert.assertTrue(victim.isInvalid(KEY1));
+  }
+
+  @Test
+  public void shouldFindTrackedEntriesOfGroups() {
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    victim.record(KEY2, Arrays.asList("/b.css"), victim.getVersion());
+    Assert.assertEquals(Arrays.asList(KEY2), victim.getEntriesOfGroups(Collections.singleton("g2")));
+  }
+
+  @Test
+  public void shouldExposeInvalidatedEntriesAsLines() {
+    victim.record(KEY1, Arrays.asList("/a.css"), victim.getVersion());
+    Assert.assertEquals(Arrays.asList("g1.css (minimize=true)"), Arrays.asList(victim.getDependentEntries("/a.css")));
+    Assert.assertEquals(Arrays.asList("g1.css (minimize=true)"), Arrays.asList(victim.invalidateResource("/a.css")));
+    victim.clear();
+    Assert.assertEquals(0, victim.getTrackedEntryCount());
+    Assert.assertFalse(victim.isInvalid(KEY1));
+  }
+}
@@ -0,0 +1,76 @@
+package ro.isdc.wro.config.jmx;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestCacheStatistics {
+  private static final CacheEntry KEY = new CacheEntry("g1", ResourceType.JS, true);
+  private final CacheStatistics victim = new CacheStatistics();
+
+  @Test
+  public void shouldHaveNoStatisticsByDefault() {
+    Assert.assertEquals(0, victim.getHitCount());
+    Assert.assertEquals(0, victim.getMissCount());
+    Assert.assertEquals(0.0, victim.getHitRatio());
+    Assert.assertEquals(0.0, victim.getAverageLoadTime());
+    Assert.assertEquals(0, victim.getEntryStatistics().length);
+    Assert.assertNull(victim.getEntryStatistics(KEY));
+  }
+
+  @Test
+  public void shouldRecordHitsAndLoads() {
+    victim.recordLoad(KEY, 3, 100);
+    victim.recordLoad(KEY, 1, 50);
+    victim.recordHit(KEY);
+    Assert.assertEquals(1, victim.getHitCount());
+    Assert.assertEquals(4, victim.getMissCount());
+    Assert.assertEquals(0.2, victim.getHitRatio(), 0.001);
+    Assert.assertEquals(2, victim.getLoadCount());
+    Assert.assertEquals(150, victim.getTotalLoadTime());
+    Assert.assertEquals(75.0, victim.getAverageLoadTime());
+    Assert.assertEquals("hits=1, misses=4, loads=2, averageLoadTime=75ms, evictions=0, bytes=0",
+        victim.getEntryStatistics(KEY));
+    Assert.assertEquals("g1.js (minimize=true): " + victim.getEntryStatistics(KEY), victim.getEntryStatistics()[0]);
+  }
+
+  @Test
+  public void shouldDetectEvictionOfStoredEntry() {
+    victim.recordMissing(KEY);
+    Assert.assertEquals(0, victim.getEvictionCount());
+    victim.recordPut(KEY, 100);
+    Assert.assertEquals(100, victim.getBytes());
+    victim.recordMissing(KEY);
+    victim.recordMissing(KEY);
+    Assert.assertEquals(1, victim.getEvictionCount());
+    Assert.assertEquals(0, victim.getBytes());
+  }
+
+  @Test
+  public void clearShouldNotBeCountedAsEviction() {
+    victim.recordPut(KEY, 100);
+    victim.recordClear();
+    victim.recordMissing(KEY);
+    Assert.assertEquals(0, victim.getEvictionCount());
+    Assert.assertEquals(0, victim.getBytes());
+  }
+
+  @Test
+  public void shouldResetCounters() {
+    victim.recordPut(KEY, 100);
+    victim.recordHit(KEY);
+    victim.recordLoad(KEY, 1, 10);
+    victim.reset();
+    Assert.assertEquals(0, victim.getHitCount());
+    Assert.assertEquals(0, victim.getLoadCount());
+    // the bytes held by the cache are not statistics
+    Assert.assertEquals(100, victim.getBytes());
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * @author agent
+ */
+public class TestProcessorStatistics {
+  private final ProcessorStatistics victim = new ProcessorStatistics();
+
+  @Test
+  public void shouldHaveNoStatisticsByDefault() {
+    Assert.assertEquals(0, victim.getInvocationCount());
+    Assert.assertEquals(0, victim.getFailureCount());
+    Assert.assertEquals(0.0, victim.getTotalProcessingTime());
+    Assert.assertEquals(0, victim.getProcessorStatistics().length);
+    Assert.assertNull(victim.getLatency("processor", ResourceType.JS));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotRecordNullProcessorName() {
+    victim.record(null, ResourceType.JS, 0, 0, 0, false);
+  }
+
+  @Test
+  public void shouldRecordStatisticsPerProcessorAndResourceType() {
+    victim.record("slow", ResourceType.JS, TimeUnit.MILLISECONDS.toNanos(10), 100, 50, false);
+    victim.record("slow", ResourceType.JS, TimeUnit.MILLISECONDS.toNanos(20), 100, 50, true);
+    victim.record("slow", ResourceType.CSS, TimeUnit.MILLISECONDS.toNanos(1), 10, 10, false);
+    victim.record("fast", null, TimeUnit.MILLISECONDS.toNanos(2), 10, 10, false);
+    Assert.assertEquals(4, victim.getInvocationCount());
+    Assert.assertEquals(1, victim.getFailureCount());
+    Assert.assertEquals(33.0, victim.getTotalProcessingTime());
+    Assert.assertEquals(Arrays.asList("fast", "slow.css", "slow.js"), victim.getProcessorNames());
+    Assert.assertEquals(2, victim.getLatency("slow", ResourceType.JS).getCount());
+    Assert.assertEquals(20.0, victim.getLatency("slow", ResourceType.JS).getMax());
+
+    final String[] lines = victim.getProcessorStatistics();
+    Assert.assertEquals(3, lines.length);
+    Assert.assertTrue(lines[0], lines[0].startsWith("slow.js: total=30.000ms, failures=1, inputBytes=200, "
+        + "outputBytes=100, count=2"));
+    Assert.assertTrue(lines[2], lines[2].startsWith("slow.css:"));
+  }
+
+  @Test
+  public void shouldFlagStreamingStagesAndExcludeThemFromTotalTime() {
+    victim.record("stage", ResourceType.JS, TimeUnit.MILLISECONDS.toNanos(10), 10, 10, false, true);
+    victim.record("stage", ResourceType.JS, TimeUnit.MILLISECONDS.toNanos(2), 10, 10, false);
+    Assert.assertEquals(2, victim.getInvocationCount());
+    Assert.assertEquals(2.0, victim.getTotalProcessingTime());
+    Assert.assertEquals(Arrays.asList("stage.js", "stage.js (streaming)"), victim.getProcessorNames());
+    Assert.assertEquals(10.0, victim.getLatency("stage", ResourceType.JS, true).getMax());
+    Assert.assertEquals(2.0, victim.getLatency("stage", ResourceType.JS).getMax());
+  }
+
+  @Test
+  public void shouldReset() {
+    victim.record("processor", ResourceType.JS, 1, 1, 1, true);
+    victim.reset();
+    Assert.assertEquals(0, victim.getInvocationCount());
+    Assert.assertEquals(0, victim.getFailureCount());
+    Assert.assertEquals(0, victim.getProcessorStatistics().length);
+  }
+}
@@ -9,6 +9,8 @@ import javax.servlet.FilterConfig;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import junit.framework.Assert;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -61,6 +63,32 @@ public class TestContext {
   }
 
 
+  @Test
+  public void shouldPreserveRequestPathInDetachedContext() {
+    final Context context = Context.get();
+    context.setAggregatedFolderPath("wro/css");
+    Mockito.when(context.getRequest().getRequestURI()).thenReturn("/app/wro/all.css");
+    Mockito.when(context.getRequest().getContextPath()).thenReturn("/app");
+    Mockito.when(context.getRequest().getServletPath()).thenReturn("/wro/all.css");
+    Mockito.when(context.getRequest().getRequestURL()).thenReturn(new StringBuffer("http://localhost/app/wro/all.css"));
+
+    final Context detached = Context.detachedContext(context);
+    // the original request is recycled by the container after the request cycle
+    Mockito.reset(context.getRequest());
+
+    Assert.assertEquals("/app/wro/all.css", detached.getRequest().getRequestURI());
+    Assert.assertEquals("/app", detached.getRequest().getContextPath());
+    Assert.assertEquals("/wro/all.css", detached.getRequest().getServletPath());
+    Assert.assertEquals("http://localhost/app/wro/all.css", detached.getRequest().getRequestURL().toString());
+    Assert.assertNull(detached.getRequest().getHeader("Accept-Encoding"));
+    Assert.assertFalse(detached.getRequest().isSecure());
+    Assert.assertNotNull(detached.getResponse());
+    Assert.assertSame(context.getConfig(), detached.getConfig());
+    Assert.assertSame(context.getFilterConfig(), detached.getFilterConfig());
+    Assert.assertEquals("wro/css", detached.getAggregatedFolderPath());
+  }
+
+
   @After
   public void tearDown() {
     Context.unset();
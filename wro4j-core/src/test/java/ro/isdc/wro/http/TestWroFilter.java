@@ -17,7 +17,11 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.Collection;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
@@ -43,7 +47,9 @@ import ro.isdc.wro.cache.ContentHashEntry;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.factory.FilterConfigWroConfigurationFactory;
 import ro.isdc.wro.config.factory.PropertyWroConfigurationFactory;
+import ro.isdc.wro.config.jmx.CacheStatistics;
 import ro.isdc.wro.config.jmx.ConfigConstants;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.handler.ReloadCacheRequestHandler;
 import ro.isdc.wro.http.handler.ReloadModelRequestHandler;
@@ -142,6 +148,24 @@ public class TestWroFilter {
     victim.init(mockFilterConfig);
   }
   
+  @Test
+  public void shouldRegisterCacheStatisticsMBean()
+      throws Exception {
+    final MBeanServer mockMBeanServer = Mockito.mock(MBeanServer.class);
+    victim = new WroFilter() {
+      @Override
+      protected MBeanServer getMBeanServer() {
+        return mockMBeanServer;
+      }
+    };
+    victim.setWroManagerFactory(mockManagerFactory);
+    victim.init(mockFilterConfig);
+    Mockito.verify(mockMBeanServer).registerMBean(Mockito.isA(WroConfiguration.class), Mockito.any(ObjectName.class));
+    Mockito.verify(mockMBeanServer).registerMBean(Mockito.isA(CacheStatistics.class), Mockito.any(ObjectName.class));
+    Mockito.verify(mockMBeanServer).registerMBean(Mockito.isA(ProcessorStatistics.class),
+        Mockito.any(ObjectName.class));
+  }
+
   /**
    * Set filter init params with proper values and check they are the same in {@link WroConfiguration} object.
    */
@@ -767,6 +791,46 @@ public class TestWroFilter {
     verify(mockFilterChain).doFilter(Mockito.any(HttpServletRequest.class), Mockito.any(HttpServletResponse.class));
   }
   
+  @Test
+  public void shouldNotWarmUpCacheByDefault()
+      throws Exception {
+    victim.init(mockFilterConfig);
+    Assert.assertNull(victim.getCacheWarmUp());
+  }
+
+  @Test
+  public void shouldRejectRequestsUntilCacheWarmUpIsComplete()
+      throws Exception {
+    final CountDownLatch modelLatch = new CountDownLatch(1);
+    final WroModelFactory modelFactory = new WroModelFactory() {
+      public WroModel create() {
+        try {
+          modelLatch.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new WroModel();
+      }
+
+      public void destroy() {
+      }
+    };
+    final WroConfiguration config = new WroConfiguration();
+    config.setCacheWarmUp(true);
+    config.setWaitForCacheWarmUp(true);
+    victim.setConfiguration(config);
+    victim.setWroManagerFactory(new BaseWroManagerFactory().setModelFactory(modelFactory));
+    victim.init(mockFilterConfig);
+
+    victim.doFilter(mockRequest, mockResponse, mockFilterChain);
+    verify(mockResponse).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    verify(mockResponse).setHeader(Mockito.eq("Retry-After"), Mockito.anyString());
+
+    modelLatch.countDown();
+    Assert.assertTrue(victim.getCacheWarmUp().awaitCompletion(5, TimeUnit.SECONDS));
+    Assert.assertEquals(0, victim.getCacheWarmUp().getFailureCount());
+  }
+
   @After
   public void tearDown() {
     if (victim != null) {
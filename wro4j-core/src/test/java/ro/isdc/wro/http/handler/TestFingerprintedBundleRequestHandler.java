@@ -0,0 +1,158 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestFingerprintedBundleRequestHandler {
+  private FingerprintedBundleRequestHandler victim;
+  private ByteArrayOutputStream output;
+  private String currentHash;
+  private int locateCount;
+  @Mock
+  private HttpServletRequest request;
+  @Mock
+  private HttpServletResponse response;
+  @Inject
+  private CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy;
+
+  @Before
+  public void setUp()
+      throws Exception {
+    MockitoAnnotations.initMocks(this);
+    output = new ByteArrayOutputStream();
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+        output.write(b);
+      }
+    });
+    when(request.getContextPath()).thenReturn("/app");
+    Context.set(Context.webContext(request, response, mock(FilterConfig.class)));
+    Context.get().getConfig().setDebug(false);
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS)));
+    final UriLocator locator = new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri)
+          throws IOException {
+        locateCount++;
+        return new ByteArrayInputStream("var a = 1;".getBytes());
+      }
+    };
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setModelFactory(WroTestUtils.simpleModelFactory(model));
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(locator));
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory());
+    final Injector injector = InjectorBuilder.create(managerFactory).build();
+    victim = new FingerprintedBundleRequestHandler();
+    injector.inject(victim);
+    injector.inject(this);
+    currentHash = cacheStrategy.get(new CacheEntry("g1", ResourceType.JS, true)).getHash();
+    locateCount = 0;
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test
+  public void shouldAcceptFingerprintedUri() {
+    when(request.getRequestURI()).thenReturn("/app/wro/0f3a9c1d/g1.js");
+    assertTrue(victim.accept(request));
+  }
+
+  @Test
+  public void shouldNotAcceptUriWithoutFingerprint() {
+    when(request.getRequestURI()).thenReturn("/app/wro/g1.js");
+    assertFalse(victim.accept(request));
+    when(request.getRequestURI()).thenReturn("/app/wro/static/g1.js");
+    assertFalse(victim.accept(request));
+    when(request.getRequestURI()).thenReturn("/app/wro/0f3a9c1d/g1.png");
+    assertFalse(victim.accept(request));
+  }
+
+  @Test
+  public void shouldServeMatchingFingerprintWithImmutableHeaders()
+      throws Exception {
+    when(request.getRequestURI()).thenReturn("/app/wro/" + currentHash + "/g1.js");
+    victim.handle(request, response);
+    verify(response).setHeader(HttpHeader.CACHE_CONTROL.toString(), "public, max-age=31536000, immutable");
+    verify(response).setHeader(HttpHeader.ETAG.toString(), "\"" + currentHash + "\"");
+    assertEquals("var a = 1;", output.toString().trim());
+  }
+
+  @Test
+  public void shouldAnswerConditionalRequestWithoutLookingUpTheBundle()
+      throws Exception {
+    cacheStrategy.clear();
+    when(request.getRequestURI()).thenReturn("/app/wro/0f3a9c1d/g1.js");
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn("\"0f3a9c1d\"");
+    victim.handle(request, response);
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    verify(response).setHeader(HttpHeader.CACHE_CONTROL.toString(), "public, max-age=31536000, immutable");
+    assertEquals(0, locateCount);
+    assertEquals(0, output.size());
+  }
+
+  @Test
+  public void shouldRedirectStaleFingerprintToCurrentOne()
+      throws Exception {
+    when(request.getRequestURI()).thenReturn("/app/wro/0f3a9c1d/g1.js");
+    when(request.getQueryString()).thenReturn("minimize=false");
+    victim.handle(request, response);
+    verify(response).sendRedirect("/app/wro/" + currentHash + "/g1.js?minimize=false");
+    verify(response).setHeader(HttpHeader.CACHE_CONTROL.toString(), "no-cache");
+    verify(response, never()).getOutputStream();
+    verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestInvalidateResourceRequestHandler {
+  private InvalidateResourceRequestHandler victim;
+  private CacheDependencies dependencies;
+  private StringWriter output;
+  @Mock
+  private HttpServletRequest request;
+  @Mock
+  private HttpServletResponse response;
+
+  @Before
+  public void setUp()
+      throws Exception {
+    MockitoAnnotations.initMocks(this);
+    output = new StringWriter();
+    when(response.getWriter()).thenReturn(new PrintWriter(output));
+    Context.set(Context.webContext(request, response, mock(FilterConfig.class)));
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.css", ResourceType.CSS)));
+    model.addGroup(new Group("g2").addResource(Resource.create("/b.css", ResourceType.CSS)));
+    dependencies = new CacheDependencies();
+    victim = new InvalidateResourceRequestHandler();
+    new InjectorBuilder(new BaseWroManagerFactory().setModelFactory(WroTestUtils.simpleModelFactory(model))).setCacheDependencies(
+        dependencies).build().inject(victim);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test
+  public void shouldHandleRequest() {
+    when(request.getRequestURI()).thenReturn("wroApi/invalidateResource");
+    assertTrue(victim.accept(request));
+  }
+
+  @Test
+  public void shouldNotHandleRequest() {
+    when(request.getRequestURI()).thenReturn("wroApi/reloadCache");
+    assertFalse(victim.accept(request));
+  }
+
+  @Test
+  public void shouldRejectRequestWithoutUri()
+      throws Exception {
+    victim.handle(request, response);
+    verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing parameter: uri");
+  }
+
+  @Test
+  public void shouldInvalidateEntriesDependingOnResource()
+      throws Exception {
+    final CacheEntry key1 = new CacheEntry("g1", ResourceType.CSS, true);
+    final CacheEntry key2 = new CacheEntry("g2", ResourceType.CSS, true);
+    final CacheEntry key3 = new CacheEntry("g3", ResourceType.CSS, true);
+    // the entry of g1 depends on /a.css through the model only
+    dependencies.record(key1, Arrays.<String> asList(), dependencies.getVersion());
+    dependencies.record(key2, Arrays.asList("/b.css"), dependencies.getVersion());
+    dependencies.record(key3, Arrays.asList("/c.css", "/imported.css"), dependencies.getVersion());
+    when(request.getParameter(InvalidateResourceRequestHandler.PARAM_URI)).thenReturn("/a.css");
+    victim.handle(request, response);
+    when(request.getParameter(InvalidateResourceRequestHandler.PARAM_URI)).thenReturn("/imported.css");
+    victim.handle(request, response);
+
+    verify(response, times(2)).setStatus(HttpServletResponse.SC_OK);
+    assertTrue(dependencies.isInvalid(key1));
+    assertFalse(dependencies.isInvalid(key2));
+    assertTrue(dependencies.isInvalid(key3));
+    assertEquals(String.format("g1.css (minimize=true)%ng3.css (minimize=true)%n"), output.toString());
+  }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.http.handler;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestRequestHandlerDispatcher {
+  private HttpServletRequest request;
+
+  @Before
+  public void setUp() {
+    request = mock(HttpServletRequest.class);
+  }
+
+  private EndpointRequestHandler createEndpointHandler(final String endpoint) {
+    final EndpointRequestHandler handler = mock(EndpointRequestHandler.class);
+    when(handler.getEndpointUri()).thenReturn(endpoint);
+    when(handler.isEnabled()).thenReturn(true);
+    when(handler.accept(any(HttpServletRequest.class))).thenReturn(true);
+    return handler;
+  }
+
+  private RequestHandler createHandler(final boolean accept) {
+    final RequestHandler handler = mock(RequestHandler.class);
+    when(handler.isEnabled()).thenReturn(true);
+    when(handler.accept(any(HttpServletRequest.class))).thenReturn(accept);
+    return handler;
+  }
+
+  private RequestHandlerDispatcher createDispatcher(final RequestHandler... handlers) {
+    return new RequestHandlerDispatcher(new ArrayList<RequestHandler>(Arrays.asList(handlers)));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullHandlers() {
+    new RequestHandlerDispatcher(null);
+  }
+
+  @Test
+  public void shouldFindHandlerByEndpointIgnoringCaseAndTrailingSlash() {
+    final EndpointRequestHandler reloadCache = createEndpointHandler("wroAPI/reloadCache");
+    final EndpointRequestHandler reloadModel = createEndpointHandler("wroAPI/reloadModel");
+    final RequestHandlerDispatcher victim = createDispatcher(reloadCache, reloadModel);
+
+    when(request.getRequestURI()).thenReturn("/app/wro/wroAPI/reloadModel");
+    assertSame(reloadModel, victim.find(request));
+    when(request.getRequestURI()).thenReturn("/app/wro/WROAPI/RELOADCACHE/");
+    assertSame(reloadCache, victim.find(request));
+    when(request.getRequestURI()).thenReturn("/app/wro/other/reloadCache");
+    assertNull(victim.find(request));
+    when(request.getRequestURI()).thenReturn("/");
+    assertNull(victim.find(request));
+  }
+
+  @Test
+  public void shouldNotCheckHandlersOfOtherEndpoints() {
+    final EndpointRequestHandler reloadCache = createEndpointHandler("wroAPI/reloadCache");
+    final RequestHandlerDispatcher victim = createDispatcher(reloadCache);
+    when(request.getRequestURI()).thenReturn("/app/wro/all.js");
+    assertNull(victim.find(request));
+    verify(reloadCache, never()).accept(any(HttpServletRequest.class));
+    verify(reloadCache, never()).isEnabled();
+  }
+
+  @Test
+  public void shouldPreserveTheOrderOfHandlers() {
+    final RequestHandler first = createHandler(true);
+    final EndpointRequestHandler endpointHandler = createEndpointHandler("wroAPI/reloadCache");
+    final RequestHandler last = createHandler(true);
+    when(request.getRequestURI()).thenReturn("/wroAPI/reloadCache");
+    assertSame(first, createDispatcher(first, endpointHandler, last).find(request));
+    assertSame(endpointHandler, createDispatcher(endpointHandler, first, last).find(request));
+    assertSame(last, createDispatcher(createHandler(false), last, endpointHandler).find(request));
+  }
+
+  @Test
+  public void shouldSkipDisabledHandlers() {
+    final EndpointRequestHandler disabled = createEndpointHandler("wroAPI/reloadCache");
+    when(disabled.isEnabled()).thenReturn(false);
+    final RequestHandler other = createHandler(true);
+    when(request.getRequestURI()).thenReturn("/wroAPI/reloadCache");
+    final List<RequestHandler> handlers = new ArrayList<RequestHandler>();
+    handlers.add(disabled);
+    handlers.add(other);
+    assertSame(other, new RequestHandlerDispatcher(handlers).find(request));
+    verify(disabled, never()).accept(request);
+  }
+}
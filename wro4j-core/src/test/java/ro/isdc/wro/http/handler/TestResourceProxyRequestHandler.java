@@ -7,6 +7,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,12 +22,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.http.support.UnauthorizedRequestException;
 import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
 import ro.isdc.wro.model.group.processor.Injector;
@@ -35,6 +38,7 @@ import ro.isdc.wro.model.resource.locator.ClasspathUriLocator;
 import ro.isdc.wro.model.resource.locator.UriLocator;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
+import ro.isdc.wro.model.resource.support.hash.SHA1HashStrategy;
 import ro.isdc.wro.util.WroUtil;
 
 
@@ -210,6 +214,73 @@ public class TestResourceProxyRequestHandler {
     verify(response, times(1)).setContentType("image/png");
   }
   
+  @Test
+  public void shouldServeCachedResourceWithoutLocatingItAgain()
+      throws IOException {
+    final String resourceUri = prepareResource("/a.png", "image");
+    Context.get().getConfig().setDebug(false);
+    victim.handle(request, response);
+    victim.handle(request, response);
+
+    verify(mockUriLocator, times(1)).locate(resourceUri);
+    assertThat(outputStream.toString(), is("imageimage"));
+  }
+
+  @Test
+  public void shouldRevalidateCachedResourceInDebugMode()
+      throws IOException {
+    final String resourceUri = prepareResource("/a.png", "image");
+    victim.handle(request, response);
+    when(mockUriLocator.locate(resourceUri)).thenReturn(new ByteArrayInputStream("changed".getBytes()));
+    victim.handle(request, response);
+
+    verify(mockUriLocator, times(2)).locate(resourceUri);
+    assertThat(outputStream.toString(), is("imagechanged"));
+  }
+
+  @Test
+  public void shouldSendNotModifiedWhenETagMatches()
+      throws IOException {
+    prepareResource("/a.png", "image");
+    Context.get().getConfig().setDebug(false);
+    victim.handle(request, response);
+    final ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+    verify(response).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), etag.capture());
+    assertThat(etag.getValue().startsWith("\""), is(true));
+
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(etag.getValue());
+    victim.handle(request, response);
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    assertThat(outputStream.toString(), is("image"));
+  }
+
+  @Test
+  public void shouldCacheFingerprintedResourceForever()
+      throws IOException {
+    prepareResource("/a.png", "image");
+    final String hash = new SHA1HashStrategy().getHash(new ByteArrayInputStream("image".getBytes()));
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_FINGERPRINT)).thenReturn(hash);
+    victim.handle(request, response);
+    verify(response).setHeader(HttpHeader.CACHE_CONTROL.toString(), "public, max-age=31536000");
+  }
+
+  @Test
+  public void shouldRevalidateResourceWithStaleFingerprint()
+      throws IOException {
+    prepareResource("/a.png", "image");
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_FINGERPRINT)).thenReturn("stale");
+    victim.handle(request, response);
+    verify(response).setHeader(HttpHeader.CACHE_CONTROL.toString(), "public, max-age=0, must-revalidate");
+  }
+
+  private String prepareResource(final String resourceUri, final String content)
+      throws IOException {
+    when(mockAuthorizationManager.isAuthorized(resourceUri)).thenReturn(true);
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_RESOURCE_ID)).thenReturn(resourceUri);
+    when(mockUriLocator.locate(resourceUri)).thenReturn(new ByteArrayInputStream(content.getBytes()));
+    return resourceUri;
+  }
+
   private InputStream getInputStream(final String filename)
       throws IOException {
     return this.getClass().getClassLoader().getResourceAsStream(packagePath + "/" + filename);
@@ -0,0 +1,174 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * Microbenchmark of the cache hit path of {@link ResourceBundleProcessor}: compares the routed requests with the
+ * requests parsed each time (the debug mode disables the routes). Not part of the unit tests, run it with
+ * <code>mvn test -Pbenchmark</code>.
+ *
+ * @author agent
+ */
+public class ResourceBundleProcessorBenchmark {
+  private static final Logger LOG = LoggerFactory.getLogger(ResourceBundleProcessorBenchmark.class);
+  private static final int ITERATIONS = 20000;
+  private static final String URI = "/app/wro/css/g1.css";
+  private ResourceBundleProcessor victim;
+  private WroConfiguration config;
+  /**
+   * The values returned by the stub request, mapped by method name.
+   */
+  private final Map<String, Object> requestValues = new HashMap<String, Object>();
+
+  @Before
+  public void setUp() {
+    final HttpServletRequest request = stub(HttpServletRequest.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        return requestValues.get(method.getName());
+      }
+    });
+    final ServletOutputStream outputStream = new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+      }
+    };
+    final HttpServletResponse response = stub(HttpServletResponse.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        return "getOutputStream".equals(method.getName()) ? outputStream : null;
+      }
+    });
+    config = new WroConfiguration();
+    config.setGzipEnabled(true);
+    // otherwise the content is gzipped for each request
+    config.setCacheGzippedContent(true);
+    Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)), config);
+    requestValues.put("getContextPath", "/app");
+    requestValues.put("getHeader", "gzip,deflate");
+    requestValues.put("getRequestURI", URI);
+
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.css", ResourceType.CSS)));
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setModelFactory(WroTestUtils.simpleModelFactory(model));
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri) {
+        return new ByteArrayInputStream(("content of " + uri).getBytes());
+      }
+    }));
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory());
+    victim = new ResourceBundleProcessor();
+    InjectorBuilder.create(managerFactory).build().inject(victim);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T stub(final Class<T> type, final InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {
+      type
+    }, handler);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test
+  public void routedRequestShouldAllocateLessThanParsedRequest()
+      throws Exception {
+    victim.serveProcessedBundle();
+
+    config.setDebug(true);
+    final long[] parsed = measure();
+    config.setDebug(false);
+    final long[] routed = measure();
+
+    LOG.info("parsed request: {} ns/op, {} bytes/op", parsed[0] / ITERATIONS, parsed[1] / ITERATIONS);
+    LOG.info("routed request: {} ns/op, {} bytes/op", routed[0] / ITERATIONS, routed[1] / ITERATIONS);
+    if (routed[1] >= 0 && parsed[1] >= 0) {
+      Assert.assertTrue(String.format("routed: %s bytes, parsed: %s bytes", routed[1], parsed[1]),
+          routed[1] < parsed[1]);
+    }
+  }
+
+  /**
+   * @return the elapsed nanoseconds and the allocated bytes (negative if not supported) for serving the bundle.
+   */
+  private long[] measure()
+      throws Exception {
+    // warm up
+    for (int i = 0; i < ITERATIONS; i++) {
+      victim.serveProcessedBundle();
+    }
+    final long bytes = getAllocatedBytes();
+    final long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      victim.serveProcessedBundle();
+    }
+    final long time = System.nanoTime() - start;
+    final long allocated = getAllocatedBytes();
+    return new long[] {
+      time, bytes < 0 ? -1 : allocated - bytes
+    };
+  }
+
+  /**
+   * Uses the allocation counter of the HotSpot JVM, when available.
+   */
+  private long getAllocatedBytes() {
+    try {
+      final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      final Method method = bean.getClass().getMethod("getThreadAllocatedBytes", long.class);
+      method.setAccessible(true);
+      return (Long) method.invoke(bean, Thread.currentThread().getId());
+    } catch (final Exception e) {
+      return -1;
+    }
+  }
+}
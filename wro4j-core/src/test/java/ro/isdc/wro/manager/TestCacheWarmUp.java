@@ -0,0 +1,161 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.manager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestCacheWarmUp {
+  private CacheStrategy<CacheEntry, ContentHashEntry> mockCacheStrategy;
+  private BaseWroManagerFactory managerFactory;
+  private WroConfiguration config;
+  private CacheWarmUp victim;
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() {
+    mockCacheStrategy = mock(CacheStrategy.class);
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS)).addResource(
+        Resource.create("/a.css", ResourceType.CSS)));
+    model.addGroup(new Group("g2").addResource(Resource.create("/b.js", ResourceType.JS)));
+    managerFactory = new BaseWroManagerFactory().setModelFactory(WroTestUtils.simpleModelFactory(model)).setCacheStrategy(
+        mockCacheStrategy);
+    config = new WroConfiguration();
+  }
+
+  @After
+  public void tearDown() {
+    if (victim != null) {
+      victim.cancel();
+    }
+  }
+
+  private CacheWarmUp warmUp()
+      throws Exception {
+    victim = new CacheWarmUp(managerFactory, null, config, "/app").start();
+    Assert.assertTrue(victim.awaitCompletion(5, TimeUnit.SECONDS));
+    return victim;
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullManagerFactory() {
+    new CacheWarmUp(null, null, config, "");
+  }
+
+  @Test
+  public void shouldWarmUpAllVariantsInDebugMode()
+      throws Exception {
+    config.setDebug(true);
+    warmUp();
+    for (final boolean minimize : new boolean[] {
+      true, false
+    }) {
+      verify(mockCacheStrategy).get(new CacheEntry("g1", ResourceType.JS, minimize));
+      verify(mockCacheStrategy).get(new CacheEntry("g1", ResourceType.CSS, minimize));
+      verify(mockCacheStrategy).get(new CacheEntry("g2", ResourceType.JS, minimize));
+    }
+    Mockito.verifyNoMoreInteractions(mockCacheStrategy);
+    Assert.assertEquals(6, victim.getTimings().size());
+    Assert.assertEquals(0, victim.getFailureCount());
+    Assert.assertTrue(victim.getTotalTime() >= 0);
+  }
+
+  @Test
+  public void shouldWarmUpOnlyMinimizedEntriesInDeploymentMode()
+      throws Exception {
+    config.setDebug(false);
+    warmUp();
+    verify(mockCacheStrategy).get(new CacheEntry("g1", ResourceType.JS, true));
+    verify(mockCacheStrategy).get(new CacheEntry("g1", ResourceType.CSS, true));
+    verify(mockCacheStrategy).get(new CacheEntry("g2", ResourceType.JS, true));
+    Mockito.verifyNoMoreInteractions(mockCacheStrategy);
+  }
+
+  @Test
+  public void shouldCountFailedEntries()
+      throws Exception {
+    config.setDebug(false);
+    final CacheEntry failingKey = new CacheEntry("g2", ResourceType.JS, true);
+    when(mockCacheStrategy.get(failingKey)).thenThrow(new WroRuntimeException("BOOM!"));
+    warmUp();
+    Assert.assertEquals(1, victim.getFailureCount());
+    Assert.assertEquals(2, victim.getTimings().size());
+    Assert.assertFalse(victim.getTimings().containsKey(failingKey));
+  }
+
+  @Test
+  public void shouldProcessEntriesWithTheRequestUriOfTheGroup()
+      throws Exception {
+    config.setDebug(false);
+    config.setCacheWarmUpPath("resources");
+    final Map<CacheEntry, String> requestUris = Collections.synchronizedMap(new HashMap<CacheEntry, String>());
+    final Map<CacheEntry, String> aggregatedFolders = Collections.synchronizedMap(new HashMap<CacheEntry, String>());
+    when(mockCacheStrategy.get(Mockito.any(CacheEntry.class))).thenAnswer(new Answer<ContentHashEntry>() {
+      public ContentHashEntry answer(final InvocationOnMock invocation)
+          throws Throwable {
+        final CacheEntry key = (CacheEntry) invocation.getArguments()[0];
+        requestUris.put(key, Context.get().getRequest().getRequestURI());
+        if (Context.get().getAggregatedFolderPath() != null) {
+          aggregatedFolders.put(key, Context.get().getAggregatedFolderPath());
+        }
+        return null;
+      }
+    });
+    warmUp();
+    final CacheEntry cssKey = new CacheEntry("g1", ResourceType.CSS, true);
+    Assert.assertEquals("/app/resources/g1.css", requestUris.get(cssKey));
+    Assert.assertEquals("/app/resources/g2.js", requestUris.get(new CacheEntry("g2", ResourceType.JS, true)));
+    Assert.assertEquals(Collections.singletonMap(cssKey, "/resources/"), aggregatedFolders);
+  }
+
+  @Test
+  public void shouldUseBoundedPoolSize()
+      throws Exception {
+    config.setCacheWarmUpPoolSize(1);
+    final Map<String, Boolean> threads = Collections.synchronizedMap(new HashMap<String, Boolean>());
+    when(mockCacheStrategy.get(Mockito.any(CacheEntry.class))).thenAnswer(new Answer<ContentHashEntry>() {
+      public ContentHashEntry answer(final InvocationOnMock invocation)
+          throws Throwable {
+        threads.put(Thread.currentThread().getName(), Boolean.TRUE);
+        return null;
+      }
+    });
+    warmUp();
+    Assert.assertEquals(1, threads.size());
+    Assert.assertEquals(6, victim.getTimings().size());
+  }
+}
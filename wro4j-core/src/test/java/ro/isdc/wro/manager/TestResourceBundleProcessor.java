@@ -0,0 +1,487 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.CacheDependencies;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.util.WroTestUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestResourceBundleProcessor {
+  private ResourceBundleProcessor victim;
+  private Injector injector;
+  private WroConfiguration config;
+  /**
+   * The values returned by the stub request, mapped by method name.
+   */
+  private final Map<String, Object> requestValues = new HashMap<String, Object>();
+  /**
+   * The headers set on the stub response.
+   */
+  private final Map<String, Object> responseHeaders = new HashMap<String, Object>();
+  private HttpServletRequest request;
+  /**
+   * When not null, the located resources are not available until the latch is released.
+   */
+  private volatile CountDownLatch locateLatch;
+  /**
+   * Released when a resource is located.
+   */
+  private final CountDownLatch locating = new CountDownLatch(1);
+  private HttpServletResponse response;
+  private ServletOutputStream outputStream;
+
+  @Before
+  public void setUp() {
+    request = stub(HttpServletRequest.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        return requestValues.get(method.getName());
+      }
+    });
+    outputStream = new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+      }
+    };
+    response = stub(HttpServletResponse.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        if ("getOutputStream".equals(method.getName())) {
+          return outputStream;
+        }
+        if (method.getName().startsWith("set")) {
+          responseHeaders.put(args.length > 1 ? (String) args[0] : method.getName(), args[args.length - 1]);
+        }
+        return null;
+      }
+    });
+    config = new WroConfiguration();
+    config.setDebug(false);
+    Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)), config);
+    createVictim();
+    requestValues.put("getContextPath", "/app");
+  }
+
+  /**
+   * Creates the processor using the current configuration.
+   */
+  private void createVictim() {
+    final WroModel model = new WroModel();
+    model.addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS)).addResource(
+        Resource.create("/a.css", ResourceType.CSS)));
+    final UriLocator locator = new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri)
+          throws IOException {
+        locating.countDown();
+        if (locateLatch != null) {
+          try {
+            locateLatch.await(5, TimeUnit.SECONDS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return new ByteArrayInputStream(("content of " + uri).getBytes());
+      }
+    };
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setModelFactory(WroTestUtils.simpleModelFactory(model));
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(locator));
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory());
+    injector = InjectorBuilder.create(managerFactory).build();
+    victim = new ResourceBundleProcessor();
+    injector.inject(victim);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T stub(final Class<T> type, final InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {
+      type
+    }, handler);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  private void serve(final String uri)
+      throws IOException {
+    requestValues.put("getRequestURI", uri);
+    victim.serveProcessedBundle();
+  }
+
+  @Test
+  public void shouldRememberRouteOfServedBundle()
+      throws Exception {
+    serve("/app/wro/g1.js");
+    Assert.assertEquals(1, victim.getRouteCount());
+    Assert.assertEquals("text/javascript; charset=UTF-8", responseHeaders.get("setContentType"));
+    final Object etag = responseHeaders.get("ETag");
+    Assert.assertNotNull(etag);
+
+    responseHeaders.clear();
+    serve("/app/wro/g1.js");
+    Assert.assertEquals(1, victim.getRouteCount());
+    Assert.assertEquals("text/javascript; charset=UTF-8", responseHeaders.get("setContentType"));
+    Assert.assertEquals(etag, responseHeaders.get("ETag"));
+  }
+
+  /**
+   * Exposes the cache shared with the victim.
+   */
+  private static class CacheHolder {
+    @Inject
+    private CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy;
+    @Inject
+    private CacheDependencies cacheDependencies;
+  }
+
+  @Test
+  public void shouldServeRoutedGzippedBundleLikeParsedRequest()
+      throws Exception {
+    config.setGzipEnabled(true);
+    config.setCacheGzippedContent(true);
+    requestValues.put("getHeader", "gzip,deflate");
+    final ChannelOutputStream parsedOutput = new ChannelOutputStream();
+    outputStream = parsedOutput;
+    serve("/app/wro/css/g1.css");
+    final Map<String, Object> parsedHeaders = new HashMap<String, Object>(responseHeaders);
+    Assert.assertEquals(1, victim.getRouteCount());
+
+    responseHeaders.clear();
+    final ChannelOutputStream routedOutput = new ChannelOutputStream();
+    outputStream = routedOutput;
+    serve("/app/wro/css/g1.css");
+    Assert.assertEquals(1, victim.getRouteCount());
+    Assert.assertEquals(parsedHeaders, responseHeaders);
+    Assert.assertEquals("gzip", responseHeaders.get(HttpHeader.CONTENT_ENCODING.toString()));
+    Assert.assertTrue(parsedOutput.content.size() > 0);
+    Assert.assertTrue(Arrays.equals(parsedOutput.content.toByteArray(), routedOutput.content.toByteArray()));
+  }
+
+  @Test
+  public void shouldForgetRoutesWhenCacheIsCleared()
+      throws Exception {
+    final CacheHolder cache = new CacheHolder();
+    injector.inject(cache);
+    serve("/app/wro/g1.js");
+    serve("/app/wro/g1.css");
+    Assert.assertEquals(2, victim.getRouteCount());
+    cache.cacheStrategy.clear();
+    serve("/app/wro/g1.js");
+    Assert.assertEquals(1, victim.getRouteCount());
+  }
+
+  @Test
+  public void shouldForgetRoutesWhenEntriesAreInvalidated()
+      throws Exception {
+    final CacheHolder cache = new CacheHolder();
+    injector.inject(cache);
+    serve("/app/wro/g1.js");
+    serve("/app/wro/g1.css");
+    Assert.assertEquals(2, victim.getRouteCount());
+    Assert.assertFalse(cache.cacheDependencies.invalidate("/a.css").isEmpty());
+    serve("/app/wro/g1.css");
+    Assert.assertEquals(1, victim.getRouteCount());
+  }
+
+  @Test
+  public void shouldSetAggregatedFolderPathOfRoutedCssBundle()
+      throws Exception {
+    serve("/app/wro/css/g1.css");
+    Context.get().setAggregatedFolderPath(null);
+    serve("/app/wro/css/g1.css");
+    Assert.assertEquals("/wro/css/", Context.get().getAggregatedFolderPath());
+  }
+
+  @Test
+  public void shouldNotRememberRouteOfInvalidRequest()
+      throws Exception {
+    try {
+      serve("/app/wro/");
+      Assert.fail("Should have failed");
+    } catch (final WroRuntimeException e) {
+    }
+    Assert.assertEquals(0, victim.getRouteCount());
+  }
+
+  @Test
+  public void shouldNotRouteRequestsInDebugMode()
+      throws Exception {
+    config.setDebug(true);
+    serve("/app/wro/g1.js");
+    Assert.assertEquals(0, victim.getRouteCount());
+  }
+
+  @Test
+  public void shouldParkRequestUntilBundleIsLoaded()
+      throws Exception {
+    config.setAsyncServing(true);
+    final Thread loadingThread = startLoading();
+    final CountDownLatch completed = new CountDownLatch(1);
+    final List<String> asyncCalls = Collections.synchronizedList(new ArrayList<String>());
+    final HttpServletResponse asyncResponse = Mockito.mock(HttpServletResponse.class);
+    Mockito.when(asyncResponse.getOutputStream()).thenReturn(response.getOutputStream());
+
+    serveAsync(asyncResponse, asyncCalls, completed);
+    // the request is parked without touching the response
+    Assert.assertEquals(Arrays.asList("setTimeout"), asyncCalls);
+    Mockito.verifyZeroInteractions(asyncResponse);
+
+    locateLatch.countDown();
+    Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+    loadingThread.join();
+    Assert.assertEquals(Arrays.asList("setTimeout", "start", "complete"), asyncCalls);
+    Mockito.verify(asyncResponse).setHeader(Mockito.eq("ETag"), Mockito.anyString());
+  }
+
+  @Test
+  public void shouldAnswerServiceUnavailableWhenParkedRequestTimesOut()
+      throws Exception {
+    config.setAsyncServing(true);
+    config.setAsyncServingTimeout(100);
+    final Thread loadingThread = startLoading();
+    final CountDownLatch completed = new CountDownLatch(1);
+    final List<String> asyncCalls = Collections.synchronizedList(new ArrayList<String>());
+    final HttpServletResponse asyncResponse = Mockito.mock(HttpServletResponse.class);
+    try {
+      serveAsync(asyncResponse, asyncCalls, completed);
+      Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals(Arrays.asList("setTimeout", "start", "complete"), asyncCalls);
+      Mockito.verify(asyncResponse).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      Mockito.verify(asyncResponse).setHeader(Mockito.eq(HttpHeader.RETRY_AFTER.toString()), Mockito.anyString());
+    } finally {
+      locateLatch.countDown();
+      loadingThread.join();
+    }
+    // the load completing later does not resume the request again
+    Assert.assertEquals(Arrays.asList("setTimeout", "start", "complete"), asyncCalls);
+    victim.destroy();
+  }
+
+  /**
+   * Starts serving the bundle in a new thread, which blocks while locating the resources until the locateLatch is
+   * released.
+   */
+  private Thread startLoading()
+      throws Exception {
+    locateLatch = new CountDownLatch(1);
+    requestValues.put("getRequestURI", "/app/wro/g1.js");
+    final Context loadingContext = Context.get();
+    final Thread loadingThread = new Thread() {
+      @Override
+      public void run() {
+        Context.set(loadingContext, config);
+        try {
+          victim.serveProcessedBundle();
+        } catch (final IOException e) {
+          throw new RuntimeException(e);
+        } finally {
+          Context.unset();
+        }
+      }
+    };
+    loadingThread.start();
+    Assert.assertTrue(locating.await(5, TimeUnit.SECONDS));
+    return loadingThread;
+  }
+
+  /**
+   * Serves the bundle being loaded with a request supporting asynchronous processing.
+   */
+  private void serveAsync(final HttpServletResponse asyncResponse, final List<String> asyncCalls,
+      final CountDownLatch completed)
+      throws Exception {
+    final AsyncContextStub asyncContext = stub(AsyncContextStub.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        asyncCalls.add(method.getName());
+        if ("start".equals(method.getName())) {
+          // the container runs the task in one of its threads
+          new Thread((Runnable) args[0]).start();
+        } else if ("complete".equals(method.getName())) {
+          completed.countDown();
+        }
+        return null;
+      }
+    });
+    final HttpServletRequest asyncRequest = stub(AsyncRequestStub.class, new InvocationHandler() {
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        if ("isAsyncSupported".equals(method.getName())) {
+          return true;
+        }
+        if ("startAsync".equals(method.getName())) {
+          return asyncContext;
+        }
+        return requestValues.get(method.getName());
+      }
+    });
+    final Context loadingContext = Context.get();
+    Context.set(Context.webContext(asyncRequest, asyncResponse, Mockito.mock(FilterConfig.class)), config);
+    try {
+      victim.serveProcessedBundle();
+    } finally {
+      Context.unset();
+      Context.set(loadingContext, config);
+    }
+  }
+
+  @Test
+  public void shouldNotParkRequestWhenAsyncIsNotSupported()
+      throws Exception {
+    config.setAsyncServing(true);
+    serve("/app/wro/g1.js");
+    Assert.assertNotNull(responseHeaders.get("ETag"));
+  }
+
+  @Test
+  public void shouldDelegateServingOfExportedBundleUsingSendfileHeader()
+      throws Exception {
+    final File exportDirectory = File.createTempFile("wro4j", "export");
+    exportDirectory.delete();
+    try {
+      config.setBundleExportDirectory(exportDirectory.getPath());
+      config.setSendfileHeader("X-Accel-Redirect");
+      config.setSendfilePrefix("/internal/");
+      createVictim();
+      serve("/app/wro/g1.js");
+      final String location = (String) responseHeaders.get("X-Accel-Redirect");
+      Assert.assertNotNull(location);
+      Assert.assertTrue(location.startsWith("/internal/"));
+      final File exportedFile = new File(exportDirectory, location.substring("/internal/".length()));
+      Assert.assertEquals("content of /a.js", FileUtils.readFileToString(exportedFile).trim());
+      Assert.assertNotNull(responseHeaders.get("ETag"));
+      Assert.assertNull(responseHeaders.get("setContentLength"));
+    } finally {
+      FileUtils.deleteQuietly(exportDirectory);
+    }
+  }
+
+  @Test
+  public void shouldTransferExportedBundleToChannelOfResponse()
+      throws Exception {
+    final File exportDirectory = File.createTempFile("wro4j", "export");
+    exportDirectory.delete();
+    final ChannelOutputStream channel = new ChannelOutputStream();
+    outputStream = channel;
+    try {
+      config.setBundleExportDirectory(exportDirectory.getPath());
+      createVictim();
+      // the bundle is exported when loaded, thus even the first request is served from the exported file
+      serve("/app/wro/g1.js");
+      Assert.assertTrue(channel.transferred > 0);
+      Assert.assertEquals("content of /a.js", channel.content.toString().trim());
+      Assert.assertEquals(channel.transferred, responseHeaders.get("setContentLength"));
+    } finally {
+      FileUtils.deleteQuietly(exportDirectory);
+    }
+  }
+
+  /**
+   * The output stream of a container exposing the channel of the response.
+   */
+  private static class ChannelOutputStream
+      extends ServletOutputStream
+      implements WritableByteChannel {
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private int transferred;
+
+    @Override
+    public void write(final int b) {
+      content.write(b);
+    }
+
+    public int write(final ByteBuffer src) {
+      final int length = src.remaining();
+      final byte[] bytes = new byte[length];
+      src.get(bytes);
+      content.write(bytes, 0, length);
+      transferred += length;
+      return length;
+    }
+
+    public boolean isOpen() {
+      return true;
+    }
+  }
+
+  /**
+   * A request of a container implementing the Servlet 3.0 API.
+   */
+  public static interface AsyncRequestStub
+      extends HttpServletRequest {
+    boolean isAsyncSupported();
+
+    AsyncContextStub startAsync();
+  }
+
+  /**
+   * Mirrors the methods of the Servlet 3.0 <code>AsyncContext</code> used by wro4j.
+   */
+  public static interface AsyncContextStub {
+    void setTimeout(long timeout);
+
+    void start(Runnable runnable);
+
+    void complete();
+  }
+}
@@ -16,6 +16,8 @@ import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.http.HttpServletRequest;
@@ -375,6 +377,34 @@ public class TestWroManager {
     managerFactory.create().process();
   }
   
+  @Test
+  public void shouldServeDeflatedContentOncePrecompressed()
+      throws Exception {
+    final WroConfiguration config = new WroConfiguration();
+    config.setPrecompressContent(true);
+    final Map<String, String> headers = new HashMap<String, String>();
+    for (int i = 0; i < 100 && !headers.containsKey(HttpHeader.CONTENT_ENCODING.toString()); i++) {
+      final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+      Mockito.when(request.getRequestURI()).thenReturn("/app/g1.css");
+      Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("deflate");
+      final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+      Mockito.when(response.getOutputStream()).thenReturn(
+          new DelegatingServletOutputStream(new ByteArrayOutputStream()));
+      Mockito.doAnswer(new Answer<Void>() {
+        public Void answer(final InvocationOnMock invocation)
+            throws Throwable {
+          headers.put((String) invocation.getArguments()[0], (String) invocation.getArguments()[1]);
+          return null;
+        }
+      }).when(response).setHeader(Mockito.anyString(), Mockito.anyString());
+      Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)), config);
+      managerFactory.create().process();
+      // the uncompressed content is served until the variants are ready
+      Thread.sleep(10);
+    }
+    Assert.assertEquals("deflate", headers.get(HttpHeader.CONTENT_ENCODING.toString()));
+  }
+
   @Test
   public void testManagerWithSchedulerAndUpdatePeriodSet()
       throws Exception {
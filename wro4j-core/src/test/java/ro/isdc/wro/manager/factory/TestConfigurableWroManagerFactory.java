@@ -23,6 +23,11 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.impl.TinyLfuMemoryCacheStrategy;
+import ro.isdc.wro.cache.support.ConfigurableCacheStrategy;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.model.resource.locator.ClasspathUriLocator;
@@ -341,4 +346,13 @@ public class TestConfigurableWroManagerFactory {
     final HashStrategy actual = ((ConfigurableHashStrategy) victim.create().getHashStrategy()).getConfiguredStrategy();
     Assert.assertEquals(MD5HashStrategy.class, actual.getClass());
   }
+
+  @Test
+  public void shouldUseConfiguredCacheStrategy() throws Exception {
+    final Properties configProperties = new Properties();
+    configProperties.setProperty(ConfigurableCacheStrategy.KEY, TinyLfuMemoryCacheStrategy.ALIAS);
+    victim.setConfigProperties(configProperties);
+    final CacheStrategy<CacheEntry, ContentHashEntry> actual = ((ConfigurableCacheStrategy) victim.create().getCacheStrategy()).getOriginalDecoratedObject();
+    Assert.assertEquals(TinyLfuMemoryCacheStrategy.class, actual.getClass());
+  }
 }
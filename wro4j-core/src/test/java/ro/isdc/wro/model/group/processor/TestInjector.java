@@ -133,6 +133,17 @@ public class TestInjector {
   }
 
 
+  @Test
+  public void shouldInjectFieldsOfSuperClassesForEachInjection() {
+    final TestProcessor testProcessor = new TestProcessor() {};
+    final Injector injector = InjectorBuilder.create(new BaseWroManagerFactory()).build();
+    for (int i = 0; i < 2; i++) {
+      testProcessor.context = null;
+      injector.inject(testProcessor);
+      Assert.assertNotNull(testProcessor.context);
+    }
+  }
+
   @After
   public void tearDown() {
     Context.unset();
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static ro.isdc.wro.config.Context.set;
 
+import java.io.File;
 import java.io.IOException;
 
 import javax.servlet.FilterConfig;
@@ -16,6 +17,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import junit.framework.Assert;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -23,6 +25,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 
 import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.CacheStrategyDecorator;
+import ro.isdc.wro.cache.SharedBundleCacheStrategyDecorator;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.ReadOnlyContext;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
@@ -136,6 +140,29 @@ public class TestInjectorBuilder {
     Assert.assertNotNull(sample.readOnlyContext);
   }
   
+  @Test
+  public void shouldDecorateCacheStrategyWhenSharedCacheDirectoryIsConfigured()
+      throws Exception {
+    final File directory = File.createTempFile("wro4j", "shared");
+    directory.delete();
+    try {
+      Context.get().getConfig().setSharedCacheDirectory(directory.getPath());
+      final WroManagerFactory managerFactory = new BaseWroManagerFactory();
+      final Injector injector = InjectorBuilder.create(managerFactory).build();
+      final Sample sample = new Sample();
+      injector.inject(sample);
+      Assert.assertTrue(directory.isDirectory());
+      CacheStrategy<?, ?> cacheStrategy = sample.cacheStrategy;
+      while (!(cacheStrategy instanceof SharedBundleCacheStrategyDecorator)
+          && cacheStrategy instanceof CacheStrategyDecorator) {
+        cacheStrategy = ((CacheStrategyDecorator<?, ?>) cacheStrategy).getDecoratedObject();
+      }
+      Assert.assertTrue(cacheStrategy instanceof SharedBundleCacheStrategyDecorator);
+    } finally {
+      FileUtils.deleteQuietly(directory);
+    }
+  }
+
   @Test(expected = IOException.class)
   public void shouldInjectEachLocatorProvidedByLocatorFactory()
       throws Exception {
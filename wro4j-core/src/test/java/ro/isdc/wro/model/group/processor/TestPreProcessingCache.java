@@ -0,0 +1,81 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.util.Collections;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.model.group.processor.PreProcessingCache.CachedResource;
+
+
+/**
+ * @author agent
+ */
+public class TestPreProcessingCache {
+  private PreProcessingCache victim;
+
+  @Before
+  public void setUp() {
+    victim = new PreProcessingCache(10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotCreateCacheWithoutCapacity() {
+    new PreProcessingCache(0);
+  }
+
+  @Test
+  public void shouldReturnCachedResource() {
+    final CachedResource resource = createResource("abc");
+    victim.put("key", resource);
+    Assert.assertSame(resource, victim.get("key"));
+    Assert.assertNull(victim.get("missing"));
+    Assert.assertEquals(3, victim.getWeight());
+  }
+
+  @Test
+  public void shouldReplaceResourceWithSameKey() {
+    victim.put("key", createResource("abc"));
+    victim.put("key", createResource("abcde"));
+    Assert.assertEquals(1, victim.size());
+    Assert.assertEquals(5, victim.getWeight());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedResources() {
+    victim.put("1", createResource("1234"));
+    victim.put("2", createResource("1234"));
+    victim.get("1");
+    victim.put("3", createResource("1234"));
+    Assert.assertNotNull(victim.get("1"));
+    Assert.assertNull(victim.get("2"));
+    Assert.assertNotNull(victim.get("3"));
+    Assert.assertEquals(8, victim.getWeight());
+  }
+
+  @Test
+  public void shouldNotCacheResourceLargerThanCapacity() {
+    victim.put("key", createResource("12345678901"));
+    Assert.assertEquals(0, victim.size());
+    Assert.assertEquals(0, victim.getWeight());
+  }
+
+  @Test
+  public void shouldRemoveAllResourcesOnClear() {
+    victim.put("key", createResource("abc"));
+    victim.clear();
+    Assert.assertEquals(0, victim.size());
+    Assert.assertEquals(0, victim.getWeight());
+  }
+
+  private CachedResource createResource(final String content) {
+    final Map<String, String> dependencies = Collections.singletonMap("/uri", "hash");
+    return new CachedResource(content, dependencies);
+  }
+}
@@ -12,7 +12,15 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
@@ -31,9 +39,12 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
 import ro.isdc.wro.manager.factory.WroManagerFactory;
+import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.UriLocator;
@@ -42,7 +53,9 @@ import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.CopyrightKeeperProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.impl.css.CssMinProcessor;
 import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+import ro.isdc.wro.model.resource.processor.impl.js.SemicolonAppenderPreProcessor;
 import ro.isdc.wro.util.StopWatch;
 
 
@@ -302,6 +315,239 @@ public class TestPreProcessorExecutor {
     executor.processAndMerge(resources, true);
   }
   
+  @Test
+  public void shouldNotProcessAgainUnchangedResourceWhenCacheIsEnabled()
+      throws Exception {
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    contents.put("/b.js", "b");
+    final AtomicInteger counter = new AtomicInteger();
+    initCachingExecutor(contents, createCountingPreProcessor(counter, null));
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS),
+        Resource.create("/b.js", ResourceType.JS));
+
+    Assert.assertEquals("[a][b]", executor.processAndMerge(resources, true));
+    Assert.assertEquals(2, counter.get());
+    Assert.assertEquals("[a][b]", executor.processAndMerge(resources, true));
+    Assert.assertEquals(2, counter.get());
+
+    contents.put("/b.js", "changed");
+    Assert.assertEquals("[a][changed]", executor.processAndMerge(resources, true));
+    Assert.assertEquals(3, counter.get());
+  }
+
+  @Test
+  public void shouldProcessAgainResourceWhenLocatedDependencyIsChanged()
+      throws Exception {
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.css", "a");
+    contents.put("/imported.css", "i");
+    final AtomicInteger counter = new AtomicInteger();
+    initCachingExecutor(contents, createCountingPreProcessor(counter, "/imported.css"));
+    final List<Resource> resources = createResources(Resource.create("/a.css", ResourceType.CSS));
+
+    Assert.assertEquals("[a+i]", executor.processAndMerge(resources, true));
+    Assert.assertEquals("[a+i]", executor.processAndMerge(resources, true));
+    Assert.assertEquals(1, counter.get());
+
+    contents.put("/imported.css", "changed");
+    Assert.assertEquals("[a+changed]", executor.processAndMerge(resources, true));
+    Assert.assertEquals(2, counter.get());
+  }
+
+  @Test
+  public void shouldProcessAgainUnchangedResourceWhenCacheIsDisabled()
+      throws Exception {
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    final AtomicInteger counter = new AtomicInteger();
+    initCachingExecutor(contents, createCountingPreProcessor(counter, null));
+    Context.get().getConfig().setCachePreProcessedResources(false);
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS));
+
+    executor.processAndMerge(resources, true);
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(2, counter.get());
+  }
+
+  @Test
+  public void shouldInjectProcessorOnceForAllResources()
+      throws Exception {
+    Context.get().getConfig().setParallelPreprocessing(false);
+    final AtomicInteger injections = new AtomicInteger();
+    initExecutor(new ResourcePreProcessor() {
+      @Inject
+      private WroConfiguration config;
+
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        if (config != null) {
+          injections.incrementAndGet();
+          config = null;
+        }
+        IOUtils.copy(reader, writer);
+      }
+    });
+    final List<Resource> resources = createResources(Resource.create("classpath:1.js", ResourceType.JS),
+        Resource.create("classpath:2.js", ResourceType.JS), Resource.create("classpath:3.js", ResourceType.JS));
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(1, injections.get());
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(1, injections.get());
+  }
+
+  @Test
+  public void shouldReuseProcessorChainForResourcesOfSameType()
+      throws Exception {
+    Context.get().getConfig().setParallelPreprocessing(false);
+    initExecutor(new JSMinProcessor(), new CssMinProcessor());
+    final List<Resource> resources = createResources(Resource.create("classpath:1.js", ResourceType.JS),
+        Resource.create("classpath:2.js", ResourceType.JS), Resource.create("classpath:3.js", ResourceType.JS));
+    executor.processAndMerge(resources, true);
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(1, executor.getProcessorChains().size());
+    final ProcessorChain chain = executor.getProcessorChains().iterator().next();
+    Assert.assertEquals(ResourceType.JS, chain.getType());
+    Assert.assertEquals(1, chain.getStages().size());
+    Assert.assertEquals("JSMinProcessor", chain.getStages().get(0).getName());
+    Assert.assertEquals(6, chain.getStages().get(0).getInvocationCount());
+  }
+
+  @Test
+  public void shouldRecordProcessorStatistics()
+      throws Exception {
+    Context.get().getConfig().setParallelPreprocessing(false);
+    final ProcessorStatistics statistics = new ProcessorStatistics();
+    executor = new PreProcessorExecutor();
+    InjectorBuilder.create(createWroManager(new JSMinProcessor(), new CssMinProcessor())).setProcessorStatistics(
+        statistics).build().inject(executor);
+    executor.processAndMerge(createResources(Resource.create("classpath:1.js", ResourceType.JS),
+        Resource.create("classpath:2.js", ResourceType.JS)), true);
+    Assert.assertEquals(2, statistics.getInvocationCount());
+    Assert.assertEquals(0, statistics.getFailureCount());
+    Assert.assertEquals(2, statistics.getLatency(JSMinProcessor.class.getName(), ResourceType.JS).getCount());
+  }
+
+  @Test
+  public void shouldNotDeadlockWhenNestedPreProcessingIsPerformedInParallel()
+      throws Exception {
+    assertNestedPreProcessingIsPerformedUsing("fixed");
+  }
+
+  @Test
+  public void shouldPerformNestedPreProcessingUsingWorkStealingPool()
+      throws Exception {
+    assertNestedPreProcessingIsPerformedUsing("workStealing");
+  }
+
+  /**
+   * Pre processes (in parallel) more resources than the available processors, each of them pre processing other
+   * resources (like the css imports).
+   */
+  private void assertNestedPreProcessingIsPerformedUsing(final String executorAlias)
+      throws Exception {
+    final Map<String, String> contents = new HashMap<String, String>();
+    final List<Resource> nestedResources = new ArrayList<Resource>();
+    final List<Resource> resources = new ArrayList<Resource>();
+    for (int i = 0; i < Runtime.getRuntime().availableProcessors() * 2; i++) {
+      contents.put("/" + i + ".css", "r" + i);
+      resources.add(Resource.create("/" + i + ".css", ResourceType.CSS));
+      contents.put("/nested" + i + ".css", "n" + i);
+      nestedResources.add(Resource.create("/nested" + i + ".css", ResourceType.CSS));
+    }
+    initCachingExecutor(contents, new ResourcePreProcessor() {
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        writer.write(IOUtils.toString(reader));
+        if (!resource.getUri().startsWith("/nested")) {
+          writer.write(executor.processAndMerge(nestedResources, true).length() > 0 ? "+" : "-");
+        }
+      }
+    });
+    Context.get().getConfig().setCachePreProcessedResources(false);
+    Context.get().getConfig().setPreProcessingExecutor(executorAlias);
+    final ExecutorService caller = Executors.newSingleThreadExecutor();
+    try {
+      final Future<String> result = caller.submit(new ContextPropagatingCallable<String>(new Callable<String>() {
+        public String call()
+            throws Exception {
+          return executor.processAndMerge(resources, true);
+        }
+      }));
+      Assert.assertTrue(result.get(10, TimeUnit.SECONDS).startsWith("r0+r1+"));
+    } finally {
+      caller.shutdownNow();
+      executor.destroy();
+    }
+  }
+
+  @Test
+  public void shouldCreateNewExecutorAfterDestroy()
+      throws Exception {
+    Context.get().getConfig().setPreProcessingExecutor("bounded");
+    final List<Resource> resources = createResources(Resource.create("classpath:1.js", ResourceType.JS),
+        Resource.create("classpath:2.js", ResourceType.JS));
+    final String result = executor.processAndMerge(resources, true);
+    executor.destroy();
+    Assert.assertEquals(result, executor.processAndMerge(resources, true));
+    executor.destroy();
+  }
+
+  @Test
+  public void shouldProduceSameContentUsingStreamingPipeline()
+      throws Exception {
+    initExecutor(new SemicolonAppenderPreProcessor(), new JSMinProcessor(), new JSMinProcessor());
+    final List<Resource> resources = createResources(Resource.create("classpath:1.js", ResourceType.JS),
+        Resource.create("classpath:2.js", ResourceType.JS), Resource.create("classpath:3.js", ResourceType.JS));
+    final String expected = executor.processAndMerge(resources, true);
+    Assert.assertTrue(expected.length() > 0);
+    Context.get().getConfig().setStreamingPipeline(true);
+    Context.get().getConfig().setStreamingBufferSize(7);
+    Assert.assertEquals(expected, executor.processAndMerge(resources, true));
+  }
+
+  private void initCachingExecutor(final Map<String, String> contents, final ResourcePreProcessor preProcessor) {
+    Context.get().getConfig().setCachePreProcessedResources(true);
+    final UriLocator mapLocator = new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri)
+          throws IOException {
+        final String content = contents.get(uri);
+        if (content == null) {
+          throw new IOException("Missing resource: " + uri);
+        }
+        return new ByteArrayInputStream(content.getBytes());
+      }
+    };
+    final BaseWroManagerFactory managerFactory = (BaseWroManagerFactory) createWroManager(preProcessor);
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(mapLocator));
+    executor = new PreProcessorExecutor();
+    InjectorBuilder.create(managerFactory).build().inject(executor);
+  }
+
+  /**
+   * Creates a processor wrapping the content in brackets, appending the content of the dependency (when not null).
+   */
+  private ResourcePreProcessor createCountingPreProcessor(final AtomicInteger counter, final String dependency) {
+    return new ResourcePreProcessor() {
+      @Inject
+      private UriLocatorFactory uriLocatorFactory;
+
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        counter.incrementAndGet();
+        writer.write("[" + IOUtils.toString(reader));
+        if (dependency != null) {
+          writer.write("+" + IOUtils.toString(uriLocatorFactory.locate(dependency)));
+        }
+        writer.write("]");
+      }
+    };
+  }
+
   @After
   public void tearDown() {
     Context.unset();
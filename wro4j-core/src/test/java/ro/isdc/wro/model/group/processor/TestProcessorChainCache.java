@@ -0,0 +1,81 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
+
+
+/**
+ * @author agent
+ */
+public class TestProcessorChainCache {
+  private final AtomicInteger created = new AtomicInteger();
+  private final ProcessorsFactory processorsFactory = new SimpleProcessorsFactory().addPreProcessor(
+      new JSMinProcessor());
+  private final WroConfiguration config = new WroConfiguration();
+  private final ProcessorChainCache victim = new ProcessorChainCache() {
+    @Override
+    protected ProcessorChain create(final ResourceType type, final boolean minimize) {
+      created.incrementAndGet();
+      return new ProcessorChain(type, minimize, ProcessorsUtils.filterProcessorsToApply(minimize, type,
+          processorsFactory.getPreProcessors()));
+    }
+  };
+
+  @Test
+  public void shouldCreateChainOnceForEachTypeAndMinimizeFlag() {
+    final ProcessorChain chain = victim.get(ResourceType.JS, true, processorsFactory, config);
+    assertSame(chain, victim.get(ResourceType.JS, true, processorsFactory, config));
+    assertEquals(1, chain.getStages().size());
+    assertTrue(victim.get(ResourceType.CSS, true, processorsFactory, config).isEmpty());
+    assertNotSame(chain, victim.get(ResourceType.JS, false, processorsFactory, config));
+    assertEquals(3, created.get());
+    assertEquals(3, victim.getChains().size());
+  }
+
+  @Test
+  public void shouldDiscardChainsWhenProcessorsFactoryIsChanged() {
+    final ProcessorChain chain = victim.get(ResourceType.JS, true, processorsFactory, config);
+    assertNotSame(chain, victim.get(ResourceType.JS, true, new SimpleProcessorsFactory(), config));
+    assertEquals(2, created.get());
+    assertEquals(1, victim.getChains().size());
+  }
+
+  @Test
+  public void shouldDiscardChainsWhenConfigurationIsChanged() {
+    final ProcessorChain chain = victim.get(ResourceType.JS, true, processorsFactory, config);
+    assertNotSame(chain, victim.get(ResourceType.JS, true, processorsFactory, new WroConfiguration()));
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  public void shouldMeasureInvocationsOfEachStage()
+      throws Exception {
+    final ProcessorChain chain = victim.get(ResourceType.JS, true, processorsFactory, config);
+    for (final ResourcePreProcessor stage : chain.getStages()) {
+      stage.process(null, new StringReader("var  a = 1;"), new StringWriter());
+      stage.process(null, new StringReader("var  b = 1;"), new StringWriter());
+    }
+    assertEquals(2, chain.getStages().get(0).getInvocationCount());
+    assertEquals("JSMinProcessor", chain.getStages().get(0).getName());
+    assertTrue(chain.toString().contains("JSMinProcessor: 2 invocations"));
+  }
+}
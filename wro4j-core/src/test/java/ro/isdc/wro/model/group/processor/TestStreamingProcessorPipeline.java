@@ -0,0 +1,186 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.locator.support.LocatedUriRecorder;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+
+
+/**
+ * @author agent
+ */
+public class TestStreamingProcessorPipeline {
+  private final ExecutorService stageExecutor = StreamingProcessorPipeline.createStageExecutor();
+  private StreamingProcessorPipeline victim = new StreamingProcessorPipeline(stageExecutor, 16);
+
+  @After
+  public void tearDown() {
+    stageExecutor.shutdownNow();
+  }
+
+  /**
+   * Upper cases the content char by char, recording the threads used.
+   */
+  @Streaming
+  private static class UpperCaseProcessor
+      implements ResourcePreProcessor {
+    private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      threads.add(Thread.currentThread());
+      int c;
+      while ((c = reader.read()) != -1) {
+        writer.write(Character.toUpperCase((char) c));
+      }
+      writer.close();
+    }
+  }
+
+  /**
+   * Wraps the content in brackets.
+   */
+  private static class BracketsProcessor
+      implements ResourcePreProcessor {
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      writer.write("[" + IOUtils.toString(reader) + "]");
+    }
+  }
+
+  private String process(final ResourcePreProcessor... processors)
+      throws IOException {
+    final StringWriter writer = new StringWriter();
+    victim.process(null, Arrays.asList(processors), new StringReader(StringUtils.repeat("abc", 100)), writer);
+    return writer.toString();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotAcceptInvalidBufferSize() {
+    new StreamingProcessorPipeline(stageExecutor, 0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullStageExecutor() {
+    new StreamingProcessorPipeline(null, 16);
+  }
+
+  @Test
+  public void shouldCopyContentWhenNoProcessorIsApplied()
+      throws Exception {
+    assertEquals(StringUtils.repeat("abc", 100), process());
+  }
+
+  @Test
+  public void shouldDetectStreamingProcessors() {
+    assertTrue(StreamingProcessorPipeline.isStreaming(new UpperCaseProcessor()));
+    assertTrue(StreamingProcessorPipeline.isStreaming(new ProcessorDecorator(new JSMinProcessor())));
+    assertFalse(StreamingProcessorPipeline.isStreaming(new BracketsProcessor()));
+  }
+
+  @Test
+  public void shouldApplyStreamingAndBufferingProcessorsInOrder()
+      throws Exception {
+    final String expected = "[[" + StringUtils.repeat("ABC", 100) + "]]";
+    assertEquals(expected, process(new BracketsProcessor(), new UpperCaseProcessor(), new BracketsProcessor()));
+    assertEquals(expected, process(new UpperCaseProcessor(), new BracketsProcessor(), new UpperCaseProcessor(),
+        new BracketsProcessor()));
+    assertEquals("[" + expected + "]", process(new BracketsProcessor(), new UpperCaseProcessor(),
+        new UpperCaseProcessor(), new BracketsProcessor(), new BracketsProcessor(), new UpperCaseProcessor()));
+  }
+
+  @Test
+  public void shouldRunStreamingProcessorOnAnotherThread()
+      throws Exception {
+    final UpperCaseProcessor streaming = new UpperCaseProcessor();
+    final UpperCaseProcessor last = new UpperCaseProcessor();
+    process(streaming, last);
+    assertFalse(streaming.threads.get(0) == Thread.currentThread());
+    assertSame(Thread.currentThread(), last.threads.get(0));
+  }
+
+  @Test
+  public void shouldApplyStreamingProcessorSynchronouslyWhenNoThreadIsAvailable()
+      throws Exception {
+    final ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+    busyExecutor.shutdown();
+    victim = new StreamingProcessorPipeline(busyExecutor, 16);
+    final UpperCaseProcessor streaming = new UpperCaseProcessor();
+    assertEquals("[" + StringUtils.repeat("ABC", 100) + "]", process(streaming, new BracketsProcessor()));
+    assertSame(Thread.currentThread(), streaming.threads.get(0));
+  }
+
+  @Test
+  public void shouldRecordUrisLocatedByStreamingProcessors()
+      throws Exception {
+    final ResourcePreProcessor locating = new UpperCaseProcessor() {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        LocatedUriRecorder.record("/imported.css");
+        super.process(resource, reader, writer);
+      }
+    };
+    final LocatedUriRecorder recorder = LocatedUriRecorder.start();
+    try {
+      process(locating, new BracketsProcessor());
+      assertEquals(Arrays.asList("/imported.css"), recorder.getUris());
+    } finally {
+      recorder.stop();
+    }
+  }
+
+  @Test
+  public void shouldNotBlockWhenProcessorDoesNotReadTheWholeInput()
+      throws Exception {
+    final ResourcePreProcessor firstCharOnly = new UpperCaseProcessor() {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        writer.write(reader.read());
+      }
+    };
+    assertEquals("A", process(new UpperCaseProcessor(), firstCharOnly));
+    assertEquals("A", process(new UpperCaseProcessor(), firstCharOnly, new UpperCaseProcessor()));
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldPropagateFailureOfStreamingProcessor()
+      throws Exception {
+    final ResourcePreProcessor failing = new UpperCaseProcessor() {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        writer.write(reader.read());
+        throw new IOException("BOOM");
+      }
+    };
+    process(failing, new BracketsProcessor());
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestBoundedThreadPoolExecutor {
+  private BoundedThreadPoolExecutor victim;
+
+  @Before
+  public void setUp() {
+    victim = new BoundedThreadPoolExecutor(1, 2);
+  }
+
+  @After
+  public void tearDown() {
+    victim.shutdownNow();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotAcceptInvalidQueueCapacity() {
+    new BoundedThreadPoolExecutorFactory(0);
+  }
+
+  @Test
+  public void shouldRunTaskInCallerThreadWhenQueueIsFull()
+      throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    victim.execute(new Runnable() {
+      public void run() {
+        started.countDown();
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    started.await();
+    final Runnable noop = new Runnable() {
+      public void run() {
+      }
+    };
+    victim.execute(noop);
+    victim.execute(noop);
+    assertEquals(2, victim.getQueueDepth());
+    assertEquals(2, victim.getMaxQueueDepth());
+
+    final Thread caller = Thread.currentThread();
+    final boolean[] runInCaller = new boolean[1];
+    victim.execute(new Runnable() {
+      public void run() {
+        runInCaller[0] = Thread.currentThread() == caller;
+      }
+    });
+    assertTrue(runInCaller[0]);
+    assertEquals(1, victim.getCallerRunsCount());
+
+    release.countDown();
+    victim.shutdown();
+    assertTrue(victim.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(0, victim.getQueueDepth());
+    assertEquals(2, victim.getMaxQueueDepth());
+    assertEquals(3, victim.getCompletedTaskCount());
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.group.processor.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+
+
+/**
+ * @author agent
+ */
+public class TestConfigurableExecutorFactory {
+  private WroConfiguration config;
+
+  public static class CustomExecutorFactory
+      implements PreProcessingExecutorFactory {
+    public ExecutorService create(final int parallelism) {
+      return Executors.newSingleThreadExecutor();
+    }
+
+    public boolean isReentrant() {
+      return true;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    config = new WroConfiguration();
+  }
+
+  private PreProcessingExecutorFactory createFactory(final String name) {
+    config.setPreProcessingExecutor(name);
+    return new ConfigurableExecutorFactory(config).getFactory();
+  }
+
+  @Test
+  public void shouldUseFixedPoolByDefault() {
+    assertTrue(createFactory(null) instanceof FixedThreadPoolExecutorFactory);
+    assertTrue(createFactory(" ") instanceof FixedThreadPoolExecutorFactory);
+    assertFalse(createFactory(FixedThreadPoolExecutorFactory.ALIAS).isReentrant());
+  }
+
+  @Test
+  public void shouldSelectFactoryByAlias() {
+    assertTrue(createFactory("bounded") instanceof BoundedThreadPoolExecutorFactory);
+    assertTrue(createFactory("workStealing") instanceof WorkStealingExecutorFactory);
+    assertTrue(createFactory("virtual") instanceof VirtualThreadExecutorFactory);
+  }
+
+  @Test
+  public void shouldSelectFactoryByClassName() {
+    final PreProcessingExecutorFactory factory = createFactory(CustomExecutorFactory.class.getName());
+    assertTrue(factory instanceof CustomExecutorFactory);
+    assertTrue(new ConfigurableExecutorFactory(config).isReentrant());
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotUseInvalidExecutor() {
+    createFactory("invalid");
+  }
+
+  @Test
+  public void shouldCreateUsableExecutorForEachAlias()
+      throws Exception {
+    for (final String alias : new String[] {
+      "fixed", "bounded", "workStealing", "virtual"
+    }) {
+      final ExecutorService executor = createFactory(alias).create(2);
+      try {
+        assertEquals(alias, executor.submit(new Callable<String>() {
+          public String call() {
+            return alias;
+          }
+        }).get());
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  @Test
+  public void shouldBeReentrantOnlyWhenSupported() {
+    assertEquals(WorkStealingExecutorFactory.isSupported(), createFactory("workStealing").isReentrant());
+    assertEquals(VirtualThreadExecutorFactory.isSupported(), createFactory("virtual").isReentrant());
+  }
+}
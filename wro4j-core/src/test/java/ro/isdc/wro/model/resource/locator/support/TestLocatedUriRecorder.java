@@ -0,0 +1,64 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.locator.support;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestLocatedUriRecorder {
+  @After
+  public void tearDown() {
+    LocatedUriRecorder.attach(null);
+  }
+
+  @Test
+  public void shouldIgnoreUriRecordedWithoutRecording() {
+    LocatedUriRecorder.record("/a.css");
+    Assert.assertNull(LocatedUriRecorder.current());
+  }
+
+  @Test
+  public void shouldRecordUriInNestedRecordings() {
+    final LocatedUriRecorder parent = LocatedUriRecorder.start();
+    LocatedUriRecorder.record("/a.css");
+    final LocatedUriRecorder child = LocatedUriRecorder.start();
+    LocatedUriRecorder.record("/b.css");
+    child.stop();
+    Assert.assertSame(parent, LocatedUriRecorder.current());
+    LocatedUriRecorder.record("/a.css");
+    parent.stop();
+    Assert.assertNull(LocatedUriRecorder.current());
+    Assert.assertEquals(Arrays.asList("/b.css"), child.getUris());
+    Assert.assertEquals(Arrays.asList("/a.css", "/b.css"), parent.getUris());
+  }
+
+  @Test
+  public void shouldRecordUriLocatedInAnotherThread()
+      throws Exception {
+    final LocatedUriRecorder recorder = LocatedUriRecorder.start();
+    final Thread thread = new Thread() {
+      @Override
+      public void run() {
+        final LocatedUriRecorder previous = LocatedUriRecorder.attach(recorder);
+        try {
+          LocatedUriRecorder.record("/a.css");
+        } finally {
+          LocatedUriRecorder.attach(previous);
+        }
+      }
+    };
+    thread.start();
+    thread.join();
+    recorder.stop();
+    Assert.assertEquals(Arrays.asList("/a.css"), recorder.getUris());
+  }
+}
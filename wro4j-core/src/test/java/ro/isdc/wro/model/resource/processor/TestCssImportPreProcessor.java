@@ -3,20 +3,41 @@
  */
 package ro.isdc.wro.model.resource.processor;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.group.processor.Minimize;
+import ro.isdc.wro.model.group.processor.PreProcessorExecutor;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
 import ro.isdc.wro.model.resource.processor.impl.css.CssImportPreProcessor;
 import ro.isdc.wro.util.WroTestUtils;
 
@@ -74,4 +95,135 @@ public class TestCssImportPreProcessor {
     final Reader reader = new StringReader("@import('/path/to/invalid.css');");
     processor.process(resource, reader, new StringWriter());
   }
+
+  /**
+   * Locates the css from memory, counting how many times each uri is located.
+   */
+  private static class InMemoryUriLocator
+      implements UriLocator {
+    private final Map<String, String> contents = new HashMap<String, String>();
+    private final ConcurrentMap<String, AtomicInteger> locateCount = new ConcurrentHashMap<String, AtomicInteger>();
+
+    InMemoryUriLocator add(final String uri, final String content) {
+      contents.put(uri, content);
+      return this;
+    }
+
+    public InputStream locate(final String uri)
+        throws IOException {
+      locateCount.putIfAbsent(uri, new AtomicInteger());
+      locateCount.get(uri).incrementAndGet();
+      if (!contents.containsKey(uri)) {
+        throw new IOException("Missing " + uri);
+      }
+      return new ByteArrayInputStream(contents.get(uri).getBytes());
+    }
+
+    public boolean accept(final String uri) {
+      return true;
+    }
+
+    int getLocateCount(final String uri) {
+      final AtomicInteger count = locateCount.get(uri);
+      return count == null ? 0 : count.get();
+    }
+  }
+
+  /**
+   * Upper cases the content, when minimization is required.
+   */
+  @Minimize
+  private static class UpperCaseProcessor
+      implements ResourcePreProcessor {
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      writer.write(IOUtils.toString(reader).toUpperCase());
+    }
+  }
+
+  private PreProcessorExecutor createExecutor(final UriLocator locator, final ResourcePreProcessor... processors) {
+    final BaseWroManagerFactory factory = new BaseWroManagerFactory();
+    final SimpleProcessorsFactory processorsFactory = new SimpleProcessorsFactory();
+    processorsFactory.setResourcePreProcessors(Arrays.asList(processors));
+    factory.setProcessorsFactory(processorsFactory);
+    factory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(locator));
+    final Injector injector = InjectorBuilder.create(factory).build();
+    final PreProcessorExecutor executor = new PreProcessorExecutor();
+    injector.inject(executor);
+    return executor;
+  }
+
+  private InMemoryUriLocator createDiamondImports() {
+    return new InMemoryUriLocator().add("/root.css", "@import url('b.css');\n@import url('c.css');\nroot").add(
+        "/b.css", "@import url('d.css');\nb").add("/c.css", "@import url('d.css');\nc").add("/d.css", "d");
+  }
+
+  private String processDiamondImports(final InMemoryUriLocator locator)
+      throws IOException {
+    final PreProcessorExecutor executor = createExecutor(locator, new CssImportPreProcessor());
+    return executor.processAndMerge(Arrays.asList(Resource.create("/root.css", ResourceType.CSS)), true);
+  }
+
+  @Test
+  public void shouldLocateEachImportedResourceOnce()
+      throws Exception {
+    final InMemoryUriLocator locator = createDiamondImports();
+    Assert.assertEquals("d\nbd\nc\nroot", processDiamondImports(locator).replace("\n\n", "\n"));
+    Assert.assertEquals(1, locator.getLocateCount("/root.css"));
+    Assert.assertEquals(1, locator.getLocateCount("/b.css"));
+    Assert.assertEquals(1, locator.getLocateCount("/c.css"));
+    Assert.assertEquals(1, locator.getLocateCount("/d.css"));
+  }
+
+  @Test
+  public void shouldProcessImportsInParallel()
+      throws Exception {
+    Context.get().getConfig().setParallelPreprocessing(true);
+    final InMemoryUriLocator locator = createDiamondImports();
+    Assert.assertEquals("d\nbd\nc\nroot", processDiamondImports(locator).replace("\n\n", "\n"));
+    Assert.assertEquals(1, locator.getLocateCount("/b.css"));
+    Assert.assertEquals(1, locator.getLocateCount("/c.css"));
+  }
+
+  @Test
+  public void shouldProcessImportsOfResourcesPreProcessedInParallel()
+      throws Exception {
+    Context.get().getConfig().setParallelPreprocessing(true);
+    final InMemoryUriLocator locator = createDiamondImports().add("/other.css",
+        "@import url('b.css');\n@import url('c.css');\nother");
+    final PreProcessorExecutor executor = createExecutor(locator, new CssImportPreProcessor());
+    final List<Resource> resources = Arrays.asList(Resource.create("/root.css", ResourceType.CSS),
+        Resource.create("/other.css", ResourceType.CSS));
+    Assert.assertEquals("d\nbd\nc\nrootd\nbd\nc\nother", executor.processAndMerge(resources, true).replace("\n\n",
+        "\n"));
+    executor.destroy();
+    Assert.assertEquals("d\nbd\nc\nrootd\nbd\nc\nother", executor.processAndMerge(resources, true).replace("\n\n",
+        "\n"));
+  }
+
+  @Test
+  public void shouldIgnoreRecursiveImports()
+      throws Exception {
+    final InMemoryUriLocator locator = new InMemoryUriLocator().add("/a.css", "@import url('b.css');a").add("/b.css",
+        "@import url('a.css');@import url('c.css');b").add("/c.css", "@import url('b.css');c");
+    final PreProcessorExecutor executor = createExecutor(locator, new CssImportPreProcessor());
+    Assert.assertEquals("cba", executor.processAndMerge(Arrays.asList(Resource.create("/a.css", ResourceType.CSS)),
+        true));
+    Assert.assertEquals("acb", executor.processAndMerge(Arrays.asList(Resource.create("/b.css", ResourceType.CSS)),
+        true));
+  }
+
+  @Test
+  public void shouldPropagateMinimizeFlagToImports()
+      throws Exception {
+    final InMemoryUriLocator locator = new InMemoryUriLocator().add("/a.css", "@import url('b.css');a").add("/b.css",
+        "b");
+    final PreProcessorExecutor executor = createExecutor(locator, new CssImportPreProcessor(),
+        new UpperCaseProcessor());
+    final Resource resource = Resource.create("/a.css", ResourceType.CSS);
+    Assert.assertEquals("BA", executor.processAndMerge(Arrays.asList(resource), true));
+    Assert.assertEquals("ba", executor.processAndMerge(Arrays.asList(resource), false));
+    resource.setMinimize(false);
+    Assert.assertEquals("ba", executor.processAndMerge(Arrays.asList(resource), true));
+  }
 }
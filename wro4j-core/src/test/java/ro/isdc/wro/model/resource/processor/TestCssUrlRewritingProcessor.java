@@ -6,6 +6,8 @@ package ro.isdc.wro.model.resource.processor;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URL;
 import java.util.Random;
@@ -172,6 +174,20 @@ public class TestCssUrlRewritingProcessor {
     Assert.assertTrue(processor.isUriAllowed("classpath:folder/img.gif"));
   }
   
+  @Test
+  public void shouldFingerprintProxyResourcesWhenEnabled()
+      throws Exception {
+    Context.get().getConfig().setFingerprintProxyResources(true);
+    final StringWriter writer = new StringWriter();
+    processor.process(createMockResource("classpath:" + CSS_INPUT_NAME), new StringReader(
+        "a {background: url(" + CSS_INPUT_NAME + ");} b {background: url(missing.png);}"), writer);
+    final String result = writer.toString();
+    Assert.assertTrue(result, result.matches(
+        "a \\{background: url\\(\\[WRO-PREFIX\\]\\?id=classpath:" + CSS_INPUT_NAME + "&v=\\w+\\);\\} "
+            + "b \\{background: url\\(\\[WRO-PREFIX\\]\\?id=classpath:missing.png\\);\\}"));
+    Assert.assertTrue(processor.isUriAllowed("classpath:" + CSS_INPUT_NAME));
+  }
+
   @Test
   public void shouldSupportOnlyCssResources() {
     WroTestUtils.assertProcessorSupportResourceTypes(processor, ResourceType.CSS);
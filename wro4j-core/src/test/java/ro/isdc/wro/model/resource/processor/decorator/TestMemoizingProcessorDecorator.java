@@ -0,0 +1,271 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.decorator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.group.processor.NotAnOption;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.OptionsAware;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOutputCache;
+
+
+/**
+ * @author agent
+ */
+public class TestMemoizingProcessorDecorator {
+  private File directory;
+  private ProcessorOutputCache cache;
+
+  /**
+   * Appends a suffix to the content, counting the invocations.
+   */
+  private static class SuffixProcessor
+      implements ResourcePreProcessor {
+    /**
+     * Transient, since it does not change the output.
+     */
+    final transient AtomicInteger invocations = new AtomicInteger();
+    private final String suffix;
+
+    SuffixProcessor(final String suffix) {
+      this.suffix = suffix;
+    }
+
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      invocations.incrementAndGet();
+      writer.write(IOUtils.toString(reader) + suffix);
+    }
+  }
+
+  @Before
+  public void setUp()
+      throws IOException {
+    directory = File.createTempFile("wro4j", "memoizing");
+    directory.delete();
+    cache = new ProcessorOutputCache(1024, directory);
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  private String process(final ResourcePreProcessor processor, final String content)
+      throws IOException {
+    final StringWriter writer = new StringWriter();
+    processor.process(Resource.create("/a.js", ResourceType.JS), new StringReader(content), writer);
+    return writer.toString();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullCache() {
+    new MemoizingProcessorDecorator(new SuffixProcessor("!"), null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotProcessWhenNotInjected()
+      throws Exception {
+    process(new MemoizingProcessorDecorator(new SuffixProcessor("!")), "a");
+  }
+
+  @Test
+  public void shouldUseTheCacheOfTheManager()
+      throws Exception {
+    Context.set(Context.standaloneContext());
+    final Injector injector = InjectorBuilder.create(new BaseWroManagerFactory()).build();
+    final MemoizingProcessorDecorator first = new MemoizingProcessorDecorator(new SuffixProcessor("!"));
+    final SuffixProcessor processor = new SuffixProcessor("!");
+    final MemoizingProcessorDecorator second = new MemoizingProcessorDecorator(processor);
+    injector.inject(first);
+    injector.inject(second);
+    Assert.assertNotNull(first.getCache());
+    Assert.assertSame(first.getCache(), second.getCache());
+    process(first, "a");
+    Assert.assertEquals("a!", process(second, "a"));
+    Assert.assertEquals(0, processor.invocations.get());
+    // another manager has its own cache
+    final MemoizingProcessorDecorator other = new MemoizingProcessorDecorator(new SuffixProcessor("!"));
+    InjectorBuilder.create(new BaseWroManagerFactory()).build().inject(other);
+    Assert.assertNotSame(first.getCache(), other.getCache());
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotMemoizeProcessorWithFieldWhichIsNotAnOption() {
+    final ResourcePreProcessor processor = new SuffixProcessor("!") {
+      @SuppressWarnings("unused")
+      private final Map<String, String> options = new HashMap<String, String>();
+    };
+    new MemoizingProcessorDecorator(processor, cache);
+  }
+
+  @Test
+  public void shouldIgnoreFieldMarkedAsNotAnOption()
+      throws Exception {
+    final SuffixProcessor processor = new SuffixProcessor("!") {
+      @NotAnOption
+      @SuppressWarnings("unused")
+      private final Map<String, String> engines = new HashMap<String, String>();
+    };
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(processor, cache);
+    process(victim, "a");
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals(1, processor.invocations.get());
+  }
+
+  @Test
+  public void shouldIdentifyOptionsAwareProcessorByItsKey()
+      throws Exception {
+    final Map<String, String> options = new HashMap<String, String>();
+    final OptionsAwareSuffixProcessor processor = new OptionsAwareSuffixProcessor(options);
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(processor, cache);
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals(1, processor.invocations.get());
+    options.put("strict", "true");
+    process(victim, "a");
+    Assert.assertEquals(2, processor.invocations.get());
+  }
+
+  private static class OptionsAwareSuffixProcessor
+      extends SuffixProcessor
+      implements OptionsAware {
+    private final Map<String, String> compilerOptions;
+
+    OptionsAwareSuffixProcessor(final Map<String, String> compilerOptions) {
+      super("!");
+      this.compilerOptions = compilerOptions;
+    }
+
+    public String getOptionsKey() {
+      return compilerOptions.toString();
+    }
+  }
+
+  @Test
+  public void shouldMemoizeProcessorIdentifiedByOverriddenKey()
+      throws Exception {
+    final Map<String, String> options = new HashMap<String, String>();
+    final ResourcePreProcessor processor = new SuffixProcessor("!") {
+      @SuppressWarnings("unused")
+      private final Map<String, String> compilerOptions = options;
+    };
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(processor, cache) {
+      @Override
+      protected String getProcessorKey() {
+        return "suffix" + options;
+      }
+    };
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals(1, cache.size());
+    options.put("strict", "true");
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void shouldProcessEachInputOnce()
+      throws Exception {
+    final SuffixProcessor processor = new SuffixProcessor("!");
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(processor, cache);
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals("a!", process(victim, "a"));
+    Assert.assertEquals(1, processor.invocations.get());
+    Assert.assertEquals("b!", process(victim, "b"));
+    Assert.assertEquals(2, processor.invocations.get());
+  }
+
+  @Test
+  public void shouldReuseOutputOfProcessorWithSameOptions()
+      throws Exception {
+    final SuffixProcessor first = new SuffixProcessor("!");
+    final SuffixProcessor second = new SuffixProcessor("!");
+    final SuffixProcessor other = new SuffixProcessor("?");
+    process(new MemoizingProcessorDecorator(first, cache), "a");
+    Assert.assertEquals("a!", process(new MemoizingProcessorDecorator(second, cache), "a"));
+    Assert.assertEquals("a?", process(new MemoizingProcessorDecorator(other, cache), "a"));
+    Assert.assertEquals(1, first.invocations.get());
+    Assert.assertEquals(0, second.invocations.get());
+    Assert.assertEquals(1, other.invocations.get());
+  }
+
+  @Test
+  public void shouldReuseOutputStoredOnDisk()
+      throws Exception {
+    process(new MemoizingProcessorDecorator(new SuffixProcessor("!"), cache), "a");
+    final SuffixProcessor processor = new SuffixProcessor("!");
+    final ProcessorOutputCache reloaded = new ProcessorOutputCache(1024, directory);
+    Assert.assertEquals("a!", process(new MemoizingProcessorDecorator(processor, reloaded), "a"));
+    Assert.assertEquals(0, processor.invocations.get());
+  }
+
+  @Test
+  public void shouldNotStoreOutputOfFailingProcessor()
+      throws Exception {
+    final SuffixProcessor processor = new SuffixProcessor("!") {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        super.process(resource, reader, writer);
+        throw new IOException("BOOM");
+      }
+    };
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(processor, cache);
+    for (int i = 0; i < 2; i++) {
+      try {
+        process(victim, "a");
+        Assert.fail("Should have failed");
+      } catch (final IOException e) {
+      }
+    }
+    Assert.assertEquals(2, processor.invocations.get());
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void shouldDecoratePostProcessor()
+      throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final ResourcePostProcessor postProcessor = new ResourcePostProcessor() {
+      public void process(final Reader reader, final Writer writer)
+          throws IOException {
+        invocations.incrementAndGet();
+        writer.write(IOUtils.toString(reader).toUpperCase());
+      }
+    };
+    final MemoizingProcessorDecorator victim = new MemoizingProcessorDecorator(postProcessor, cache);
+    for (int i = 0; i < 2; i++) {
+      final StringWriter writer = new StringWriter();
+      victim.process(new StringReader("a"), writer);
+      Assert.assertEquals("A", writer.toString());
+    }
+    Assert.assertEquals(1, invocations.get());
+  }
+}
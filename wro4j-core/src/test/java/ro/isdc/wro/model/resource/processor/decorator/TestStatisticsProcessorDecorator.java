@@ -0,0 +1,104 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.decorator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import ro.isdc.wro.config.jmx.ProcessorStatistics;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+
+
+/**
+ * @author agent
+ */
+public class TestStatisticsProcessorDecorator {
+  private final ProcessorStatistics statistics = new ProcessorStatistics();
+
+  /**
+   * Doubles the content.
+   */
+  private static class DoublingProcessor
+      implements ResourcePreProcessor {
+    public void process(final Resource resource, final Reader reader, final Writer writer)
+        throws IOException {
+      final String content = IOUtils.toString(reader);
+      writer.write(content);
+      writer.write(content.toCharArray());
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotAcceptNullStatistics() {
+    new StatisticsProcessorDecorator(new DoublingProcessor(), ResourceType.JS, null);
+  }
+
+  @Test
+  public void shouldRecordProcessedBytes()
+      throws Exception {
+    final StatisticsProcessorDecorator victim = new StatisticsProcessorDecorator(
+        new ExceptionHandlingProcessorDecorator(new DoublingProcessor()), ResourceType.JS, statistics);
+    final StringWriter writer = new StringWriter();
+    victim.process(Resource.create("/a.js", ResourceType.JS), new StringReader("abc"), writer);
+    Assert.assertEquals("abcabc", writer.toString());
+    Assert.assertEquals(1, statistics.getInvocationCount());
+    Assert.assertEquals(0, statistics.getFailureCount());
+    Assert.assertNotNull(statistics.getLatency(DoublingProcessor.class.getName(), ResourceType.JS));
+    Assert.assertTrue(statistics.getProcessorStatistics()[0].contains("inputBytes=3, outputBytes=6"));
+  }
+
+  @Test
+  public void shouldCountBytesOfEncodedContent()
+      throws Exception {
+    final StatisticsProcessorDecorator victim = new StatisticsProcessorDecorator(new DoublingProcessor(),
+        ResourceType.CSS, statistics);
+    // 1 + 2 + 3 + 4 bytes
+    final String content = "a\u00e9\u20ac\ud83d\ude00";
+    victim.process(Resource.create("/a.css", ResourceType.CSS), new StringReader(content), new StringWriter());
+    Assert.assertEquals(10, content.getBytes("UTF-8").length);
+    Assert.assertTrue(statistics.getProcessorStatistics()[0].contains("inputBytes=10, outputBytes=20"));
+  }
+
+  @Test
+  public void shouldFlagStreamingStage()
+      throws Exception {
+    final StatisticsProcessorDecorator victim = new StatisticsProcessorDecorator(new DoublingProcessor(),
+        ResourceType.JS, statistics, true);
+    victim.process(Resource.create("/a.js", ResourceType.JS), new StringReader("abc"), new StringWriter());
+    Assert.assertNull(statistics.getLatency(DoublingProcessor.class.getName(), ResourceType.JS));
+    Assert.assertNotNull(statistics.getLatency(DoublingProcessor.class.getName(), ResourceType.JS, true));
+  }
+
+  @Test
+  public void shouldRecordFailure()
+      throws Exception {
+    final ResourcePostProcessor failing = new ResourcePostProcessor() {
+      public void process(final Reader reader, final Writer writer)
+          throws IOException {
+        throw new IOException("BOOM");
+      }
+    };
+    final StatisticsProcessorDecorator victim = new StatisticsProcessorDecorator(failing, ResourceType.CSS,
+        statistics);
+    try {
+      victim.process(new StringReader("a"), new StringWriter());
+      Assert.fail("Should have failed");
+    } catch (final IOException e) {
+    }
+    Assert.assertEquals(1, statistics.getInvocationCount());
+    Assert.assertEquals(1, statistics.getFailureCount());
+    Assert.assertNotNull(statistics.getLatency(failing.getClass().getName(), ResourceType.CSS));
+  }
+}
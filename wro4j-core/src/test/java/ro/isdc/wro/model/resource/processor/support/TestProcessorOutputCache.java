@@ -0,0 +1,82 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.model.resource.processor.support;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestProcessorOutputCache {
+  private File directory;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    directory = File.createTempFile("wro4j", "output");
+    directory.delete();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(directory);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotAcceptInvalidCapacity() {
+    new ProcessorOutputCache(0);
+  }
+
+  @Test
+  public void shouldReturnNullForMissingKey() {
+    Assert.assertNull(new ProcessorOutputCache(10).get("missing"));
+    Assert.assertNull(new ProcessorOutputCache(10, directory).get("missing"));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedOutputWhenCapacityIsExceeded() {
+    final ProcessorOutputCache victim = new ProcessorOutputCache(10);
+    victim.put("1", "aaaa");
+    victim.put("2", "bbbb");
+    victim.get("1");
+    victim.put("3", "cccc");
+    Assert.assertEquals(2, victim.size());
+    Assert.assertEquals(8, victim.getWeight());
+    Assert.assertEquals("aaaa", victim.get("1"));
+    Assert.assertNull(victim.get("2"));
+    Assert.assertEquals("cccc", victim.get("3"));
+  }
+
+  @Test
+  public void shouldMeasureWeightInBytes() {
+    final ProcessorOutputCache victim = new ProcessorOutputCache(10);
+    victim.put("1", "\u0103\u0103");
+    Assert.assertEquals(4, victim.getWeight());
+    Assert.assertEquals("\u0103\u0103", victim.get("1"));
+  }
+
+  @Test
+  public void shouldReadEvictedOutputFromDisk() {
+    final ProcessorOutputCache victim = new ProcessorOutputCache(10, directory);
+    final String large = StringUtils.repeat("x", 100);
+    victim.put("1", large);
+    victim.put("2", "bbbb");
+    Assert.assertEquals(1, victim.size());
+    Assert.assertEquals(large, victim.get("1"));
+    victim.clear();
+    Assert.assertEquals("bbbb", victim.get("2"));
+    Assert.assertEquals(1, victim.size());
+    Assert.assertEquals(2, directory.list().length);
+  }
+}
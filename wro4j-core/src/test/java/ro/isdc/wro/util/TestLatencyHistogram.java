@@ -0,0 +1,95 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestLatencyHistogram {
+  private final LatencyHistogram victim = new LatencyHistogram();
+
+  private void recordMillis(final long millis) {
+    victim.record(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Test
+  public void shouldBeEmptyByDefault() {
+    Assert.assertEquals(0, victim.getCount());
+    Assert.assertEquals(0.0, victim.getMean());
+    Assert.assertEquals(0.0, victim.getPercentile(99));
+    Assert.assertEquals(0.0, victim.getMax());
+  }
+
+  @Test
+  public void shouldComputeExactStatistics() {
+    recordMillis(1);
+    recordMillis(3);
+    Assert.assertEquals(2, victim.getCount());
+    Assert.assertEquals(4.0, victim.getTotal());
+    Assert.assertEquals(2.0, victim.getMean());
+    Assert.assertEquals(3.0, victim.getMax());
+  }
+
+  @Test
+  public void shouldComputePercentilesWithBoundedError() {
+    for (int i = 1; i <= 1000; i++) {
+      recordMillis(i);
+    }
+    Assert.assertEquals(500, victim.getPercentile(50), 500 * 0.07);
+    Assert.assertEquals(950, victim.getPercentile(95), 950 * 0.07);
+    Assert.assertEquals(990, victim.getPercentile(99), 990 * 0.07);
+    Assert.assertEquals(1000.0, victim.getPercentile(100));
+    Assert.assertEquals(1.0, victim.getPercentile(0), 0.07);
+  }
+
+  @Test
+  public void shouldKeepSmallValuesExact() {
+    victim.record(TimeUnit.MICROSECONDS.toNanos(5));
+    victim.record(TimeUnit.MICROSECONDS.toNanos(20));
+    Assert.assertEquals(0.005, victim.getPercentile(50));
+    Assert.assertEquals(0.020, victim.getPercentile(100));
+  }
+
+  @Test
+  public void shouldCountHugeValuesInLastBucket() {
+    victim.record(Long.MAX_VALUE);
+    victim.record(-1);
+    Assert.assertEquals(2, victim.getCount());
+    Assert.assertEquals(victim.getMax(), victim.getPercentile(100));
+    Assert.assertEquals(0.0, victim.getPercentile(50));
+  }
+
+  @Test
+  public void shouldReset() {
+    recordMillis(10);
+    victim.reset();
+    Assert.assertEquals(0, victim.getCount());
+    Assert.assertEquals(0.0, victim.getPercentile(50));
+    Assert.assertEquals(0.0, victim.getMax());
+  }
+
+  @Test
+  public void shouldNotLoseConcurrentUpdates()
+      throws Exception {
+    WroTestUtils.runConcurrently(new Callable<Void>() {
+      public Void call()
+          throws Exception {
+        for (int i = 0; i < 1000; i++) {
+          recordMillis(i % 10);
+        }
+        return null;
+      }
+    }, 10);
+    Assert.assertEquals(10000, victim.getCount());
+    Assert.assertEquals(9.0, victim.getMax());
+  }
+}
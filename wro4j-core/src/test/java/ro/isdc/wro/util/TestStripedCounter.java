@@ -0,0 +1,51 @@
+package ro.isdc.wro.util;
+
+import java.util.concurrent.Callable;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestStripedCounter {
+  private final StripedCounter victim = new StripedCounter();
+
+  @Test
+  public void shouldBeZeroByDefault() {
+    Assert.assertEquals(0, victim.sum());
+  }
+
+  @Test
+  public void shouldSumAddedValues() {
+    victim.increment();
+    victim.add(10);
+    victim.add(-3);
+    Assert.assertEquals(8, victim.sum());
+    Assert.assertEquals("8", victim.toString());
+  }
+
+  @Test
+  public void shouldReset() {
+    victim.add(10);
+    victim.reset();
+    Assert.assertEquals(0, victim.sum());
+  }
+
+  @Test
+  public void shouldNotLoseConcurrentUpdates()
+      throws Exception {
+    WroTestUtils.runConcurrently(new Callable<Void>() {
+      public Void call()
+          throws Exception {
+        for (int i = 0; i < 1000; i++) {
+          victim.increment();
+        }
+        return null;
+      }
+    }, 10);
+    Assert.assertEquals(10000, victim.sum());
+  }
+}
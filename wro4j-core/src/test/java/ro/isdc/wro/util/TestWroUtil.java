@@ -97,6 +97,28 @@ public class TestWroUtil {
     Assert.assertTrue(WroUtil.isGzipSupported(request));
   }
   
+  @Test
+  public void shouldDetectAcceptedContentCoding() {
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(null, "deflate"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("", ""), "deflate"));
+    Assert.assertTrue(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "gzip, Deflate"), "deflate"));
+    Assert.assertTrue(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "deflate;q=0.5"), "deflate"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "deflate;q=0"), "deflate"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "gzip;q=0.0"), "gzip"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "deflate"), "gzip"));
+  }
+
+  @Test
+  public void shouldDetectAcceptedContentCodingWithParameters() {
+    Assert.assertTrue(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "gzip ; level=1 ; q=1"),
+        "gzip"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "br, gzip; q=0.000 "),
+        "gzip"));
+    Assert.assertTrue(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "gzip;q=0.01"), "gzip"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", "xgzip, gzipx"), "gzip"));
+    Assert.assertFalse(WroUtil.isContentCodingAccepted(mockRequestHeader("Accept-Encoding", ",;,"), "gzip"));
+  }
+
   /**
    * @param request
    * @param headerName
@@ -0,0 +1,108 @@
+/**
+ * Copyright wro4j@2026
+ */
+package ro.isdc.wro.util.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Test;
+
+
+/**
+ * @author agent
+ */
+public class TestCharPipe {
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotAcceptInvalidCapacity() {
+    new CharPipe(0);
+  }
+
+  private Future<Void> writeAsync(final Writer writer, final String content) {
+    return executor.submit(new Callable<Void>() {
+      public Void call()
+          throws Exception {
+        try {
+          for (int i = 0; i < content.length(); i += 7) {
+            writer.write(content, i, Math.min(7, content.length() - i));
+          }
+        } finally {
+          writer.close();
+        }
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldTransferContentLargerThanCapacity()
+      throws Exception {
+    final CharPipe victim = new CharPipe(16);
+    final String content = StringUtils.repeat("0123456789", 1000);
+    final Future<Void> writing = writeAsync(victim.getWriter(), content);
+    Assert.assertEquals(content, IOUtils.toString(victim.getReader()));
+    writing.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void shouldNotBlockWriterWhenReaderIsClosed()
+      throws Exception {
+    final CharPipe victim = new CharPipe(4);
+    final Future<Void> writing = writeAsync(victim.getWriter(), StringUtils.repeat("x", 1000));
+    Assert.assertEquals('x', victim.getReader().read());
+    victim.getReader().close();
+    writing.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test(expected = IOException.class)
+  public void cannotReadFromClosedReader()
+      throws Exception {
+    final CharPipe victim = new CharPipe(4);
+    victim.getReader().close();
+    victim.getReader().read();
+  }
+
+  @Test(expected = IOException.class)
+  public void cannotWriteToClosedWriter()
+      throws Exception {
+    final CharPipe victim = new CharPipe(4);
+    victim.getWriter().close();
+    victim.getWriter().write("a");
+  }
+
+  @Test
+  public void shouldStopWaitingWhenInterrupted()
+      throws Exception {
+    final CharPipe victim = new CharPipe(4);
+    final Thread reader = Thread.currentThread();
+    executor.submit(new Runnable() {
+      public void run() {
+        reader.interrupt();
+      }
+    });
+    try {
+      victim.getReader().read();
+      Assert.fail("Should have been interrupted");
+    } catch (final InterruptedIOException e) {
+      Assert.assertTrue(Thread.interrupted());
+    }
+  }
+}
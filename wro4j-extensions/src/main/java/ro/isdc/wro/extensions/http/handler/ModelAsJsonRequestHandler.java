@@ -5,6 +5,7 @@ import java.io.IOException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import ro.isdc.wro.http.handler.EndpointRequestHandler;
 import ro.isdc.wro.http.handler.RequestHandler;
 import ro.isdc.wro.http.handler.RequestHandlerSupport;
 import ro.isdc.wro.model.WroModel;
@@ -29,7 +30,8 @@ import com.google.gson.GsonBuilder;
  * @since 1.4.7
  */
 public class ModelAsJsonRequestHandler
-    extends RequestHandlerSupport {
+    extends RequestHandlerSupport
+    implements EndpointRequestHandler {
   @VisibleForTesting
   static final String CONTENT_TYPE = "application/json";
   /**
@@ -69,6 +71,13 @@ public class ModelAsJsonRequestHandler
   public boolean accept(final HttpServletRequest request) {
     return WroUtil.matchesUrl(request, ENDPOINT_URI);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public String getEndpointUri() {
+    return ENDPOINT_URI;
+  }
   
   private String getWroBasePath(HttpServletRequest request) {
      return request.getRequestURI().replaceAll("(?i)" + ENDPOINT_URI, "");
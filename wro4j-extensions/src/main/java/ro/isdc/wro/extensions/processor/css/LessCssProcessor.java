@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
 import ro.isdc.wro.extensions.processor.support.less.LessCss;
+import ro.isdc.wro.model.group.processor.NotAnOption;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
@@ -108,6 +109,7 @@ public class LessCssProcessor
 
   public static final String ALIAS = "lessCss";
 
+  @NotAnOption
   private ObjectPoolHelper<LessCss> enginePool;
 
 
@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
 import ro.isdc.wro.extensions.processor.support.sass.SassCss;
+import ro.isdc.wro.model.group.processor.NotAnOption;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
@@ -37,6 +38,7 @@ public class SassCssProcessor
   public static final String ALIAS_RUBY = "rubySassCss";
   
   
+  @NotAnOption
   private ObjectPoolHelper<SassCss> enginePool;
   
   /**
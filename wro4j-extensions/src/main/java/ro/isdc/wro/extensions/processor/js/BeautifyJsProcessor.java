@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
 import ro.isdc.wro.extensions.processor.support.uglify.UglifyJs;
+import ro.isdc.wro.model.group.processor.NotAnOption;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
@@ -39,6 +40,7 @@ public class BeautifyJsProcessor
   /**
    * Engine.
    */
+  @NotAnOption
   private final ObjectPoolHelper<UglifyJs> enginePool;
 
 
@@ -19,6 +19,7 @@ import ro.isdc.wro.model.group.processor.Minimize;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
+import ro.isdc.wro.model.resource.processor.OptionsAware;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 
@@ -42,7 +43,7 @@ import com.google.javascript.jscomp.Result;
 @Minimize
 @SupportedResourceType(ResourceType.JS)
 public class GoogleClosureCompressorProcessor
-  implements ResourcePostProcessor, ResourcePreProcessor {
+  implements ResourcePostProcessor, ResourcePreProcessor, OptionsAware {
   public static final String ALIAS_SIMPLE = "googleClosureSimple";
   public static final String ALIAS_ADVANCED = "googleClosureAdvanced";
   /**
@@ -50,6 +51,10 @@ public class GoogleClosureCompressorProcessor
    */
   private CompilationLevel compilationLevel;
   private CompilerOptions compilerOptions;
+  /**
+   * True when the {@link CompilerOptions} were provided instead of being created by {@link #newCompilerOptions()}.
+   */
+  private boolean customCompilerOptions;
   @Inject
   private WroConfiguration config;
   private String encoding;
@@ -144,6 +149,7 @@ public class GoogleClosureCompressorProcessor
    */
   public GoogleClosureCompressorProcessor setCompilerOptions(final CompilerOptions compilerOptions) {
     this.compilerOptions = compilerOptions;
+    this.customCompilerOptions = compilerOptions != null;
     return this;
   }
 
@@ -173,6 +179,20 @@ public class GoogleClosureCompressorProcessor
     return options;
   }
 
+  /**
+   * Identifies the compilation level, the encoding and the provided {@link CompilerOptions} (which, having no value
+   * based identity, are identified by their instance). The options created by {@link #newCompilerOptions()} and the
+   * externs returned by {@link #getExterns(Resource)} are identified by the class of the processor, thus a subclass
+   * providing externs depending on the resource should not be memoized.
+   */
+  public String getOptionsKey() {
+    final StringBuilder sb = new StringBuilder().append(compilationLevel).append(',').append(getEncoding());
+    if (customCompilerOptions) {
+      sb.append(",options@").append(Integer.toHexString(System.identityHashCode(compilerOptions)));
+    }
+    return sb.toString();
+  }
+
   /**
    * {@inheritDoc}
    */
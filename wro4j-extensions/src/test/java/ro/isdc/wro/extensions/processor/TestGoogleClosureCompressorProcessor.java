@@ -125,6 +125,20 @@ public class TestGoogleClosureCompressorProcessor {
   }
   
 
+  @Test
+  public void shouldIdentifyOptionsWithStableKey()
+      throws IOException {
+    final String key = processor.getOptionsKey();
+    processor.process(new StringReader("alert(1);"), new StringWriter());
+    Assert.assertEquals(key, processor.getOptionsKey());
+    processor.setCompilationLevel(CompilationLevel.ADVANCED_OPTIMIZATIONS);
+    Assert.assertFalse(key.equals(processor.getOptionsKey()));
+    final CompilerOptions options = new CompilerOptions();
+    options.setOutputCharset(null);
+    processor.setCompilerOptions(options);
+    Assert.assertFalse(key.equals(processor.getOptionsKey()));
+  }
+
   @Test
   public void shouldSupportCorrectResourceTypes() {
     WroTestUtils.assertProcessorSupportResourceTypes(new GoogleClosureCompressorProcessor(), ResourceType.JS);
@@ -5,11 +5,15 @@ package ro.isdc.wro.extensions.processor;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Assert;
 
@@ -20,9 +24,12 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.css.LessCssProcessor;
 import ro.isdc.wro.extensions.processor.support.less.LessCss;
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.decorator.MemoizingProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOutputCache;
 import ro.isdc.wro.util.Function;
 import ro.isdc.wro.util.WroTestUtils;
 
@@ -121,6 +128,30 @@ public class TestLessCssProcessor {
   }
   
 
+  @Test
+  public void shouldReuseMemoizedOutput()
+      throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final ResourcePreProcessor processor = new LessCssProcessor() {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        invocations.incrementAndGet();
+        super.process(resource, reader, writer);
+      }
+    };
+    final ProcessorOutputCache cache = new ProcessorOutputCache(ProcessorOutputCache.DEFAULT_CAPACITY);
+    final ResourcePreProcessor victim = new MemoizingProcessorDecorator(processor, cache);
+    final Resource resource = Resource.create("/test.css", ResourceType.CSS);
+    final StringWriter first = new StringWriter();
+    victim.process(resource, new StringReader("#id {.class {color: red;}}"), first);
+    final StringWriter second = new StringWriter();
+    victim.process(resource, new StringReader("#id {.class {color: red;}}"), second);
+    Assert.assertEquals(first.toString(), second.toString());
+    Assert.assertEquals(1, invocations.get());
+    Assert.assertEquals(1, cache.size());
+  }
+
   @Test
   public void shouldSupportCorrectResourceTypes() {
     WroTestUtils.assertProcessorSupportResourceTypes(new LessCssProcessor(), ResourceType.CSS);
@@ -8,10 +8,15 @@ import static ro.isdc.wro.extensions.processor.support.uglify.UglifyJs.Type.UGLI
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -19,8 +24,12 @@ import org.junit.Test;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.js.UglifyJsProcessor;
 import ro.isdc.wro.extensions.processor.support.uglify.UglifyJs;
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.decorator.MemoizingProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.support.ProcessorOutputCache;
 import ro.isdc.wro.util.WroTestUtils;
 
 
@@ -118,6 +127,30 @@ public class TestUglifyJsProcessor {
     }.process("filename","alert(1);");
   }
 
+  @Test
+  public void shouldReuseMemoizedOutput()
+      throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final ResourcePreProcessor processor = new UglifyJsProcessor() {
+      @Override
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        invocations.incrementAndGet();
+        super.process(resource, reader, writer);
+      }
+    };
+    final ProcessorOutputCache cache = new ProcessorOutputCache(ProcessorOutputCache.DEFAULT_CAPACITY);
+    final ResourcePreProcessor victim = new MemoizingProcessorDecorator(processor, cache);
+    final Resource resource = Resource.create("/test.js", ResourceType.JS);
+    final StringWriter first = new StringWriter();
+    victim.process(resource, new StringReader("function sum(first, second) { return first + second; }"), first);
+    final StringWriter second = new StringWriter();
+    victim.process(resource, new StringReader("function sum(first, second) { return first + second; }"), second);
+    Assert.assertEquals(first.toString(), second.toString());
+    Assert.assertEquals(1, invocations.get());
+    Assert.assertEquals(1, cache.size());
+  }
+
   @Test
   public void shouldSupportCorrectResourceTypes() {
     WroTestUtils.assertProcessorSupportResourceTypes(new UglifyJsProcessor(), ResourceType.JS);